@@ -59,6 +59,18 @@ public interface ClientConnectionManager extends ConnectionListenable {
      */
     Connection getOrTriggerConnect(Address address, boolean acquiresResource) throws IOException;
 
+    /**
+     * Same as {@link #getOrTriggerConnect(Address, boolean)}, but picks one of the connections to the member
+     * when more than one connection per member is configured. The same partition id always picks the same
+     * connection; a negative partition id picks the connections round-robin.
+     *
+     * @param address     to be connected
+     * @param partitionId the partition of the invocation or a negative value if it is not bound to a partition
+     * @return associated connection if available, returns null and triggers new connection creation otherwise
+     * @throws IOException if connection is not able to triggered
+     */
+    Connection getOrTriggerConnect(Address address, int partitionId, boolean acquiresResource) throws IOException;
+
     Collection<ClientConnection> getActiveConnections();
 
     Address getOwnerConnectionAddress();
@@ -85,16 +85,20 @@ import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.hazelcast.client.config.SocketOptions.DEFAULT_BUFFER_SIZE_BYTE;
 import static com.hazelcast.client.config.SocketOptions.KILO_BYTE;
 import static com.hazelcast.client.spi.properties.ClientProperty.ALLOW_INVOCATIONS_WHEN_DISCONNECTED;
 import static com.hazelcast.client.spi.properties.ClientProperty.IO_BALANCER_INTERVAL_SECONDS;
+import static com.hazelcast.client.spi.properties.ClientProperty.IO_CONNECTIONS_PER_MEMBER;
 import static com.hazelcast.client.spi.properties.ClientProperty.IO_INPUT_THREAD_COUNT;
 import static com.hazelcast.client.spi.properties.ClientProperty.IO_OUTPUT_THREAD_COUNT;
+import static com.hazelcast.client.spi.properties.ClientProperty.IO_WRITE_COALESCING_MICROS;
 import static com.hazelcast.client.spi.properties.ClientProperty.SHUFFLE_MEMBER_LIST;
 import static com.hazelcast.spi.properties.GroupProperty.SOCKET_CLIENT_BUFFER_DIRECT;
 import static com.hazelcast.util.ExceptionUtil.rethrow;
@@ -129,6 +133,16 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
             = new ConcurrentHashMap<Address, ClientConnection>();
     private final ConcurrentMap<Address, AuthenticationFuture> connectionsInProgress =
             new ConcurrentHashMap<Address, AuthenticationFuture>();
+    // the connections to a member beyond the first one, which is kept in activeConnections
+    private final ConcurrentMap<Address, AtomicReferenceArray<ClientConnection>> secondaryConnections
+            = new ConcurrentHashMap<Address, AtomicReferenceArray<ClientConnection>>();
+    private final Set<Address> secondaryConnectionsInProgress
+            = Collections.newSetFromMap(new ConcurrentHashMap<Address, Boolean>());
+    // the connection each partition is bound to, see getOrTriggerConnect(Address, int, boolean)
+    private final ConcurrentMap<Integer, ClientConnection> partitionConnections
+            = new ConcurrentHashMap<Integer, ClientConnection>();
+    private final AtomicInteger connectionIndexGen = new AtomicInteger();
+    private final int connectionsPerMember;
     private final Set<ConnectionListener> connectionListeners = new CopyOnWriteArraySet<ConnectionListener>();
     private final boolean allowInvokeWhenDisconnected;
     private final Credentials credentials;
@@ -191,6 +205,8 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
 
         this.outboundPorts.addAll(getOutboundPorts(networkConfig));
         this.outboundPortCount = outboundPorts.size();
+        this.connectionsPerMember = networkConfig.isSmartRouting()
+                ? Math.max(1, client.getProperties().getInteger(IO_CONNECTIONS_PER_MEMBER)) : 1;
         this.heartbeat = new HeartbeatManager(this, client);
         this.authenticationTimeout = heartbeat.getHeartbeatTimeout();
         checkSslAllowed();
@@ -265,6 +281,7 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
                         .inputThreadCount(inputThreads)
                         .outputThreadCount(outputThreads)
                         .balancerIntervalSeconds(properties.getInteger(IO_BALANCER_INTERVAL_SECONDS))
+                        .writeCoalescingNanos(properties.getNanos(IO_WRITE_COALESCING_MICROS))
                         .channelInitializer(new ClientChannelInitializer(getBufferSize(), directBuffer)));
     }
 
@@ -311,6 +328,9 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
         for (Connection connection : activeConnections.values()) {
             connection.close("Hazelcast client is shutting down", null);
         }
+        for (Connection connection : getSecondaryConnections()) {
+            connection.close("Hazelcast client is shutting down", null);
+        }
         ClientExecutionServiceImpl.shutdownExecutor("cluster", clusterConnectionExecutor, logger);
         stopEventLoopGroup();
         connectionListeners.clear();
@@ -355,6 +375,82 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
         return null;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A partition is bound to the connection it is first invoked on and keeps using it as long as the connection is
+     * alive and goes to the partition owner. Otherwise an invocation that is still in flight on the first connection
+     * could be overtaken by a later one sent on an additional connection as soon as that is established. A new
+     * connection is only picked when the old one is closed or the partition moved to another member; the invocations
+     * pending on the old connection are retried in these cases anyway.
+     */
+    @Override
+    public Connection getOrTriggerConnect(Address target, int partitionId, boolean acquiresResources) throws IOException {
+        Connection connection = getOrTriggerConnect(target, acquiresResources);
+        if (connection == null || connectionsPerMember == 1) {
+            return connection;
+        }
+        if (partitionId < 0) {
+            return pickConnection(target, connectionIndexGen.getAndIncrement() & Integer.MAX_VALUE, connection);
+        }
+
+        ClientConnection boundConnection = partitionConnections.get(partitionId);
+        if (boundConnection != null && boundConnection.isAlive() && target.equals(boundConnection.getEndPoint())) {
+            return boundConnection;
+        }
+        ClientConnection picked = (ClientConnection) pickConnection(target, partitionId, connection);
+        boolean bound = boundConnection == null
+                ? partitionConnections.putIfAbsent(partitionId, picked) == null
+                : partitionConnections.replace(partitionId, boundConnection, picked);
+        if (bound) {
+            return picked;
+        }
+        // another invocation of the partition bound it concurrently
+        boundConnection = partitionConnections.get(partitionId);
+        return boundConnection != null && boundConnection.isAlive() ? boundConnection : picked;
+    }
+
+    private Connection pickConnection(Address target, int index, Connection connection) {
+        index %= connectionsPerMember;
+        if (index == 0) {
+            return connection;
+        }
+        AtomicReferenceArray<ClientConnection> connections = secondaryConnections.get(target);
+        ClientConnection secondaryConnection = connections == null ? null : connections.get(index - 1);
+        if (secondaryConnection != null && secondaryConnection.isAlive()) {
+            return secondaryConnection;
+        }
+        // until the additional connection is established, its invocations go over the first one
+        triggerSecondaryConnect(target);
+        return connection;
+    }
+
+    Collection<ClientConnection> getSecondaryConnections() {
+        List<ClientConnection> connections = new ArrayList<ClientConnection>();
+        for (AtomicReferenceArray<ClientConnection> memberConnections : secondaryConnections.values()) {
+            for (int i = 0; i < memberConnections.length(); i++) {
+                ClientConnection connection = memberConnections.get(i);
+                if (connection != null) {
+                    connections.add(connection);
+                }
+            }
+        }
+        return connections;
+    }
+
+    private void triggerSecondaryConnect(Address target) {
+        if (!alive || !secondaryConnectionsInProgress.add(target)) {
+            return;
+        }
+        try {
+            executionService.execute(new InitSecondaryConnectionsTask(target));
+        } catch (RejectedExecutionException e) {
+            // the client is shutting down, the invocations keep using the first connection till then
+            secondaryConnectionsInProgress.remove(target);
+            logger.finest("Could not open additional connections to " + target, e);
+        }
+    }
+
     private Connection getConnection(Address target, boolean asOwner, boolean acquiresResources) throws IOException {
         checkAllowed(target, asOwner, acquiresResources);
         if (target == null) {
@@ -609,6 +705,37 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
 
     void onClose(Connection connection) {
         removeFromActiveConnections(connection);
+        removeFromSecondaryConnections(connection);
+        if (connectionsPerMember > 1) {
+            partitionConnections.values().removeAll(Collections.singleton(connection));
+        }
+    }
+
+    private void closeSecondaryConnections(Address endpoint) {
+        AtomicReferenceArray<ClientConnection> connections = secondaryConnections.remove(endpoint);
+        if (connections == null) {
+            return;
+        }
+        for (int i = 0; i < connections.length(); i++) {
+            ClientConnection connection = connections.getAndSet(i, null);
+            if (connection != null) {
+                connection.close("The first connection to the member is closed", null);
+            }
+        }
+    }
+
+    private void removeFromSecondaryConnections(Connection connection) {
+        Address endpoint = connection.getEndPoint();
+        AtomicReferenceArray<ClientConnection> connections = endpoint == null ? null : secondaryConnections.get(endpoint);
+        if (connections == null) {
+            return;
+        }
+        for (int i = 0; i < connections.length(); i++) {
+            if (connections.compareAndSet(i, (ClientConnection) connection, null)) {
+                logger.info("Removed additional connection to endpoint: " + endpoint + ", connection: " + connection);
+                return;
+            }
+        }
     }
 
     private void removeFromActiveConnections(Connection connection) {
@@ -623,6 +750,7 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
         }
         if (activeConnections.remove(endpoint, connection)) {
             logger.info("Removed connection to endpoint: " + endpoint + ", connection: " + connection);
+            closeSecondaryConnections(endpoint);
             fireConnectionRemovedEvent((ClientConnection) connection);
         } else {
             if (logger.isFinestEnabled()) {
@@ -639,6 +767,11 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
 
     private void authenticate(final Address target, final ClientConnection connection, final boolean asOwner,
                               final AuthenticationFuture future) {
+        authenticate(target, connection, asOwner, false, future);
+    }
+
+    private void authenticate(final Address target, final ClientConnection connection, final boolean asOwner,
+                              final boolean secondary, final AuthenticationFuture future) {
         final ClientPrincipal principal = getPrincipal();
         ClientMessage clientMessage = encodeAuthenticationRequest(asOwner, client.getSerializationService(), principal);
         ClientInvocation clientInvocation = new ClientInvocation(client, clientMessage, null, connection);
@@ -646,7 +779,7 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
 
         ScheduledFuture timeoutTaskFuture = executionService.schedule(
                 new TimeoutAuthenticationTask(invocationFuture), authenticationTimeout, MILLISECONDS);
-        invocationFuture.andThen(new AuthCallback(connection, asOwner, target, future, timeoutTaskFuture));
+        invocationFuture.andThen(new AuthCallback(connection, asOwner, secondary, target, future, timeoutTaskFuture));
     }
 
     private ClientMessage encodeAuthenticationRequest(boolean asOwner, SerializationService ss, ClientPrincipal principal) {
@@ -702,6 +835,9 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
         - we end up with a closed connection in activeConnections map */
         if (!connection.isAlive()) {
             removeFromActiveConnections(connection);
+        } else if (connectionsPerMember > 1) {
+            // open the additional connections right away, so the partitions are bound to them from the start
+            triggerSecondaryConnect(connection.getEndPoint());
         }
     }
 
@@ -779,6 +915,73 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
         }
     }
 
+    /**
+     * Opens the missing additional connections to a member, one after the other.
+     */
+    private class InitSecondaryConnectionsTask implements Runnable {
+
+        private final Address target;
+
+        InitSecondaryConnectionsTask(Address target) {
+            this.target = target;
+        }
+
+        @Override
+        public void run() {
+            try {
+                AtomicReferenceArray<ClientConnection> connections = getOrCreateSecondaryConnections();
+                for (int i = 0; i < connections.length() && alive && activeConnections.containsKey(target); i++) {
+                    ClientConnection connection = connections.get(i);
+                    if (connection == null || !connection.isAlive()) {
+                        connect(connections, i, connection);
+                    }
+                }
+            } catch (Throwable e) {
+                logger.warning("Could not open additional connection to " + target + ", exception " + e);
+            } finally {
+                secondaryConnectionsInProgress.remove(target);
+            }
+        }
+
+        private AtomicReferenceArray<ClientConnection> getOrCreateSecondaryConnections() {
+            AtomicReferenceArray<ClientConnection> connections = secondaryConnections.get(target);
+            if (connections == null) {
+                connections = new AtomicReferenceArray<ClientConnection>(connectionsPerMember - 1);
+                AtomicReferenceArray<ClientConnection> found = secondaryConnections.putIfAbsent(target, connections);
+                connections = found == null ? connections : found;
+            }
+            return connections;
+        }
+
+        private void connect(AtomicReferenceArray<ClientConnection> connections, int index, ClientConnection oldConnection)
+                throws Throwable {
+            Address address = addressTranslator.translate(target);
+            if (address == null) {
+                throw new NullPointerException("Address Translator " + addressTranslator.getClass()
+                        + " could not translate address " + target);
+            }
+            ClientConnection connection = createSocketConnection(address);
+            AuthenticationFuture future = new AuthenticationFuture();
+            try {
+                authenticate(target, connection, false, true, future);
+            } catch (Exception e) {
+                connection.close("Failed to authenticate connection", e);
+                throw e;
+            }
+            future.get();
+            if (!connections.compareAndSet(index, oldConnection, connection)) {
+                connection.close("Additional connection is not needed anymore", null);
+                return;
+            }
+            // the connection may have been closed before it was set, see onAuthenticated, or the first connection to
+            // the member may have been closed in the meantime, see closeSecondaryConnections
+            if (!connection.isAlive() || !alive || secondaryConnections.get(target) != connections) {
+                connections.compareAndSet(index, connection, null);
+                connection.close("Additional connection is not needed anymore", null);
+            }
+        }
+    }
+
     private class ClientConnectionChannelErrorHandler implements ChannelErrorHandler {
         @Override
         public void onError(Channel channel, Throwable cause) {
@@ -942,14 +1145,16 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
     private class AuthCallback implements ExecutionCallback<ClientMessage> {
         private final ClientConnection connection;
         private final boolean asOwner;
+        private final boolean secondary;
         private final Address target;
         private final AuthenticationFuture future;
         private final ScheduledFuture timeoutTaskFuture;
 
-        AuthCallback(ClientConnection connection, boolean asOwner, Address target,
+        AuthCallback(ClientConnection connection, boolean asOwner, boolean secondary, Address target,
                      AuthenticationFuture future, ScheduledFuture timeoutTaskFuture) {
             this.connection = connection;
             this.asOwner = asOwner;
+            this.secondary = secondary;
             this.target = target;
             this.future = future;
             this.timeoutTaskFuture = timeoutTaskFuture;
@@ -970,6 +1175,11 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
                 case AUTHENTICATED:
                     connection.setConnectedServerVersion(result.serverHazelcastVersion);
                     connection.setRemoteEndpoint(result.address);
+                    if (secondary) {
+                        // additional connections are kept out of activeConnections, see InitSecondaryConnectionsTask
+                        future.onSuccess(connection);
+                        break;
+                    }
                     if (asOwner) {
                         connection.setIsAuthenticatedAsOwner();
                         ClientPrincipal principal = new ClientPrincipal(result.uuid, result.ownerUuid);
@@ -995,7 +1205,11 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
         @Override
         public void onFailure(Throwable t) {
             timeoutTaskFuture.cancel(true);
-            onAuthenticationFailed(target, connection, t);
+            if (secondary) {
+                connection.close(null, t);
+            } else {
+                onAuthenticationFailed(target, connection, t);
+            }
             future.onFailure(t);
         }
     }
@@ -80,6 +80,9 @@ public class HeartbeatManager implements Runnable {
         for (final ClientConnection connection : clientConnectionManager.getActiveConnections()) {
             checkConnection(now, connection);
         }
+        for (final ClientConnection connection : clientConnectionManager.getSecondaryConnections()) {
+            checkConnection(now, connection);
+        }
     }
 
     private void checkConnection(long now, final ClientConnection connection) {
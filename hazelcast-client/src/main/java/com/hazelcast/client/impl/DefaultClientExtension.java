@@ -26,6 +26,7 @@ import com.hazelcast.client.spi.ClientExecutionService;
 import com.hazelcast.client.spi.ClientProxy;
 import com.hazelcast.client.spi.ClientProxyFactory;
 import com.hazelcast.client.spi.impl.ClientProxyFactoryWithContext;
+import com.hazelcast.config.NativeMemoryConfig;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.config.SerializationConfig;
 import com.hazelcast.core.HazelcastInstance;
@@ -158,7 +159,8 @@ public class DefaultClientExtension implements ClientExtension {
         SerializationService ss = client.getSerializationService();
         ClientExecutionService es = client.getClientExecutionService();
         ClassLoader classLoader = client.getClientConfig().getClassLoader();
+        NativeMemoryConfig nativeMemoryConfig = client.getClientConfig().getNativeMemoryConfig();
 
-        return new DefaultNearCacheManager(ss, es, classLoader);
+        return new DefaultNearCacheManager(ss, es, classLoader, nativeMemoryConfig);
     }
 }
@@ -36,6 +36,7 @@ import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.ContextMutexFactory;
 
 import java.util.Collection;
+import java.util.concurrent.Executor;
 
 /**
  * Client side implementation of {@link QueryCacheContext}.
@@ -124,6 +125,11 @@ public class ClientQueryCacheContext implements QueryCacheContext {
         return queryCacheScheduler;
     }
 
+    @Override
+    public Executor getPopulationExecutor() {
+        return clientContext.getExecutionService();
+    }
+
     @Override
     public void setSubscriberContext(SubscriberContext subscriberContext) {
         this.subscriberContext = subscriberContext;
@@ -20,18 +20,20 @@ import com.hazelcast.client.impl.protocol.ClientMessage;
 import com.hazelcast.client.impl.protocol.codec.ContinuousQueryMadePublishableCodec;
 import com.hazelcast.client.impl.protocol.codec.ContinuousQueryPublisherCreateCodec;
 import com.hazelcast.client.impl.protocol.codec.ContinuousQueryPublisherCreateWithValueCodec;
-import com.hazelcast.core.EntryEventType;
 import com.hazelcast.map.impl.querycache.InvokerWrapper;
 import com.hazelcast.map.impl.querycache.accumulator.AccumulatorInfo;
 import com.hazelcast.map.impl.querycache.subscriber.AbstractQueryCacheEndToEndConstructor;
 import com.hazelcast.map.impl.querycache.subscriber.InternalQueryCache;
 import com.hazelcast.map.impl.querycache.subscriber.QueryCacheEndToEndConstructor;
+import com.hazelcast.map.impl.querycache.subscriber.QueryCachePopulator;
 import com.hazelcast.map.impl.querycache.subscriber.QueryCacheRequest;
 import com.hazelcast.nio.serialization.Data;
 
 import java.util.Collection;
 import java.util.Map;
 
+import static java.util.concurrent.TimeUnit.MINUTES;
+
 /**
  * Client-side implementation of {@code QueryCacheEndToEndConstructor}.
  *
@@ -95,15 +97,14 @@ public class ClientQueryCacheEndToEndConstructor extends AbstractQueryCacheEndTo
     }
 
     private void populateWithValues(InternalQueryCache queryCache, Collection<Map.Entry<Data, Data>> result) {
-        for (Map.Entry<Data, Data> entry : result) {
-            queryCache.setInternal(entry.getKey(), entry.getValue(), false, EntryEventType.ADDED);
-        }
+        QueryCachePopulator populator = new QueryCachePopulator(queryCache, includeValue, context.getPopulationExecutor());
+        populator.addEntries(result);
+        populator.await(OPERATION_WAIT_TIMEOUT_MINUTES, MINUTES);
     }
 
     private void populateWithoutValues(InternalQueryCache queryCache, Collection<Data> result) {
-        for (Data data : result) {
-            queryCache.setInternal(data, null, false, EntryEventType.ADDED);
-        }
+        QueryCachePopulator populator = new QueryCachePopulator(queryCache, includeValue, context.getPopulationExecutor());
+        populator.addKeys(result);
+        populator.await(OPERATION_WAIT_TIMEOUT_MINUTES, MINUTES);
     }
-
 }
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.map.impl;
+
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.LifecycleEvent;
+import com.hazelcast.core.LifecycleListener;
+import com.hazelcast.core.MapEvent;
+import com.hazelcast.core.MemberAttributeEvent;
+import com.hazelcast.core.MembershipEvent;
+import com.hazelcast.core.MembershipListener;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryExpiredListener;
+import com.hazelcast.map.listener.EntryMergedListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.map.listener.MapClearedListener;
+import com.hazelcast.map.listener.MapEvictedListener;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.core.LifecycleEvent.LifecycleState.CLIENT_CONNECTED;
+import static com.hazelcast.core.LifecycleEvent.LifecycleState.CLIENT_DISCONNECTED;
+
+/**
+ * Caches the results of the predicate queries, projections and aggregations of a client map.
+ * <p>
+ * The results are keyed by the type of the query and the serialized predicate, projection or aggregator,
+ * and they are tagged with the version of the map the cache has seen when the query was sent. Any change
+ * of the map reported by the cluster, see {@link #getInvalidationListener()}, increments the version and
+ * so invalidates all cached results. A result is not cached if the version changed while it was computed.
+ * <p>
+ * Like a Near Cache, the cache is eventually consistent: a change of the map is only seen once its event
+ * has reached the client. The cache is also cleared on everything which may lose events, like membership
+ * changes and disconnections from the cluster.
+ */
+public class ClientQueryResultCache {
+
+    /**
+     * Query type of {@code IMap.keySet(Predicate)}.
+     */
+    public static final int KEY_SET = 0;
+    /**
+     * Query type of {@code IMap.entrySet(Predicate)}.
+     */
+    public static final int ENTRY_SET = 1;
+    /**
+     * Query type of {@code IMap.values(Predicate)}.
+     */
+    public static final int VALUES = 2;
+    /**
+     * Query type of the {@code IMap.aggregate} methods.
+     */
+    public static final int AGGREGATE = 3;
+    /**
+     * Query type of the {@code IMap.project} methods.
+     */
+    public static final int PROJECT = 4;
+
+    private final AtomicLong version = new AtomicLong();
+    private final InvalidationListener invalidationListener = new InvalidationListener();
+    // guarded by itself
+    private final Map<QueryKey, CachedResult> results;
+
+    /**
+     * @param capacity the maximum number of cached results, the least recently used ones are dropped first
+     */
+    public ClientQueryResultCache(final int capacity) {
+        this.results = new LinkedHashMap<QueryKey, CachedResult>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<QueryKey, CachedResult> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the current version of the map. Should be read before sending a query and passed
+     * to {@link #put(int, Data, Data, long, Object)} with its result.
+     *
+     * @return the current version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Returns a valid cached result.
+     *
+     * @param queryType the query type
+     * @param first     the serialized predicate, projection or aggregator
+     * @param second    the serialized predicate if the query has one next to a projection or aggregator,
+     *                  otherwise {@code null}
+     * @return the cached result or {@code null} if there is no valid one
+     */
+    public Object get(int queryType, Data first, Data second) {
+        QueryKey key = new QueryKey(queryType, first, second);
+        synchronized (results) {
+            CachedResult cachedResult = results.get(key);
+            if (cachedResult == null) {
+                return null;
+            }
+            if (cachedResult.version != version.get()) {
+                results.remove(key);
+                return null;
+            }
+            return cachedResult.result;
+        }
+    }
+
+    /**
+     * Caches a result unless the map has changed since the given version was read.
+     *
+     * @param queryType the query type
+     * @param first     the serialized predicate, projection or aggregator
+     * @param second    the serialized predicate next to a projection or aggregator, otherwise {@code null}
+     * @param version   the version read with {@link #getVersion()} before the query was sent
+     * @param result    the result to cache, should not be modified afterwards
+     */
+    public void put(int queryType, Data first, Data second, long version, Object result) {
+        synchronized (results) {
+            if (version == this.version.get()) {
+                results.put(new QueryKey(queryType, first, second), new CachedResult(version, result));
+            }
+        }
+    }
+
+    /**
+     * Invalidates all cached results.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        synchronized (results) {
+            results.clear();
+        }
+    }
+
+    /**
+     * Returns the size of the cache, including results which are not valid anymore.
+     *
+     * @return the number of cached results
+     */
+    public int size() {
+        synchronized (results) {
+            return results.size();
+        }
+    }
+
+    /**
+     * Returns the listener which invalidates the cache. It should be registered on the map without values,
+     * on the cluster for membership events and on the client lifecycle.
+     *
+     * @return the invalidation listener
+     */
+    public InvalidationListener getInvalidationListener() {
+        return invalidationListener;
+    }
+
+    /**
+     * Invalidates the cache on any change of the map and on any event which may hide one.
+     */
+    @SuppressWarnings("rawtypes")
+    public final class InvalidationListener implements EntryAddedListener, EntryUpdatedListener, EntryRemovedListener,
+            EntryEvictedListener, EntryExpiredListener, EntryMergedListener, MapClearedListener, MapEvictedListener,
+            MembershipListener, LifecycleListener {
+
+        private InvalidationListener() {
+        }
+
+        @Override
+        public void entryAdded(EntryEvent event) {
+            invalidate();
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent event) {
+            invalidate();
+        }
+
+        @Override
+        public void entryRemoved(EntryEvent event) {
+            invalidate();
+        }
+
+        @Override
+        public void entryEvicted(EntryEvent event) {
+            invalidate();
+        }
+
+        @Override
+        public void entryExpired(EntryEvent event) {
+            invalidate();
+        }
+
+        @Override
+        public void entryMerged(EntryEvent event) {
+            invalidate();
+        }
+
+        @Override
+        public void mapCleared(MapEvent event) {
+            invalidate();
+        }
+
+        @Override
+        public void mapEvicted(MapEvent event) {
+            invalidate();
+        }
+
+        @Override
+        public void memberAdded(MembershipEvent membershipEvent) {
+            invalidate();
+        }
+
+        @Override
+        public void memberRemoved(MembershipEvent membershipEvent) {
+            invalidate();
+        }
+
+        @Override
+        public void memberAttributeChanged(MemberAttributeEvent memberAttributeEvent) {
+        }
+
+        @Override
+        public void stateChanged(LifecycleEvent event) {
+            if (event.getState() == CLIENT_DISCONNECTED || event.getState() == CLIENT_CONNECTED) {
+                invalidate();
+            }
+        }
+    }
+
+    private static final class QueryKey {
+
+        private final int queryType;
+        private final Data first;
+        private final Data second;
+
+        QueryKey(int queryType, Data first, Data second) {
+            this.queryType = queryType;
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof QueryKey)) {
+                return false;
+            }
+            QueryKey that = (QueryKey) o;
+            return queryType == that.queryType
+                    && first.equals(that.first)
+                    && (second == null ? that.second == null : second.equals(that.second));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = queryType;
+            result = 31 * result + first.hashCode();
+            result = 31 * result + (second != null ? second.hashCode() : 0);
+            return result;
+        }
+    }
+
+    private static final class CachedResult {
+
+        private final long version;
+        private final Object result;
+
+        CachedResult(long version, Object result) {
+            this.version = version;
+            this.result = result;
+        }
+    }
+}
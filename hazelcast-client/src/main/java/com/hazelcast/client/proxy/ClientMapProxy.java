@@ -86,12 +86,14 @@ import com.hazelcast.client.impl.querycache.ClientQueryCacheContext;
 import com.hazelcast.client.impl.querycache.subscriber.ClientQueryCacheEndToEndConstructor;
 import com.hazelcast.client.map.impl.ClientMapPartitionIterator;
 import com.hazelcast.client.map.impl.ClientMapQueryPartitionIterator;
+import com.hazelcast.client.map.impl.ClientQueryResultCache;
 import com.hazelcast.client.spi.ClientContext;
 import com.hazelcast.client.spi.ClientPartitionService;
 import com.hazelcast.client.spi.ClientProxy;
 import com.hazelcast.client.spi.EventHandler;
 import com.hazelcast.client.spi.impl.ClientInvocation;
 import com.hazelcast.client.spi.impl.ClientInvocationFuture;
+import com.hazelcast.client.spi.impl.ClientMemberBatchInvoker;
 import com.hazelcast.client.spi.impl.ListenerMessageCodec;
 import com.hazelcast.client.util.ClientDelegatingFuture;
 import com.hazelcast.core.EntryEvent;
@@ -166,6 +168,12 @@ import static com.hazelcast.map.impl.ListenerAdapters.createListenerAdapter;
 import static com.hazelcast.map.impl.MapListenerFlagOperator.setAndGetListenerFlags;
 import static com.hazelcast.map.impl.querycache.subscriber.QueryCacheRequest.newQueryCacheRequest;
 import static com.hazelcast.util.CollectionUtil.objectToDataCollection;
+import static com.hazelcast.client.map.impl.ClientQueryResultCache.AGGREGATE;
+import static com.hazelcast.client.map.impl.ClientQueryResultCache.ENTRY_SET;
+import static com.hazelcast.client.map.impl.ClientQueryResultCache.KEY_SET;
+import static com.hazelcast.client.map.impl.ClientQueryResultCache.PROJECT;
+import static com.hazelcast.client.map.impl.ClientQueryResultCache.VALUES;
+import static com.hazelcast.client.spi.properties.ClientProperty.MAP_QUERY_RESULT_CACHE_SIZE;
 import static com.hazelcast.util.ExceptionUtil.rethrow;
 import static com.hazelcast.util.MapUtil.createHashMap;
 import static com.hazelcast.util.Preconditions.checkNotInstanceOf;
@@ -236,6 +244,10 @@ public class ClientMapProxy<K, V> extends ClientProxy
     private ClientMessageDecoder eventJournalSubscribeResponseDecoder;
     private ClientLockReferenceIdGenerator lockReferenceIdGenerator;
     private ClientQueryCacheContext queryCacheContext;
+    private final Object queryResultCacheMutex = new Object();
+    private int queryResultCacheSize;
+    private volatile ClientQueryResultCache queryResultCache;
+    private String[] queryResultCacheRegistrationIds;
 
     public ClientMapProxy(String serviceName, String name, ClientContext context) {
         super(serviceName, name, context);
@@ -247,6 +259,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
 
         lockReferenceIdGenerator = getClient().getLockReferenceIdGenerator();
         queryCacheContext = getContext().getQueryCacheContext();
+        queryResultCacheSize = getClient().getProperties().getInteger(MAP_QUERY_RESULT_CACHE_SIZE);
         eventJournalReadResponseDecoder = new ClientMessageDecoder() {
             @Override
             public ReadResultSet<?> decodeClientMessage(ClientMessage message) {
@@ -324,7 +337,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
     protected MapRemoveCodec.ResponseParameters removeInternal(Object key) {
         Data keyData = toData(key);
         ClientMessage request = MapRemoveCodec.encodeRequest(name, keyData, getThreadId());
-        ClientMessage response = invoke(request, keyData);
+        ClientMessage response = invokeMutation(request, keyData);
         return MapRemoveCodec.decodeResponse(response);
     }
 
@@ -341,7 +354,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
         Data valueData = toData(value);
         ClientMessage request = MapRemoveIfSameCodec.encodeRequest(name, keyData, valueData, getThreadId());
 
-        ClientMessage response = invoke(request, keyData);
+        ClientMessage response = invokeMutation(request, keyData);
         MapRemoveIfSameCodec.ResponseParameters resultParameters = MapRemoveIfSameCodec.decodeResponse(response);
         return resultParameters.response;
     }
@@ -355,7 +368,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
 
     protected void removeAllInternal(Predicate predicate) {
         ClientMessage request = MapRemoveAllCodec.encodeRequest(name, toData(predicate));
-        invoke(request);
+        invokeMutation(request);
     }
 
     @Override
@@ -368,7 +381,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
     protected void deleteInternal(Object key) {
         Data keyData = toData(key);
         ClientMessage request = MapDeleteCodec.encodeRequest(name, keyData, getThreadId());
-        invoke(request, keyData);
+        invokeMutation(request, keyData);
     }
 
     @Override
@@ -401,6 +414,50 @@ public class ClientMapProxy<K, V> extends ClientProxy
         return clientInvocation.invoke();
     }
 
+    /**
+     * Invokes an operation which may change the map and invalidates the query result cache once it is done,
+     * see {@link #invalidateQueryResultCache()}.
+     */
+    private ClientMessage invokeMutation(ClientMessage request, Data keyData) {
+        try {
+            return invoke(request, keyData);
+        } finally {
+            invalidateQueryResultCache();
+        }
+    }
+
+    private ClientMessage invokeMutation(ClientMessage request) {
+        try {
+            return invoke(request);
+        } finally {
+            invalidateQueryResultCache();
+        }
+    }
+
+    /**
+     * Async variant of {@link #invokeMutation(ClientMessage, Data)}: the query result cache is invalidated
+     * when the operation is sent and again when its response has arrived.
+     */
+    private ClientInvocationFuture invokeMutationOnKeyOwner(ClientMessage request, Data keyData) {
+        invalidateQueryResultCache();
+        ClientInvocationFuture future = invokeOnKeyOwner(request, keyData);
+        final ClientQueryResultCache cache = queryResultCache;
+        if (cache != null) {
+            future.andThen(new ExecutionCallback<ClientMessage>() {
+                @Override
+                public void onResponse(ClientMessage response) {
+                    cache.invalidate();
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    cache.invalidate();
+                }
+            });
+        }
+        return future;
+    }
+
     @Override
     public ICompletableFuture<V> putAsync(K key, V value) {
         return putAsync(key, value, -1, TimeUnit.MILLISECONDS);
@@ -420,7 +477,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
             Data valueData = toData(value);
             long ttlMillis = getTimeInMillis(ttl, timeunit);
             ClientMessage request = MapPutCodec.encodeRequest(name, keyData, valueData, getThreadId(), ttlMillis);
-            ClientInvocationFuture future = invokeOnKeyOwner(request, keyData);
+            ClientInvocationFuture future = invokeMutationOnKeyOwner(request, keyData);
             return new ClientDelegatingFuture<V>(future, getSerializationService(), PUT_ASYNC_RESPONSE_DECODER);
         } catch (Exception e) {
             throw rethrow(e);
@@ -446,7 +503,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
             Data valueData = toData(value);
             long ttlMillis = getTimeInMillis(ttl, timeunit);
             ClientMessage request = MapSetCodec.encodeRequest(name, keyData, valueData, getThreadId(), ttlMillis);
-            ClientInvocationFuture future = invokeOnKeyOwner(request, keyData);
+            ClientInvocationFuture future = invokeMutationOnKeyOwner(request, keyData);
             return new ClientDelegatingFuture<Void>(future, getSerializationService(), SET_ASYNC_RESPONSE_DECODER);
         } catch (Exception e) {
             throw rethrow(e);
@@ -463,7 +520,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
         try {
             Data keyData = toData(key);
             ClientMessage request = MapRemoveCodec.encodeRequest(name, keyData, getThreadId());
-            ClientInvocationFuture future = invokeOnKeyOwner(request, keyData);
+            ClientInvocationFuture future = invokeMutationOnKeyOwner(request, keyData);
             return new ClientDelegatingFuture<V>(future, getSerializationService(), REMOVE_ASYNC_RESPONSE_DECODER);
         } catch (Exception e) {
             throw rethrow(e);
@@ -479,7 +536,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
     protected boolean tryRemoveInternal(long timeout, TimeUnit timeunit, Object key) {
         Data keyData = toData(key);
         ClientMessage request = MapTryRemoveCodec.encodeRequest(name, keyData, getThreadId(), timeunit.toMillis(timeout));
-        ClientMessage response = invoke(request, keyData);
+        ClientMessage response = invokeMutation(request, keyData);
         MapTryRemoveCodec.ResponseParameters resultParameters = MapTryRemoveCodec.decodeResponse(response);
         return resultParameters.response;
     }
@@ -497,7 +554,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
         Data valueData = toData(value);
         long timeoutMillis = getTimeInMillis(timeout, timeunit);
         ClientMessage request = MapTryPutCodec.encodeRequest(name, keyData, valueData, getThreadId(), timeoutMillis);
-        ClientMessage response = invoke(request, keyData);
+        ClientMessage response = invokeMutation(request, keyData);
         MapTryPutCodec.ResponseParameters resultParameters = MapTryPutCodec.decodeResponse(response);
         return resultParameters.response;
     }
@@ -515,7 +572,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
         Data valueData = toData(value);
         long ttlMillis = getTimeInMillis(ttl, timeunit);
         ClientMessage request = MapPutCodec.encodeRequest(name, keyData, valueData, getThreadId(), ttlMillis);
-        ClientMessage response = invoke(request, keyData);
+        ClientMessage response = invokeMutation(request, keyData);
         MapPutCodec.ResponseParameters resultParameters = MapPutCodec.decodeResponse(response);
         return toObject(resultParameters.response);
     }
@@ -533,7 +590,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
         Data valueData = toData(value);
         long ttlMillis = getTimeInMillis(ttl, timeunit);
         ClientMessage request = MapPutTransientCodec.encodeRequest(name, keyData, valueData, getThreadId(), ttlMillis);
-        invoke(request, keyData);
+        invokeMutation(request, keyData);
     }
 
     @Override
@@ -554,7 +611,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
         Data valueData = toData(value);
         long ttlMillis = getTimeInMillis(ttl, timeunit);
         ClientMessage request = MapPutIfAbsentCodec.encodeRequest(name, keyData, valueData, getThreadId(), ttlMillis);
-        ClientMessage result = invoke(request, keyData);
+        ClientMessage result = invokeMutation(request, keyData);
         MapPutIfAbsentCodec.ResponseParameters resultParameters = MapPutIfAbsentCodec.decodeResponse(result);
         return toObject(resultParameters.response);
     }
@@ -573,7 +630,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
         Data oldValueData = toData(oldValue);
         Data newValueData = toData(newValue);
         ClientMessage request = MapReplaceIfSameCodec.encodeRequest(name, keyData, oldValueData, newValueData, getThreadId());
-        ClientMessage response = invoke(request, keyData);
+        ClientMessage response = invokeMutation(request, keyData);
         MapReplaceIfSameCodec.ResponseParameters resultParameters = MapReplaceIfSameCodec.decodeResponse(response);
         return resultParameters.response;
     }
@@ -590,7 +647,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
         Data keyData = toData(key);
         Data valueData = toData(value);
         ClientMessage request = MapReplaceCodec.encodeRequest(name, keyData, valueData, getThreadId());
-        ClientMessage response = invoke(request, keyData);
+        ClientMessage response = invokeMutation(request, keyData);
         MapReplaceCodec.ResponseParameters resultParameters = MapReplaceCodec.decodeResponse(response);
         return toObject(resultParameters.response);
     }
@@ -609,7 +666,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
         long ttlMillis = getTimeInMillis(ttl, timeunit);
         ClientMessage request = MapSetCodec.encodeRequest(name, keyData, valueData, getThreadId(), ttlMillis);
 
-        invoke(request, keyData);
+        invokeMutation(request, keyData);
     }
 
     @Override
@@ -1005,7 +1062,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
     protected boolean evictInternal(Object key) {
         Data keyData = toData(key);
         ClientMessage request = MapEvictCodec.encodeRequest(name, keyData, getThreadId());
-        ClientMessage response = invoke(request, keyData);
+        ClientMessage response = invokeMutation(request, keyData);
         MapEvictCodec.ResponseParameters resultParameters = MapEvictCodec.decodeResponse(response);
         return resultParameters.response;
     }
@@ -1013,13 +1070,13 @@ public class ClientMapProxy<K, V> extends ClientProxy
     @Override
     public void evictAll() {
         ClientMessage request = MapEvictAllCodec.encodeRequest(name);
-        invoke(request);
+        invokeMutation(request);
     }
 
     @Override
     public void loadAll(boolean replaceExistingValues) {
         ClientMessage request = MapLoadAllCodec.encodeRequest(name, replaceExistingValues);
-        invoke(request);
+        invokeMutation(request);
     }
 
     @Override
@@ -1035,7 +1092,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
     protected void loadAllInternal(boolean replaceExistingValues, Collection<?> keys) {
         Collection<Data> dataKeys = objectToDataCollection(keys, getSerializationService());
         ClientMessage request = MapLoadGivenKeysCodec.encodeRequest(name, dataKeys, replaceExistingValues);
-        invoke(request);
+        invokeMutation(request);
     }
 
     @Override
@@ -1146,18 +1203,25 @@ public class ClientMapProxy<K, V> extends ClientProxy
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public Set<K> keySet(Predicate predicate) {
         checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
         if (containsPagingPredicate(predicate)) {
             return keySetWithPagingPredicate(predicate);
         }
 
-        ClientMessage request = MapKeySetWithPredicateCodec.encodeRequest(name, toData(predicate));
-        ClientMessage response = invokeWithPredicate(request, predicate);
-        MapKeySetWithPredicateCodec.ResponseParameters resultParameters = MapKeySetWithPredicateCodec.decodeResponse(response);
+        Data predicateData = toData(predicate);
+        List<Data> keys = (List<Data>) getCachedQueryResult(KEY_SET, predicateData, null);
+        if (keys == null) {
+            long version = getQueryResultVersion();
+            ClientMessage request = MapKeySetWithPredicateCodec.encodeRequest(name, predicateData);
+            ClientMessage response = invokeWithPredicate(request, predicate);
+            keys = MapKeySetWithPredicateCodec.decodeResponse(response).response;
+            cacheQueryResult(KEY_SET, predicateData, null, version, keys);
+        }
 
-        InflatableSet.Builder<K> setBuilder = InflatableSet.newBuilder(resultParameters.response.size());
-        for (Data data : resultParameters.response) {
+        InflatableSet.Builder<K> setBuilder = InflatableSet.newBuilder(keys.size());
+        for (Data data : keys) {
             K key = toObject(data);
             setBuilder.add(key);
         }
@@ -1184,19 +1248,25 @@ public class ClientMapProxy<K, V> extends ClientProxy
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public Set<Entry<K, V>> entrySet(Predicate predicate) {
         if (containsPagingPredicate(predicate)) {
             return entrySetWithPagingPredicate(predicate);
         }
-        ClientMessage request = MapEntriesWithPredicateCodec.encodeRequest(name, toData(predicate));
-
-        ClientMessage response = invokeWithPredicate(request, predicate);
-        MapEntriesWithPredicateCodec.ResponseParameters resultParameters = MapEntriesWithPredicateCodec.decodeResponse(response);
+        Data predicateData = toData(predicate);
+        List<Entry<Data, Data>> entries = (List<Entry<Data, Data>>) getCachedQueryResult(ENTRY_SET, predicateData, null);
+        if (entries == null) {
+            long version = getQueryResultVersion();
+            ClientMessage request = MapEntriesWithPredicateCodec.encodeRequest(name, predicateData);
+            ClientMessage response = invokeWithPredicate(request, predicate);
+            entries = MapEntriesWithPredicateCodec.decodeResponse(response).response;
+            cacheQueryResult(ENTRY_SET, predicateData, null, version, entries);
+        }
 
-        InflatableSet.Builder<Entry<K, V>> setBuilder = InflatableSet.newBuilder(resultParameters.response.size());
+        InflatableSet.Builder<Entry<K, V>> setBuilder = InflatableSet.newBuilder(entries.size());
         InternalSerializationService serializationService = ((InternalSerializationService) getContext()
                 .getSerializationService());
-        for (Entry<Data, Data> row : resultParameters.response) {
+        for (Entry<Data, Data> row : entries) {
             LazyMapEntry<K, V> entry = new LazyMapEntry<K, V>(row.getKey(), row.getValue(), serializationService);
             setBuilder.add(entry);
         }
@@ -1226,17 +1296,24 @@ public class ClientMapProxy<K, V> extends ClientProxy
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public Collection<V> values(Predicate predicate) {
         checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
         if (containsPagingPredicate(predicate)) {
             return valuesForPagingPredicate(predicate);
         }
 
-        ClientMessage request = MapValuesWithPredicateCodec.encodeRequest(name, toData(predicate));
-        ClientMessage response = invokeWithPredicate(request, predicate);
-        MapValuesWithPredicateCodec.ResponseParameters resultParameters = MapValuesWithPredicateCodec.decodeResponse(response);
+        Data predicateData = toData(predicate);
+        List<Data> values = (List<Data>) getCachedQueryResult(VALUES, predicateData, null);
+        if (values == null) {
+            long version = getQueryResultVersion();
+            ClientMessage request = MapValuesWithPredicateCodec.encodeRequest(name, predicateData);
+            ClientMessage response = invokeWithPredicate(request, predicate);
+            values = MapValuesWithPredicateCodec.decodeResponse(response).response;
+            cacheQueryResult(VALUES, predicateData, null, version, values);
+        }
 
-        return new UnmodifiableLazyList<V>(resultParameters.response, getSerializationService());
+        return toLazyQueryResult(values);
     }
 
     private ClientMessage invokeWithPredicate(ClientMessage request, Predicate predicate) {
@@ -1300,7 +1377,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
         validateEntryProcessorForSingleKeyProcessing(entryProcessor);
         Data keyData = toData(key);
         ClientMessage request = MapExecuteOnKeyCodec.encodeRequest(name, toData(entryProcessor), keyData, getThreadId());
-        ClientMessage response = invoke(request, keyData);
+        ClientMessage response = invokeMutation(request, keyData);
         MapExecuteOnKeyCodec.ResponseParameters resultParameters = MapExecuteOnKeyCodec.decodeResponse(response);
         return toObject(resultParameters.response);
     }
@@ -1316,7 +1393,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
         try {
             Data keyData = toData(key);
             ClientMessage request = MapSubmitToKeyCodec.encodeRequest(name, toData(entryProcessor), keyData, getThreadId());
-            ClientInvocationFuture future = invokeOnKeyOwner(request, keyData);
+            ClientInvocationFuture future = invokeMutationOnKeyOwner(request, keyData);
             new ClientDelegatingFuture(future, getSerializationService(), SUBMIT_TO_KEY_RESPONSE_DECODER)
                     .andThen(callback);
         } catch (Exception e) {
@@ -1334,7 +1411,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
         try {
             Data keyData = toData(key);
             ClientMessage request = MapSubmitToKeyCodec.encodeRequest(name, toData(entryProcessor), keyData, getThreadId());
-            ClientInvocationFuture future = invokeOnKeyOwner(request, keyData);
+            ClientInvocationFuture future = invokeMutationOnKeyOwner(request, keyData);
             return new ClientDelegatingFuture(future, getSerializationService(), SUBMIT_TO_KEY_RESPONSE_DECODER);
         } catch (Exception e) {
             throw rethrow(e);
@@ -1344,7 +1421,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
     @Override
     public Map<K, Object> executeOnEntries(EntryProcessor entryProcessor) {
         ClientMessage request = MapExecuteOnAllKeysCodec.encodeRequest(name, toData(entryProcessor));
-        ClientMessage response = invoke(request);
+        ClientMessage response = invokeMutation(request);
         MapExecuteOnAllKeysCodec.ResponseParameters resultParameters = MapExecuteOnAllKeysCodec.decodeResponse(response);
         return prepareResult(resultParameters.response);
     }
@@ -1365,7 +1442,12 @@ public class ClientMapProxy<K, V> extends ClientProxy
     @Override
     public Map<K, Object> executeOnEntries(EntryProcessor entryProcessor, Predicate predicate) {
         ClientMessage request = MapExecuteWithPredicateCodec.encodeRequest(name, toData(entryProcessor), toData(predicate));
-        ClientMessage response = invokeWithPredicate(request, predicate);
+        ClientMessage response;
+        try {
+            response = invokeWithPredicate(request, predicate);
+        } finally {
+            invalidateQueryResultCache();
+        }
 
         MapExecuteWithPredicateCodec.ResponseParameters resultParameters = MapExecuteWithPredicateCodec.decodeResponse(response);
         return prepareResult(resultParameters.response);
@@ -1375,11 +1457,16 @@ public class ClientMapProxy<K, V> extends ClientProxy
     public <R> R aggregate(Aggregator<Map.Entry<K, V>, R> aggregator) {
         checkNotNull(aggregator, NULL_AGGREGATOR_IS_NOT_ALLOWED);
 
-        ClientMessage request = MapAggregateCodec.encodeRequest(name, toData(aggregator));
-        ClientMessage response = invoke(request);
-
-        MapAggregateCodec.ResponseParameters resultParameters = MapAggregateCodec.decodeResponse(response);
-        return toObject(resultParameters.response);
+        Data aggregatorData = toData(aggregator);
+        Data result = (Data) getCachedQueryResult(AGGREGATE, aggregatorData, null);
+        if (result == null) {
+            long version = getQueryResultVersion();
+            ClientMessage request = MapAggregateCodec.encodeRequest(name, aggregatorData);
+            ClientMessage response = invoke(request);
+            result = MapAggregateCodec.decodeResponse(response).response;
+            cacheQueryResult(AGGREGATE, aggregatorData, null, version, result);
+        }
+        return toObject(result);
     }
 
     @Override
@@ -1388,36 +1475,130 @@ public class ClientMapProxy<K, V> extends ClientProxy
         checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
         checkNotPagingPredicate(predicate, "aggregate");
 
-        ClientMessage request = MapAggregateWithPredicateCodec.encodeRequest(name, toData(aggregator), toData(predicate));
-        ClientMessage response = invokeWithPredicate(request, predicate);
-
-        MapAggregateWithPredicateCodec.ResponseParameters resultParameters =
-                MapAggregateWithPredicateCodec.decodeResponse(response);
-        return toObject(resultParameters.response);
+        Data aggregatorData = toData(aggregator);
+        Data predicateData = toData(predicate);
+        Data result = (Data) getCachedQueryResult(AGGREGATE, aggregatorData, predicateData);
+        if (result == null) {
+            long version = getQueryResultVersion();
+            ClientMessage request = MapAggregateWithPredicateCodec.encodeRequest(name, aggregatorData, predicateData);
+            ClientMessage response = invokeWithPredicate(request, predicate);
+            result = MapAggregateWithPredicateCodec.decodeResponse(response).response;
+            cacheQueryResult(AGGREGATE, aggregatorData, predicateData, version, result);
+        }
+        return toObject(result);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <R> Collection<R> project(Projection<Entry<K, V>, R> projection) {
-        ClientMessage request = MapProjectCodec.encodeRequest(name, toData(projection));
-        ClientMessage response = invoke(request);
-
-        MapProjectCodec.ResponseParameters resultParameters =
-                MapProjectCodec.decodeResponse(response);
+        Data projectionData = toData(projection);
+        List<Data> result = (List<Data>) getCachedQueryResult(PROJECT, projectionData, null);
+        if (result == null) {
+            long version = getQueryResultVersion();
+            ClientMessage request = MapProjectCodec.encodeRequest(name, projectionData);
+            ClientMessage response = invoke(request);
+            result = MapProjectCodec.decodeResponse(response).response;
+            cacheQueryResult(PROJECT, projectionData, null, version, result);
+        }
 
-        return new UnmodifiableLazyList<R>(resultParameters.response, getSerializationService());
+        return toLazyQueryResult(result);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <R> Collection<R> project(Projection<Entry<K, V>, R> projection, Predicate<K, V> predicate) {
         checkNotPagingPredicate(predicate, "project");
 
-        ClientMessage request = MapProjectWithPredicateCodec.encodeRequest(name, toData(projection), toData(predicate));
-        ClientMessage response = invokeWithPredicate(request, predicate);
+        Data projectionData = toData(projection);
+        Data predicateData = toData(predicate);
+        List<Data> result = (List<Data>) getCachedQueryResult(PROJECT, projectionData, predicateData);
+        if (result == null) {
+            long version = getQueryResultVersion();
+            ClientMessage request = MapProjectWithPredicateCodec.encodeRequest(name, projectionData, predicateData);
+            ClientMessage response = invokeWithPredicate(request, predicate);
+            result = MapProjectWithPredicateCodec.decodeResponse(response).response;
+            cacheQueryResult(PROJECT, projectionData, predicateData, version, result);
+        }
 
-        MapProjectWithPredicateCodec.ResponseParameters resultParameters =
-                MapProjectWithPredicateCodec.decodeResponse(response);
+        return toLazyQueryResult(result);
+    }
 
-        return new UnmodifiableLazyList<R>(resultParameters.response, getSerializationService());
+    /**
+     * Returns the query result cache of this map, creating it and registering its invalidation
+     * listeners on first use, or {@code null} if the cache is disabled.
+     */
+    private ClientQueryResultCache getQueryResultCache() {
+        if (queryResultCacheSize <= 0) {
+            return null;
+        }
+        ClientQueryResultCache cache = queryResultCache;
+        if (cache != null) {
+            return cache;
+        }
+        synchronized (queryResultCacheMutex) {
+            if (queryResultCache == null) {
+                cache = new ClientQueryResultCache(queryResultCacheSize);
+                ClientQueryResultCache.InvalidationListener listener = cache.getInvalidationListener();
+                queryResultCacheRegistrationIds = new String[]{
+                        addEntryListener(listener, false),
+                        getContext().getClusterService().addMembershipListener(listener),
+                        getClient().getLifecycleService().addLifecycleListener(listener)
+                };
+                queryResultCache = cache;
+            }
+            return queryResultCache;
+        }
+    }
+
+    private Object getCachedQueryResult(int queryType, Data first, Data second) {
+        ClientQueryResultCache cache = getQueryResultCache();
+        return cache == null ? null : cache.get(queryType, first, second);
+    }
+
+    private long getQueryResultVersion() {
+        ClientQueryResultCache cache = queryResultCache;
+        return cache == null ? 0 : cache.getVersion();
+    }
+
+    private void cacheQueryResult(int queryType, Data first, Data second, long version, Object result) {
+        ClientQueryResultCache cache = queryResultCache;
+        if (cache != null) {
+            cache.put(queryType, first, second, version, result);
+        }
+    }
+
+    /**
+     * Wraps a query result into a lazily deserializing list. The list stores the items it deserialized in place
+     * of their serialized form, so a result which is shared with the query result cache is copied first.
+     */
+    private <T> List<T> toLazyQueryResult(List<Data> result) {
+        List<Data> items = queryResultCache != null ? new ArrayList<Data>(result) : result;
+        return new UnmodifiableLazyList<T>(items, getSerializationService());
+    }
+
+    /**
+     * Invalidates the query result cache right away on a change made by this proxy, so the change is visible
+     * to the next query of this client without waiting for its event from the cluster.
+     */
+    private void invalidateQueryResultCache() {
+        ClientQueryResultCache cache = queryResultCache;
+        if (cache != null) {
+            cache.invalidate();
+        }
+    }
+
+    private void removeQueryResultCache() {
+        synchronized (queryResultCacheMutex) {
+            String[] registrationIds = queryResultCacheRegistrationIds;
+            if (registrationIds == null) {
+                return;
+            }
+            deregisterListener(registrationIds[0]);
+            getContext().getClusterService().removeMembershipListener(registrationIds[1]);
+            getClient().getLifecycleService().removeLifecycleListener(registrationIds[2]);
+            queryResultCacheRegistrationIds = null;
+            queryResultCache = null;
+        }
     }
 
 
@@ -1510,11 +1691,28 @@ public class ClientMapProxy<K, V> extends ClientProxy
             return emptyMap();
         }
         Collection<Data> dataCollection = objectToDataCollection(keys, getSerializationService());
+        final Data entryProcessorData = toData(entryProcessor);
 
-        ClientMessage request = MapExecuteOnKeysCodec.encodeRequest(name, toData(entryProcessor), dataCollection);
-        ClientMessage response = invoke(request);
-        MapExecuteOnKeysCodec.ResponseParameters resultParameters = MapExecuteOnKeysCodec.decodeResponse(response);
-        return prepareResult(resultParameters.response);
+        List<ClientMessage> responses;
+        try {
+            responses = ClientMemberBatchInvoker.invoke(getClient(), name, dataCollection,
+                    new ClientMemberBatchInvoker.RequestFactory() {
+                        @Override
+                        public ClientMessage create(Collection<Data> batch) {
+                            return MapExecuteOnKeysCodec.encodeRequest(name, entryProcessorData, batch);
+                        }
+                    });
+        } finally {
+            invalidateQueryResultCache();
+        }
+        if (responses.size() == 1) {
+            return prepareResult(MapExecuteOnKeysCodec.decodeResponse(responses.get(0)).response);
+        }
+        List<Entry<Data, Data>> entries = new ArrayList<Entry<Data, Data>>(keys.size());
+        for (ClientMessage response : responses) {
+            entries.addAll(MapExecuteOnKeysCodec.decodeResponse(response).response);
+        }
+        return prepareResult(entries);
     }
 
     @Override
@@ -1575,13 +1773,15 @@ public class ClientMapProxy<K, V> extends ClientProxy
             }
         } catch (Exception e) {
             throw rethrow(e);
+        } finally {
+            invalidateQueryResultCache();
         }
     }
 
     @Override
     public void clear() {
         ClientMessage request = MapClearCodec.encodeRequest(name);
-        invoke(request);
+        invokeMutation(request);
     }
 
     @Override
@@ -1815,6 +2015,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
     @Override
     protected void onDestroy() {
         try {
+            removeQueryResultCache();
             SubscriberContext subscriberContext = queryCacheContext.getSubscriberContext();
             QueryCacheEndToEndProvider provider = subscriberContext.getEndToEndQueryCacheProvider();
             provider.destroyAllQueryCaches(name);
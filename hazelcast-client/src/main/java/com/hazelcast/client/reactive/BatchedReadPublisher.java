@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.reactive;
+
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.ringbuffer.ReadResultSet;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * A {@link Publisher} over a sequence of items which are read in batches with an asynchronous read method,
+ * such as {@link com.hazelcast.ringbuffer.Ringbuffer#readManyAsync}.
+ * <p>
+ * The demand of a subscriber drives the reads: a read is only issued when there is outstanding demand,
+ * it asks for at most {@code min(demand, maxBatchSize)} items and there is never more than one read in
+ * flight per subscription. Items are published from the thread completing the read, so no thread is
+ * blocked while waiting for new items and nothing is buffered beyond the requested demand.
+ *
+ * @param <R> the type of the items read
+ * @param <T> the type of the published items
+ */
+public abstract class BatchedReadPublisher<R, T> implements Publisher<T> {
+
+    private static final ILogger LOGGER = Logger.getLogger(BatchedReadPublisher.class);
+
+    private final long startSequence;
+    private final int maxBatchSize;
+
+    /**
+     * @param startSequence the sequence of the first item to read
+     * @param maxBatchSize  the maximum number of items read in one batch
+     */
+    protected BatchedReadPublisher(long startSequence, int maxBatchSize) {
+        this.startSequence = startSequence;
+        this.maxBatchSize = checkPositive(maxBatchSize, "maxBatchSize should be positive");
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        checkNotNull(subscriber, "subscriber can't be null");
+        ReadSubscription subscription = new ReadSubscription(subscriber, startSequence);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Reads at least one and at most {@code maxCount} items starting from the given sequence.
+     *
+     * @param sequence the sequence of the first item to read
+     * @param maxCount the maximum number of items to read
+     * @return the future of the read items
+     */
+    protected abstract ICompletableFuture<ReadResultSet<R>> read(long sequence, int maxCount);
+
+    /**
+     * Converts a read item to the published item. Returns the item itself by default.
+     *
+     * @param item the read item
+     * @return the item to publish
+     */
+    @SuppressWarnings("unchecked")
+    protected T convert(R item) {
+        return (T) item;
+    }
+
+    /**
+     * Returns the sequence to read from after the given read completed. Returns {@code sequence + readCount}
+     * by default, which is right for sources that fail stale reads instead of skipping ahead, such as a
+     * {@link com.hazelcast.ringbuffer.Ringbuffer}. Sources which report the next sequence to read from, such
+     * as an event journal, override it.
+     *
+     * @param sequence the sequence the read started from
+     * @param result   the result of the read
+     * @return the sequence of the next read
+     */
+    protected long nextSequence(long sequence, ReadResultSet<R> result) {
+        return sequence + result.readCount();
+    }
+
+    private final class ReadSubscription implements Subscription, ExecutionCallback<ReadResultSet<R>> {
+
+        private final Subscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicBoolean reading = new AtomicBoolean();
+        private volatile boolean cancelled;
+        // only accessed by the thread which holds the reading flag
+        private long sequence;
+
+        ReadSubscription(Subscriber<? super T> subscriber, long sequence) {
+            this.subscriber = subscriber;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancelled = true;
+                subscriber.onError(new IllegalArgumentException("Requested number of items should be positive, was " + n));
+                return;
+            }
+            long current;
+            long updated;
+            do {
+                current = demand.get();
+                updated = current + n < 0 ? Long.MAX_VALUE : current + n;
+            } while (!demand.compareAndSet(current, updated));
+            readIfNeeded();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void readIfNeeded() {
+            while (!cancelled && demand.get() > 0 && reading.compareAndSet(false, true)) {
+                if (demand.get() > 0) {
+                    int maxCount = (int) Math.min(demand.get(), maxBatchSize);
+                    ICompletableFuture<ReadResultSet<R>> future;
+                    try {
+                        future = read(sequence, maxCount);
+                    } catch (Throwable t) {
+                        reading.set(false);
+                        onFailure(t);
+                        return;
+                    }
+                    future.andThen(this);
+                    return;
+                }
+                // demand was consumed concurrently, release the flag and check again
+                reading.set(false);
+            }
+        }
+
+        @Override
+        public void onResponse(ReadResultSet<R> result) {
+            try {
+                for (R item : result) {
+                    if (cancelled) {
+                        return;
+                    }
+                    demand.decrementAndGet();
+                    subscriber.onNext(convert(item));
+                }
+            } catch (Throwable t) {
+                cancelled = true;
+                LOGGER.warning("Subscriber " + subscriber + " failed to handle an item, cancelling its subscription", t);
+                return;
+            }
+            sequence = nextSequence(sequence, result);
+            reading.set(false);
+            readIfNeeded();
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            if (!cancelled) {
+                cancelled = true;
+                subscriber.onError(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.reactive;
+
+import com.hazelcast.client.proxy.ClientReliableTopicProxy;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.core.Message;
+import com.hazelcast.internal.journal.EventJournalReader;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.ringbuffer.ReadResultSet;
+import com.hazelcast.ringbuffer.Ringbuffer;
+import com.hazelcast.util.function.Predicate;
+
+import static com.hazelcast.ringbuffer.ReadResultSet.SEQUENCE_UNAVAILABLE;
+import static com.hazelcast.util.Preconditions.checkNotNull;
+
+/**
+ * Factory methods for {@link Publisher}s over the client data structures which can be read in batches.
+ * <p>
+ * All publishers read asynchronously and only as much as their subscribers requested, see
+ * {@link BatchedReadPublisher}.
+ */
+public final class ReactivePublishers {
+
+    private ReactivePublishers() {
+    }
+
+    /**
+     * Creates a publisher of the items of a ringbuffer.
+     *
+     * @param ringbuffer    the ringbuffer to read
+     * @param startSequence the sequence of the first item to publish
+     * @param maxBatchSize  the maximum number of items read in one batch
+     * @param <E>           the type of the ringbuffer items
+     * @return the publisher
+     */
+    public static <E> Publisher<E> ringbuffer(final Ringbuffer<E> ringbuffer, long startSequence, int maxBatchSize) {
+        checkNotNull(ringbuffer, "ringbuffer can't be null");
+        return new BatchedReadPublisher<E, E>(startSequence, maxBatchSize) {
+            @Override
+            protected ICompletableFuture<ReadResultSet<E>> read(long sequence, int maxCount) {
+                return ringbuffer.readManyAsync(sequence, 1, maxCount, null);
+            }
+        };
+    }
+
+    /**
+     * Creates a publisher of the messages of a reliable topic.
+     *
+     * @param topic         the reliable topic, obtained with
+     *                      {@link com.hazelcast.core.HazelcastInstance#getReliableTopic(String)}
+     * @param startSequence the sequence of the first message to publish or {@code -1}
+     *                      to publish the messages published after this call
+     * @param <E>           the type of the message payload
+     * @return the publisher
+     * @throws IllegalArgumentException if the topic is not a client reliable topic
+     */
+    public static <E> Publisher<Message<E>> reliableTopic(ITopic<E> topic, long startSequence) {
+        checkNotNull(topic, "topic can't be null");
+        if (!(topic instanceof ClientReliableTopicProxy)) {
+            throw new IllegalArgumentException("Topic " + topic + " is not a reliable topic of a client");
+        }
+        return ((ClientReliableTopicProxy<E>) topic).publisher(startSequence);
+    }
+
+    /**
+     * Creates a publisher of the events of a single partition of an event journal,
+     * for example the one of an {@link com.hazelcast.core.IMap} obtained from a client.
+     *
+     * @param reader        the event journal reader
+     * @param partitionId   the partition whose events are published
+     * @param startSequence the sequence of the first event to read,
+     *                      see {@link EventJournalReader#subscribeToEventJournal(int)}
+     * @param maxBatchSize  the maximum number of events read in one batch
+     * @param predicate     the predicate the events must pass to be published, may be {@code null}
+     * @param projection    the projection applied to the events before publishing them, may be {@code null}
+     * @param <E>           the type of the journal events
+     * @param <T>           the type of the published items
+     * @return the publisher
+     */
+    public static <E, T> Publisher<T> eventJournal(final EventJournalReader<E> reader, final int partitionId,
+                                                   long startSequence, int maxBatchSize,
+                                                   final Predicate<? super E> predicate,
+                                                   final Projection<? super E, ? extends T> projection) {
+        checkNotNull(reader, "reader can't be null");
+        return new BatchedReadPublisher<T, T>(startSequence, maxBatchSize) {
+            @Override
+            protected ICompletableFuture<ReadResultSet<T>> read(long sequence, int maxCount) {
+                return reader.readFromEventJournal(sequence, 1, maxCount, partitionId, predicate, projection);
+            }
+
+            @Override
+            protected long nextSequence(long sequence, ReadResultSet<T> result) {
+                // the journal skips ahead when the requested sequence was overwritten
+                long nextSequence = result.getNextSequenceToReadFrom();
+                return nextSequence != SEQUENCE_UNAVAILABLE ? nextSequence : sequence + result.readCount();
+            }
+        };
+    }
+}
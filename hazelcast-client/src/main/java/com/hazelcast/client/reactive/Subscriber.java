@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.reactive;
+
+/**
+ * Receives the items of a {@link Publisher} after having signalled demand for them.
+ * <p>
+ * The methods of a subscriber are never called concurrently for the same subscription,
+ * but they are not necessarily called on the same thread.
+ *
+ * @param <T> the type of the received items
+ */
+public interface Subscriber<T> {
+
+    /**
+     * Called once after {@link Publisher#subscribe(Subscriber)}, before any other method.
+     *
+     * @param subscription the subscription used to signal demand or to cancel
+     */
+    void onSubscribe(Subscription subscription);
+
+    /**
+     * Called for every published item, never more often than requested with
+     * {@link Subscription#request(long)}.
+     *
+     * @param item the published item
+     */
+    void onNext(T item);
+
+    /**
+     * Called when the subscription has failed. No further methods are called afterwards.
+     *
+     * @param t the failure
+     */
+    void onError(Throwable t);
+
+    /**
+     * Called when the publisher has no more items. No further methods are called afterwards.
+     */
+    void onComplete();
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.reactive;
+
+/**
+ * A one-to-one relation between a {@link Publisher} and a {@link Subscriber}.
+ */
+public interface Subscription {
+
+    /**
+     * Adds the given number of items to the outstanding demand of the subscriber.
+     * The demand accumulates up to {@link Long#MAX_VALUE}, which is treated as unbounded.
+     * A non-positive number terminates the subscription with an {@link IllegalArgumentException}.
+     *
+     * @param n the number of additionally requested items
+     */
+    void request(long n);
+
+    /**
+     * Stops publishing. Items of a fetch which is already in flight are dropped.
+     */
+    void cancel();
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Contains a minimal, dependency free Reactive Streams style API for consuming the ringbuffer,
+ * the reliable topic and the event journal from the client without blocking threads.
+ * <p>
+ * The {@link com.hazelcast.client.reactive.Publisher}, {@link com.hazelcast.client.reactive.Subscriber}
+ * and {@link com.hazelcast.client.reactive.Subscription} interfaces have the same shape and contract as
+ * their counterparts in the Reactive Streams specification, so adapting them is a matter of delegation.
+ */
+package com.hazelcast.client.reactive;
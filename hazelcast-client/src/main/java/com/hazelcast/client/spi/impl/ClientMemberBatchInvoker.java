@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.spi.impl;
+
+import com.hazelcast.client.impl.HazelcastClientInstanceImpl;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.spi.ClientPartitionService;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.exception.TargetNotMemberException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import static com.hazelcast.util.ExceptionUtil.rethrow;
+
+/**
+ * Sends a key based request as one batch per member instead of one request per key or per partition.
+ * <p>
+ * The keys are grouped by the owner of the partition they belong to, and a request carrying the keys
+ * of each group is sent to that owner. This is meant for requests handled by a multi-partition message
+ * task on the member side: the receiving member then runs all of its partitions locally in a single
+ * partition iterating batch, and the client pays for one round trip per member.
+ * <p>
+ * Routing is only a hint. The member side still resolves the partitions of the keys itself, so a stale
+ * partition table costs an extra remote hop on the member but never a wrong result. When the owner is
+ * not known yet, or the client is not using smart routing, the keys are sent to any member.
+ */
+public final class ClientMemberBatchInvoker {
+
+    /**
+     * Creates the request carrying a batch of keys.
+     */
+    public interface RequestFactory {
+
+        /**
+         * @param keys the keys of the batch
+         * @return the request to send for the batch
+         */
+        ClientMessage create(Collection<Data> keys);
+    }
+
+    private ClientMemberBatchInvoker() {
+    }
+
+    /**
+     * Groups the keys by the owner of their partition.
+     * Keys of partitions whose owner is not known yet are grouped under the {@code null} address.
+     *
+     * @param partitionService the partition service of the client
+     * @param keys             the keys to group
+     * @return keys grouped by partition owner
+     */
+    public static Map<Address, List<Data>> groupByOwner(ClientPartitionService partitionService, Collection<Data> keys) {
+        Map<Address, List<Data>> keysByOwner = new HashMap<Address, List<Data>>();
+        for (Data key : keys) {
+            Address owner = partitionService.getPartitionOwner(partitionService.getPartitionId(key));
+            List<Data> ownerKeys = keysByOwner.get(owner);
+            if (ownerKeys == null) {
+                ownerKeys = new ArrayList<Data>();
+                keysByOwner.put(owner, ownerKeys);
+            }
+            ownerKeys.add(key);
+        }
+        return keysByOwner;
+    }
+
+    /**
+     * Sends one request per partition owner and waits for all of them.
+     * <p>
+     * A batch whose target left the cluster before the request was sent is resent to any member.
+     *
+     * @param client         the client instance
+     * @param objectName     the name of the distributed object the requests are sent for
+     * @param keys           the keys to send
+     * @param requestFactory creates the request of each batch
+     * @return the responses of the batches, in no particular order
+     */
+    public static List<ClientMessage> invoke(HazelcastClientInstanceImpl client, String objectName,
+                                             Collection<Data> keys, RequestFactory requestFactory) {
+        if (!client.getClientConfig().getNetworkConfig().isSmartRouting()) {
+            ClientInvocationFuture future = new ClientInvocation(client, requestFactory.create(keys), objectName).invoke();
+            List<ClientMessage> responses = new ArrayList<ClientMessage>(1);
+            responses.add(await(client, objectName, keys, requestFactory, future));
+            return responses;
+        }
+
+        Map<Address, List<Data>> keysByOwner = groupByOwner(client.getClientPartitionService(), keys);
+        List<ClientInvocationFuture> futures = new ArrayList<ClientInvocationFuture>(keysByOwner.size());
+        List<List<Data>> batches = new ArrayList<List<Data>>(keysByOwner.size());
+        for (Map.Entry<Address, List<Data>> entry : keysByOwner.entrySet()) {
+            Address owner = entry.getKey();
+            List<Data> batch = entry.getValue();
+            ClientMessage request = requestFactory.create(batch);
+            ClientInvocation invocation = owner == null
+                    ? new ClientInvocation(client, request, objectName)
+                    : new ClientInvocation(client, request, objectName, owner);
+            futures.add(invocation.invoke());
+            batches.add(batch);
+        }
+
+        List<ClientMessage> responses = new ArrayList<ClientMessage>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            responses.add(await(client, objectName, batches.get(i), requestFactory, futures.get(i)));
+        }
+        return responses;
+    }
+
+    private static ClientMessage await(HazelcastClientInstanceImpl client, String objectName, Collection<Data> batch,
+                                       RequestFactory requestFactory, ClientInvocationFuture future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof TargetNotMemberException)) {
+                throw rethrow(e);
+            }
+            // the request never reached a member, so it is safe to resend it without a target
+            ClientMessage request = requestFactory.create(batch);
+            try {
+                return new ClientInvocation(client, request, objectName).invoke().get();
+            } catch (Exception retryException) {
+                throw rethrow(retryException);
+            }
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.hazelcast.client.spi.properties;
 
 import com.hazelcast.spi.properties.HazelcastProperty;
 
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -155,6 +156,42 @@ public final class ClientProperty {
     public static final HazelcastProperty IO_OUTPUT_THREAD_COUNT
             = new HazelcastProperty("hazelcast.client.io.output.thread.count", -1);
 
+    /**
+     * The maximum time in microseconds a connection waits for more requests before writing them to the socket,
+     * when many requests are written to it concurrently. The requests written within this window are coalesced
+     * into a single socket write, which reduces the number of system calls when there are many concurrent
+     * (async) invocations, at the cost of some latency.
+     *
+     * Requests are only delayed when more than a single request was pending; an idle connection writes a request
+     * right away. The default is 0, which disables write coalescing.
+     */
+    public static final HazelcastProperty IO_WRITE_COALESCING_MICROS
+            = new HazelcastProperty("hazelcast.client.io.write.coalescing.micros", 0, MICROSECONDS);
+
+    /**
+     * The number of connections a smart client opens to each member. A single connection is served by a
+     * single IO thread on each side, which limits the throughput of a busy client to a member.
+     *
+     * The first connection is opened as before, the additional ones are opened in the background once it is
+     * established and are closed together with it. Partition invocations are spread over the connections by
+     * partition id, and the invocations of a partition keep using the same connection; other invocations are
+     * spread round-robin. Listeners are only registered on the first connection. The default is 1.
+     */
+    public static final HazelcastProperty IO_CONNECTIONS_PER_MEMBER
+            = new HazelcastProperty("hazelcast.client.io.connections.per.member", 1);
+
+    /**
+     * The maximum number of predicate query, projection and aggregation results cached per map on the client.
+     * The default is 0, which disables the cache.
+     *
+     * When enabled, the first cached query of a map registers a listener without values on the map, and any
+     * change of the map invalidates all cached results of the map. Repeated identical queries are then served
+     * from the client until the map changes. Like a Near Cache, the cache is eventually consistent: a change is
+     * only seen once its event has reached the client. Queries with a paging predicate are never cached.
+     */
+    public static final HazelcastProperty MAP_QUERY_RESULT_CACHE_SIZE
+            = new HazelcastProperty("hazelcast.client.map.query.result.cache.size", 0);
+
     /**
      * The interval in seconds between {@link com.hazelcast.internal.networking.nio.iobalancer.IOBalancer IOBalancer}
      * executions. The shorter intervals will catch I/O Imbalance faster, but they will cause higher overhead.
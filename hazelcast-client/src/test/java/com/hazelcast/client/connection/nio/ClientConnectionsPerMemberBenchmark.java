@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.connection.nio;
+
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.spi.properties.ClientProperty;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.test.HazelcastTestSupport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the throughput of a single client with one and with several connections per member.
+ * <p>
+ * Runs {@link #THREAD_COUNT} threads doing async map puts and gets with at most {@link #MAX_IN_FLIGHT}
+ * pending operations each, and prints the throughput for each configured number of connections.
+ */
+public class ClientConnectionsPerMemberBenchmark extends HazelcastTestSupport {
+
+    private static final int[] CONNECTIONS_PER_MEMBER = {1, 2, 4};
+    private static final int THREAD_COUNT = 32;
+    private static final int MAX_IN_FLIGHT = 64;
+    private static final int KEY_COUNT = 10000;
+    private static final int DURATION_SECONDS = 30;
+    private static final byte[] VALUE = new byte[100];
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("hazelcast.local.localAddress", "127.0.0.1");
+        Hazelcast.newHazelcastInstance();
+        Hazelcast.newHazelcastInstance();
+
+        for (int connectionsPerMember : CONNECTIONS_PER_MEMBER) {
+            ClientConfig config = new ClientConfig();
+            config.setProperty(ClientProperty.IO_CONNECTIONS_PER_MEMBER.getName(), String.valueOf(connectionsPerMember));
+            HazelcastInstance client = HazelcastClient.newHazelcastClient(config);
+            long operations = run(client.<Integer, byte[]>getMap("benchmark"));
+            System.err.println("connections per member: " + connectionsPerMember
+                    + ",\t throughput: " + operations / DURATION_SECONDS + " ops/s");
+            client.shutdown();
+        }
+        Hazelcast.shutdownAll();
+    }
+
+    private static long run(final IMap<Integer, byte[]> map) throws InterruptedException {
+        final AtomicLong operations = new AtomicLong();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+        List<Thread> threads = new ArrayList<Thread>(THREAD_COUNT);
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    Random random = new Random();
+                    List<Future<?>> futures = new ArrayList<Future<?>>(MAX_IN_FLIGHT);
+                    try {
+                        while (System.nanoTime() < deadline) {
+                            for (int k = 0; k < MAX_IN_FLIGHT; k++) {
+                                int key = random.nextInt(KEY_COUNT);
+                                futures.add(random.nextBoolean() ? map.putAsync(key, VALUE) : map.getAsync(key));
+                            }
+                            for (Future<?> future : futures) {
+                                future.get();
+                            }
+                            operations.addAndGet(futures.size());
+                            futures.clear();
+                        }
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                }
+            };
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return operations.get();
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.connection.nio;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.spi.properties.ClientProperty;
+import com.hazelcast.client.test.ClientTestSupport;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientConnectionsPerMemberTest extends ClientTestSupport {
+
+    private static final int CONNECTIONS_PER_MEMBER = 3;
+
+    private final TestHazelcastFactory factory = new TestHazelcastFactory();
+
+    @After
+    public void cleanup() {
+        factory.terminateAll();
+    }
+
+    @Test
+    public void testAdditionalConnectionsAreOpened() {
+        HazelcastInstance member1 = factory.newHazelcastInstance();
+        HazelcastInstance member2 = factory.newHazelcastInstance();
+        HazelcastInstance client = newClient(CONNECTIONS_PER_MEMBER);
+        final ClientConnectionManagerImpl connectionManager = getClientConnectionManager(client);
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(2, connectionManager.getActiveConnections().size());
+                assertEquals(2 * (CONNECTIONS_PER_MEMBER - 1), connectionManager.getSecondaryConnections().size());
+            }
+        });
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) map.get(i));
+        }
+        assertEquals(1000, member1.getMap(map.getName()).size());
+        assertEquals(1000, member2.getMap(map.getName()).size());
+    }
+
+    @Test
+    public void testSamePartitionUsesSameConnection() throws Exception {
+        HazelcastInstance member = factory.newHazelcastInstance();
+        HazelcastInstance client = newClient(CONNECTIONS_PER_MEMBER);
+        final ClientConnectionManagerImpl connectionManager = getClientConnectionManager(client);
+        Address address = member.getCluster().getLocalMember().getAddress();
+
+        // the additional connections are opened as soon as the first one is authenticated
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(CONNECTIONS_PER_MEMBER - 1, connectionManager.getSecondaryConnections().size());
+            }
+        });
+
+        Set<Connection> connections = new HashSet<Connection>();
+        for (int partitionId = 0; partitionId < CONNECTIONS_PER_MEMBER; partitionId++) {
+            Connection connection = connectionManager.getOrTriggerConnect(address, partitionId, false);
+            assertSame(connection, connectionManager.getOrTriggerConnect(address, partitionId, false));
+            connections.add(connection);
+        }
+        assertEquals(CONNECTIONS_PER_MEMBER, connections.size());
+        assertSame(connectionManager.getActiveConnection(address), connectionManager.getOrTriggerConnect(address, 0, false));
+    }
+
+    @Test
+    public void testPartitionMovesToOtherConnection_onlyWhenItsConnectionCloses() throws Exception {
+        HazelcastInstance member = factory.newHazelcastInstance();
+        HazelcastInstance client = newClient(CONNECTIONS_PER_MEMBER);
+        final ClientConnectionManagerImpl connectionManager = getClientConnectionManager(client);
+        Address address = member.getCluster().getLocalMember().getAddress();
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(CONNECTIONS_PER_MEMBER - 1, connectionManager.getSecondaryConnections().size());
+            }
+        });
+        int partitionId = 1;
+        Connection boundConnection = connectionManager.getOrTriggerConnect(address, partitionId, false);
+
+        boundConnection.close("test", null);
+
+        // until the additional connection is opened again, the partition is bound to the first connection
+        Connection newConnection = connectionManager.getOrTriggerConnect(address, partitionId, false);
+        assertNotSame(boundConnection, newConnection);
+        assertTrue(newConnection.isAlive());
+        assertSame(connectionManager.getActiveConnection(address), newConnection);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(CONNECTIONS_PER_MEMBER - 1, connectionManager.getSecondaryConnections().size());
+            }
+        });
+        assertSame(newConnection, connectionManager.getOrTriggerConnect(address, partitionId, false));
+    }
+
+    @Test
+    public void testAdditionalConnectionsAreClosed_whenFirstConnectionCloses() throws Exception {
+        HazelcastInstance member = factory.newHazelcastInstance();
+        HazelcastInstance client = newClient(CONNECTIONS_PER_MEMBER);
+        final ClientConnectionManagerImpl connectionManager = getClientConnectionManager(client);
+        Address address = member.getCluster().getLocalMember().getAddress();
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(CONNECTIONS_PER_MEMBER - 1, connectionManager.getSecondaryConnections().size());
+            }
+        });
+        final Collection<ClientConnection> secondaryConnections = connectionManager.getSecondaryConnections();
+
+        connectionManager.getActiveConnection(address).close("test", null);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                for (ClientConnection connection : secondaryConnections) {
+                    assertFalse(connection.isAlive());
+                    assertFalse(connectionManager.getSecondaryConnections().contains(connection));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testAdditionalConnectionsAreRemoved_whenMemberLeaves() {
+        factory.newHazelcastInstance();
+        HazelcastInstance member2 = factory.newHazelcastInstance();
+        HazelcastInstance client = newClient(CONNECTIONS_PER_MEMBER);
+        final ClientConnectionManagerImpl connectionManager = getClientConnectionManager(client);
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(2 * (CONNECTIONS_PER_MEMBER - 1), connectionManager.getSecondaryConnections().size());
+            }
+        });
+
+        member2.getLifecycleService().terminate();
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(CONNECTIONS_PER_MEMBER - 1, connectionManager.getSecondaryConnections().size());
+            }
+        });
+        assertEquals(1000, map.size());
+    }
+
+    @Test
+    public void testSingleConnectionByDefault() {
+        HazelcastInstance member = factory.newHazelcastInstance();
+        HazelcastInstance client = factory.newHazelcastClient();
+        ClientConnectionManagerImpl connectionManager = getClientConnectionManager(client);
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+
+        assertEquals(0, connectionManager.getSecondaryConnections().size());
+        assertEquals(100, member.getMap(map.getName()).size());
+    }
+
+    private HazelcastInstance newClient(int connectionsPerMember) {
+        ClientConfig config = new ClientConfig();
+        config.setProperty(ClientProperty.IO_CONNECTIONS_PER_MEMBER.getName(), String.valueOf(connectionsPerMember));
+        return factory.newHazelcastClient(config);
+    }
+
+    private ClientConnectionManagerImpl getClientConnectionManager(HazelcastInstance client) {
+        return (ClientConnectionManagerImpl) getHazelcastClientInstanceImpl(client).getConnectionManager();
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.spi.properties.ClientProperty;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.AbstractEntryProcessor;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.TruePredicate;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientMapQueryResultCacheTest extends HazelcastTestSupport {
+
+    private static final ConcurrentMap<String, AtomicInteger> EVALUATIONS = new ConcurrentHashMap<String, AtomicInteger>();
+
+    private final TestHazelcastFactory factory = new TestHazelcastFactory();
+
+    private HazelcastInstance client;
+    private IMap<Integer, Integer> map;
+
+    @Before
+    public void setup() {
+        factory.newHazelcastInstance();
+        factory.newHazelcastInstance();
+        ClientConfig config = new ClientConfig();
+        config.setProperty(ClientProperty.MAP_QUERY_RESULT_CACHE_SIZE.getName(), "10");
+        client = factory.newHazelcastClient(config);
+        map = client.getMap(randomMapName());
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+    }
+
+    @After
+    public void cleanup() {
+        factory.terminateAll();
+    }
+
+    @Test
+    public void testValues_servedFromCache() {
+        String name = randomString();
+        EVALUATIONS.put(name, new AtomicInteger());
+        assertEquals(50, map.values(new CountingPredicate(name, 50)).size());
+        int evaluations = EVALUATIONS.get(name).get();
+
+        assertEquals(50, map.values(new CountingPredicate(name, 50)).size());
+        assertEquals(50, map.keySet(new CountingPredicate(name, 50)).size());
+        assertEquals(50, map.keySet(new CountingPredicate(name, 50)).size());
+
+        assertEquals(evaluations + 100, EVALUATIONS.get(name).get());
+    }
+
+    @Test
+    public void testValues_invalidatedByUpdate() {
+        final String name = randomString();
+        assertEquals(50, map.values(new CountingPredicate(name, 50)).size());
+
+        map.put(1000, 1);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(51, map.values(new CountingPredicate(name, 50)).size());
+            }
+        });
+    }
+
+    @Test
+    public void testEntrySet_invalidatedByRemove() {
+        final String name = randomString();
+        assertEquals(50, map.entrySet(new CountingPredicate(name, 50)).size());
+
+        map.remove(1);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(49, map.entrySet(new CountingPredicate(name, 50)).size());
+            }
+        });
+    }
+
+    @Test
+    public void testAggregate_invalidatedByClear() {
+        assertEquals(100, (long) map.aggregate(Aggregators.<Map.Entry<Integer, Integer>>count()));
+
+        map.clear();
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(0, (long) map.aggregate(Aggregators.<Map.Entry<Integer, Integer>>count()));
+            }
+        });
+    }
+
+    @Test
+    public void testValues_invalidatedRightAway_byOwnPut() {
+        String name = randomString();
+        assertEquals(50, map.values(new CountingPredicate(name, 50)).size());
+
+        map.put(1000, 1);
+
+        assertEquals(51, map.values(new CountingPredicate(name, 50)).size());
+    }
+
+    @Test
+    public void testKeySet_invalidatedRightAway_byOwnAsyncRemove() throws Exception {
+        String name = randomString();
+        assertEquals(50, map.keySet(new CountingPredicate(name, 50)).size());
+
+        map.removeAsync(1).get();
+
+        assertEquals(49, map.keySet(new CountingPredicate(name, 50)).size());
+    }
+
+    @Test
+    public void testAggregate_invalidatedRightAway_byOwnPutAll() {
+        assertEquals(100, (long) map.aggregate(Aggregators.<Map.Entry<Integer, Integer>>count()));
+
+        Map<Integer, Integer> entries = new HashMap<Integer, Integer>();
+        for (int i = 100; i < 110; i++) {
+            entries.put(i, i);
+        }
+        map.putAll(entries);
+
+        assertEquals(110, (long) map.aggregate(Aggregators.<Map.Entry<Integer, Integer>>count()));
+    }
+
+    @Test
+    public void testEntrySet_invalidatedRightAway_byOwnEntryProcessor() {
+        String name = randomString();
+        assertEquals(50, map.entrySet(new CountingPredicate(name, 50)).size());
+
+        map.executeOnKey(99, new SetValueEntryProcessor(0));
+
+        assertEquals(51, map.entrySet(new CountingPredicate(name, 50)).size());
+    }
+
+    @Test
+    public void testValues_notSharedBetweenCallers_whenMutated() throws Exception {
+        final IMap<Integer, int[]> arrays = client.getMap(randomMapName());
+        for (int i = 0; i < 10; i++) {
+            arrays.put(i, new int[]{i});
+        }
+
+        assertResultsNotShared(new Callable<Collection<int[]>>() {
+            @Override
+            public Collection<int[]> call() {
+                return arrays.values(TruePredicate.INSTANCE);
+            }
+        });
+    }
+
+    @Test
+    public void testProject_notSharedBetweenCallers_whenMutated() throws Exception {
+        final IMap<Integer, int[]> arrays = client.getMap(randomMapName());
+        for (int i = 0; i < 10; i++) {
+            arrays.put(i, new int[]{i});
+        }
+
+        assertResultsNotShared(new Callable<Collection<int[]>>() {
+            @Override
+            public Collection<int[]> call() {
+                return arrays.project(new ValueProjection());
+            }
+        });
+    }
+
+    /**
+     * Runs the query concurrently and repeatedly, mostly served from the cache, while every caller mutates
+     * the values it gets. No caller may see the mutations of another one.
+     */
+    private static void assertResultsNotShared(final Callable<Collection<int[]>> query) throws Exception {
+        List<Future> futures = new ArrayList<Future>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(spawn(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    for (int i = 0; i < 100; i++) {
+                        Collection<int[]> values = query.call();
+                        assertEquals(10, values.size());
+                        for (int[] value : values) {
+                            assertTrue("Saw the mutation of another caller", value[0] >= 0);
+                            value[0] = -1;
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future future : futures) {
+            future.get();
+        }
+    }
+
+    private static class ValueProjection extends Projection<Map.Entry<Integer, int[]>, int[]> {
+
+        @Override
+        public int[] transform(Map.Entry<Integer, int[]> input) {
+            return input.getValue();
+        }
+    }
+
+    private static class SetValueEntryProcessor extends AbstractEntryProcessor<Integer, Integer> {
+
+        private final int value;
+
+        SetValueEntryProcessor(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object process(Map.Entry<Integer, Integer> entry) {
+            entry.setValue(value);
+            return null;
+        }
+    }
+
+    /**
+     * Matches the values below a threshold and counts its evaluations. The name makes
+     * the predicate of each test different, so the tests do not share cached results.
+     */
+    private static class CountingPredicate implements Predicate<Integer, Integer> {
+
+        private final String name;
+        private final int threshold;
+
+        CountingPredicate(String name, int threshold) {
+            this.name = name;
+            this.threshold = threshold;
+        }
+
+        @Override
+        public boolean apply(Map.Entry<Integer, Integer> mapEntry) {
+            AtomicInteger evaluations = EVALUATIONS.get(name);
+            if (evaluations != null) {
+                evaluations.incrementAndGet();
+            }
+            return mapEntry.getValue() < threshold;
+        }
+
+        @Override
+        public String toString() {
+            return "CountingPredicate{" + name + '}';
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.MapValueCompressionTest.Person;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientMapValueCompressionTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 100;
+
+    private TestHazelcastFactory factory = new TestHazelcastFactory();
+    private IMap<Integer, Person> map;
+
+    @Before
+    public void setUp() {
+        String mapName = randomMapName();
+        Config config = getConfig()
+                .setProperty(GroupProperty.MAP_VALUE_COMPRESSION_MIN_SIZE.getName(), "64");
+        config.getMapConfig(mapName)
+                .setInMemoryFormat(InMemoryFormat.BINARY)
+                .setValueCompressionEnabled(true);
+        factory.newHazelcastInstance(config);
+        factory.newHazelcastInstance(config);
+        HazelcastInstance client = factory.newHazelcastClient();
+        map = client.getMap(mapName);
+    }
+
+    @After
+    public void tearDown() {
+        factory.terminateAll();
+    }
+
+    @Test
+    public void testPutAndGet() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(null, map.put(i, new Person("name-" + i, i)));
+        }
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(new Person("name-" + i, i), map.get(i));
+        }
+        assertEquals(new Person("name-0", 0), map.put(0, new Person("name-0", 1)));
+        assertEquals(new Person("name-0", 1), map.get(0));
+    }
+
+    @Test
+    public void testPredicateQuery() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, new Person("name-" + i, i));
+        }
+
+        Collection<Person> values = map.values(Predicates.lessThan("age", 10));
+        assertEquals(10, values.size());
+        for (Person person : values) {
+            assertTrue(person.getAge() < 10);
+        }
+
+        for (Map.Entry<Integer, Person> entry : map.entrySet(Predicates.equal("name", "name-42"))) {
+            assertEquals(42, (int) entry.getKey());
+            assertEquals(new Person("name-42", 42), entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.map.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.client.map.impl.ClientQueryResultCache.AGGREGATE;
+import static com.hazelcast.client.map.impl.ClientQueryResultCache.VALUES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientQueryResultCacheTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final Data first = serializationService.toData("first");
+    private final Data second = serializationService.toData("second");
+
+    private final ClientQueryResultCache cache = new ClientQueryResultCache(2);
+
+    @Test
+    public void testGet_whenCached() {
+        cache.put(VALUES, first, null, cache.getVersion(), "result");
+
+        assertEquals("result", cache.get(VALUES, first, null));
+        assertEquals("result", cache.get(VALUES, serializationService.toData("first"), null));
+    }
+
+    @Test
+    public void testGet_whenDifferentKey() {
+        cache.put(VALUES, first, null, cache.getVersion(), "result");
+
+        assertNull(cache.get(AGGREGATE, first, null));
+        assertNull(cache.get(VALUES, second, null));
+        assertNull(cache.get(VALUES, first, second));
+    }
+
+    @Test
+    public void testGet_afterInvalidation() {
+        cache.put(VALUES, first, null, cache.getVersion(), "result");
+
+        cache.invalidate();
+
+        assertNull(cache.get(VALUES, first, null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testPut_whenVersionChanged() {
+        long version = cache.getVersion();
+        cache.invalidate();
+
+        cache.put(VALUES, first, null, version, "result");
+
+        assertNull(cache.get(VALUES, first, null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testPut_evictsLeastRecentlyUsed() {
+        cache.put(VALUES, first, null, cache.getVersion(), "first");
+        cache.put(VALUES, second, null, cache.getVersion(), "second");
+        cache.get(VALUES, first, null);
+
+        cache.put(AGGREGATE, first, second, cache.getVersion(), "third");
+
+        assertEquals(2, cache.size());
+        assertEquals("first", cache.get(VALUES, first, null));
+        assertNull(cache.get(VALUES, second, null));
+        assertEquals("third", cache.get(AGGREGATE, first, second));
+    }
+
+    @Test
+    public void testInvalidationListener() {
+        cache.put(VALUES, first, null, cache.getVersion(), "result");
+
+        cache.getInvalidationListener().entryUpdated(null);
+
+        assertNull(cache.get(VALUES, first, null));
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.reactive;
+
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EventJournalConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.core.Message;
+import com.hazelcast.internal.journal.EventJournalReader;
+import com.hazelcast.map.journal.EventJournalMapEvent;
+import com.hazelcast.ringbuffer.ReadResultSet;
+import com.hazelcast.ringbuffer.Ringbuffer;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ReactivePublishersTest extends HazelcastTestSupport {
+
+    private static final int ITEM_COUNT = 100;
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+
+    private HazelcastInstance client;
+
+    @Before
+    public void setup() {
+        Config config = new Config();
+        config.addEventJournalConfig(new EventJournalConfig().setMapName("journal*").setEnabled(true));
+        hazelcastFactory.newHazelcastInstance(config);
+        client = hazelcastFactory.newHazelcastClient();
+    }
+
+    @After
+    public void cleanup() {
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test
+    public void testRingbuffer_publishesOnlyRequestedItems() {
+        Ringbuffer<Integer> ringbuffer = client.getRingbuffer(randomName());
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            ringbuffer.add(i);
+        }
+        final CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<Integer>();
+        ReactivePublishers.ringbuffer(ringbuffer, 0, 7).subscribe(subscriber);
+
+        subscriber.subscription.request(10);
+        assertSizeEventually(10, subscriber.items);
+        assertTrueAllTheTime(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(10, subscriber.items.size());
+            }
+        }, 2);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertSizeEventually(ITEM_COUNT, subscriber.items);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            assertEquals(i, (int) subscriber.items.get(i));
+        }
+    }
+
+    @Test
+    public void testRingbuffer_publishesNewItems() {
+        Ringbuffer<Integer> ringbuffer = client.getRingbuffer(randomName());
+        CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<Integer>();
+        ReactivePublishers.ringbuffer(ringbuffer, 0, 10).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            ringbuffer.add(i);
+        }
+
+        assertSizeEventually(ITEM_COUNT, subscriber.items);
+    }
+
+    @Test
+    public void testRingbuffer_cancel() {
+        Ringbuffer<Integer> ringbuffer = client.getRingbuffer(randomName());
+        final CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<Integer>();
+        ReactivePublishers.ringbuffer(ringbuffer, 0, 10).subscribe(subscriber);
+        ringbuffer.add(0);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertSizeEventually(1, subscriber.items);
+
+        subscriber.subscription.cancel();
+        for (int i = 1; i < ITEM_COUNT; i++) {
+            ringbuffer.add(i);
+        }
+
+        assertTrueAllTheTime(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(1, subscriber.items.size());
+            }
+        }, 2);
+    }
+
+    @Test
+    public void testRequestNonPositive_signalsError() {
+        Ringbuffer<Integer> ringbuffer = client.getRingbuffer(randomName());
+        CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<Integer>();
+        ReactivePublishers.ringbuffer(ringbuffer, 0, 10).subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+
+        assertOpenEventually(subscriber.errorLatch);
+        assertTrue(subscriber.error.get() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void testReadThrows_signalsError_andAllowsNoFurtherReads() {
+        final AtomicInteger readCount = new AtomicInteger();
+        final IllegalStateException failure = new IllegalStateException("expected");
+        Publisher<Integer> publisher = new BatchedReadPublisher<Integer, Integer>(0, 10) {
+            @Override
+            protected ICompletableFuture<ReadResultSet<Integer>> read(long sequence, int maxCount) {
+                readCount.incrementAndGet();
+                throw failure;
+            }
+        };
+        CollectingSubscriber<Integer> subscriber = new CollectingSubscriber<Integer>();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        subscriber.subscription.request(1);
+
+        assertOpenEventually(subscriber.errorLatch);
+        assertSame(failure, subscriber.error.get());
+        assertEquals(1, readCount.get());
+    }
+
+    @Test
+    public void testReliableTopic() {
+        ITopic<Integer> topic = client.getReliableTopic(randomName());
+        CollectingSubscriber<Message<Integer>> subscriber = new CollectingSubscriber<Message<Integer>>();
+        ReactivePublishers.reliableTopic(topic, -1).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            topic.publish(i);
+        }
+
+        assertSizeEventually(ITEM_COUNT, subscriber.items);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            assertEquals(i, (int) subscriber.items.get(i).getMessageObject());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReliableTopic_whenNotReliable() {
+        ReactivePublishers.reliableTopic(client.getTopic(randomName()), -1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMapEventJournal() throws Exception {
+        String key = "key";
+        IMap<String, Integer> map = client.getMap("journal" + randomName());
+        int partitionId = client.getPartitionService().getPartition(key).getPartitionId();
+        EventJournalReader<EventJournalMapEvent<String, Integer>> reader
+                = (EventJournalReader<EventJournalMapEvent<String, Integer>>) map;
+        long oldestSequence = reader.subscribeToEventJournal(partitionId).get().getOldestSequence();
+
+        CollectingSubscriber<EventJournalMapEvent<String, Integer>> subscriber
+                = new CollectingSubscriber<EventJournalMapEvent<String, Integer>>();
+        ReactivePublishers.<EventJournalMapEvent<String, Integer>, EventJournalMapEvent<String, Integer>>eventJournal(
+                reader, partitionId, oldestSequence, 5, null, null).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            map.put(key, i);
+        }
+
+        assertSizeEventually(ITEM_COUNT, subscriber.items);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            assertEquals(i, (int) subscriber.items.get(i).getNewValue());
+        }
+    }
+
+    private static class CollectingSubscriber<T> implements Subscriber<T> {
+
+        final List<T> items = new CopyOnWriteArrayList<T>();
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        final CountDownLatch errorLatch = new CountDownLatch(1);
+        volatile Subscription subscription;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error.set(t);
+            errorLatch.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.spi.impl;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.impl.HazelcastClientInstanceImpl;
+import com.hazelcast.client.spi.ClientPartitionService;
+import com.hazelcast.client.test.ClientTestSupport;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.AbstractEntryProcessor;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientMemberBatchInvokerTest extends ClientTestSupport {
+
+    private static final int KEY_COUNT = 1000;
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+
+    private HazelcastInstance member;
+
+    @Before
+    public void setup() {
+        member = hazelcastFactory.newHazelcastInstance();
+        hazelcastFactory.newHazelcastInstance();
+        hazelcastFactory.newHazelcastInstance();
+        warmUpPartitions(member);
+    }
+
+    @After
+    public void cleanup() {
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test
+    public void testGroupByOwner() {
+        HazelcastInstance client = hazelcastFactory.newHazelcastClient();
+        HazelcastClientInstanceImpl clientImpl = getHazelcastClientInstanceImpl(client);
+        final ClientPartitionService partitionService = clientImpl.getClientPartitionService();
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                for (int partitionId = 0; partitionId < partitionService.getPartitionCount(); partitionId++) {
+                    assertNotNull(partitionService.getPartitionOwner(partitionId));
+                }
+            }
+        });
+
+        SerializationService serializationService = clientImpl.getSerializationService();
+        List<Data> keys = new ArrayList<Data>(KEY_COUNT);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys.add(serializationService.toData(i));
+        }
+
+        Map<Address, List<Data>> keysByOwner = ClientMemberBatchInvoker.groupByOwner(partitionService, keys);
+
+        assertEquals(3, keysByOwner.size());
+        int groupedKeyCount = 0;
+        for (Map.Entry<Address, List<Data>> entry : keysByOwner.entrySet()) {
+            for (Data key : entry.getValue()) {
+                Address owner = member.getPartitionService().getPartition(key).getOwner().getAddress();
+                assertEquals(owner, entry.getKey());
+            }
+            groupedKeyCount += entry.getValue().size();
+        }
+        assertEquals(KEY_COUNT, groupedKeyCount);
+    }
+
+    @Test
+    public void testExecuteOnKeys_smartRouting() {
+        testExecuteOnKeys(new ClientConfig());
+    }
+
+    @Test
+    public void testExecuteOnKeys_nonSmartRouting() {
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.getNetworkConfig().setSmartRouting(false);
+        testExecuteOnKeys(clientConfig);
+    }
+
+    private void testExecuteOnKeys(ClientConfig clientConfig) {
+        HazelcastInstance client = hazelcastFactory.newHazelcastClient(clientConfig);
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+        Set<Integer> keys = new HashSet<Integer>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            map.put(i, i);
+            keys.add(i);
+        }
+
+        Map<Integer, Object> result = map.executeOnKeys(keys, new IncrementingEntryProcessor());
+
+        assertEquals(KEY_COUNT, result.size());
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertEquals(i + 1, result.get(i));
+            assertEquals(i + 1, (int) map.get(i));
+        }
+    }
+
+    private static class IncrementingEntryProcessor extends AbstractEntryProcessor<Integer, Integer> {
+
+        @Override
+        public Object process(Map.Entry<Integer, Integer> entry) {
+            int newValue = entry.getValue() + 1;
+            entry.setValue(newValue);
+            return newValue;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.topic;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.config.ClientReliableTopicConfig;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.topic.impl.reliable.KeyedReliableMessageListenerMock;
+import com.hazelcast.topic.impl.reliable.ReliableMessageBatchListenerMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.hazelcast.topic.impl.reliable.KeyedReliableMessageListenerMock.KEY_COUNT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientReliableTopicBatchAndKeyedListenerTest extends HazelcastTestSupport {
+
+    private static final int MESSAGE_COUNT = 1000;
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private ITopic<Integer> topic;
+
+    @Before
+    public void setup() {
+        hazelcastFactory.newHazelcastInstance();
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.addReliableTopicConfig(new ClientReliableTopicConfig("topic")
+                .setReadBatchSize(100)
+                .setExecutor(executor));
+        HazelcastInstance client = hazelcastFactory.newHazelcastClient(clientConfig);
+        topic = client.getReliableTopic("topic");
+    }
+
+    @After
+    public void tearDown() {
+        hazelcastFactory.terminateAll();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testBatchListener_receivesMessagesInBatches() {
+        final ReliableMessageBatchListenerMock listener = new ReliableMessageBatchListenerMock();
+        topic.addMessageListener(listener);
+
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            topic.publish(i);
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(MESSAGE_COUNT, listener.messages.size());
+            }
+        });
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            assertEquals(Integer.valueOf(i), listener.messages.get(i));
+        }
+        assertEquals(0, listener.onMessageCalls.get());
+        assertEquals(MESSAGE_COUNT - 1, (long) listener.sequences.get(listener.sequences.size() - 1));
+    }
+
+    @Test
+    public void testBatchListener_continues_whenNotTerminal() {
+        final ReliableMessageBatchListenerMock listener = new ReliableMessageBatchListenerMock();
+        listener.failFirstBatch = true;
+        topic.addMessageListener(listener);
+        topic.publish(0);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(1, listener.batchCount.get());
+            }
+        });
+
+        topic.publish(1);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertContains(listener.messages, 1);
+            }
+        });
+    }
+
+    @Test
+    public void testKeyedListener_keepsOrderPerKey() {
+        final KeyedReliableMessageListenerMock listener = new KeyedReliableMessageListenerMock();
+        topic.addMessageListener(listener);
+
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            topic.publish(i);
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(MESSAGE_COUNT, listener.received.get());
+            }
+        });
+        assertFalse("Messages of a key were received out of order", listener.outOfOrder);
+        for (int key = 0; key < KEY_COUNT; key++) {
+            assertEquals(Integer.valueOf(MESSAGE_COUNT - KEY_COUNT + key), listener.lastByKey.get(key));
+        }
+        assertTrue("Threads: " + listener.threads.size(), listener.threads.size() > 1);
+    }
+
+    @Test
+    public void testKeyedListener_continuesInOrder_whenGetMessageKeyFails() {
+        final KeyedReliableMessageListenerMock listener = new KeyedReliableMessageListenerMock();
+        listener.failingKeyValue = 5;
+        topic.addMessageListener(listener);
+
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            topic.publish(i);
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(MESSAGE_COUNT, listener.received.get());
+            }
+        });
+        assertFalse("Messages of a key were received out of order", listener.outOfOrder);
+    }
+
+    @Test
+    public void testKeyedListener_terminates_whenGetMessageKeyFailsTerminally() {
+        KeyedReliableMessageListenerMock listener = new KeyedReliableMessageListenerMock();
+        listener.failingKeyValue = 0;
+        listener.isTerminal = true;
+        final String id = topic.addMessageListener(listener);
+
+        topic.publish(0);
+
+        // a terminated runner removes itself, so it can't be removed anymore
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertFalse(topic.removeMessageListener(id));
+            }
+        });
+        assertEquals(0, listener.received.get());
+    }
+}
@@ -90,8 +90,13 @@ public class DeserializingEventJournalCacheEvent<K, V>
         out.writeData(toData(dataOldValue, objectOldValue));
     }
 
+    /**
+     * Returns the serialized form of a key or value. The serialized form the
+     * event was created with is preferred, so accessing the deserialized key
+     * or values, e.g. in a predicate, doesn't cause them to be serialized again.
+     */
     private Data toData(Data data, Object o) {
-        return o != null ? serializationService.toData(o) : data;
+        return data != null ? data : serializationService.toData(o);
     }
 
     @Override
@@ -155,6 +155,8 @@ public class MapConfig implements SplitBrainMergeTypeProvider, IdentifiedDataSer
 
     private boolean statisticsEnabled = true;
 
+    private boolean valueCompressionEnabled;
+
     private PartitioningStrategyConfig partitioningStrategyConfig;
 
     private String quorumName;
@@ -193,6 +195,7 @@ public class MapConfig implements SplitBrainMergeTypeProvider, IdentifiedDataSer
         this.readBackupData = config.readBackupData;
         this.cacheDeserializedValues = config.cacheDeserializedValues;
         this.statisticsEnabled = config.statisticsEnabled;
+        this.valueCompressionEnabled = config.valueCompressionEnabled;
         this.mergePolicyConfig = config.mergePolicyConfig;
         this.wanReplicationRef = config.wanReplicationRef != null ? new WanReplicationRef(config.wanReplicationRef) : null;
         this.entryListenerConfigs = new ArrayList<EntryListenerConfig>(config.getEntryListenerConfigs());
@@ -634,6 +637,33 @@ public class MapConfig implements SplitBrainMergeTypeProvider, IdentifiedDataSer
         return this;
     }
 
+    /**
+     * Checks if value compression is enabled for this map.
+     *
+     * @return {@code true} if value compression is enabled, {@code false} otherwise
+     */
+    public boolean isValueCompressionEnabled() {
+        return valueCompressionEnabled;
+    }
+
+    /**
+     * Enables or disables value compression for this map.
+     * <p>
+     * When enabled, serialized values which are larger than
+     * {@link com.hazelcast.spi.properties.GroupProperty#MAP_VALUE_COMPRESSION_MIN_SIZE} are stored, replicated and
+     * returned in compressed form and they are decompressed only when they are deserialized. Compression is only
+     * applied when the in-memory format is {@link InMemoryFormat#BINARY}.
+     * <p>
+     * Compressed values can only be deserialized by members and Java clients of version 3.11 or newer.
+     *
+     * @param valueCompressionEnabled {@code true} to enable value compression, {@code false} to disable
+     * @return the current map config instance
+     */
+    public MapConfig setValueCompressionEnabled(boolean valueCompressionEnabled) {
+        this.valueCompressionEnabled = valueCompressionEnabled;
+        return this;
+    }
+
     /**
      * Gets the WAN target replication reference.
      *
@@ -927,6 +957,9 @@ public class MapConfig implements SplitBrainMergeTypeProvider, IdentifiedDataSer
         if (statisticsEnabled != that.statisticsEnabled) {
             return false;
         }
+        if (valueCompressionEnabled != that.valueCompressionEnabled) {
+            return false;
+        }
         if (!name.equals(that.name)) {
             return false;
         }
@@ -1009,6 +1042,7 @@ public class MapConfig implements SplitBrainMergeTypeProvider, IdentifiedDataSer
         result = 31 * result + getQueryCacheConfigs().hashCode();
         result = 31 * result + getPartitionLostListenerConfigs().hashCode();
         result = 31 * result + (statisticsEnabled ? 1 : 0);
+        result = 31 * result + (valueCompressionEnabled ? 1 : 0);
         result = 31 * result + (partitioningStrategyConfig != null ? partitioningStrategyConfig.hashCode() : 0);
         result = 31 * result + (quorumName != null ? quorumName.hashCode() : 0);
         result = 31 * result + (hotRestartConfig != null ? hotRestartConfig.hashCode() : 0);
@@ -1030,6 +1064,7 @@ public class MapConfig implements SplitBrainMergeTypeProvider, IdentifiedDataSer
                 + ", minEvictionCheckMillis=" + minEvictionCheckMillis
                 + ", maxSizeConfig=" + maxSizeConfig
                 + ", readBackupData=" + readBackupData
+                + ", valueCompressionEnabled=" + valueCompressionEnabled
                 + ", hotRestart=" + hotRestartConfig
                 + ", nearCacheConfig=" + nearCacheConfig
                 + ", mapStoreConfig=" + mapStoreConfig
@@ -1085,6 +1120,10 @@ public class MapConfig implements SplitBrainMergeTypeProvider, IdentifiedDataSer
         out.writeObject(partitioningStrategyConfig);
         out.writeUTF(quorumName);
         out.writeObject(hotRestartConfig);
+        // RU_COMPAT_3_10
+        if (out.getVersion().isGreaterOrEqual(Versions.V3_11)) {
+            out.writeBoolean(valueCompressionEnabled);
+        }
     }
 
     @Override
@@ -1118,5 +1157,9 @@ public class MapConfig implements SplitBrainMergeTypeProvider, IdentifiedDataSer
         partitioningStrategyConfig = in.readObject();
         quorumName = in.readUTF();
         hotRestartConfig = in.readObject();
+        // RU_COMPAT_3_10
+        if (in.getVersion().isGreaterOrEqual(Versions.V3_11)) {
+            valueCompressionEnabled = in.readBoolean();
+        }
     }
 }
@@ -209,6 +209,11 @@ public class MapConfigReadOnly extends MapConfig {
         throw throwReadOnly();
     }
 
+    @Override
+    public MapConfig setValueCompressionEnabled(boolean valueCompressionEnabled) {
+        throw throwReadOnly();
+    }
+
     @Override
     public MapConfig setWanReplicationRef(WanReplicationRef wanReplicationRef) {
         throw throwReadOnly();
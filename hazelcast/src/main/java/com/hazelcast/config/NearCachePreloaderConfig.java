@@ -16,9 +16,11 @@
 
 package com.hazelcast.config;
 
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.impl.Versioned;
 import com.hazelcast.spi.annotation.PrivateApi;
 
 import java.io.IOException;
@@ -34,7 +36,7 @@ import static com.hazelcast.util.Preconditions.checkPositive;
  * @since 3.8
  */
 @SuppressWarnings("WeakerAccess")
-public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Serializable {
+public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Versioned, Serializable {
 
     /**
      * Default initial delay for the Near Cache key storage.
@@ -50,6 +52,7 @@ public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Ser
     private String directory = "";
     private int storeInitialDelaySeconds = DEFAULT_STORE_INITIAL_DELAY_SECONDS;
     private int storeIntervalSeconds = DEFAULT_STORE_INTERVAL_SECONDS;
+    private boolean storeValues;
 
     private NearCachePreloaderConfig readOnly;
 
@@ -60,6 +63,7 @@ public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Ser
         this(nearCachePreloaderConfig.enabled, nearCachePreloaderConfig.directory);
         this.storeInitialDelaySeconds = nearCachePreloaderConfig.storeInitialDelaySeconds;
         this.storeIntervalSeconds = nearCachePreloaderConfig.storeIntervalSeconds;
+        this.storeValues = nearCachePreloaderConfig.storeValues;
     }
 
     public NearCachePreloaderConfig(String directory) {
@@ -109,6 +113,29 @@ public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Ser
         return this;
     }
 
+    /**
+     * Returns if the Near Cache values are stored together with the keys.
+     *
+     * @return {@code true} if the values are stored, {@code false} if only the keys are stored
+     */
+    public boolean isStoreValues() {
+        return storeValues;
+    }
+
+    /**
+     * Sets if the Near Cache values are stored together with the keys.
+     * <p>
+     * Stored values are loaded directly into the Near Cache, if they were not invalidated in the meantime.
+     * This reduces the load on the cluster during the pre-loading, but requires more disk space.
+     *
+     * @param storeValues {@code true} if the values should be stored, {@code false} otherwise
+     * @return this config instance
+     */
+    public NearCachePreloaderConfig setStoreValues(boolean storeValues) {
+        this.storeValues = storeValues;
+        return this;
+    }
+
     @Override
     public int getFactoryId() {
         return ConfigDataSerializerHook.F_ID;
@@ -125,6 +152,10 @@ public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Ser
         out.writeUTF(directory);
         out.writeInt(storeInitialDelaySeconds);
         out.writeInt(storeIntervalSeconds);
+        // RU_COMPAT_3_10
+        if (out.getVersion().isGreaterOrEqual(Versions.V3_11)) {
+            out.writeBoolean(storeValues);
+        }
     }
 
     @Override
@@ -133,6 +164,10 @@ public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Ser
         directory = in.readUTF();
         storeInitialDelaySeconds = in.readInt();
         storeIntervalSeconds = in.readInt();
+        // RU_COMPAT_3_10
+        if (in.getVersion().isGreaterOrEqual(Versions.V3_11)) {
+            storeValues = in.readBoolean();
+        }
     }
 
     @Override
@@ -142,6 +177,7 @@ public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Ser
                 + ", directory=" + directory
                 + ", storeInitialDelaySeconds=" + storeInitialDelaySeconds
                 + ", storeIntervalSeconds=" + storeIntervalSeconds
+                + ", storeValues=" + storeValues
                 + '}';
     }
 
@@ -172,6 +208,9 @@ public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Ser
         if (storeIntervalSeconds != that.storeIntervalSeconds) {
             return false;
         }
+        if (storeValues != that.storeValues) {
+            return false;
+        }
         return directory != null ? directory.equals(that.directory) : that.directory == null;
     }
 
@@ -181,6 +220,7 @@ public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Ser
         result = 31 * result + (directory != null ? directory.hashCode() : 0);
         result = 31 * result + storeInitialDelaySeconds;
         result = 31 * result + storeIntervalSeconds;
+        result = 31 * result + (storeValues ? 1 : 0);
         return result;
     }
 
@@ -218,6 +258,11 @@ public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Ser
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        public NearCachePreloaderConfig setStoreValues(boolean storeValues) {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public int getId() {
             throw new UnsupportedOperationException("NearCachePreloaderConfigReadOnly is not serializable");
@@ -17,6 +17,7 @@
 package com.hazelcast.config;
 
 import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.CompactSerializer;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
 import com.hazelcast.nio.serialization.PortableFactory;
 
@@ -65,6 +66,10 @@ public class SerializationConfig {
 
     private JavaSerializationFilterConfig javaSerializationFilterConfig;
 
+    private Collection<CompactSerializer> compactSerializers;
+
+    private Collection<Class> pojoSerializerClasses;
+
     public SerializationConfig() {
     }
 
@@ -321,6 +326,76 @@ public class SerializationConfig {
         return this;
     }
 
+    /**
+     * @return registered serializers of the compact format
+     * @see CompactSerializer
+     */
+    public Collection<CompactSerializer> getCompactSerializers() {
+        if (compactSerializers == null) {
+            compactSerializers = new LinkedList<CompactSerializer>();
+        }
+        return compactSerializers;
+    }
+
+    /**
+     * @param compactSerializer the serializer of the compact format to be registered
+     * @return configured {@link com.hazelcast.config.SerializerConfig} for chaining
+     * @see CompactSerializer
+     */
+    public SerializationConfig addCompactSerializer(CompactSerializer compactSerializer) {
+        getCompactSerializers().add(isNotNull(compactSerializer, "compactSerializer"));
+        return this;
+    }
+
+    /**
+     * @param compactSerializers serializers of the compact format to be registered
+     * @return configured {@link com.hazelcast.config.SerializerConfig} for chaining
+     * @see CompactSerializer
+     */
+    public SerializationConfig setCompactSerializers(Collection<CompactSerializer> compactSerializers) {
+        this.compactSerializers = compactSerializers;
+        return this;
+    }
+
+    /**
+     * Returns the classes which are serialized field by field by a serializer built at startup, instead of
+     * falling back to {@code java.io.Serializable} or {@code java.io.Externalizable}.
+     *
+     * @return registered POJO serializer classes
+     */
+    public Collection<Class> getPojoSerializerClasses() {
+        if (pojoSerializerClasses == null) {
+            pojoSerializerClasses = new LinkedList<Class>();
+        }
+        return pojoSerializerClasses;
+    }
+
+    /**
+     * Registers a class to be serialized field by field by a serializer built at startup. All non-static,
+     * non-transient fields of the class and its superclasses are serialized and the class needs a no-arg
+     * constructor, which may be private.
+     * <p>
+     * The class has to be registered on all members and clients, and all of them need the same version of
+     * the class: an object written with a different set of fields can't be read.
+     *
+     * @param pojoClass the class to register
+     * @return configured {@link com.hazelcast.config.SerializationConfig} for chaining
+     */
+    public SerializationConfig addPojoSerializerClass(Class pojoClass) {
+        getPojoSerializerClasses().add(isNotNull(pojoClass, "pojoClass"));
+        return this;
+    }
+
+    /**
+     * @param pojoSerializerClasses the classes to be serialized field by field
+     * @return configured {@link com.hazelcast.config.SerializationConfig} for chaining
+     * @see #addPojoSerializerClass(Class)
+     */
+    public SerializationConfig setPojoSerializerClasses(Collection<Class> pojoSerializerClasses) {
+        this.pojoSerializerClasses = pojoSerializerClasses;
+        return this;
+    }
+
     /**
      * Default value is {@code true} (enabled).
      * When enabled, serialization system will check for class definitions error at start and throw an Serialization
@@ -473,6 +548,8 @@ public class SerializationConfig {
                 + ", serializerConfigs=" + serializerConfigs
                 + ", checkClassDefErrors=" + checkClassDefErrors
                 + ", classDefinitions=" + classDefinitions
+                + ", compactSerializers=" + compactSerializers
+                + ", pojoSerializerClasses=" + pojoSerializerClasses
                 + ", byteOrder=" + byteOrder
                 + ", useNativeByteOrder=" + useNativeByteOrder
                 + ", javaSerializationFilterConfig=" + javaSerializationFilterConfig
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.core;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link MapStore} which can persist a batch of store and delete operations in the order
+ * they were made on the map.
+ * <p/>
+ * {@link MapStore#storeAll(Map)} can only carry the last value of a key, so write-behind map
+ * stores with write-coalescing disabled fall back to calling {@link MapStore#store} and
+ * {@link MapStore#delete} one entry at a time. When the configured map store implements this
+ * interface, write-behind passes whole batches to {@link #storeBatch(List)} instead, for
+ * both coalescing and non-coalescing maps. The batch size is bounded by
+ * {@link com.hazelcast.config.MapStoreConfig#getWriteBatchSize()}.
+ * <p/>
+ * This interface is only used by write-behind map stores; write-through map stores keep
+ * calling the single entry methods.
+ *
+ * @param <K> type of the MapStore key
+ * @param <V> type of the MapStore value
+ */
+public interface OrderedBatchMapStore<K, V> extends MapStore<K, V> {
+
+    /**
+     * Stores and deletes multiple entries in the given order. An entry with a {@code null}
+     * value is a delete of its key, any other entry is a store of its key and value.
+     * The same key can appear several times in a batch.
+     * <p/>
+     * If an exception is thrown, the entries left in the list will try to be stored one by one
+     * using the {@link #store} and {@link #delete} methods. In this way an implementation can
+     * handle partial failures by removing the entries it persisted successfully from the list
+     * before throwing.
+     *
+     * @param entries entries to store or delete, ordered by their update time on the map
+     */
+    void storeBatch(List<Map.Entry<K, V>> entries);
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.core;
+
+/**
+ * A {@link MapLoader} which can load its keys in several independent segments,
+ * for example ranges of a primary key.
+ * <p/>
+ * On initial load and on {@link IMap#loadAll(boolean)}, keys are normally loaded through
+ * a single {@link #loadAllKeys()} iteration on one member. When the map loader implements
+ * this interface, the segments are instead loaded in parallel on the
+ * {@link com.hazelcast.spi.ExecutionService#MAP_LOAD_KEY_SEGMENTS_EXECUTOR} executor of that
+ * member, and the keys of each segment are sent to the partition owners for value loading
+ * while the segment is still being iterated. The pool size of that executor caps the number
+ * of segments loaded at the same time.
+ * <p/>
+ * The segments must be disjoint and together contain the same keys as {@link #loadAllKeys()}.
+ * The returned {@link Iterable}s may implement {@link java.io.Closeable}, in which case
+ * their iterators are closed the same way as the one of {@link #loadAllKeys()}.
+ *
+ * @param <K> type of the MapLoader key
+ * @param <V> type of the MapLoader value
+ */
+public interface SegmentedMapLoader<K, V> extends MapLoader<K, V> {
+
+    /**
+     * Returns the number of key segments. It is called once per key loading.
+     *
+     * @return the number of key segments, at least {@code 1}
+     */
+    int getKeySegmentCount();
+
+    /**
+     * Loads the keys of the given segment.
+     *
+     * @param segment the segment, from {@code 0} to {@link #getKeySegmentCount()} exclusive
+     * @return all the keys of the segment. Keys inside the Iterable may not be null.
+     */
+    Iterable<K> loadAllKeys(int segment);
+}
@@ -107,11 +107,10 @@ public final class ConfigValidator {
      */
     public static void checkNearCacheConfig(String mapName, NearCacheConfig nearCacheConfig,
                                             NativeMemoryConfig nativeMemoryConfig, boolean isClient) {
-        checkNotNativeWhenOpenSource(nearCacheConfig.getInMemoryFormat());
         checkLocalUpdatePolicy(mapName, nearCacheConfig.getLocalUpdatePolicy());
         checkEvictionConfig(nearCacheConfig.getEvictionConfig(), true);
         checkOnHeapNearCacheMaxSizePolicy(nearCacheConfig);
-        checkNearCacheNativeMemoryConfig(nearCacheConfig.getInMemoryFormat(), nativeMemoryConfig, getBuildInfo().isEnterprise());
+        checkNearCacheNativeMemoryConfig(nearCacheConfig.getInMemoryFormat(), nativeMemoryConfig);
 
         if (isClient && nearCacheConfig.isCacheLocalEntries()) {
             throw new IllegalArgumentException("The Near Cache option `cache-local-entries` is not supported in "
@@ -170,13 +169,8 @@ public final class ConfigValidator {
      *
      * @param inMemoryFormat     the {@link InMemoryFormat} of the Near Cache
      * @param nativeMemoryConfig the {@link NativeMemoryConfig} of the Hazelcast instance
-     * @param isEnterprise       {@code true} if the Hazelcast instance is EE, {@code false} otherwise
      */
-    static void checkNearCacheNativeMemoryConfig(InMemoryFormat inMemoryFormat, NativeMemoryConfig nativeMemoryConfig,
-                                                 boolean isEnterprise) {
-        if (!isEnterprise) {
-            return;
-        }
+    static void checkNearCacheNativeMemoryConfig(InMemoryFormat inMemoryFormat, NativeMemoryConfig nativeMemoryConfig) {
         if (inMemoryFormat != NATIVE) {
             return;
         }
@@ -26,9 +26,14 @@ import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.PartitionAwareOperation;
 import com.hazelcast.spi.ReadonlyOperation;
 import com.hazelcast.spi.WaitNotifyKey;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
 import java.io.IOException;
 
+import static com.hazelcast.spi.properties.GroupProperty.EVENT_JOURNAL_READ_MAX_BYTES;
+import static com.hazelcast.spi.properties.GroupProperty.EVENT_JOURNAL_READ_MAX_WAIT_MILLIS;
+import static com.hazelcast.spi.properties.GroupProperty.EVENT_JOURNAL_READ_MIN_BYTES;
+
 /**
  * Reads from the map event journal in batches. You may specify the start sequence,
  * the minumum required number of items in the response, the maximum number of items
@@ -38,6 +43,13 @@ import java.io.IOException;
  * call will wait until it has sufficient items.
  * The predicate, filter and projection may be {@code null} in which case all elements are returned
  * and no projection is applied.
+ * <p>
+ * The serialized size of a response and the time spent waiting for the
+ * minimum number of items can be limited with the
+ * {@link com.hazelcast.spi.properties.GroupProperty#EVENT_JOURNAL_READ_MAX_BYTES},
+ * {@link com.hazelcast.spi.properties.GroupProperty#EVENT_JOURNAL_READ_MIN_BYTES} and
+ * {@link com.hazelcast.spi.properties.GroupProperty#EVENT_JOURNAL_READ_MAX_WAIT_MILLIS}
+ * properties.
  *
  * @param <T> the return type of the projection. It is equal to the journal event type
  *            if the projection is {@code null} or it is the identity projection
@@ -55,6 +67,8 @@ public abstract class EventJournalReadOperation<T, J> extends Operation
     protected transient long sequence;
     protected transient DistributedObjectNamespace namespace;
     private WaitNotifyKey waitNotifyKey;
+    private transient long minBytes;
+    private transient long maxBytes;
 
     public EventJournalReadOperation() {
     }
@@ -104,6 +118,14 @@ public abstract class EventJournalReadOperation<T, J> extends Operation
         // cancelled. Hence, we cannot create the journal and fetch it's wait notify
         // key
         waitNotifyKey = journal.getWaitNotifyKey(namespace, partitionId);
+
+        final HazelcastProperties properties = getNodeEngine().getProperties();
+        minBytes = properties.getLong(EVENT_JOURNAL_READ_MIN_BYTES);
+        maxBytes = properties.getLong(EVENT_JOURNAL_READ_MAX_BYTES);
+        final long maxWaitMillis = properties.getMillis(EVENT_JOURNAL_READ_MAX_WAIT_MILLIS);
+        if (maxWaitMillis >= 0 && (getWaitTimeout() < 0 || getWaitTimeout() > maxWaitMillis)) {
+            setWaitTimeout(maxWaitMillis);
+        }
     }
 
     /**
@@ -119,6 +141,8 @@ public abstract class EventJournalReadOperation<T, J> extends Operation
     public boolean shouldWait() {
         if (resultSet == null) {
             resultSet = createResultSet();
+            resultSet.setByteLimits(minBytes, maxBytes);
+            resultSet.setNextSequenceToReadFrom(startSequence);
             sequence = startSequence;
         }
 
@@ -128,6 +152,7 @@ public abstract class EventJournalReadOperation<T, J> extends Operation
         if (minSize == 0) {
             if (!journal.isNextAvailableSequence(namespace, partitionId, sequence)) {
                 sequence = journal.readMany(namespace, partitionId, sequence, resultSet);
+                resultSet.setNextSequenceToReadFrom(sequence);
             }
             return false;
         }
@@ -162,8 +187,15 @@ public abstract class EventJournalReadOperation<T, J> extends Operation
         return waitNotifyKey;
     }
 
+    /**
+     * {@inheritDoc}
+     * Responds with the items collected so far. The wait timeout is only set
+     * if {@link com.hazelcast.spi.properties.GroupProperty#EVENT_JOURNAL_READ_MAX_WAIT_MILLIS}
+     * is configured.
+     */
     @Override
     public void onWaitExpire() {
+        sendResponse(resultSet);
     }
 
     @Override
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE_AVAILABLE;
+
+/**
+ * {@link MemoryAllocator} which allocates native memory via {@link sun.misc.Unsafe} and keeps track of
+ * the currently allocated bytes.
+ * <p>
+ * An allocator can be limited to a capacity, beyond which a {@link NativeOutOfMemoryError} is thrown. A child
+ * allocator created via {@link #newChild()} keeps track of its own allocations, which also count against
+ * the capacity of its parent.
+ * <p>
+ * The allocator doesn't keep track of the allocated blocks, so it's the caller's duty to free all of them
+ * before the allocator is disposed.
+ */
+public final class UnsafeMemoryAllocator implements MemoryAllocator {
+
+    private final AtomicLong usedMemory = new AtomicLong();
+    private final long capacity;
+    private final UnsafeMemoryAllocator parent;
+
+    public UnsafeMemoryAllocator() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates an allocator which allocates at most the given number of bytes.
+     *
+     * @param capacity the maximum number of allocated bytes
+     */
+    public UnsafeMemoryAllocator(long capacity) {
+        this(capacity, null);
+    }
+
+    private UnsafeMemoryAllocator(long capacity, UnsafeMemoryAllocator parent) {
+        if (!UNSAFE_AVAILABLE) {
+            throw new IllegalStateException("sun.misc.Unsafe is required to allocate native memory, but is not available");
+        }
+        this.capacity = capacity;
+        this.parent = parent;
+    }
+
+    /**
+     * Creates an allocator whose allocations count against the capacity of this allocator.
+     *
+     * @return the child allocator
+     */
+    public UnsafeMemoryAllocator newChild() {
+        return new UnsafeMemoryAllocator(Long.MAX_VALUE, this);
+    }
+
+    @Override
+    public long allocate(long size) {
+        reserve(size);
+        long address;
+        try {
+            address = allocate0(size);
+        } catch (NativeOutOfMemoryError e) {
+            release(size);
+            throw e;
+        }
+        UNSAFE.setMemory(address, size, (byte) 0);
+        return address;
+    }
+
+    @Override
+    public long reallocate(long address, long currentSize, long newSize) {
+        long delta = newSize - currentSize;
+        if (delta > 0) {
+            reserve(delta);
+        }
+        long newAddress;
+        try {
+            newAddress = UNSAFE.reallocateMemory(address, newSize);
+        } catch (OutOfMemoryError e) {
+            if (delta > 0) {
+                release(delta);
+            }
+            throw new NativeOutOfMemoryError("Could not reallocate " + currentSize + " to " + newSize + " bytes", e);
+        }
+        if (delta > 0) {
+            UNSAFE.setMemory(newAddress + currentSize, delta, (byte) 0);
+        } else if (delta < 0) {
+            release(-delta);
+        }
+        return newAddress;
+    }
+
+    @Override
+    public void free(long address, long size) {
+        UNSAFE.freeMemory(address);
+        release(size);
+    }
+
+    /**
+     * Returns the number of currently allocated bytes.
+     *
+     * @return the number of allocated bytes
+     */
+    public long getUsedMemory() {
+        return usedMemory.get();
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    private void reserve(long size) {
+        for (;;) {
+            long used = usedMemory.get();
+            if (used + size > capacity) {
+                throw new NativeOutOfMemoryError("Could not allocate " + size + " bytes, " + used + " of " + capacity
+                        + " bytes are in use");
+            }
+            if (usedMemory.compareAndSet(used, used + size)) {
+                break;
+            }
+        }
+        if (parent != null) {
+            try {
+                parent.reserve(size);
+            } catch (NativeOutOfMemoryError e) {
+                usedMemory.addAndGet(-size);
+                throw e;
+            }
+        }
+    }
+
+    private void release(long size) {
+        usedMemory.addAndGet(-size);
+        if (parent != null) {
+            parent.release(size);
+        }
+    }
+
+    private static long allocate0(long size) {
+        try {
+            return UNSAFE.allocateMemory(size);
+        } catch (OutOfMemoryError e) {
+            throw new NativeOutOfMemoryError("Could not allocate " + size + " bytes", e);
+        }
+    }
+}
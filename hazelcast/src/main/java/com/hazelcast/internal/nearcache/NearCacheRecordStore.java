@@ -22,6 +22,8 @@ import com.hazelcast.monitor.NearCacheStats;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.InitializingObject;
 
+import java.util.concurrent.Executor;
+
 /**
  * {@link NearCacheRecordStore} is the contract point to store keys and values as
  * {@link NearCacheRecord} internally and to serve them.
@@ -123,8 +125,11 @@ public interface NearCacheRecordStore<K, V> extends InitializingObject {
 
     /**
      * Loads the keys into the Near Cache.
+     *
+     * @param adapter  the {@link DataStructureAdapter} to load the values from
+     * @param executor the {@link Executor} to load stored values in parallel
      */
-    void loadKeys(DataStructureAdapter<Object, ?> adapter);
+    void loadKeys(DataStructureAdapter<Object, ?> adapter, Executor executor);
 
     /**
      * Persists the key set of the Near Cache.
@@ -20,8 +20,10 @@ import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
 import com.hazelcast.internal.nearcache.NearCache;
 import com.hazelcast.internal.nearcache.NearCacheRecordStore;
+import com.hazelcast.internal.nearcache.impl.store.NativeNearCacheRecordStore;
 import com.hazelcast.internal.nearcache.impl.store.NearCacheDataRecordStore;
 import com.hazelcast.internal.nearcache.impl.store.NearCacheObjectRecordStore;
 import com.hazelcast.monitor.NearCacheStats;
@@ -44,6 +46,7 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
     protected final SerializationService serializationService;
     protected final TaskScheduler scheduler;
     protected final ClassLoader classLoader;
+    protected final UnsafeMemoryAllocator nativeMemoryAllocator;
 
     protected NearCacheRecordStore<K, V> nearCacheRecordStore;
     protected ScheduledFuture expirationTaskFuture;
@@ -55,18 +58,31 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
     public DefaultNearCache(String name, NearCacheConfig nearCacheConfig,
                             SerializationService serializationService, TaskScheduler scheduler,
                             ClassLoader classLoader) {
-        this(name, nearCacheConfig, null, serializationService, scheduler, classLoader);
+        this(name, nearCacheConfig, null, serializationService, scheduler, classLoader, null);
+    }
+
+    public DefaultNearCache(String name, NearCacheConfig nearCacheConfig,
+                            SerializationService serializationService, TaskScheduler scheduler,
+                            ClassLoader classLoader, UnsafeMemoryAllocator nativeMemoryAllocator) {
+        this(name, nearCacheConfig, null, serializationService, scheduler, classLoader, nativeMemoryAllocator);
     }
 
     public DefaultNearCache(String name, NearCacheConfig nearCacheConfig, NearCacheRecordStore<K, V> nearCacheRecordStore,
                             SerializationService serializationService, TaskScheduler scheduler,
                             ClassLoader classLoader) {
+        this(name, nearCacheConfig, nearCacheRecordStore, serializationService, scheduler, classLoader, null);
+    }
+
+    public DefaultNearCache(String name, NearCacheConfig nearCacheConfig, NearCacheRecordStore<K, V> nearCacheRecordStore,
+                            SerializationService serializationService, TaskScheduler scheduler,
+                            ClassLoader classLoader, UnsafeMemoryAllocator nativeMemoryAllocator) {
         this.name = name;
         this.nearCacheConfig = nearCacheConfig;
         this.serializationService = serializationService;
         this.classLoader = classLoader;
         this.scheduler = scheduler;
         this.nearCacheRecordStore = nearCacheRecordStore;
+        this.nativeMemoryAllocator = nativeMemoryAllocator;
         this.serializeKeys = nearCacheConfig.isSerializeKeys();
     }
 
@@ -90,6 +106,9 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
                 return new NearCacheDataRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
             case OBJECT:
                 return new NearCacheObjectRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
+            case NATIVE:
+                return new NativeNearCacheRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader,
+                        nativeMemoryAllocator);
             default:
                 throw new IllegalArgumentException("Invalid in memory format: " + inMemoryFormat);
         }
@@ -187,7 +206,7 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
 
     @Override
     public void preload(DataStructureAdapter<Object, ?> adapter) {
-        nearCacheRecordStore.loadKeys(adapter);
+        nearCacheRecordStore.loadKeys(adapter, scheduler);
         preloadDone = true;
     }
 
@@ -16,9 +16,12 @@
 
 package com.hazelcast.internal.nearcache.impl;
 
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NativeMemoryConfig;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
 import com.hazelcast.internal.nearcache.NearCache;
 import com.hazelcast.internal.nearcache.NearCacheManager;
 import com.hazelcast.monitor.NearCacheStats;
@@ -41,20 +44,32 @@ public class DefaultNearCacheManager implements NearCacheManager {
     protected final SerializationService serializationService;
     protected final TaskScheduler scheduler;
     protected final ClassLoader classLoader;
+    protected final NativeMemoryConfig nativeMemoryConfig;
 
     private final Queue<ScheduledFuture> preloadTaskFutures = new ConcurrentLinkedQueue<ScheduledFuture>();
     private final ConcurrentMap<String, NearCache> nearCacheMap = new ConcurrentHashMap<String, NearCache>();
     private final Object mutex = new Object();
 
     private volatile ScheduledFuture storageTaskFuture;
+    private UnsafeMemoryAllocator nativeMemoryAllocator;
 
     public DefaultNearCacheManager(SerializationService ss, TaskScheduler es, ClassLoader classLoader) {
+        this(ss, es, classLoader, null);
+    }
+
+    /**
+     * @param nativeMemoryConfig the {@link NativeMemoryConfig} of the instance, which limits the native memory
+     *                           of all NATIVE Near Caches, can be {@code null}
+     */
+    public DefaultNearCacheManager(SerializationService ss, TaskScheduler es, ClassLoader classLoader,
+                                   NativeMemoryConfig nativeMemoryConfig) {
         assert ss != null;
         assert es != null;
 
         this.serializationService = ss;
         this.scheduler = es;
         this.classLoader = classLoader;
+        this.nativeMemoryConfig = nativeMemoryConfig;
     }
 
     @Override
@@ -94,7 +109,26 @@ public class DefaultNearCacheManager implements NearCacheManager {
     }
 
     protected <K, V> NearCache<K, V> createNearCache(String name, NearCacheConfig nearCacheConfig) {
-        return new DefaultNearCache<K, V>(name, nearCacheConfig, serializationService, scheduler, classLoader);
+        return new DefaultNearCache<K, V>(name, nearCacheConfig, serializationService, scheduler, classLoader,
+                getNativeMemoryAllocator(nearCacheConfig));
+    }
+
+    /**
+     * Returns the native memory allocator, which is shared by all NATIVE Near Caches, so their record stores
+     * don't allocate more than the configured native memory size in total.
+     */
+    protected UnsafeMemoryAllocator getNativeMemoryAllocator(NearCacheConfig nearCacheConfig) {
+        if (nearCacheConfig.getInMemoryFormat() != InMemoryFormat.NATIVE) {
+            return null;
+        }
+        synchronized (mutex) {
+            if (nativeMemoryAllocator == null) {
+                long capacity = nativeMemoryConfig != null && nativeMemoryConfig.isEnabled()
+                        ? nativeMemoryConfig.getSize().bytes() : Long.MAX_VALUE;
+                nativeMemoryAllocator = new UnsafeMemoryAllocator(capacity);
+            }
+            return nativeMemoryAllocator;
+        }
     }
 
     @Override
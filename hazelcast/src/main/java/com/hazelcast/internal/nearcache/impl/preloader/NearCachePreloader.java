@@ -18,6 +18,10 @@ package com.hazelcast.internal.nearcache.impl.preloader;
 
 import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.NearCacheRecordStore;
+import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataContainer;
+import com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector;
 import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.internal.util.BufferingInputStream;
 import com.hazelcast.logging.ILogger;
@@ -33,11 +37,30 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
-
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.READ_PERMITTED;
+import static com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector.ALWAYS_FRESH;
 import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
 import static com.hazelcast.nio.Bits.readIntB;
 import static com.hazelcast.nio.Bits.writeIntB;
 import static com.hazelcast.nio.IOUtil.closeResource;
@@ -53,6 +76,12 @@ import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * Loads and stores the keys from a Near Cache into a file.
+ * <p>
+ * Optionally the values are stored together with the partition UUIDs and sequences of the Near Cache invalidation
+ * metadata. The values are then stored in segments, which are appended to the file for the changed entries and compacted
+ * into a new file when the appended segments get too large. On load the segments are memory-mapped and loaded in parallel.
+ * A stored value is only put into the Near Cache if the partition UUID and sequence of its segment match the current
+ * invalidation metadata, otherwise its key is used to fetch the value from the cluster.
  *
  * @param <K> type of the {@link com.hazelcast.internal.nearcache.NearCacheRecord} keys
  */
@@ -62,7 +91,8 @@ public class NearCachePreloader<K> {
      * File format for the file header.
      */
     private enum FileFormat {
-        INTERLEAVED_LENGTH_FIELD
+        INTERLEAVED_LENGTH_FIELD,
+        SEGMENTED_ENTRIES_WITH_METADATA
     }
 
     /**
@@ -84,6 +114,31 @@ public class NearCachePreloader<K> {
      */
     private static final int LOAD_BATCH_SIZE = 100;
 
+    /**
+     * Size of the file header (magic bytes and file format).
+     */
+    private static final int HEADER_SIZE = 2 * INT_SIZE_IN_BYTES;
+    /**
+     * Size of the segment header (segment length and entry count).
+     */
+    private static final int SEGMENT_HEADER_SIZE = 2 * INT_SIZE_IN_BYTES;
+    /**
+     * Maximum size of a segment, before a new one is started.
+     */
+    private static final int SEGMENT_MAX_SIZE = 1 << 26;
+    /**
+     * Maximum number of segments appended to the store file, before it is compacted.
+     */
+    private static final int SEGMENT_MAX_COUNT = 64;
+    /**
+     * Number of entries in a chunk of a segment, which is loaded by a single thread.
+     */
+    private static final int LOAD_CHUNK_SIZE = 10 * LOAD_BATCH_SIZE;
+    /**
+     * Maximum number of threads which load a segmented store file.
+     */
+    private static final int LOAD_MAX_THREAD_COUNT = 8;
+
     private final ILogger logger = Logger.getLogger(NearCachePreloader.class);
     private final byte[] tmpBytes = new byte[INT_SIZE_IN_BYTES];
 
@@ -99,6 +154,14 @@ public class NearCachePreloader<K> {
     private int lastWrittenBytes;
     private int lastKeyCount;
 
+    // state of the segmented store file, only accessed by the storing thread
+    private final Map<Integer, PartitionSnapshot> storedSnapshots = new HashMap<Integer, PartitionSnapshot>();
+    private boolean appendable;
+    private long lastStoreStartedMillis;
+    private long compactedBytes;
+    private long appendedBytes;
+    private int segmentCount;
+
     public NearCachePreloader(String nearCacheName, NearCachePreloaderConfig preloaderConfig,
                               NearCacheStatsImpl nearCacheStats, SerializationService serializationService) {
         this.nearCacheName = nearCacheName;
@@ -121,6 +184,21 @@ public class NearCachePreloader<K> {
      * @param adapter the {@link DataStructureAdapter} to load the values from
      */
     public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
+        loadKeys(adapter, null, false, null);
+    }
+
+    /**
+     * Loads the values via a stored key file into the supplied {@link DataStructureAdapter}.
+     * <p>
+     * If the store file contains values, the valid ones are put directly into the supplied {@link NearCacheRecordStore}.
+     *
+     * @param adapter       the {@link DataStructureAdapter} to load the values from
+     * @param recordStore   the {@link NearCacheRecordStore} to put the stored values into, can be {@code null}
+     * @param serializeKeys {@code true} if the keys of the {@link NearCacheRecordStore} are serialized
+     * @param executor      the {@link Executor} to load the stored values in parallel, can be {@code null}
+     */
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter, NearCacheRecordStore<K, Object> recordStore,
+                         boolean serializeKeys, Executor executor) {
         if (!storeFile.exists()) {
             logger.info(format("Skipped loading keys of Near Cache %s since storage file doesn't exist (%s)", nearCacheName,
                     storeFile.getAbsolutePath()));
@@ -131,7 +209,14 @@ public class NearCachePreloader<K> {
         BufferingInputStream bis = null;
         try {
             bis = new BufferingInputStream(new FileInputStream(storeFile), BUFFER_SIZE);
-            if (!checkHeader(bis)) {
+            FileFormat fileFormat = checkHeader(bis);
+            if (fileFormat == null) {
+                return;
+            }
+            if (fileFormat == FileFormat.SEGMENTED_ENTRIES_WITH_METADATA) {
+                closeResource(bis);
+                bis = null;
+                loadEntries(adapter, recordStore, serializeKeys, executor, startedNanos);
                 return;
             }
 
@@ -146,19 +231,19 @@ public class NearCachePreloader<K> {
         }
     }
 
-    private boolean checkHeader(BufferingInputStream bis) throws IOException {
+    private FileFormat checkHeader(BufferingInputStream bis) throws IOException {
         int magicBytes = readInt(bis);
         if (magicBytes != MAGIC_BYTES) {
             logger.warning(format("Found invalid header for Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()));
-            return false;
+            return null;
         }
         int fileFormat = readInt(bis);
         if (fileFormat < 0 || fileFormat > FileFormat.values().length - 1) {
             logger.warning(format("Found invalid file format for Near Cache %s (%s)", nearCacheName,
                     storeFile.getAbsolutePath()));
-            return false;
+            return null;
         }
-        return true;
+        return FileFormat.values()[fileFormat];
     }
 
     /**
@@ -174,6 +259,9 @@ public class NearCachePreloader<K> {
             lastWrittenBytes = 0;
             lastKeyCount = 0;
 
+            appendable = false;
+            storedSnapshots.clear();
+
             fos = new FileOutputStream(tmpStoreFile, false);
 
             // write header and keys
@@ -203,6 +291,193 @@ public class NearCachePreloader<K> {
         }
     }
 
+    /**
+     * Stores the Near Cache keys and values from the supplied entries, together with the invalidation metadata of
+     * their partitions.
+     * <p>
+     * Only the entries which have been created since the last store, or whose partition metadata has changed since
+     * then, are appended to the store file. The store file is compacted when the appended segments get too large.
+     * Falls back to {@link #storeKeys(Iterator)} if there is no invalidation metadata to validate the stored values.
+     *
+     * @param entries           the entries of a {@link com.hazelcast.internal.nearcache.NearCacheRecordStore}
+     * @param staleReadDetector the {@link StaleReadDetector} of the Near Cache to retrieve the invalidation metadata
+     */
+    public void storeEntries(Iterable<? extends Map.Entry<K, ? extends NearCacheRecord>> entries,
+                             StaleReadDetector staleReadDetector) {
+        if (staleReadDetector == ALWAYS_FRESH) {
+            storeKeys(new KeyIterator<K>(entries.iterator()));
+            return;
+        }
+
+        long startedNanos = System.nanoTime();
+        long startedMillis = System.currentTimeMillis();
+        boolean compact = !appendable || !storeFile.exists()
+                || segmentCount >= SEGMENT_MAX_COUNT || appendedBytes > compactedBytes;
+        RandomAccessFile file = null;
+        try {
+            buf = allocate(BUFFER_SIZE);
+            lastWrittenBytes = 0;
+            lastKeyCount = 0;
+
+            // the metadata has to be read before the records, so an invalidation during the store changes the sequence
+            Map<Integer, PartitionSnapshot> snapshots = createPartitionSnapshots(entries, staleReadDetector);
+
+            appendable = false;
+            file = new RandomAccessFile(compact ? tmpStoreFile : storeFile, "rw");
+            FileChannel channel = file.getChannel();
+            if (compact) {
+                channel.truncate(0);
+                writeInt(channel, MAGIC_BYTES);
+                writeInt(channel, FileFormat.SEGMENTED_ENTRIES_WITH_METADATA.ordinal());
+                flushLocalBuffer(channel);
+            } else {
+                channel.position(channel.size());
+            }
+            int writtenSegments = writeSegments(channel, entries, staleReadDetector, snapshots, compact);
+
+            // cleanup if no entries have been written
+            if (compact && lastKeyCount == 0) {
+                closeResource(file);
+                deleteQuietly(storeFile);
+                updatePersistenceStats(startedNanos);
+                return;
+            }
+
+            channel.force(false);
+            closeResource(file);
+            if (compact) {
+                rename(tmpStoreFile, storeFile);
+                compactedBytes = lastWrittenBytes;
+                appendedBytes = 0;
+                segmentCount = writtenSegments;
+                storedSnapshots.clear();
+            } else {
+                appendedBytes += lastWrittenBytes;
+                segmentCount += writtenSegments;
+            }
+            storedSnapshots.putAll(snapshots);
+            lastStoreStartedMillis = startedMillis;
+            appendable = true;
+
+            updatePersistenceStats(startedNanos);
+        } catch (Exception e) {
+            logger.warning(format("Could not store entries of Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()),
+                    e);
+
+            nearCacheStats.addPersistenceFailure(e);
+        } finally {
+            closeResource(file);
+            deleteQuietly(tmpStoreFile);
+        }
+    }
+
+    private Map<Integer, PartitionSnapshot> createPartitionSnapshots(
+            Iterable<? extends Map.Entry<K, ? extends NearCacheRecord>> entries, StaleReadDetector staleReadDetector) {
+        Map<Integer, PartitionSnapshot> snapshots = new HashMap<Integer, PartitionSnapshot>();
+        for (Map.Entry<K, ? extends NearCacheRecord> entry : entries) {
+            int partitionId = entry.getValue().getPartitionId();
+            if (partitionId < 0 || snapshots.containsKey(partitionId)) {
+                continue;
+            }
+            MetaDataContainer metaData = staleReadDetector.getMetaDataContainer(partitionId);
+            UUID uuid = metaData != null ? metaData.getUuid() : null;
+            if (uuid != null) {
+                snapshots.put(partitionId, new PartitionSnapshot(uuid, metaData.getSequence()));
+            }
+        }
+        return snapshots;
+    }
+
+    private int writeSegments(FileChannel channel, Iterable<? extends Map.Entry<K, ? extends NearCacheRecord>> entries,
+                              StaleReadDetector staleReadDetector, Map<Integer, PartitionSnapshot> snapshots,
+                              boolean compact) throws IOException {
+        int writtenSegments = 0;
+        Set<Integer> segmentPartitions = new HashSet<Integer>();
+        long segmentStart = -1;
+        int segmentSize = 0;
+        int segmentEntryCount = 0;
+        for (Map.Entry<K, ? extends NearCacheRecord> entry : entries) {
+            K key = entry.getKey();
+            NearCacheRecord record = entry.getValue();
+            int partitionId = record.getPartitionId();
+            PartitionSnapshot snapshot = snapshots.get(partitionId);
+            if (snapshot == null || !isStoreRequired(record, snapshot, compact)
+                    || record.getRecordState() != READ_PERMITTED || staleReadDetector.isStaleRead(key, record)) {
+                continue;
+            }
+            Data dataKey = serializationService.toData(key);
+            Data dataValue = serializationService.toData(record.getValue());
+            if (dataKey == null || dataValue == null) {
+                continue;
+            }
+
+            if (segmentStart == -1) {
+                flushLocalBuffer(channel);
+                segmentStart = channel.position();
+                // the segment header is written when the segment is complete
+                writeInt(channel, 0);
+                writeInt(channel, 0);
+            }
+            writeInt(channel, partitionId);
+            writeData(channel, dataKey);
+            writeData(channel, dataValue);
+            segmentPartitions.add(partitionId);
+            segmentSize += 3 * INT_SIZE_IN_BYTES + dataKey.totalSize() + dataValue.totalSize();
+            segmentEntryCount++;
+            lastKeyCount++;
+
+            if (segmentSize >= SEGMENT_MAX_SIZE) {
+                finishSegment(channel, segmentStart, segmentEntryCount, segmentPartitions, snapshots);
+                writtenSegments++;
+                segmentPartitions.clear();
+                segmentStart = -1;
+                segmentSize = 0;
+                segmentEntryCount = 0;
+            }
+        }
+        if (segmentStart != -1) {
+            finishSegment(channel, segmentStart, segmentEntryCount, segmentPartitions, snapshots);
+            writtenSegments++;
+        }
+        return writtenSegments;
+    }
+
+    private boolean isStoreRequired(NearCacheRecord record, PartitionSnapshot snapshot, boolean compact) {
+        if (compact || record.getCreationTime() >= lastStoreStartedMillis) {
+            return true;
+        }
+        // the values of a partition are only valid with the latest metadata, so all of them are stored again
+        PartitionSnapshot storedSnapshot = storedSnapshots.get(record.getPartitionId());
+        return !snapshot.equals(storedSnapshot);
+    }
+
+    /**
+     * Writes the partition metadata of the segment and then its header with the segment length and entry count.
+     * A segment without a header is ignored on load, so an incompletely written segment is never loaded.
+     */
+    private void finishSegment(FileChannel channel, long segmentStart, int entryCount, Set<Integer> partitions,
+                               Map<Integer, PartitionSnapshot> snapshots) throws IOException {
+        writeInt(channel, partitions.size());
+        for (Integer partitionId : partitions) {
+            PartitionSnapshot snapshot = snapshots.get(partitionId);
+            writeInt(channel, partitionId);
+            writeLong(channel, snapshot.uuid.getMostSignificantBits());
+            writeLong(channel, snapshot.uuid.getLeastSignificantBits());
+            writeLong(channel, snapshot.sequence);
+        }
+        flushLocalBuffer(channel);
+
+        long segmentEnd = channel.position();
+        ByteBuffer header = allocate(SEGMENT_HEADER_SIZE);
+        header.putInt((int) (segmentEnd - segmentStart - INT_SIZE_IN_BYTES));
+        header.putInt(entryCount);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header, segmentStart + header.position());
+        }
+        lastWrittenBytes += (int) (segmentEnd - segmentStart);
+    }
+
     private void updatePersistenceStats(long startedNanos) {
         long elapsedMillis = getElapsedMillis(startedNanos);
         nearCacheStats.addPersistence(elapsedMillis, lastWrittenBytes, lastKeyCount);
@@ -235,6 +510,141 @@ public class NearCachePreloader<K> {
         return loadedKeys;
     }
 
+    /**
+     * Loads the entries of a segmented store file. The segments are memory-mapped and split into chunks, which are
+     * loaded by the calling thread and by helper tasks on the supplied executor.
+     * <p>
+     * The calling thread drains the chunks on its own, so helper tasks which have not been started by then are
+     * cancelled instead of being waited for. This way a busy executor never blocks the pre-loading.
+     */
+    private void loadEntries(DataStructureAdapter<Object, ?> adapter, NearCacheRecordStore<K, Object> recordStore,
+                             boolean serializeKeys, Executor executor, long startedNanos) throws Exception {
+        Queue<SegmentChunk> chunks = new ConcurrentLinkedQueue<SegmentChunk>();
+        RandomAccessFile file = new RandomAccessFile(storeFile, "r");
+        try {
+            readSegments(file.getChannel(), chunks);
+        } finally {
+            closeResource(file);
+        }
+
+        AtomicInteger loadedValues = new AtomicInteger();
+        AtomicInteger loadedKeys = new AtomicInteger();
+        int helperCount = executor == null ? 0
+                : Math.min(chunks.size(), Math.min(LOAD_MAX_THREAD_COUNT, Runtime.getRuntime().availableProcessors())) - 1;
+        List<FutureTask<Object>> helpers = new ArrayList<FutureTask<Object>>(Math.max(helperCount, 0));
+        for (int i = 0; i < helperCount; i++) {
+            FutureTask<Object> helper = new FutureTask<Object>(
+                    new ChunkLoader(adapter, recordStore, serializeKeys, chunks, loadedValues, loadedKeys), null);
+            try {
+                executor.execute(helper);
+            } catch (RejectedExecutionException e) {
+                // the calling thread loads the remaining chunks
+                break;
+            }
+            helpers.add(helper);
+        }
+        new ChunkLoader(adapter, recordStore, serializeKeys, chunks, loadedValues, loadedKeys).run();
+        for (FutureTask<Object> helper : helpers) {
+            if (!helper.cancel(false)) {
+                helper.get();
+            }
+        }
+
+        long elapsedMillis = getElapsedMillis(startedNanos);
+        logger.info(format("Loaded %d values and %d keys of Near Cache %s in %d ms", loadedValues.get(), loadedKeys.get(),
+                nearCacheName, elapsedMillis));
+    }
+
+    /**
+     * Maps the complete segments of the store file and splits them into chunks.
+     * Stops at the first incomplete segment, which can be left by a failed append.
+     */
+    private void readSegments(FileChannel channel, Queue<SegmentChunk> chunks) throws IOException {
+        long fileSize = channel.size();
+        long position = HEADER_SIZE;
+        ByteBuffer header = allocate(SEGMENT_HEADER_SIZE);
+        while (position + SEGMENT_HEADER_SIZE <= fileSize) {
+            header.clear();
+            while (header.hasRemaining()) {
+                if (channel.read(header, position + header.position()) < 0) {
+                    return;
+                }
+            }
+            header.flip();
+            int segmentLength = header.getInt();
+            int entryCount = header.getInt();
+            if (segmentLength < INT_SIZE_IN_BYTES || entryCount < 0 || position + INT_SIZE_IN_BYTES + segmentLength > fileSize) {
+                return;
+            }
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position + SEGMENT_HEADER_SIZE,
+                    segmentLength - INT_SIZE_IN_BYTES);
+            splitSegment(segment, entryCount, chunks);
+            position += INT_SIZE_IN_BYTES + segmentLength;
+        }
+    }
+
+    private static void splitSegment(ByteBuffer segment, int entryCount, Queue<SegmentChunk> chunks) throws IOException {
+        Map<Integer, PartitionSnapshot> snapshots = new HashMap<Integer, PartitionSnapshot>();
+        List<SegmentChunk> segmentChunks = new ArrayList<SegmentChunk>();
+        int chunkStart = 0;
+        int chunkEntryCount = 0;
+        for (int i = 0; i < entryCount; i++) {
+            // skip the partition ID, the key and the value
+            skip(segment, INT_SIZE_IN_BYTES);
+            skip(segment, readLength(segment));
+            skip(segment, readLength(segment));
+            if (++chunkEntryCount == LOAD_CHUNK_SIZE || i == entryCount - 1) {
+                ByteBuffer chunk = segment.duplicate();
+                chunk.position(chunkStart);
+                chunk.limit(segment.position());
+                segmentChunks.add(new SegmentChunk(chunk.slice(), chunkEntryCount, snapshots));
+                chunkStart = segment.position();
+                chunkEntryCount = 0;
+            }
+        }
+
+        int snapshotCount = readLength(segment);
+        for (int i = 0; i < snapshotCount; i++) {
+            if (segment.remaining() < INT_SIZE_IN_BYTES + 3 * LONG_SIZE_IN_BYTES) {
+                throw new IOException("Found truncated partition metadata in segment");
+            }
+            int partitionId = segment.getInt();
+            UUID uuid = new UUID(segment.getLong(), segment.getLong());
+            snapshots.put(partitionId, new PartitionSnapshot(uuid, segment.getLong()));
+        }
+        chunks.addAll(segmentChunks);
+    }
+
+    private static int readLength(ByteBuffer segment) throws IOException {
+        if (segment.remaining() < INT_SIZE_IN_BYTES) {
+            throw new IOException("Found truncated entry in segment");
+        }
+        int length = segment.getInt();
+        if (length < 0 || length > segment.remaining()) {
+            throw new IOException("Found invalid entry length " + length + " in segment");
+        }
+        return length;
+    }
+
+    private static void skip(ByteBuffer segment, int length) throws IOException {
+        if (length > segment.remaining()) {
+            throw new IOException("Found truncated entry in segment");
+        }
+        segment.position(segment.position() + length);
+    }
+
+    /**
+     * Returns {@code true} if the partition metadata of a stored value still matches the current invalidation metadata,
+     * which means that there was no invalidation in the partition since the value was stored.
+     */
+    private static boolean isValid(StaleReadDetector staleReadDetector, int partitionId, PartitionSnapshot snapshot) {
+        if (snapshot == null || staleReadDetector == ALWAYS_FRESH) {
+            return false;
+        }
+        MetaDataContainer metaData = staleReadDetector.getMetaDataContainer(partitionId);
+        return metaData != null && snapshot.uuid.equals(metaData.getUuid()) && snapshot.sequence == metaData.getSequence();
+    }
+
     private void writeKeySet(FileOutputStream fos, FileChannel outChannel, Iterator<K> iterator) throws IOException {
         while (iterator.hasNext()) {
             K key = iterator.next();
@@ -271,6 +681,35 @@ public class NearCachePreloader<K> {
         buf.put(tmpBytes);
     }
 
+    private void writeInt(FileChannel outChannel, int value) throws IOException {
+        if (buf.remaining() < INT_SIZE_IN_BYTES) {
+            flushLocalBuffer(outChannel);
+        }
+        buf.putInt(value);
+    }
+
+    private void writeLong(FileChannel outChannel, long value) throws IOException {
+        if (buf.remaining() < LONG_SIZE_IN_BYTES) {
+            flushLocalBuffer(outChannel);
+        }
+        buf.putLong(value);
+    }
+
+    private void writeData(FileChannel outChannel, Data data) throws IOException {
+        byte[] bytes = data.toByteArray();
+        writeInt(outChannel, bytes.length);
+
+        int position = 0;
+        while (position < bytes.length) {
+            if (!buf.hasRemaining()) {
+                flushLocalBuffer(outChannel);
+            }
+            int transferredCount = Math.min(buf.remaining(), bytes.length - position);
+            buf.put(bytes, position, transferredCount);
+            position += transferredCount;
+        }
+    }
+
     private void ensureBufHasRoom(FileOutputStream fos, int expectedSize) throws IOException {
         if (buf.position() < BUFFER_SIZE - expectedSize) {
             return;
@@ -301,4 +740,180 @@ public class NearCachePreloader<K> {
     private static long getElapsedMillis(long startedNanos) {
         return NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
     }
+
+    /**
+     * Loads the entries of segment chunks. A valid value is put into the Near Cache via the reservation of its key,
+     * so a concurrent invalidation of the key is not overwritten. The keys of invalid values are loaded via the
+     * {@link DataStructureAdapter}.
+     */
+    private final class ChunkLoader implements Runnable {
+
+        private final DataStructureAdapter<Object, ?> adapter;
+        private final NearCacheRecordStore<K, Object> recordStore;
+        private final boolean serializeKeys;
+        private final Queue<SegmentChunk> chunks;
+        private final AtomicInteger loadedValues;
+        private final AtomicInteger loadedKeys;
+
+        private Builder<Object> builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
+
+        private ChunkLoader(DataStructureAdapter<Object, ?> adapter, NearCacheRecordStore<K, Object> recordStore,
+                            boolean serializeKeys, Queue<SegmentChunk> chunks, AtomicInteger loadedValues,
+                            AtomicInteger loadedKeys) {
+            this.adapter = adapter;
+            this.recordStore = recordStore;
+            this.serializeKeys = serializeKeys;
+            this.chunks = chunks;
+            this.loadedValues = loadedValues;
+            this.loadedKeys = loadedKeys;
+        }
+
+        @Override
+        public void run() {
+            try {
+                SegmentChunk chunk;
+                while ((chunk = chunks.poll()) != null) {
+                    loadChunk(chunk);
+                }
+                if (builder.size() > 0) {
+                    adapter.getAll(builder.build());
+                }
+            } catch (Exception e) {
+                logger.warning(format("Could not pre-load Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()), e);
+            }
+        }
+
+        private void loadChunk(SegmentChunk chunk) {
+            ByteBuffer buffer = chunk.buffer;
+            for (int i = 0; i < chunk.entryCount; i++) {
+                int partitionId = buffer.getInt();
+                Data keyData = readData(buffer);
+                Data valueData = readData(buffer);
+                if (!loadValue(partitionId, keyData, valueData, chunk.snapshots.get(partitionId))) {
+                    loadKey(keyData);
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean loadValue(int partitionId, Data keyData, Data valueData, PartitionSnapshot snapshot) {
+            if (recordStore == null) {
+                return false;
+            }
+            StaleReadDetector staleReadDetector = recordStore.getStaleReadDetector();
+            if (!isValid(staleReadDetector, partitionId, snapshot)) {
+                return false;
+            }
+            K key = (K) (serializeKeys ? keyData : serializationService.toObject(keyData));
+            recordStore.doEvictionIfRequired();
+            long reservationId = recordStore.tryReserveForUpdate(key, keyData);
+            if (reservationId == NOT_RESERVED) {
+                // the key is already in the Near Cache or it's full
+                return true;
+            }
+            if (!isValid(staleReadDetector, partitionId, snapshot)) {
+                recordStore.invalidate(key);
+                return false;
+            }
+            recordStore.tryPublishReserved(key, valueData, reservationId, false);
+            if (!isValid(staleReadDetector, partitionId, snapshot)) {
+                // an invalidation has been received during the publication
+                recordStore.invalidate(key);
+                return false;
+            }
+            loadedValues.incrementAndGet();
+            return true;
+        }
+
+        private void loadKey(Data keyData) {
+            builder.add(serializationService.toObject(keyData));
+            if (builder.size() == LOAD_BATCH_SIZE) {
+                adapter.getAll(builder.build());
+                builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
+            }
+            loadedKeys.incrementAndGet();
+        }
+
+        private Data readData(ByteBuffer buffer) {
+            byte[] payload = new byte[buffer.getInt()];
+            buffer.get(payload);
+            return new HeapData(payload);
+        }
+    }
+
+    /**
+     * A part of a memory-mapped segment, which is loaded by a single thread.
+     */
+    private static final class SegmentChunk {
+
+        private final ByteBuffer buffer;
+        private final int entryCount;
+        private final Map<Integer, PartitionSnapshot> snapshots;
+
+        private SegmentChunk(ByteBuffer buffer, int entryCount, Map<Integer, PartitionSnapshot> snapshots) {
+            this.buffer = buffer;
+            this.entryCount = entryCount;
+            this.snapshots = snapshots;
+        }
+    }
+
+    /**
+     * The partition UUID and sequence of the Near Cache invalidation metadata at the time of a store.
+     */
+    private static final class PartitionSnapshot {
+
+        private final UUID uuid;
+        private final long sequence;
+
+        private PartitionSnapshot(UUID uuid, long sequence) {
+            this.uuid = uuid;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PartitionSnapshot that = (PartitionSnapshot) o;
+            return sequence == that.sequence && uuid.equals(that.uuid);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = uuid.hashCode();
+            result = 31 * result + (int) (sequence ^ (sequence >>> 32));
+            return result;
+        }
+    }
+
+    /**
+     * Iterates over the keys of Near Cache entries.
+     */
+    private static final class KeyIterator<K> implements Iterator<K> {
+
+        private final Iterator<? extends Map.Entry<K, ?>> iterator;
+
+        private KeyIterator(Iterator<? extends Map.Entry<K, ?>> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public K next() {
+            return iterator.next().getKey();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.nearcache.impl.record;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.UUID;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+
+/**
+ * Flyweight {@link NearCacheRecord} over a record block in native memory.
+ * <p>
+ * The record block consists of a fixed size header, followed by the key and value bytes:
+ * <pre>
+ * | next record | record state | creation time | access time | expiration time | invalidation sequence |
+ * | UUID (most significant bits) | UUID (least significant bits) | partition ID | access hit | key size | value size |
+ * | key bytes | value bytes |
+ * </pre>
+ * The next record address chains records whose keys have the same hash. A value size of {@code -1} denotes
+ * a {@code null} value, a zero UUID denotes a {@code null} UUID.
+ * <p>
+ * An instance is not thread-safe and must only be used while the caller prevents a concurrent free of the block.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public final class NativeNearCacheRecord implements NearCacheRecord<Data> {
+
+    public static final int NEXT_OFFSET = 0;
+    public static final int RECORD_STATE_OFFSET = NEXT_OFFSET + LONG_SIZE_IN_BYTES;
+    public static final int CREATION_TIME_OFFSET = RECORD_STATE_OFFSET + LONG_SIZE_IN_BYTES;
+    public static final int ACCESS_TIME_OFFSET = CREATION_TIME_OFFSET + LONG_SIZE_IN_BYTES;
+    public static final int EXPIRATION_TIME_OFFSET = ACCESS_TIME_OFFSET + LONG_SIZE_IN_BYTES;
+    public static final int SEQUENCE_OFFSET = EXPIRATION_TIME_OFFSET + LONG_SIZE_IN_BYTES;
+    public static final int UUID_MSB_OFFSET = SEQUENCE_OFFSET + LONG_SIZE_IN_BYTES;
+    public static final int UUID_LSB_OFFSET = UUID_MSB_OFFSET + LONG_SIZE_IN_BYTES;
+    public static final int PARTITION_ID_OFFSET = UUID_LSB_OFFSET + LONG_SIZE_IN_BYTES;
+    public static final int ACCESS_HIT_OFFSET = PARTITION_ID_OFFSET + INT_SIZE_IN_BYTES;
+    public static final int KEY_SIZE_OFFSET = ACCESS_HIT_OFFSET + INT_SIZE_IN_BYTES;
+    public static final int VALUE_SIZE_OFFSET = KEY_SIZE_OFFSET + INT_SIZE_IN_BYTES;
+    public static final int HEADER_SIZE = VALUE_SIZE_OFFSET + INT_SIZE_IN_BYTES;
+
+    /**
+     * The value size of a record with a {@code null} value.
+     */
+    public static final int NULL_VALUE_SIZE = -1;
+
+    private final MemoryAccessor mem;
+
+    private long address = NULL_ADDRESS;
+
+    public NativeNearCacheRecord(MemoryAccessor mem) {
+        this.mem = mem;
+    }
+
+    /**
+     * Returns the size of a record block for the given key and value sizes.
+     *
+     * @param keySize   the size of the key bytes
+     * @param valueSize the size of the value bytes or {@link #NULL_VALUE_SIZE}
+     * @return the size of the record block
+     */
+    public static long getSize(int keySize, int valueSize) {
+        return HEADER_SIZE + keySize + Math.max(valueSize, 0);
+    }
+
+    /**
+     * Moves this flyweight to the record block at the given address.
+     *
+     * @param address the address of the record block
+     * @return this flyweight
+     */
+    public NativeNearCacheRecord reset(long address) {
+        this.address = address;
+        return this;
+    }
+
+    public long address() {
+        return address;
+    }
+
+    public long size() {
+        return getSize(getKeySize(), getValueSize());
+    }
+
+    public long getNext() {
+        return mem.getLong(address + NEXT_OFFSET);
+    }
+
+    public void setNext(long next) {
+        mem.putLong(address + NEXT_OFFSET, next);
+    }
+
+    public int getKeySize() {
+        return mem.getInt(address + KEY_SIZE_OFFSET);
+    }
+
+    public int getValueSize() {
+        return mem.getInt(address + VALUE_SIZE_OFFSET);
+    }
+
+    /**
+     * Initializes the key of a newly allocated record block and marks its value as {@code null}.
+     *
+     * @param key the key bytes
+     */
+    public void initKey(byte[] key) {
+        mem.putInt(address + KEY_SIZE_OFFSET, key.length);
+        mem.putInt(address + VALUE_SIZE_OFFSET, NULL_VALUE_SIZE);
+        mem.copyFromByteArray(key, 0, address + HEADER_SIZE, key.length);
+    }
+
+    /**
+     * Writes the value bytes. The record block must be large enough for the given value.
+     *
+     * @param value the value bytes or {@code null}
+     */
+    public void writeValue(byte[] value) {
+        if (value == null) {
+            mem.putInt(address + VALUE_SIZE_OFFSET, NULL_VALUE_SIZE);
+            return;
+        }
+        mem.putInt(address + VALUE_SIZE_OFFSET, value.length);
+        mem.copyFromByteArray(value, 0, address + HEADER_SIZE + getKeySize(), value.length);
+    }
+
+    /**
+     * Checks if the key of this record equals the given key bytes.
+     *
+     * @param key the key bytes
+     * @return {@code true} if the keys are equal, {@code false} otherwise
+     */
+    public boolean keyEquals(byte[] key) {
+        if (getKeySize() != key.length) {
+            return false;
+        }
+        long keyAddress = address + HEADER_SIZE;
+        for (int i = 0; i < key.length; i++) {
+            if (mem.getByte(keyAddress + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a heap copy of the key.
+     *
+     * @return the key as {@link Data}
+     */
+    public Data getKey() {
+        byte[] key = new byte[getKeySize()];
+        mem.copyToByteArray(address + HEADER_SIZE, key, 0, key.length);
+        return new HeapData(key);
+    }
+
+    /**
+     * Returns a heap copy of the value.
+     *
+     * @return the value as {@link Data} or {@code null} if the value is {@code null}
+     */
+    @Override
+    public Data getValue() {
+        int valueSize = getValueSize();
+        if (valueSize == NULL_VALUE_SIZE) {
+            return null;
+        }
+        byte[] value = new byte[valueSize];
+        mem.copyToByteArray(address + HEADER_SIZE + getKeySize(), value, 0, valueSize);
+        return new HeapData(value);
+    }
+
+    /**
+     * Not supported, since a value change may require a reallocation of the record block.
+     */
+    @Override
+    public void setValue(Data value) {
+        throw new UnsupportedOperationException("The value of a native Near Cache record cannot be changed in place");
+    }
+
+    @Override
+    public long getCreationTime() {
+        return mem.getLong(address + CREATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setCreationTime(long time) {
+        mem.putLong(address + CREATION_TIME_OFFSET, time);
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return mem.getLong(address + ACCESS_TIME_OFFSET);
+    }
+
+    @Override
+    public void setAccessTime(long time) {
+        mem.putLong(address + ACCESS_TIME_OFFSET, time);
+    }
+
+    @Override
+    public long getExpirationTime() {
+        return mem.getLong(address + EXPIRATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setExpirationTime(long expirationTime) {
+        mem.putLong(address + EXPIRATION_TIME_OFFSET, expirationTime);
+    }
+
+    @Override
+    public int getAccessHit() {
+        return mem.getInt(address + ACCESS_HIT_OFFSET);
+    }
+
+    @Override
+    public void setAccessHit(int hit) {
+        mem.putInt(address + ACCESS_HIT_OFFSET, hit);
+    }
+
+    @Override
+    public void incrementAccessHit() {
+        setAccessHit(getAccessHit() + 1);
+    }
+
+    @Override
+    public void resetAccessHit() {
+        setAccessHit(0);
+    }
+
+    @Override
+    public boolean isExpiredAt(long now) {
+        long expirationTime = getExpirationTime();
+        return (expirationTime > TIME_NOT_SET) && (expirationTime <= now);
+    }
+
+    @Override
+    public boolean isIdleAt(long maxIdleMilliSeconds, long now) {
+        if (maxIdleMilliSeconds > 0) {
+            long accessTime = getLastAccessTime();
+            if (accessTime > TIME_NOT_SET) {
+                return accessTime + maxIdleMilliSeconds < now;
+            } else {
+                return getCreationTime() + maxIdleMilliSeconds < now;
+            }
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public long getRecordState() {
+        return mem.getLong(address + RECORD_STATE_OFFSET);
+    }
+
+    /**
+     * Compares and sets the record state. Atomicity has to be ensured by the caller, e.g. by a lock.
+     */
+    @Override
+    public boolean casRecordState(long expect, long update) {
+        if (getRecordState() != expect) {
+            return false;
+        }
+        mem.putLong(address + RECORD_STATE_OFFSET, update);
+        return true;
+    }
+
+    @Override
+    public int getPartitionId() {
+        return mem.getInt(address + PARTITION_ID_OFFSET);
+    }
+
+    @Override
+    public void setPartitionId(int partitionId) {
+        mem.putInt(address + PARTITION_ID_OFFSET, partitionId);
+    }
+
+    @Override
+    public long getInvalidationSequence() {
+        return mem.getLong(address + SEQUENCE_OFFSET);
+    }
+
+    @Override
+    public void setInvalidationSequence(long sequence) {
+        mem.putLong(address + SEQUENCE_OFFSET, sequence);
+    }
+
+    @Override
+    public void setUuid(UUID uuid) {
+        mem.putLong(address + UUID_MSB_OFFSET, uuid != null ? uuid.getMostSignificantBits() : 0);
+        mem.putLong(address + UUID_LSB_OFFSET, uuid != null ? uuid.getLeastSignificantBits() : 0);
+    }
+
+    @Override
+    public boolean hasSameUuid(UUID thatUuid) {
+        if (thatUuid == null) {
+            return false;
+        }
+        long mostSigBits = mem.getLong(address + UUID_MSB_OFFSET);
+        long leastSigBits = mem.getLong(address + UUID_LSB_OFFSET);
+        if (mostSigBits == 0 && leastSigBits == 0) {
+            return false;
+        }
+        return mostSigBits == thatUuid.getMostSignificantBits() && leastSigBits == thatUuid.getLeastSignificantBits();
+    }
+
+    /**
+     * Copies this record into a detached {@link NearCacheDataRecord}, which stays valid after the record block is freed.
+     *
+     * @return the heap copy of this record
+     */
+    public NearCacheDataRecord toHeapRecord() {
+        NearCacheDataRecord record = new NearCacheDataRecord(getValue(), getCreationTime(), getExpirationTime());
+        record.setAccessTime(getLastAccessTime());
+        record.setAccessHit(getAccessHit());
+        record.casRecordState(READ_PERMITTED, getRecordState());
+        record.setPartitionId(getPartitionId());
+        record.setInvalidationSequence(getInvalidationSequence());
+        long mostSigBits = mem.getLong(address + UUID_MSB_OFFSET);
+        long leastSigBits = mem.getLong(address + UUID_LSB_OFFSET);
+        if (mostSigBits != 0 || leastSigBits != 0) {
+            record.setUuid(new UUID(mostSigBits, leastSigBits));
+        }
+        return record;
+    }
+
+    @Override
+    public String toString() {
+        return "NativeNearCacheRecord{"
+                + "address=" + address
+                + '}';
+    }
+}
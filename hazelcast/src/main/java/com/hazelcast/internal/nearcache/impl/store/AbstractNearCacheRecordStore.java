@@ -29,6 +29,7 @@ import com.hazelcast.internal.nearcache.NearCacheRecordStore;
 import com.hazelcast.internal.nearcache.impl.SampleableNearCacheRecordMap;
 import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataContainer;
 import com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector;
+import com.hazelcast.internal.util.ThreadLocalRandomProvider;
 import com.hazelcast.monitor.NearCacheStats;
 import com.hazelcast.monitor.impl.NearCacheStatsImpl;
 import com.hazelcast.nio.serialization.Data;
@@ -77,6 +78,16 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
     protected static final long REFERENCE_SIZE = MEM_AVAILABLE ? MEM.arrayIndexScale(Object[].class) : (Integer.SIZE / Byte.SIZE);
     protected static final long MILLI_SECONDS_IN_A_SECOND = 1000;
 
+    /**
+     * Up to this access hit count every access of a record is counted exactly.
+     */
+    static final int ACCESS_HIT_SAMPLING_THRESHOLD = 64;
+    /**
+     * Above {@link #ACCESS_HIT_SAMPLING_THRESHOLD} only one in this number of accesses is recorded,
+     * adding this number to the access hit count, so the expected count stays the same.
+     */
+    static final int ACCESS_HIT_SAMPLING_RATE = 16;
+
     protected final long timeToLiveMillis;
     protected final long maxIdleMillis;
     protected final NearCacheConfig nearCacheConfig;
@@ -447,9 +458,27 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         return reservedRecord;
     }
 
+    /**
+     * Records the access in an approximate way, since this is on the hot path of every Near Cache hit.
+     * <p>
+     * Hot records are read by many threads concurrently, so we avoid writing to them where possible:
+     * the access time is only written if it has changed and the access hit count is sampled
+     * once it is high enough that an approximate value is good enough for LFU eviction.
+     */
     private void onRecordAccess(R record) {
-        record.setAccessTime(Clock.currentTimeMillis());
-        record.incrementAccessHit();
+        long now = Clock.currentTimeMillis();
+        if (record.getLastAccessTime() != now) {
+            record.setAccessTime(now);
+        }
+
+        int accessHit = record.getAccessHit();
+        if (accessHit < ACCESS_HIT_SAMPLING_THRESHOLD) {
+            record.incrementAccessHit();
+        } else if (accessHit <= Integer.MAX_VALUE - ACCESS_HIT_SAMPLING_RATE
+                && ThreadLocalRandomProvider.get().nextInt(ACCESS_HIT_SAMPLING_RATE) == 0) {
+            // concurrent updates may get lost here, which is fine for an approximate count
+            record.setAccessHit(accessHit + ACCESS_HIT_SAMPLING_RATE);
+        }
     }
 
     private void initInvalidationMetaData(R record, K key, Data keyData) {
@@ -24,12 +24,14 @@ import com.hazelcast.core.IBiFunction;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
 import com.hazelcast.internal.eviction.EvictionChecker;
 import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.NearCacheRecordStore;
 import com.hazelcast.internal.nearcache.impl.maxsize.EntryCountNearCacheEvictionChecker;
 import com.hazelcast.internal.nearcache.impl.preloader.NearCachePreloader;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.serialization.SerializationService;
 
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import static com.hazelcast.internal.nearcache.NearCacheRecord.READ_PERMITTED;
 import static java.lang.String.format;
@@ -47,6 +49,7 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
     private static final int DEFAULT_INITIAL_CAPACITY = 1000;
 
     private final NearCachePreloader<K> nearCachePreloader;
+    private final boolean storeValues;
 
     BaseHeapNearCacheRecordStore(String name, NearCacheConfig nearCacheConfig, SerializationService serializationService,
                                  ClassLoader classLoader) {
@@ -55,6 +58,7 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
         NearCachePreloaderConfig preloaderConfig = nearCacheConfig.getPreloaderConfig();
         this.nearCachePreloader = preloaderConfig.isEnabled() ? new NearCachePreloader<K>(name, preloaderConfig, nearCacheStats,
                 serializationService) : null;
+        this.storeValues = preloaderConfig.isStoreValues();
     }
 
     @Override
@@ -120,16 +124,21 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
     }
 
     @Override
-    public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
+    @SuppressWarnings("unchecked")
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter, Executor executor) {
         if (nearCachePreloader != null) {
-            nearCachePreloader.loadKeys(adapter);
+            nearCachePreloader.loadKeys(adapter, (NearCacheRecordStore<K, Object>) this, nearCacheConfig.isSerializeKeys(), executor);
         }
     }
 
     @Override
     public void storeKeys() {
         if (nearCachePreloader != null) {
-            nearCachePreloader.storeKeys(records.keySet().iterator());
+            if (storeValues) {
+                nearCachePreloader.storeEntries(records.entrySet(), staleReadDetector);
+            } else {
+                nearCachePreloader.storeKeys(records.keySet().iterator());
+            }
         }
     }
 
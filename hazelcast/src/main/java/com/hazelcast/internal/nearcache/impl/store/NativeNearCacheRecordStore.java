@@ -0,0 +1,946 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionConfig.MaxSizePolicy;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.NearCachePreloaderConfig;
+import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.memory.impl.MemoryManagerBean;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.NearCacheRecordStore;
+import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataContainer;
+import com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector;
+import com.hazelcast.internal.nearcache.impl.preloader.NearCachePreloader;
+import com.hazelcast.internal.nearcache.impl.record.NativeNearCacheRecord;
+import com.hazelcast.internal.util.ThreadLocalRandomProvider;
+import com.hazelcast.internal.util.hashslot.HashSlotArray8byteKey;
+import com.hazelcast.internal.util.hashslot.HashSlotCursor8byteKey;
+import com.hazelcast.internal.util.hashslot.impl.HashSlotArray8byteKeyImpl;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.monitor.NearCacheStats;
+import com.hazelcast.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.util.Clock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nearcache.NearCache.CACHED_AS_NULL;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.READ_PERMITTED;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.TIME_NOT_SET;
+import static com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector.ALWAYS_FRESH;
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+import static java.lang.String.format;
+
+/**
+ * {@link NearCacheRecordStore} implementation for Near Caches with {@link com.hazelcast.config.InMemoryFormat#NATIVE}
+ * in-memory-format.
+ * <p>
+ * The serialized keys and values are stored in native memory, so the Near Cache entries don't add to the heap usage
+ * or the garbage collection pressure of the application. The records are kept in segments, each one consisting of
+ * a {@link HashSlotArray8byteKey} which maps the 64-bit hash of a key to a chain of {@link NativeNearCacheRecord}
+ * blocks. A segment is guarded by its own read-write lock, so concurrent reads of a segment don't block each other.
+ * <p>
+ * The native memory of all NATIVE Near Caches of an instance is limited by the size of its
+ * {@link com.hazelcast.config.NativeMemoryConfig}. If the limit is reached, records of the Near Cache are evicted
+ * regardless of its eviction policy and the entry is not cached if that doesn't free enough memory.
+ * <p>
+ * Supports the {@link MaxSizePolicy#ENTRY_COUNT} and {@link MaxSizePolicy#USED_NATIVE_MEMORY_SIZE} maximum size
+ * policies. The eviction samples the native slots of a random segment. The Near Cache preloader stores only the keys.
+ *
+ * @param <K> the type of the key stored in Near Cache
+ * @param <V> the type of the value stored in Near Cache
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public class NativeNearCacheRecordStore<K, V> implements NearCacheRecordStore<K, V> {
+
+    private static final int SEGMENT_COUNT = 16;
+    private static final int SEGMENT_MASK = SEGMENT_COUNT - 1;
+    private static final int SEGMENT_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(SEGMENT_COUNT);
+    private static final int SAMPLE_COUNT = 15;
+    private static final int FORCED_EVICTION_COUNT = 10;
+    private static final int FORCED_EVICTION_RETRY_COUNT = 3;
+    private static final int SLOT_LENGTH = 2 * LONG_SIZE_IN_BYTES;
+    private static final long MILLI_SECONDS_IN_A_SECOND = 1000;
+
+    private final NearCacheConfig nearCacheConfig;
+    private final SerializationService serializationService;
+    private final NearCacheStatsImpl nearCacheStats = new NearCacheStatsImpl();
+    private final AtomicLong reservationIds = new AtomicLong();
+    private final long timeToLiveMillis;
+    private final long maxIdleMillis;
+    private final EvictionPolicy evictionPolicy;
+    private final boolean evictionDisabled;
+    private final MaxSizePolicy maxSizePolicy;
+    private final long maxSize;
+    private final UnsafeMemoryAllocator malloc;
+    private final MemoryManager memoryManager;
+    private final NearCachePreloader<K> nearCachePreloader;
+
+    private volatile Segment[] segments;
+    private volatile boolean destroyed;
+    private volatile StaleReadDetector staleReadDetector = ALWAYS_FRESH;
+
+    public NativeNearCacheRecordStore(String name, NearCacheConfig nearCacheConfig, SerializationService serializationService,
+                                      ClassLoader classLoader) {
+        this(name, nearCacheConfig, serializationService, classLoader, null);
+    }
+
+    /**
+     * @param nativeMemoryAllocator the native memory allocator of the instance, whose capacity is shared by all
+     *                              NATIVE Near Caches, or {@code null} to allocate without a limit
+     */
+    public NativeNearCacheRecordStore(String name, NearCacheConfig nearCacheConfig, SerializationService serializationService,
+                                      ClassLoader classLoader, UnsafeMemoryAllocator nativeMemoryAllocator) {
+        this.nearCacheConfig = nearCacheConfig;
+        this.serializationService = serializationService;
+        this.timeToLiveMillis = nearCacheConfig.getTimeToLiveSeconds() * MILLI_SECONDS_IN_A_SECOND;
+        this.maxIdleMillis = nearCacheConfig.getMaxIdleSeconds() * MILLI_SECONDS_IN_A_SECOND;
+
+        EvictionConfig evictionConfig = nearCacheConfig.getEvictionConfig();
+        if (evictionConfig.getComparator() != null || evictionConfig.getComparatorClassName() != null) {
+            throw new IllegalArgumentException(format("Custom eviction comparators are not supported by %s",
+                    getClass().getName()));
+        }
+        this.evictionPolicy = evictionConfig.getEvictionPolicy();
+        this.evictionDisabled = evictionPolicy == EvictionPolicy.NONE;
+        this.maxSizePolicy = evictionConfig.getMaximumSizePolicy();
+        switch (maxSizePolicy) {
+            case ENTRY_COUNT:
+                this.maxSize = evictionConfig.getSize();
+                break;
+            case USED_NATIVE_MEMORY_SIZE:
+                this.maxSize = MEGABYTES.toBytes(evictionConfig.getSize());
+                break;
+            default:
+                throw new IllegalArgumentException(format("Invalid max-size policy (%s) for %s! Only %s and %s are supported.",
+                        maxSizePolicy, getClass().getName(), MaxSizePolicy.ENTRY_COUNT, MaxSizePolicy.USED_NATIVE_MEMORY_SIZE));
+        }
+
+        this.malloc = (nativeMemoryAllocator != null ? nativeMemoryAllocator : new UnsafeMemoryAllocator()).newChild();
+        this.memoryManager = new MemoryManagerBean(malloc, MEM);
+
+        NearCachePreloaderConfig preloaderConfig = nearCacheConfig.getPreloaderConfig();
+        this.nearCachePreloader = preloaderConfig.isEnabled() ? new NearCachePreloader<K>(name, preloaderConfig, nearCacheStats,
+                serializationService) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void initialize() {
+        Segment[] segments = new NativeNearCacheRecordStore.Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+        this.segments = segments;
+    }
+
+    @Override
+    public void setStaleReadDetector(StaleReadDetector staleReadDetector) {
+        this.staleReadDetector = staleReadDetector;
+    }
+
+    @Override
+    public StaleReadDetector getStaleReadDetector() {
+        return staleReadDetector;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        checkAvailable();
+
+        Data keyData = toData(key);
+        byte[] keyBytes = keyData.toByteArray();
+        long hash = keyData.hash64();
+        Segment segment = segmentFor(hash);
+        Data valueData = null;
+        boolean hit = false;
+        segment.readLock.lock();
+        try {
+            NativeNearCacheRecord record = new NativeNearCacheRecord(segment.mem);
+            long address = segment.find(hash, keyBytes, record);
+            if (address == NULL_ADDRESS || record.reset(address).getRecordState() != READ_PERMITTED) {
+                nearCacheStats.incrementMisses();
+                return null;
+            }
+            if (!staleReadDetector.isStaleRead(key, record) && !isRecordExpired(record)) {
+                // the access statistics are approximate, so concurrent readers may overwrite each other's updates
+                record.setAccessTime(Clock.currentTimeMillis());
+                record.incrementAccessHit();
+                nearCacheStats.incrementHits();
+                valueData = record.getValue();
+                hit = true;
+            }
+        } finally {
+            segment.readLock.unlock();
+        }
+        if (!hit) {
+            removeStaleOrExpired(segment, key, hash, keyBytes);
+            return null;
+        }
+        return valueData == null ? (V) CACHED_AS_NULL : (V) serializationService.toObject(valueData);
+    }
+
+    /**
+     * Removes a stale or expired record, which has been found by a read. The record is looked up again, since
+     * it may have been changed after the read lock was released.
+     */
+    private void removeStaleOrExpired(Segment segment, K key, long hash, byte[] keyBytes) {
+        segment.writeLock.lock();
+        try {
+            long address = segment.find(hash, keyBytes);
+            NativeNearCacheRecord record = segment.record;
+            if (address == NULL_ADDRESS || record.reset(address).getRecordState() != READ_PERMITTED) {
+                nearCacheStats.incrementMisses();
+            } else if (staleReadDetector.isStaleRead(key, record)) {
+                segment.remove(hash, address);
+                nearCacheStats.incrementInvalidations();
+                nearCacheStats.incrementInvalidationRequests();
+                nearCacheStats.incrementMisses();
+            } else if (isRecordExpired(record)) {
+                segment.remove(hash, address);
+                nearCacheStats.incrementExpirations();
+            } else {
+                // the record has been replaced after the read
+                nearCacheStats.incrementMisses();
+            }
+        } finally {
+            segment.writeLock.unlock();
+        }
+    }
+
+    @Override
+    public NearCacheRecord getRecord(K key) {
+        checkAvailable();
+
+        Data keyData = toData(key);
+        long hash = keyData.hash64();
+        Segment segment = segmentFor(hash);
+        segment.readLock.lock();
+        try {
+            NativeNearCacheRecord record = new NativeNearCacheRecord(segment.mem);
+            long address = segment.find(hash, keyData.toByteArray(), record);
+            return address == NULL_ADDRESS ? null : record.reset(address).toHeapRecord();
+        } finally {
+            segment.readLock.unlock();
+        }
+    }
+
+    @Override
+    public void put(K key, Data keyData, V value) {
+        checkAvailable();
+
+        Data dataKey = keyData != null ? keyData : toData(key);
+        byte[] keyBytes = dataKey.toByteArray();
+        long hash = dataKey.hash64();
+        // if there is no eviction configured we return if the Near Cache is full and it's a new key
+        // (we have to check the key, otherwise we might lose updates on existing keys)
+        if (evictionDisabled && isEvictionRequired() && !containsKey(hash, keyBytes)) {
+            return;
+        }
+
+        byte[] valueBytes = value == null ? null : toData(value).toByteArray();
+        int partitionId = getPartitionId(dataKey);
+        MetaDataContainer metaData = getMetaDataContainer(partitionId);
+        Segment segment = segmentFor(hash);
+        for (int attempt = 0; ; attempt++) {
+            try {
+                put(segment, hash, keyBytes, valueBytes, partitionId, metaData);
+                return;
+            } catch (NativeOutOfMemoryError e) {
+                if (attempt == FORCED_EVICTION_RETRY_COUNT || !forceEvict()) {
+                    // the entry is not cached, since the native memory is exhausted by other Near Caches
+                    return;
+                }
+            }
+        }
+    }
+
+    private void put(Segment segment, long hash, byte[] keyBytes, byte[] valueBytes, int partitionId,
+                     MetaDataContainer metaData) {
+        segment.writeLock.lock();
+        try {
+            long oldAddress = segment.find(hash, keyBytes);
+            if (oldAddress != NULL_ADDRESS) {
+                segment.remove(hash, oldAddress);
+            }
+            long address = segment.insert(hash, keyBytes, valueBytes);
+            NativeNearCacheRecord record = segment.record.reset(address);
+            initRecord(record, READ_PERMITTED, partitionId, metaData);
+            nearCacheStats.incrementOwnedEntryCount();
+            nearCacheStats.incrementOwnedEntryMemoryCost(record.size());
+        } finally {
+            segment.writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(K key) {
+        checkAvailable();
+
+        Data keyData = toData(key);
+        long hash = keyData.hash64();
+        Segment segment = segmentFor(hash);
+        segment.writeLock.lock();
+        try {
+            long address = segment.find(hash, keyData.toByteArray());
+            if (address == NULL_ADDRESS) {
+                return false;
+            }
+            segment.remove(hash, address);
+            return true;
+        } finally {
+            segment.writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean invalidate(K key) {
+        try {
+            boolean removed = remove(key);
+            if (removed) {
+                nearCacheStats.incrementInvalidations();
+            }
+            return removed;
+        } finally {
+            nearCacheStats.incrementInvalidationRequests();
+        }
+    }
+
+    @Override
+    public void clear() {
+        checkAvailable();
+
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.writeLock.lock();
+            try {
+                size += segment.clear();
+            } finally {
+                segment.writeLock.unlock();
+            }
+        }
+        nearCacheStats.setOwnedEntryCount(0);
+        nearCacheStats.setOwnedEntryMemoryCost(0L);
+        nearCacheStats.incrementInvalidations(size);
+        nearCacheStats.incrementInvalidationRequests();
+    }
+
+    @Override
+    public void destroy() {
+        if (destroyed || segments == null) {
+            return;
+        }
+        clear();
+        destroyed = true;
+        for (Segment segment : segments) {
+            segment.writeLock.lock();
+            try {
+                segment.dispose();
+            } finally {
+                segment.writeLock.unlock();
+            }
+        }
+        malloc.dispose();
+        if (nearCachePreloader != null) {
+            nearCachePreloader.destroy();
+        }
+    }
+
+    @Override
+    public NearCacheStats getNearCacheStats() {
+        checkAvailable();
+
+        return nearCacheStats;
+    }
+
+    @Override
+    public Object selectToSave(Object... candidates) {
+        Object selectedCandidate = null;
+        if (candidates != null && candidates.length > 0) {
+            for (Object candidate : candidates) {
+                // give priority to Data typed candidate, so there will be no extra conversion from Object to Data
+                if (candidate instanceof Data) {
+                    return candidate;
+                }
+                if (selectedCandidate == null) {
+                    selectedCandidate = candidate;
+                }
+            }
+        }
+        return selectedCandidate;
+    }
+
+    @Override
+    public int size() {
+        if (destroyed) {
+            return 0;
+        }
+        checkAvailable();
+
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    @Override
+    public void doExpiration() {
+        checkAvailable();
+
+        for (Segment segment : segments) {
+            segment.writeLock.lock();
+            try {
+                segment.removeExpiredRecords();
+            } finally {
+                segment.writeLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void doEvictionIfRequired() {
+        checkAvailable();
+
+        if (!evictionDisabled && isEvictionRequired()) {
+            evict();
+        }
+    }
+
+    @Override
+    public void doEviction() {
+        checkAvailable();
+
+        if (!evictionDisabled) {
+            evict();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter, Executor executor) {
+        if (nearCachePreloader != null) {
+            // the keys of a native Near Cache are always serialized
+            nearCachePreloader.loadKeys(adapter, (NearCacheRecordStore<K, Object>) this, true, executor);
+        }
+    }
+
+    @Override
+    public void storeKeys() {
+        if (nearCachePreloader != null) {
+            nearCachePreloader.storeKeys(collectKeys().iterator());
+        }
+    }
+
+    @Override
+    public long tryReserveForUpdate(K key, Data keyData) {
+        checkAvailable();
+
+        Data dataKey = keyData != null ? keyData : toData(key);
+        byte[] keyBytes = dataKey.toByteArray();
+        long hash = dataKey.hash64();
+        // if there is no eviction configured we return if the Near Cache is full and it's a new key
+        // (we have to check the key, otherwise we might lose updates on existing keys)
+        if (evictionDisabled && isEvictionRequired() && !containsKey(hash, keyBytes)) {
+            return NOT_RESERVED;
+        }
+
+        int partitionId = getPartitionId(dataKey);
+        MetaDataContainer metaData = getMetaDataContainer(partitionId);
+        Segment segment = segmentFor(hash);
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return reserve(segment, hash, keyBytes, partitionId, metaData);
+            } catch (NativeOutOfMemoryError e) {
+                if (attempt == FORCED_EVICTION_RETRY_COUNT || !forceEvict()) {
+                    return NOT_RESERVED;
+                }
+            }
+        }
+    }
+
+    private long reserve(Segment segment, long hash, byte[] keyBytes, int partitionId, MetaDataContainer metaData) {
+        segment.writeLock.lock();
+        try {
+            if (segment.find(hash, keyBytes) != NULL_ADDRESS) {
+                return NOT_RESERVED;
+            }
+            long reservationId = reservationIds.incrementAndGet();
+            long address = segment.insert(hash, keyBytes, null);
+            initRecord(segment.record.reset(address), reservationId, partitionId, metaData);
+            return reservationId;
+        } finally {
+            segment.writeLock.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V tryPublishReserved(K key, V value, long reservationId, boolean deserialize) {
+        checkAvailable();
+
+        Data keyData = toData(key);
+        long hash = keyData.hash64();
+        Segment segment = segmentFor(hash);
+        Data cachedValue;
+        segment.writeLock.lock();
+        try {
+            long address = segment.find(hash, keyData.toByteArray());
+            if (address == NULL_ADDRESS) {
+                return null;
+            }
+            if (segment.record.reset(address).getRecordState() == reservationId) {
+                byte[] valueBytes = value == null ? null : toData(value).toByteArray();
+                try {
+                    address = segment.replaceValue(hash, address, valueBytes);
+                } catch (NativeOutOfMemoryError e) {
+                    // the value cannot be cached, so the reservation is removed
+                    segment.remove(hash, address);
+                    return null;
+                }
+                NativeNearCacheRecord record = segment.record.reset(address);
+                record.casRecordState(reservationId, READ_PERMITTED);
+                nearCacheStats.incrementOwnedEntryCount();
+                nearCacheStats.incrementOwnedEntryMemoryCost(record.size());
+            }
+            if (!deserialize) {
+                return null;
+            }
+            cachedValue = segment.record.reset(address).getValue();
+        } finally {
+            segment.writeLock.unlock();
+        }
+        return cachedValue == null ? null : (V) serializationService.toObject(cachedValue);
+    }
+
+    private void checkAvailable() {
+        if (segments == null || destroyed) {
+            throw new IllegalStateException(nearCacheConfig.getName() + " named Near Cache record store is not available");
+        }
+    }
+
+    private Data toData(Object obj) {
+        return obj instanceof Data ? (Data) obj : serializationService.toData(obj);
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> SEGMENT_SHIFT) & SEGMENT_MASK];
+    }
+
+    private boolean containsKey(long hash, byte[] keyBytes) {
+        Segment segment = segmentFor(hash);
+        segment.readLock.lock();
+        try {
+            return segment.find(hash, keyBytes, new NativeNearCacheRecord(segment.mem)) != NULL_ADDRESS;
+        } finally {
+            segment.readLock.unlock();
+        }
+    }
+
+    private int getPartitionId(Data keyData) {
+        StaleReadDetector staleReadDetector = this.staleReadDetector;
+        return staleReadDetector == ALWAYS_FRESH ? 0 : staleReadDetector.getPartitionId(keyData);
+    }
+
+    private MetaDataContainer getMetaDataContainer(int partitionId) {
+        StaleReadDetector staleReadDetector = this.staleReadDetector;
+        return staleReadDetector == ALWAYS_FRESH ? null : staleReadDetector.getMetaDataContainer(partitionId);
+    }
+
+    private void initRecord(NativeNearCacheRecord record, long recordState, int partitionId, MetaDataContainer metaData) {
+        long now = Clock.currentTimeMillis();
+        record.setCreationTime(now);
+        record.setAccessTime(TIME_NOT_SET);
+        record.setExpirationTime(timeToLiveMillis > 0 ? now + timeToLiveMillis : TIME_NOT_SET);
+        record.casRecordState(record.getRecordState(), recordState);
+        record.setPartitionId(partitionId);
+        if (metaData != null) {
+            record.setInvalidationSequence(metaData.getSequence());
+            record.setUuid(metaData.getUuid());
+        }
+    }
+
+    private boolean isRecordExpired(NativeNearCacheRecord record) {
+        long now = Clock.currentTimeMillis();
+        return record.isExpiredAt(now) || record.isIdleAt(maxIdleMillis, now);
+    }
+
+    private boolean isEvictionRequired() {
+        if (maxSizePolicy == MaxSizePolicy.ENTRY_COUNT) {
+            return size() >= maxSize;
+        }
+        return malloc.getUsedMemory() >= maxSize;
+    }
+
+    /**
+     * Evicts a single record, which is selected from a sample of a random non-empty segment.
+     *
+     * @return {@code true} if a record was evicted
+     */
+    private boolean evict() {
+        int start = ThreadLocalRandomProvider.get().nextInt(SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            Segment segment = segments[(start + i) & SEGMENT_MASK];
+            segment.writeLock.lock();
+            try {
+                if (segment.size > 0 && segment.evictSampledRecord()) {
+                    return true;
+                }
+            } finally {
+                segment.writeLock.unlock();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evicts records to free native memory for an allocation, regardless of the configured {@link EvictionPolicy}.
+     * Must not be called while holding the lock of a segment.
+     *
+     * @return {@code true} if a record was evicted
+     */
+    private boolean forceEvict() {
+        boolean evicted = false;
+        for (int i = 0; i < FORCED_EVICTION_COUNT && size() > 0; i++) {
+            evicted |= evict();
+        }
+        return evicted;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<K> collectKeys() {
+        List<K> keys = new ArrayList<K>(size());
+        for (Segment segment : segments) {
+            segment.readLock.lock();
+            try {
+                segment.collectKeys(keys);
+            } finally {
+                segment.readLock.unlock();
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * A part of the Near Cache records, which is guarded by the read-write lock of the segment.
+     * <p>
+     * The shared {@link #record} flyweight must only be used while holding the write lock, readers use their own.
+     */
+    private final class Segment {
+
+        private final Lock readLock;
+        private final Lock writeLock;
+        private final MemoryAccessor mem = memoryManager.getAccessor();
+        private final HashSlotArray8byteKey hsa = new HashSlotArray8byteKeyImpl(NULL_ADDRESS, memoryManager,
+                LONG_SIZE_IN_BYTES);
+        private final NativeNearCacheRecord record = new NativeNearCacheRecord(mem);
+
+        private volatile int size;
+        private boolean disposed;
+
+        private Segment() {
+            ReadWriteLock lock = new ReentrantReadWriteLock();
+            this.readLock = lock.readLock();
+            this.writeLock = lock.writeLock();
+            hsa.gotoNew();
+        }
+
+        private long find(long hash, byte[] keyBytes) {
+            return find(hash, keyBytes, record);
+        }
+
+        /**
+         * Returns the address of the record with the given key or {@code NULL_ADDRESS} if there is none.
+         */
+        private long find(long hash, byte[] keyBytes, NativeNearCacheRecord record) {
+            if (disposed) {
+                return NULL_ADDRESS;
+            }
+            long slotAddress = hsa.get(hash);
+            if (slotAddress == NULL_ADDRESS) {
+                return NULL_ADDRESS;
+            }
+            long address = mem.getLong(slotAddress);
+            while (address != NULL_ADDRESS) {
+                if (record.reset(address).keyEquals(keyBytes)) {
+                    return address;
+                }
+                address = record.getNext();
+            }
+            return NULL_ADDRESS;
+        }
+
+        private long insert(long hash, byte[] keyBytes, byte[] valueBytes) {
+            if (disposed) {
+                throw new IllegalStateException(nearCacheConfig.getName() + " named Near Cache record store is not available");
+            }
+            long recordSize = NativeNearCacheRecord.getSize(keyBytes.length, valueBytes == null ? -1 : valueBytes.length);
+            long address = malloc.allocate(recordSize);
+            long slotAddress;
+            try {
+                slotAddress = hsa.ensure(hash);
+            } catch (Error e) {
+                malloc.free(address, recordSize);
+                throw e;
+            }
+            record.reset(address).initKey(keyBytes);
+            record.writeValue(valueBytes);
+            if (slotAddress > 0) {
+                record.setNext(NULL_ADDRESS);
+            } else {
+                slotAddress = -slotAddress;
+                record.setNext(mem.getLong(slotAddress));
+            }
+            mem.putLong(slotAddress, address);
+            size++;
+            return address;
+        }
+
+        /**
+         * Replaces the value of a record and returns its address, which changes if the record block is reallocated.
+         */
+        private long replaceValue(long hash, long address, byte[] valueBytes) {
+            record.reset(address);
+            long oldSize = record.size();
+            long newSize = NativeNearCacheRecord.getSize(record.getKeySize(), valueBytes == null ? -1 : valueBytes.length);
+            long newAddress = address;
+            if (newSize != oldSize) {
+                newAddress = malloc.reallocate(address, oldSize, newSize);
+                if (newAddress != address) {
+                    relink(hash, address, newAddress);
+                }
+            }
+            record.reset(newAddress).writeValue(valueBytes);
+            return newAddress;
+        }
+
+        private void relink(long hash, long oldAddress, long newAddress) {
+            long slotAddress = hsa.get(hash);
+            long address = mem.getLong(slotAddress);
+            if (address == oldAddress) {
+                mem.putLong(slotAddress, newAddress);
+                return;
+            }
+            long next = record.reset(address).getNext();
+            while (next != oldAddress) {
+                address = next;
+                next = record.reset(address).getNext();
+            }
+            record.reset(address).setNext(newAddress);
+        }
+
+        /**
+         * Unlinks and frees a record and updates the owned entry statistics.
+         */
+        private void remove(long hash, long address) {
+            long slotAddress = hsa.get(hash);
+            long previous = NULL_ADDRESS;
+            long current = mem.getLong(slotAddress);
+            while (current != address) {
+                previous = current;
+                current = record.reset(current).getNext();
+            }
+            record.reset(address);
+            long next = record.getNext();
+            long recordSize = record.size();
+            boolean readPermitted = record.getRecordState() == READ_PERMITTED;
+            if (previous != NULL_ADDRESS) {
+                record.reset(previous).setNext(next);
+            } else if (next != NULL_ADDRESS) {
+                mem.putLong(slotAddress, next);
+            } else {
+                hsa.remove(hash);
+            }
+            malloc.free(address, recordSize);
+            size--;
+
+            if (readPermitted) {
+                nearCacheStats.decrementOwnedEntryCount();
+                nearCacheStats.decrementOwnedEntryMemoryCost(recordSize);
+            }
+        }
+
+        private int clear() {
+            if (disposed) {
+                return 0;
+            }
+            int clearedSize = size;
+            HashSlotCursor8byteKey cursor = hsa.cursor();
+            while (cursor.advance()) {
+                long address = mem.getLong(cursor.valueAddress());
+                while (address != NULL_ADDRESS) {
+                    record.reset(address);
+                    long next = record.getNext();
+                    malloc.free(address, record.size());
+                    address = next;
+                }
+            }
+            hsa.clear();
+            size = 0;
+            return clearedSize;
+        }
+
+        private void dispose() {
+            if (!disposed) {
+                clear();
+                hsa.dispose();
+                disposed = true;
+            }
+        }
+
+        private void removeExpiredRecords() {
+            if (disposed || size == 0) {
+                return;
+            }
+            long[] hashes = new long[size];
+            long[] addresses = new long[size];
+            int expiredCount = 0;
+            HashSlotCursor8byteKey cursor = hsa.cursor();
+            while (cursor.advance()) {
+                long address = mem.getLong(cursor.valueAddress());
+                while (address != NULL_ADDRESS) {
+                    if (isRecordExpired(record.reset(address))) {
+                        hashes[expiredCount] = cursor.key();
+                        addresses[expiredCount++] = address;
+                    }
+                    address = record.reset(address).getNext();
+                }
+            }
+            for (int i = 0; i < expiredCount; i++) {
+                remove(hashes[i], addresses[i]);
+                nearCacheStats.incrementExpirations();
+            }
+        }
+
+        /**
+         * Samples the records from a random slot on and evicts the best candidate of the configured
+         * {@link EvictionPolicy}. An expired record is evicted right away.
+         */
+        @SuppressWarnings("checkstyle:npathcomplexity")
+        private boolean evictSampledRecord() {
+            if (disposed) {
+                return false;
+            }
+            long baseAddress = hsa.address();
+            long mask = hsa.capacity() - 1;
+            long startSlot = ThreadLocalRandomProvider.get().nextInt(Integer.MAX_VALUE) & mask;
+
+            long candidateHash = 0;
+            long candidateAddress = NULL_ADDRESS;
+            long candidateAccessTime = 0;
+            long candidateCreationTime = 0;
+            int candidateAccessHit = 0;
+            boolean expired = false;
+            int sampleCount = 0;
+            for (long i = 0; i <= mask && sampleCount < SAMPLE_COUNT && !expired; i++) {
+                long slotBase = baseAddress + ((startSlot + i) & mask) * SLOT_LENGTH;
+                long address = mem.getLong(slotBase + LONG_SIZE_IN_BYTES);
+                long hash = mem.getLong(slotBase);
+                while (address != NULL_ADDRESS && sampleCount < SAMPLE_COUNT) {
+                    record.reset(address);
+                    sampleCount++;
+                    if (isRecordExpired(record)) {
+                        candidateHash = hash;
+                        candidateAddress = address;
+                        expired = true;
+                        break;
+                    }
+                    long accessTime = record.getLastAccessTime();
+                    long creationTime = record.getCreationTime();
+                    int accessHit = record.getAccessHit();
+                    if (candidateAddress == NULL_ADDRESS
+                            || isBetterCandidate(accessTime, creationTime, accessHit,
+                            candidateAccessTime, candidateCreationTime, candidateAccessHit)) {
+                        candidateHash = hash;
+                        candidateAddress = address;
+                        candidateAccessTime = accessTime;
+                        candidateCreationTime = creationTime;
+                        candidateAccessHit = accessHit;
+                    }
+                    address = record.getNext();
+                }
+            }
+            if (candidateAddress == NULL_ADDRESS) {
+                return false;
+            }
+
+            remove(candidateHash, candidateAddress);
+            if (expired) {
+                nearCacheStats.incrementExpirations();
+            } else {
+                nearCacheStats.incrementEvictions();
+            }
+            return true;
+        }
+
+        private boolean isBetterCandidate(long accessTime, long creationTime, int accessHit,
+                                          long candidateAccessTime, long candidateCreationTime, int candidateAccessHit) {
+            switch (evictionPolicy) {
+                case LFU:
+                    if (accessHit != candidateAccessHit) {
+                        return accessHit < candidateAccessHit;
+                    }
+                    return creationTime < candidateCreationTime;
+                case RANDOM:
+                    return false;
+                default:
+                    if (accessTime != candidateAccessTime) {
+                        return accessTime < candidateAccessTime;
+                    }
+                    return creationTime < candidateCreationTime;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void collectKeys(List<K> keys) {
+            if (disposed) {
+                return;
+            }
+            NativeNearCacheRecord record = new NativeNearCacheRecord(mem);
+            HashSlotCursor8byteKey cursor = hsa.cursor();
+            while (cursor.advance()) {
+                long address = mem.getLong(cursor.valueAddress());
+                while (address != NULL_ADDRESS) {
+                    record.reset(address);
+                    if (record.getRecordState() == READ_PERMITTED) {
+                        keys.add((K) record.getKey());
+                    }
+                    address = record.getNext();
+                }
+            }
+        }
+    }
+}
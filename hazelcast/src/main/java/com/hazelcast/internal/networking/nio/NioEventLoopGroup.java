@@ -89,6 +89,7 @@ public final class NioEventLoopGroup implements EventLoopGroup {
     private final SelectorMode selectorMode;
     private final BackoffIdleStrategy idleStrategy;
     private final boolean selectorWorkaroundTest;
+    private final long writeCoalescingNanos;
     private volatile IOBalancer ioBalancer;
     private volatile NioThread[] inputThreads;
     private volatile NioThread[] outputThreads;
@@ -106,6 +107,7 @@ public final class NioEventLoopGroup implements EventLoopGroup {
         this.selectorMode = ctx.selectorMode;
         this.selectorWorkaroundTest = ctx.selectorWorkaroundTest;
         this.idleStrategy = ctx.idleStrategy;
+        this.writeCoalescingNanos = ctx.writeCoalescingNanos;
     }
 
     @SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "used only for testing")
@@ -240,7 +242,8 @@ public final class NioEventLoopGroup implements EventLoopGroup {
                 errorHandler,
                 loggingService.getLogger(NioOutboundPipeline.class),
                 ioBalancer,
-                channelInitializer);
+                channelInitializer,
+                writeCoalescingNanos);
     }
 
     private NioInboundPipeline newInboundPipeline(NioChannel channel) {
@@ -322,6 +325,7 @@ public final class NioEventLoopGroup implements EventLoopGroup {
         private SelectorMode selectorMode = SelectorMode.getConfiguredValue();
         private boolean selectorWorkaroundTest = Boolean.getBoolean("hazelcast.io.selector.workaround.test");
         private ChannelInitializer channelInitializer;
+        private long writeCoalescingNanos;
 
         public Context() {
             String selectorModeString = SelectorMode.getConfiguredString();
@@ -379,5 +383,16 @@ public final class NioEventLoopGroup implements EventLoopGroup {
             this.channelInitializer = channelInitializer;
             return this;
         }
+
+        /**
+         * Sets the maximum time an outbound pipeline under load waits for more frames before flushing, so they
+         * can be written to the socket in a single call. 0 (the default) disables write coalescing. Unless the selector
+         * mode is {@link SelectorMode#SELECT_NOW}, the flush can be held up to a millisecond longer, since a blocking
+         * select observes the time with millisecond precision.
+         */
+        public Context writeCoalescingNanos(long writeCoalescingNanos) {
+            this.writeCoalescingNanos = writeCoalescingNanos;
+            return this;
+        }
     }
 }
@@ -38,6 +38,7 @@ import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 import static com.hazelcast.nio.IOUtil.compactOrClear;
 import static java.lang.Math.max;
 import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
 import static java.lang.Thread.currentThread;
 import static java.nio.channels.SelectionKey.OP_WRITE;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -53,6 +54,7 @@ public final class NioOutboundPipeline extends NioPipeline {
     @Probe(name = "priorityWriteQueueSize")
     public final Queue<OutboundFrame> priorityWriteQueue = new ConcurrentLinkedQueue<OutboundFrame>();
     private final ChannelInitializer initializer;
+    private final long writeCoalescingNanos;
 
     private ByteBuffer outputBuffer;
 
@@ -63,9 +65,15 @@ public final class NioOutboundPipeline extends NioPipeline {
     private final SwCounter normalFramesWritten = newSwCounter();
     @Probe(name = "priorityFramesWritten")
     private final SwCounter priorityFramesWritten = newSwCounter();
+    @Probe(name = "coalescedFrames")
+    final SwCounter coalescedFrames = newSwCounter();
+    @Probe(name = "socketWrites")
+    final SwCounter socketWrites = newSwCounter();
     private ChannelOutboundHandler outboundHandler;
 
     private OutboundFrame currentFrame;
+    // the time until which the flush is held back to coalesce more frames; 0 if no flush is held back
+    private long coalescingDeadline;
     private volatile long lastWriteTime;
 
     private long bytesWrittenLastPublish;
@@ -79,8 +87,25 @@ public final class NioOutboundPipeline extends NioPipeline {
                                ILogger logger,
                                IOBalancer balancer,
                                ChannelInitializer initializer) {
+        this(channel, owner, errorHandler, logger, balancer, initializer, 0);
+    }
+
+    /**
+     * Creates a NioOutboundPipeline.
+     *
+     * @param writeCoalescingNanos the maximum time to wait for more frames before flushing when the pipeline is under
+     *                             load. If 0, frames are flushed as soon as the write queues are drained.
+     */
+    public NioOutboundPipeline(NioChannel channel,
+                               NioThread owner,
+                               ChannelErrorHandler errorHandler,
+                               ILogger logger,
+                               IOBalancer balancer,
+                               ChannelInitializer initializer,
+                               long writeCoalescingNanos) {
         super(channel, owner, errorHandler, OP_WRITE, logger, balancer);
         this.initializer = initializer;
+        this.writeCoalescingNanos = writeCoalescingNanos;
     }
 
     @Override
@@ -244,15 +269,62 @@ public final class NioOutboundPipeline extends NioPipeline {
             return;
         }
 
-        fillOutputBuffer();
+        boolean coalescing = coalescingDeadline != 0;
+        int framesWritten = fillOutputBuffer();
+        if (coalescing) {
+            coalescedFrames.inc(framesWritten);
+        }
 
         if (dirtyOutputBuffer()) {
+            if (holdFlush(framesWritten)) {
+                // We stay scheduled, so writers will not wake up the selector. We don't register OP_WRITE: it is
+                // level-triggered and would make the NioThread spin till the deadline. Instead the NioThread processes
+                // us again once the deadline has passed, and is free to process other pipelines or block in the meantime.
+                unregisterOp(OP_WRITE);
+                owner.scheduleTask(this, coalescingDeadline);
+                return;
+            }
             writeOutputBufferToSocket();
         }
 
         unschedule();
     }
 
+    /**
+     * Checks if flushing the outputBuffer should be held back to coalesce more frames into a single socket write.
+     * <p/>
+     * If write coalescing is enabled and more than a single frame was pending, the pipeline is considered to be under
+     * load: many threads are writing to it concurrently. Instead of flushing as soon as the queues are drained, the
+     * flush is then held back up to the coalescing time, so frames written in the meantime share a single socket write.
+     * Like Nagle's algorithm this trades a bit of latency for fewer system calls, but only when there is enough traffic
+     * to batch. The flush is never held back when the outputBuffer is full.
+     * <p/>
+     * This call is only made by the owning IO thread.
+     *
+     * @param framesWritten the number of frames written to the outputBuffer in the current round
+     * @return true if the flush should be held back, false if the outputBuffer should be written to the socket.
+     */
+    private boolean holdFlush(int framesWritten) {
+        if (writeCoalescingNanos <= 0 || currentFrame != null) {
+            coalescingDeadline = 0;
+            return false;
+        }
+
+        if (coalescingDeadline == 0) {
+            if (framesWritten < 2) {
+                return false;
+            }
+            coalescingDeadline = nanoTime() + writeCoalescingNanos;
+            return true;
+        }
+
+        if (nanoTime() - coalescingDeadline < 0) {
+            return true;
+        }
+        coalescingDeadline = 0;
+        return false;
+    }
+
     /**
      * Tries to initialize.
      *
@@ -290,6 +362,7 @@ public final class NioOutboundPipeline extends NioPipeline {
         outputBuffer.flip();
         int written = channel.write(outputBuffer);
 
+        socketWrites.inc();
         bytesWritten.inc(written);
 
         compactOrClear(outputBuffer);
@@ -298,23 +371,28 @@ public final class NioOutboundPipeline extends NioPipeline {
     /**
      * Fills the outBuffer with frames. This is done till there are no more frames or till there is no more space in the
      * outputBuffer.
+     *
+     * @return the number of frames that have been written completely.
      */
-    private void fillOutputBuffer() throws Exception {
+    private int fillOutputBuffer() throws Exception {
         if (currentFrame == null) {
             // there is no pending frame, lets poll one.
             currentFrame = poll();
         }
 
+        int framesWritten = 0;
         while (currentFrame != null) {
             // Lets write the currentFrame to the outputBuffer.
             if (!outboundHandler.onWrite(currentFrame, outputBuffer)) {
                 // We are done for this round because not all data of the currentFrame fits in the outputBuffer
-                return;
+                return framesWritten;
             }
+            framesWritten++;
 
             // The current frame has been written completely. So lets poll for another one.
             currentFrame = poll();
         }
+        return framesWritten;
     }
 
     @Override
@@ -30,7 +30,9 @@ import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Random;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -41,13 +43,18 @@ import static com.hazelcast.internal.networking.nio.SelectorOptimizer.newSelecto
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 import static com.hazelcast.util.EmptyStatement.ignore;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 public class NioThread extends Thread implements OperationHostileThread {
 
     // WARNING: This value has significant effect on idle CPU usage!
     private static final int SELECT_WAIT_TIME_MILLIS = 5000;
     private static final int SELECT_FAILURE_PAUSE_MILLIS = 1000;
+    private static final int INITIAL_SCHEDULED_TASKS_CAPACITY = 16;
     // When we detect Selector.select returning prematurely
     // for more than SELECT_IDLE_COUNT_THRESHOLD then we rebuild the selector
     private static final int SELECT_IDLE_COUNT_THRESHOLD = 10;
@@ -74,6 +81,9 @@ public class NioThread extends Thread implements OperationHostileThread {
 
     @Probe(name = "taskQueueSize")
     private final Queue<Runnable> taskQueue = new ConcurrentLinkedQueue<Runnable>();
+    // the tasks waiting for their deadline, ordered by deadline; only accessed by this thread
+    private final Queue<ScheduledTask> scheduledTasks
+            = new PriorityQueue<ScheduledTask>(INITIAL_SCHEDULED_TASKS_CAPACITY, new DeadlineComparator());
     @Probe
     private final SwCounter eventCount = newSwCounter();
     @Probe
@@ -207,6 +217,24 @@ public class NioThread extends Thread implements OperationHostileThread {
         }
     }
 
+    /**
+     * Schedules a task to be executed by this NioThread once the given deadline has passed. Until then the NioThread
+     * keeps processing its selection keys and tasks, and blocks in select if there is nothing to do.
+     * <p>
+     * The blocking select modes observe the deadline with millisecond precision, so the task can be executed up to a
+     * millisecond after the deadline.
+     * <p>
+     * This method can only be called by this NioThread.
+     *
+     * @param task          the task to execute
+     * @param deadlineNanos the {@link System#nanoTime()} after which the task is executed
+     */
+    void scheduleTask(Runnable task, long deadlineNanos) {
+        assert currentThread() == this : "scheduleTask can only be called by the NioThread itself";
+
+        scheduledTasks.add(new ScheduledTask(task, deadlineNanos));
+    }
+
     @Override
     public final void run() {
         // This outer loop is a bit complex but it takes care of a lot of stuff:
@@ -270,7 +298,7 @@ public class NioThread extends Thread implements OperationHostileThread {
         while (!stop) {
             processTaskQueue();
 
-            int selectedKeys = selector.select(SELECT_WAIT_TIME_MILLIS);
+            int selectedKeys = select(selectTimeoutMillis());
             if (selectedKeys > 0) {
                 handleSelectionKeys();
             }
@@ -282,8 +310,9 @@ public class NioThread extends Thread implements OperationHostileThread {
         while (!stop) {
             processTaskQueue();
 
+            long timeoutMillis = selectTimeoutMillis();
             long before = currentTimeMillis();
-            int selectedKeys = selector.select(SELECT_WAIT_TIME_MILLIS);
+            int selectedKeys = select(timeoutMillis);
             if (selectedKeys > 0) {
                 idleCount = 0;
                 handleSelectionKeys();
@@ -292,7 +321,7 @@ public class NioThread extends Thread implements OperationHostileThread {
             } else {
                 // no keys were selected, not interrupted by wakeup therefore we hit an issue with JDK/network stack
                 long selectTimeTaken = currentTimeMillis() - before;
-                idleCount = selectTimeTaken < SELECT_WAIT_TIME_MILLIS ? idleCount + 1 : 0;
+                idleCount = selectTimeTaken < timeoutMillis ? idleCount + 1 : 0;
 
                 if (selectorBugDetected(idleCount)) {
                     rebuildSelector();
@@ -326,6 +355,30 @@ public class NioThread extends Thread implements OperationHostileThread {
         }
     }
 
+    /**
+     * Returns the time to block in select: until the deadline of the first scheduled task, but at most
+     * {@link #SELECT_WAIT_TIME_MILLIS}. Returns 0 if a scheduled task is due, then select must not block.
+     */
+    private long selectTimeoutMillis() {
+        ScheduledTask scheduledTask = scheduledTasks.peek();
+        if (scheduledTask == null) {
+            return SELECT_WAIT_TIME_MILLIS;
+        }
+
+        long delayNanos = scheduledTask.deadlineNanos - nanoTime();
+        if (delayNanos <= 0) {
+            return 0;
+        }
+        // rounded up, so we don't wake up before the deadline
+        long delayMillis = NANOSECONDS.toMillis(delayNanos + MILLISECONDS.toNanos(1) - 1);
+        return min(delayMillis, SELECT_WAIT_TIME_MILLIS);
+    }
+
+    private int select(long timeoutMillis) throws IOException {
+        // a timeout of 0 would block Selector.select indefinitely
+        return timeoutMillis > 0 ? selector.select(timeoutMillis) : selector.selectNow();
+    }
+
     private boolean processTaskQueue() {
         boolean tasksProcessed = false;
         while (!stop) {
@@ -337,6 +390,22 @@ public class NioThread extends Thread implements OperationHostileThread {
             completedTaskCount.inc();
             tasksProcessed = true;
         }
+        return processScheduledTasks() || tasksProcessed;
+    }
+
+    private boolean processScheduledTasks() {
+        boolean tasksProcessed = false;
+        long now = nanoTime();
+        while (!stop) {
+            ScheduledTask scheduledTask = scheduledTasks.peek();
+            if (scheduledTask == null || scheduledTask.deadlineNanos - now > 0) {
+                break;
+            }
+            scheduledTasks.poll();
+            scheduledTask.task.run();
+            completedTaskCount.inc();
+            tasksProcessed = true;
+        }
         return tasksProcessed;
     }
 
@@ -424,4 +493,23 @@ public class NioThread extends Thread implements OperationHostileThread {
     void setSelectorWorkaroundTest(boolean selectorWorkaroundTest) {
         this.selectorWorkaroundTest = selectorWorkaroundTest;
     }
+
+    private static final class ScheduledTask {
+        private final Runnable task;
+        private final long deadlineNanos;
+
+        ScheduledTask(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    private static final class DeadlineComparator implements Comparator<ScheduledTask> {
+        @Override
+        public int compare(ScheduledTask task1, ScheduledTask task2) {
+            // nanoTime values must be compared by their difference
+            long diff = task1.deadlineNanos - task2.deadlineNanos;
+            return diff < 0 ? -1 : (diff == 0 ? 0 : 1);
+        }
+    }
 }
@@ -16,11 +16,13 @@
 
 package com.hazelcast.internal.partition;
 
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.impl.Versioned;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -28,12 +30,13 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 
 import static com.hazelcast.internal.partition.InternalPartition.MAX_REPLICA_COUNT;
 import static com.hazelcast.util.StringUtil.LINE_SEPARATOR;
 
-public final class PartitionRuntimeState implements IdentifiedDataSerializable {
+public final class PartitionRuntimeState implements IdentifiedDataSerializable, Versioned {
 
     /** Map from address to the replica index of the first partition where the address occurs. Used for writing state. */
     private Map<Address, Integer> addressToIndexes;
@@ -45,7 +48,7 @@ public final class PartitionRuntimeState implements IdentifiedDataSerializable {
     private int version;
     private Collection<MigrationInfo> completedMigrations;
     // used to know ongoing migrations when master changed
-    private MigrationInfo activeMigration;
+    private Collection<MigrationInfo> activeMigrations = Collections.emptyList();
 
     /** The sender of the operation which changes the partition table, should be the master node */
     private Address endpoint;
@@ -135,12 +138,12 @@ public final class PartitionRuntimeState implements IdentifiedDataSerializable {
         return completedMigrations != null ? completedMigrations : Collections.<MigrationInfo>emptyList();
     }
 
-    public MigrationInfo getActiveMigration() {
-        return activeMigration;
+    public Collection<MigrationInfo> getActiveMigrations() {
+        return activeMigrations;
     }
 
-    public void setActiveMigration(MigrationInfo activeMigration) {
-        this.activeMigration = activeMigration;
+    public void setActiveMigrations(Collection<MigrationInfo> activeMigrations) {
+        this.activeMigrations = activeMigrations != null ? activeMigrations : Collections.<MigrationInfo>emptyList();
     }
 
     public void setCompletedMigrations(Collection<MigrationInfo> completedMigrations) {
@@ -170,9 +173,11 @@ public final class PartitionRuntimeState implements IdentifiedDataSerializable {
             }
         }
 
+        activeMigrations = new ArrayList<MigrationInfo>(1);
         if (in.readBoolean()) {
-            activeMigration = new MigrationInfo();
+            MigrationInfo activeMigration = new MigrationInfo();
             activeMigration.readData(in);
+            activeMigrations.add(activeMigration);
         }
 
         int k = in.readInt();
@@ -184,6 +189,16 @@ public final class PartitionRuntimeState implements IdentifiedDataSerializable {
                 completedMigrations.add(migrationInfo);
             }
         }
+
+        // RU_COMPAT_3_10
+        if (in.getVersion().isGreaterOrEqual(Versions.V3_11)) {
+            int activeMigrationCount = in.readInt();
+            for (int i = 0; i < activeMigrationCount; i++) {
+                MigrationInfo migrationInfo = new MigrationInfo();
+                migrationInfo.readData(in);
+                activeMigrations.add(migrationInfo);
+            }
+        }
     }
 
     @SuppressWarnings("checkstyle:npathcomplexity")
@@ -215,9 +230,11 @@ public final class PartitionRuntimeState implements IdentifiedDataSerializable {
             }
         }
 
-        if (activeMigration != null) {
+        // the first active migration is written separately to remain compatible with 3.10 members
+        Iterator<MigrationInfo> activeMigrationIterator = activeMigrations.iterator();
+        if (activeMigrationIterator.hasNext()) {
             out.writeBoolean(true);
-            activeMigration.writeData(out);
+            activeMigrationIterator.next().writeData(out);
         } else {
             out.writeBoolean(false);
         }
@@ -231,6 +248,14 @@ public final class PartitionRuntimeState implements IdentifiedDataSerializable {
         } else {
             out.writeInt(0);
         }
+
+        // RU_COMPAT_3_10
+        if (out.getVersion().isGreaterOrEqual(Versions.V3_11)) {
+            out.writeInt(Math.max(0, activeMigrations.size() - 1));
+            while (activeMigrationIterator.hasNext()) {
+                activeMigrationIterator.next().writeData(out);
+            }
+        }
     }
 
     @Override
@@ -365,10 +365,7 @@ public class InternalPartitionServiceImpl implements InternalPartitionService, M
                 return false;
             }
 
-            final MigrationRunnable activeTask = migrationManager.getActiveTask();
-            if (activeTask instanceof MigrationManager.MigrateTask) {
-                final MigrationManager.MigrateTask migrateTask = (MigrationManager.MigrateTask) activeTask;
-                final MigrationInfo migrationInfo = migrateTask.migrationInfo;
+            for (MigrationInfo migrationInfo : migrationManager.getActiveTaskMigrations()) {
                 if (address.equals(migrationInfo.getSource()) || address.equals(migrationInfo.getDestination())) {
                     logger.fine(address + " cannot join since " + migrationInfo);
                     return false;
@@ -484,7 +481,7 @@ public class InternalPartitionServiceImpl implements InternalPartitionService, M
             InternalPartition[] partitions = partitionStateManager.getPartitions();
 
             PartitionRuntimeState state = new PartitionRuntimeState(partitions, completedMigrations, getPartitionStateVersion());
-            state.setActiveMigration(migrationManager.getActiveMigration());
+            state.setActiveMigrations(migrationManager.getActiveMigrations());
             return state;
         } finally {
             lock.unlock();
@@ -1266,9 +1263,7 @@ public class InternalPartitionServiceImpl implements InternalPartitionService, M
                     }
                     allCompletedMigrations.addAll(state.getCompletedMigrations());
 
-                    if (state.getActiveMigration() != null) {
-                        allActiveMigrations.add(state.getActiveMigration());
-                    }
+                    allActiveMigrations.addAll(state.getActiveMigrations());
                 }
             }
         }
@@ -1361,9 +1356,7 @@ public class InternalPartitionServiceImpl implements InternalPartitionService, M
         private void processMigrations(Collection<MigrationInfo> allCompletedMigrations,
                                        Collection<MigrationInfo> allActiveMigrations) {
             allCompletedMigrations.addAll(migrationManager.getCompletedMigrationsCopy());
-            if (migrationManager.getActiveMigration() != null) {
-                allActiveMigrations.add(migrationManager.getActiveMigration());
-            }
+            allActiveMigrations.addAll(migrationManager.getActiveMigrations());
 
             for (MigrationInfo activeMigration : allActiveMigrations) {
                 activeMigration.setStatus(MigrationStatus.FAILED);
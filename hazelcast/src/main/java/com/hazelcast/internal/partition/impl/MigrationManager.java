@@ -58,15 +58,19 @@ import com.hazelcast.util.scheduler.CoalescingDelayedTrigger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -77,6 +81,7 @@ import java.util.logging.Level;
 
 import static com.hazelcast.cluster.memberselector.MemberSelectors.DATA_MEMBER_SELECTOR;
 import static com.hazelcast.spi.partition.IPartitionService.SERVICE_NAME;
+import static java.lang.Math.max;
 
 /**
  * Maintains migration system state and manages migration operations performed within the cluster.
@@ -104,7 +109,7 @@ public class MigrationManager {
     private final CoalescingDelayedTrigger delayedResumeMigrationTrigger;
     private final Set<Address> shutdownRequestedAddresses = new HashSet<Address>();
     // updates will be done under lock, but reads will be multithreaded.
-    private volatile MigrationInfo activeMigrationInfo;
+    private final ConcurrentMap<Integer, MigrationInfo> activeMigrations = new ConcurrentHashMap<Integer, MigrationInfo>();
     // both reads and updates will be done under lock!
     private final LinkedHashSet<MigrationInfo> completedMigrations = new LinkedHashSet<MigrationInfo>();
     private final AtomicBoolean promotionPermit = new AtomicBoolean(false);
@@ -116,6 +121,9 @@ public class MigrationManager {
     private final MigrationPlanner migrationPlanner;
     private final boolean fragmentedMigrationEnabled;
     private final long memberHeartbeatTimeoutMillis;
+    private final int maxParallelMigrations;
+    private final int maxParallelOutgoingMigrations;
+    private final int maxParallelIncomingMigrations;
 
     MigrationManager(Node node, InternalPartitionServiceImpl service, Lock partitionServiceLock) {
         this.node = node;
@@ -143,6 +151,9 @@ public class MigrationManager {
             }
         });
         this.memberHeartbeatTimeoutMillis = properties.getMillis(GroupProperty.MAX_NO_HEARTBEAT_SECONDS);
+        maxParallelMigrations = max(1, properties.getInteger(GroupProperty.PARTITION_MAX_PARALLEL_MIGRATIONS));
+        maxParallelOutgoingMigrations = max(1, properties.getInteger(GroupProperty.PARTITION_MAX_PARALLEL_OUTGOING_MIGRATIONS));
+        maxParallelIncomingMigrations = max(1, properties.getInteger(GroupProperty.PARTITION_MAX_PARALLEL_INCOMING_MIGRATIONS));
     }
 
     @Probe(name = "migrationActive")
@@ -236,14 +247,21 @@ public class MigrationManager {
     }
 
     /**
-     * Sets the active migration if none is set and returns {@code null}, otherwise returns the currently set active migration.
+     * Sets the active migration if none is set for its partition and returns {@code null}, otherwise returns the currently
+     * set active migration. If the cluster version is lower than 3.11, only a single active migration is allowed on this
+     * member and any active migration of another partition is returned.
      * Acquires the partition service lock.
      */
     public MigrationInfo setActiveMigration(MigrationInfo migrationInfo) {
         partitionServiceLock.lock();
         try {
+            MigrationInfo activeMigrationInfo = activeMigrations.get(migrationInfo.getPartitionId());
+            if (activeMigrationInfo == null && !activeMigrations.isEmpty()
+                    && node.getClusterService().getClusterVersion().isLessThan(Versions.V3_11)) {
+                activeMigrationInfo = activeMigrations.values().iterator().next();
+            }
             if (activeMigrationInfo == null) {
-                activeMigrationInfo = migrationInfo;
+                activeMigrations.put(migrationInfo.getPartitionId(), migrationInfo);
                 return null;
             }
             if (!activeMigrationInfo.equals(migrationInfo)) {
@@ -258,8 +276,9 @@ public class MigrationManager {
         }
     }
 
-    MigrationInfo getActiveMigration() {
-        return activeMigrationInfo;
+    /** Returns a copy of the active migrations on this member. */
+    Collection<MigrationInfo> getActiveMigrations() {
+        return new ArrayList<MigrationInfo>(activeMigrations.values());
     }
 
     /**
@@ -288,22 +307,18 @@ public class MigrationManager {
     }
 
     /**
-     * Removes the current {@link #activeMigrationInfo} if the {@code partitionId} is the same and returns {@code true} if
-     * removed.
+     * Removes the active migration of the {@code partitionId} and returns {@code true} if removed.
      * Acquires the partition service lock.
      */
     private boolean removeActiveMigration(int partitionId) {
         partitionServiceLock.lock();
         try {
-            if (activeMigrationInfo != null) {
-                if (activeMigrationInfo.getPartitionId() == partitionId) {
-                    activeMigrationInfo = null;
-                    return true;
-                }
-                if (logger.isFineEnabled()) {
-                    logger.fine("Active migration is not removed, because it has different partitionId! "
-                            + "partitionId=" + partitionId + ", active migration=" + activeMigrationInfo);
-                }
+            if (activeMigrations.remove(partitionId) != null) {
+                return true;
+            }
+            if (logger.isFineEnabled()) {
+                logger.fine("Active migration is not removed, because there is no active migration for "
+                        + "partitionId=" + partitionId + ", active migrations=" + activeMigrations.values());
             }
         } finally {
             partitionServiceLock.unlock();
@@ -320,7 +335,7 @@ public class MigrationManager {
         partitionServiceLock.lock();
         try {
             // we use activeMigrationInfo because it contains migrated replica fragment namespaces
-            final MigrationInfo activeMigrationInfo = this.activeMigrationInfo;
+            final MigrationInfo activeMigrationInfo = activeMigrations.get(migrationInfo.getPartitionId());
             if (activeMigrationInfo != null && migrationInfo.equals(activeMigrationInfo)) {
                 if (activeMigrationInfo.startProcessing()) {
                     activeMigrationInfo.setStatus(migrationInfo.getStatus());
@@ -523,8 +538,7 @@ public class MigrationManager {
     void onMemberRemove(MemberImpl member) {
         Address deadAddress = member.getAddress();
         shutdownRequestedAddresses.remove(deadAddress);
-        MigrationInfo activeMigration = activeMigrationInfo;
-        if (activeMigration != null) {
+        for (MigrationInfo activeMigration : activeMigrations.values()) {
             if (deadAddress.equals(activeMigration.getSource())
                     || deadAddress.equals(activeMigration.getDestination())) {
                 activeMigration.setStatus(MigrationStatus.INVALID);
@@ -547,7 +561,7 @@ public class MigrationManager {
     }
 
     boolean hasOnGoingMigration() {
-        return activeMigrationInfo != null || migrationQueue.hasMigrationTasks();
+        return !activeMigrations.isEmpty() || migrationQueue.hasMigrationTasks();
     }
 
     int getMigrationQueueSize() {
@@ -556,7 +570,7 @@ public class MigrationManager {
 
     void reset() {
         migrationQueue.clear();
-        activeMigrationInfo = null;
+        activeMigrations.clear();
         completedMigrations.clear();
     }
 
@@ -607,6 +621,26 @@ public class MigrationManager {
         return migrationThread.getActiveTask();
     }
 
+    /**
+     * Returns the migrations of the currently executing migration task,
+     * if it is a {@link MigrateTask} or a {@link ParallelMigrateTask}.
+     */
+    Collection<MigrationInfo> getActiveTaskMigrations() {
+        MigrationRunnable activeTask = getActiveTask();
+        if (activeTask instanceof MigrateTask) {
+            return Collections.singletonList(((MigrateTask) activeTask).migrationInfo);
+        }
+        if (activeTask instanceof ParallelMigrateTask) {
+            return ((ParallelMigrateTask) activeTask).getMigrations();
+        }
+        return Collections.emptyList();
+    }
+
+    /** Returns {@code true} if the master should execute migrations in parallel. */
+    private boolean isParallelMigrationEnabled() {
+        return maxParallelMigrations > 1 && node.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V3_11);
+    }
+
     private String getMemberUuid(Address address) {
         MemberImpl member = node.getClusterService().getMember(address);
         return member != null ? member.getUuid() : INVALID_UUID;
@@ -722,6 +756,10 @@ public class MigrationManager {
 
         /** Schedules all migrations. */
         private void scheduleMigrations(List<Queue<MigrationInfo>> migrations) {
+            if (isParallelMigrationEnabled()) {
+                scheduleParallelMigrations(migrations);
+                return;
+            }
             boolean migrationScheduled;
             do {
                 migrationScheduled = false;
@@ -735,6 +773,75 @@ public class MigrationManager {
             } while (migrationScheduled);
         }
 
+        /**
+         * Groups the migrations into {@link ParallelMigrateTask}s and schedules them. A task contains at most one migration
+         * of a partition, so the migrations of a partition are still executed one after another in the order given by the
+         * {@link MigrationPlanner}. A task also respects the configured limits of parallel migrations in total and of
+         * parallel outgoing and incoming migrations per member. The partition owner is counted as the sender of the data.
+         */
+        private void scheduleParallelMigrations(List<Queue<MigrationInfo>> migrations) {
+            int partitionCount = migrations.size();
+            Address[] owners = new Address[partitionCount];
+            for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+                owners[partitionId] = partitionStateManager.getPartitionImpl(partitionId).getOwnerOrNull();
+            }
+
+            Map<Address, MutableInteger> outgoing = new HashMap<Address, MutableInteger>();
+            Map<Address, MutableInteger> incoming = new HashMap<Address, MutableInteger>();
+            int startPartitionId = 0;
+            for (; ; ) {
+                List<MigrationInfo> parallelMigrations = new ArrayList<MigrationInfo>(maxParallelMigrations);
+                outgoing.clear();
+                incoming.clear();
+                int partitionId = startPartitionId;
+                for (int i = 0; i < partitionCount && parallelMigrations.size() < maxParallelMigrations; i++) {
+                    partitionId = (startPartitionId + i) % partitionCount;
+                    MigrationInfo migration = migrations.get(partitionId).peek();
+                    if (migration == null) {
+                        continue;
+                    }
+                    Address owner = owners[partitionId];
+                    Address destination = migration.getDestination();
+                    if (getCount(outgoing, owner) >= maxParallelOutgoingMigrations
+                            || getCount(incoming, destination) >= maxParallelIncomingMigrations) {
+                        continue;
+                    }
+                    migrations.get(partitionId).poll();
+                    parallelMigrations.add(migration);
+                    incrementCount(outgoing, owner);
+                    incrementCount(incoming, destination);
+                    if (migration.getDestinationNewReplicaIndex() == 0) {
+                        owners[partitionId] = destination;
+                    } else if (migration.getSourceNewReplicaIndex() == 0) {
+                        owners[partitionId] = migration.getSource();
+                    }
+                }
+                if (parallelMigrations.isEmpty()) {
+                    return;
+                }
+                startPartitionId = (partitionId + 1) % partitionCount;
+                if (parallelMigrations.size() == 1) {
+                    scheduleMigration(parallelMigrations.get(0));
+                } else {
+                    migrationQueue.add(new ParallelMigrateTask(parallelMigrations));
+                }
+            }
+        }
+
+        private int getCount(Map<Address, MutableInteger> counts, Address address) {
+            MutableInteger count = counts.get(address);
+            return count != null ? count.value : 0;
+        }
+
+        private void incrementCount(Map<Address, MutableInteger> counts, Address address) {
+            MutableInteger count = counts.get(address);
+            if (count == null) {
+                count = new MutableInteger();
+                counts.put(address, count);
+            }
+            count.value++;
+        }
+
         private void logMigrationStatistics(int migrationCount, int lostCount) {
             if (lostCount > 0) {
                 logger.warning("Assigning new owners for " + lostCount + " LOST partitions!");
@@ -903,11 +1010,27 @@ public class MigrationManager {
             migrationInfo.setMaster(node.getThisAddress());
         }
 
+        private MemberImpl partitionOwner;
+
         @Override
         public void run() {
             if (!node.isMaster()) {
                 return;
             }
+            checkNotPromotion();
+            try {
+                Future future = startMigration();
+                if (future == null) {
+                    return;
+                }
+                Boolean result = awaitMigrateOperation(future);
+                processMigrationResult(result);
+            } catch (Throwable t) {
+                onMigrationError(t);
+            }
+        }
+
+        private void checkNotPromotion() {
             if (migrationInfo.getSource() == null
                     && migrationInfo.getDestinationCurrentReplicaIndex() > 0
                     && migrationInfo.getDestinationNewReplicaIndex() == 0) {
@@ -915,20 +1038,26 @@ public class MigrationManager {
                 throw new AssertionError("Promotion migrations should be handled by "
                         + RepairPartitionTableTask.class.getSimpleName() + "! -> " + migrationInfo);
             }
-            try {
-                MemberImpl partitionOwner = checkMigrationParticipantsAndGetPartitionOwner();
-                if (partitionOwner == null) {
-                    return;
-                }
-                beforeMigration();
-                Boolean result = executeMigrateOperation(partitionOwner);
-                processMigrationResult(result);
-            } catch (Throwable t) {
-                final Level level = migrationInfo.isValid() ? Level.WARNING : Level.FINE;
-                logger.log(level, "Error [" + t.getClass() + ": " + t.getMessage() + "] during " + migrationInfo);
-                logger.finest(t);
-                migrationOperationFailed();
+        }
+
+        /**
+         * Checks the migration participants, publishes the migration start and sends the {@link MigrationRequestOperation}
+         * to the partition owner. Returns {@code null} if the migration is skipped.
+         */
+        private Future startMigration() {
+            partitionOwner = checkMigrationParticipantsAndGetPartitionOwner();
+            if (partitionOwner == null) {
+                return null;
             }
+            beforeMigration();
+            return invokeMigrateOperation(partitionOwner);
+        }
+
+        private void onMigrationError(Throwable t) {
+            final Level level = migrationInfo.isValid() ? Level.WARNING : Level.FINE;
+            logger.log(level, "Error [" + t.getClass() + ": " + t.getMessage() + "] during " + migrationInfo);
+            logger.finest(t);
+            migrationOperationFailed();
         }
 
         /** Sends a migration event to the event listeners. */
@@ -998,19 +1127,23 @@ public class MigrationManager {
             }
         }
 
-        /**
-         * Sends a {@link MigrationRequestOperation} to the {@code fromMember} and returns the migration result if the
-         * migration was successful.
-         */
-        private Boolean executeMigrateOperation(MemberImpl fromMember) {
+        /** Sends a {@link MigrationRequestOperation} to the {@code fromMember} and returns the invocation future. */
+        private Future invokeMigrateOperation(MemberImpl fromMember) {
             int partitionStateVersion = partitionService.getPartitionStateVersion();
             Operation op = new MigrationRequestOperation(migrationInfo, partitionStateVersion, fragmentedMigrationEnabled);
-            Future future = nodeEngine.getOperationService().createInvocationBuilder(SERVICE_NAME, op,
+            return nodeEngine.getOperationService().createInvocationBuilder(SERVICE_NAME, op,
                     fromMember.getAddress())
                     .setCallTimeout(partitionMigrationTimeout)
                     .setTryCount(InternalPartitionService.MIGRATION_RETRY_COUNT)
                     .setTryPauseMillis(InternalPartitionService.MIGRATION_RETRY_PAUSE).invoke();
+        }
 
+        /**
+         * Waits for the {@link MigrationRequestOperation} sent to the partition owner and returns the migration result if the
+         * migration was successful.
+         */
+        private Boolean awaitMigrateOperation(Future future) {
+            MemberImpl fromMember = partitionOwner;
             try {
                 Object response = future.get();
                 return (Boolean) nodeEngine.toObject(response);
@@ -1135,6 +1268,92 @@ public class MigrationManager {
         }
     }
 
+    /**
+     * Invoked on the master node to execute migrations of distinct partitions in parallel. The data of all migrations is
+     * transferred concurrently, since the partition state version does not change until a migration is committed.
+     * The migrations are then committed one after another, successful ones first so that a failed migration does not
+     * prevent the commit of the already transferred data. Each migration is processed the same way as a {@link MigrateTask}.
+     */
+    class ParallelMigrateTask implements MigrationRunnable {
+        private final List<MigrateTask> tasks;
+
+        ParallelMigrateTask(List<MigrationInfo> migrations) {
+            tasks = new ArrayList<MigrateTask>(migrations.size());
+            for (MigrationInfo migration : migrations) {
+                tasks.add(new MigrateTask(migration));
+            }
+        }
+
+        List<MigrationInfo> getMigrations() {
+            List<MigrationInfo> migrations = new ArrayList<MigrationInfo>(tasks.size());
+            for (MigrateTask task : tasks) {
+                migrations.add(task.migrationInfo);
+            }
+            return migrations;
+        }
+
+        @Override
+        public void run() {
+            if (!node.isMaster()) {
+                return;
+            }
+            for (MigrateTask task : tasks) {
+                task.checkNotPromotion();
+            }
+
+            // errors are handled only after all sibling migrations completed, since failing a migration
+            // publishes a new partition state version, which would fail the sibling migrations still in flight
+            Map<MigrateTask, Throwable> errors = new LinkedHashMap<MigrateTask, Throwable>();
+            Map<MigrateTask, Future> futures = new LinkedHashMap<MigrateTask, Future>();
+            for (MigrateTask task : tasks) {
+                try {
+                    Future future = task.startMigration();
+                    if (future != null) {
+                        futures.put(task, future);
+                    }
+                } catch (Throwable t) {
+                    errors.put(task, t);
+                }
+            }
+
+            List<MigrateTask> failedTasks = new ArrayList<MigrateTask>();
+            Map<MigrateTask, Boolean> results = new LinkedHashMap<MigrateTask, Boolean>();
+            for (Map.Entry<MigrateTask, Future> entry : futures.entrySet()) {
+                MigrateTask task = entry.getKey();
+                try {
+                    Boolean result = task.awaitMigrateOperation(entry.getValue());
+                    if (Boolean.TRUE.equals(result)) {
+                        results.put(task, result);
+                    } else {
+                        failedTasks.add(task);
+                    }
+                } catch (Throwable t) {
+                    errors.put(task, t);
+                }
+            }
+            for (MigrateTask task : failedTasks) {
+                results.put(task, Boolean.FALSE);
+            }
+
+            for (Map.Entry<MigrateTask, Boolean> entry : results.entrySet()) {
+                MigrateTask task = entry.getKey();
+                try {
+                    task.processMigrationResult(entry.getValue());
+                } catch (Throwable t) {
+                    task.onMigrationError(t);
+                }
+            }
+            for (Map.Entry<MigrateTask, Throwable> entry : errors.entrySet()) {
+                entry.getKey().onMigrationError(entry.getValue());
+            }
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + "{" + "migrations=" + getMigrations() + '}';
+        }
+    }
+
     /**
      * Checks if the partition table needs repairing once the partitions have been initialized (assigned).
      * This means that it will:
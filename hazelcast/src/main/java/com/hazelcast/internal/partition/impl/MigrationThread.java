@@ -94,7 +94,8 @@ class MigrationThread extends Thread implements Runnable {
                 break;
             }
 
-            migrating |= runnable instanceof MigrationManager.MigrateTask;
+            migrating |= runnable instanceof MigrationManager.MigrateTask
+                    || runnable instanceof MigrationManager.ParallelMigrateTask;
             processTask(runnable);
             if (migrating && partitionMigrationInterval > 0) {
                 Thread.sleep(partitionMigrationInterval);
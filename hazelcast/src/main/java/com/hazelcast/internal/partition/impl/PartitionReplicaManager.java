@@ -17,6 +17,7 @@
 package com.hazelcast.internal.partition.impl;
 
 import com.hazelcast.instance.Node;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.NonFragmentedServiceNamespace;
@@ -25,12 +26,16 @@ import com.hazelcast.internal.partition.operation.PartitionReplicaSyncRequest;
 import com.hazelcast.internal.util.counters.MwCounter;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Address;
+import com.hazelcast.spi.DifferentialReplicationAwareService;
 import com.hazelcast.spi.ExecutionService;
 import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.PartitionReplicationEvent;
 import com.hazelcast.spi.ServiceNamespace;
 import com.hazelcast.spi.ServiceNamespaceAware;
 import com.hazelcast.spi.TaskScheduler;
+import com.hazelcast.spi.UrgentSystemOperation;
 import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.operationservice.PartitionTaskFactory;
 import com.hazelcast.spi.properties.GroupProperty;
 import com.hazelcast.spi.properties.HazelcastProperties;
@@ -44,8 +49,10 @@ import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
@@ -217,10 +224,53 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
         }
         replicaSyncRequestsCounter.inc();
 
-        PartitionReplicaSyncRequest syncRequest = new PartitionReplicaSyncRequest(partitionId, namespaces, replicaIndex);
+        // RU_COMPAT_3_10
+        if (node.clusterService.getClusterVersion().isLessThan(Versions.V3_11)) {
+            Map<ServiceNamespace, int[]> replicaDigests = Collections.emptyMap();
+            sendSyncReplicaRequest(partitionId, namespaces, replicaIndex, target, replicaDigests);
+            return;
+        }
+        // the replica digests are read from the partition data, which is confined to the partition thread
+        nodeEngine.getOperationService().execute(new SendSyncReplicaRequestTask(partitionId, namespaces, replicaIndex, target));
+    }
+
+    private void sendSyncReplicaRequest(int partitionId, Collection<ServiceNamespace> namespaces, int replicaIndex,
+                                        Address target, Map<ServiceNamespace, int[]> replicaDigests) {
+        PartitionReplicaSyncRequest syncRequest
+                = new PartitionReplicaSyncRequest(partitionId, namespaces, replicaIndex, replicaDigests);
         nodeEngine.getOperationService().send(syncRequest, target);
     }
 
+    /**
+     * Returns the digests of the local replica data for the namespaces supporting differential replication. The partition
+     * owner replicates only the differences for these namespaces. A digest can be taken while a backup operation is
+     * being applied to the replica, then the owner replicates the affected data as well.
+     * <p>
+     * Must be called on the partition thread of the given partition.
+     */
+    private Map<ServiceNamespace, int[]> getReplicaDigests(int partitionId, Collection<ServiceNamespace> namespaces,
+                                                          int replicaIndex) {
+        Map<ServiceNamespace, int[]> replicaDigests = new HashMap<ServiceNamespace, int[]>();
+        PartitionReplicationEvent event = new PartitionReplicationEvent(partitionId, replicaIndex);
+        Collection<DifferentialReplicationAwareService> services
+                = nodeEngine.getServices(DifferentialReplicationAwareService.class);
+        for (ServiceNamespace namespace : namespaces) {
+            if (namespace instanceof NonFragmentedServiceNamespace) {
+                continue;
+            }
+            for (DifferentialReplicationAwareService service : services) {
+                if (service.isKnownServiceNamespace(namespace)) {
+                    int[] digest = service.getReplicaDigest(event, namespace);
+                    if (digest != null) {
+                        replicaDigests.put(namespace, digest);
+                    }
+                    break;
+                }
+            }
+        }
+        return replicaDigests;
+    }
+
     private Collection<ServiceNamespace> registerSyncInfoFor(int partitionId,
             Collection<ServiceNamespace> requestedNamespaces, int replicaIndex, Address target) {
 
@@ -429,6 +479,44 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
         }
     }
 
+    /**
+     * Takes the replica digests on the partition thread and sends the sync request. If the digests cannot be taken,
+     * the request is sent without them and the partition owner replicates the whole data of the namespaces.
+     */
+    private class SendSyncReplicaRequestTask implements PartitionSpecificRunnable, UrgentSystemOperation {
+
+        private final int partitionId;
+        private final Collection<ServiceNamespace> namespaces;
+        private final int replicaIndex;
+        private final Address target;
+
+        SendSyncReplicaRequestTask(int partitionId, Collection<ServiceNamespace> namespaces, int replicaIndex,
+                                   Address target) {
+            this.partitionId = partitionId;
+            this.namespaces = namespaces;
+            this.replicaIndex = replicaIndex;
+            this.target = target;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return partitionId;
+        }
+
+        @Override
+        public void run() {
+            Map<ServiceNamespace, int[]> replicaDigests;
+            try {
+                replicaDigests = getReplicaDigests(partitionId, namespaces, replicaIndex);
+            } catch (Throwable t) {
+                logger.warning("Cannot take replica digests for partitionId=" + partitionId + ", replicaIndex="
+                        + replicaIndex + ", namespaces=" + namespaces + ". Requesting full replica sync.", t);
+                replicaDigests = Collections.emptyMap();
+            }
+            sendSyncReplicaRequest(partitionId, namespaces, replicaIndex, target, replicaDigests);
+        }
+    }
+
     private class AntiEntropyTask implements Runnable {
         @Override
         public void run() {
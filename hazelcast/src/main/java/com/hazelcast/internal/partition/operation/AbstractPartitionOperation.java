@@ -19,6 +19,8 @@ package com.hazelcast.internal.partition.operation;
 import com.hazelcast.internal.partition.NonFragmentedServiceNamespace;
 import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.ChunkedMigrationAwareService;
+import com.hazelcast.spi.DifferentialReplicationAwareService;
 import com.hazelcast.spi.FragmentedMigrationAwareService;
 import com.hazelcast.spi.MigrationAwareService;
 import com.hazelcast.spi.Operation;
@@ -29,6 +31,7 @@ import com.hazelcast.spi.impl.servicemanager.ServiceInfo;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
@@ -103,6 +106,57 @@ abstract class AbstractPartitionOperation extends Operation implements Identifie
         return operations;
     }
 
+    /**
+     * Returns the operations replicating only the data of the namespace differing from the given replica digest,
+     * or null if the namespace belongs to a service which does not support {@link DifferentialReplicationAwareService}
+     * or which cannot replicate the differences for the given digest.
+     */
+    final Collection<Operation> createDifferentialReplicationOperations(PartitionReplicationEvent event, ServiceNamespace ns,
+            int[] replicaDigest) {
+        assert !(ns instanceof NonFragmentedServiceNamespace) : ns + " should be used only for non-fragmented services!";
+
+        Collection<Operation> operations = new ArrayList<Operation>(1);
+        NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
+        Collection<ServiceInfo> services = nodeEngine.getServiceInfos(FragmentedMigrationAwareService.class);
+
+        for (ServiceInfo serviceInfo : services) {
+            FragmentedMigrationAwareService service = serviceInfo.getService();
+            if (!service.isKnownServiceNamespace(ns)) {
+                continue;
+            }
+            if (!(service instanceof DifferentialReplicationAwareService)) {
+                return null;
+            }
+
+            Operation op = ((DifferentialReplicationAwareService) service)
+                    .prepareDifferentialReplicationOperation(event, ns, replicaDigest);
+            if (op == null) {
+                return null;
+            }
+            op.setServiceName(serviceInfo.getName());
+            operations.add(op);
+        }
+        return operations;
+    }
+
+    /**
+     * Returns the chunked replication operations of the namespace when it belongs to a single
+     * {@link ChunkedMigrationAwareService}, otherwise returns null.
+     */
+    final Iterator<Operation> createFragmentReplicationChunks(PartitionReplicationEvent event, ServiceNamespace ns,
+            Collection<String> serviceNames, long maxChunkSizeInBytes) {
+        if (serviceNames.size() != 1) {
+            return null;
+        }
+
+        NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
+        Object service = nodeEngine.getService(serviceNames.iterator().next());
+        if (!(service instanceof ChunkedMigrationAwareService)) {
+            return null;
+        }
+        return ((ChunkedMigrationAwareService) service).prepareReplicationChunks(event, ns, maxChunkSizeInBytes);
+    }
+
     private Collection<Operation> prepareAndAppendReplicationOperation(PartitionReplicationEvent event, ServiceNamespace ns,
             FragmentedMigrationAwareService service, String serviceName, Collection<Operation> operations) {
 
@@ -18,6 +18,7 @@ package com.hazelcast.internal.partition.operation;
 
 import com.hazelcast.core.Member;
 import com.hazelcast.core.MemberLeftException;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.InternalPartitionService;
 import com.hazelcast.internal.partition.MigrationInfo;
@@ -29,6 +30,7 @@ import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
 import com.hazelcast.internal.partition.impl.MigrationManager;
 import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
 import com.hazelcast.logging.ILogger;
+import com.hazelcast.memory.MemoryUnit;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
@@ -48,6 +50,7 @@ import com.hazelcast.spi.impl.SimpleExecutionCallback;
 import com.hazelcast.spi.impl.operationservice.InternalOperationService;
 import com.hazelcast.spi.impl.servicemanager.ServiceInfo;
 import com.hazelcast.spi.partition.MigrationEndpoint;
+import com.hazelcast.spi.properties.GroupProperty;
 
 import java.io.IOException;
 import java.util.Collection;
@@ -74,6 +77,10 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
     private boolean returnResponse = true;
     private boolean fragmentedMigrationEnabled;
     private transient ServiceNamespacesContext namespacesContext;
+    // pending chunks of the replica fragment being migrated, if it is migrated in chunks
+    private transient Iterator<Operation> chunkIterator;
+    private transient ServiceNamespace chunkNamespace;
+    private transient String chunkServiceName;
 
     public MigrationRequestOperation() {
     }
@@ -248,7 +255,7 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
     private void invokeMigrationOperation(Address destination, ReplicaFragmentMigrationState migrationState,
                                           boolean firstFragment) {
 
-        boolean lastFragment = !fragmentedMigrationEnabled || !namespacesContext.hasNext();
+        boolean lastFragment = !fragmentedMigrationEnabled || (!namespacesContext.hasNext() && !hasNextChunk());
         Operation operation = new MigrationOperation(migrationInfo, partitionStateVersion, migrationState,
                 firstFragment, lastFragment);
 
@@ -306,6 +313,10 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
     private ReplicaFragmentMigrationState createNextReplicaFragmentMigrationState() {
         assert fragmentedMigrationEnabled : "Fragmented migration should be enabled!";
 
+        if (hasNextChunk()) {
+            return createNextChunkMigrationState();
+        }
+
         if (!namespacesContext.hasNext()) {
             return null;
         }
@@ -329,10 +340,50 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
         PartitionReplicationEvent event = getPartitionReplicationEvent();
         Collection<String> serviceNames = namespacesContext.getServiceNames(ns);
 
+        if (isChunkedMigrationEnabled()) {
+            Iterator<Operation> chunks = createFragmentReplicationChunks(event, ns, serviceNames, getMigrationChunkMaxSize());
+            if (chunks != null && chunks.hasNext()) {
+                chunkIterator = chunks;
+                chunkNamespace = ns;
+                chunkServiceName = serviceNames.iterator().next();
+                return createNextChunkMigrationState();
+            }
+        }
+
         Collection<Operation> operations = createFragmentReplicationOperations(event, ns, serviceNames);
         return createReplicaFragmentMigrationState(singleton(ns), operations);
     }
 
+    private boolean hasNextChunk() {
+        return chunkIterator != null;
+    }
+
+    private ReplicaFragmentMigrationState createNextChunkMigrationState() {
+        Operation operation = chunkIterator.next();
+        operation.setServiceName(chunkServiceName);
+        ReplicaFragmentMigrationState migrationState =
+                createReplicaFragmentMigrationState(singleton(chunkNamespace), singleton(operation));
+
+        if (!chunkIterator.hasNext()) {
+            chunkIterator = null;
+            chunkNamespace = null;
+            chunkServiceName = null;
+        }
+        return migrationState;
+    }
+
+    private boolean isChunkedMigrationEnabled() {
+        NodeEngine nodeEngine = getNodeEngine();
+        // RU_COMPAT_3_10
+        return nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V3_11)
+                && nodeEngine.getProperties().getBoolean(GroupProperty.PARTITION_CHUNKED_MIGRATION_ENABLED);
+    }
+
+    private long getMigrationChunkMaxSize() {
+        return MemoryUnit.MEGABYTES.toBytes(
+                getNodeEngine().getProperties().getInteger(GroupProperty.PARTITION_MIGRATION_CHUNK_MAX_SIZE));
+    }
+
     private ReplicaFragmentMigrationState createAllReplicaFragmentsMigrationState() {
         PartitionReplicationEvent event = getPartitionReplicationEvent();
         Collection<Operation> operations = createAllReplicationOperations(event);
@@ -16,6 +16,7 @@
 
 package com.hazelcast.internal.partition.operation;
 
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.InternalPartitionService;
 import com.hazelcast.internal.partition.MigrationCycleOperation;
@@ -43,6 +44,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
+
+import static com.hazelcast.util.MapUtil.createHashMap;
 
 /**
  * The request sent from a replica to the partition owner to synchronize the replica data. The partition owner can send a
@@ -60,13 +64,22 @@ public final class PartitionReplicaSyncRequest extends AbstractPartitionOperatio
         implements PartitionAwareOperation, MigrationCycleOperation, Versioned {
 
     private Collection<ServiceNamespace> allNamespaces;
+    // digests of the replica data of the namespaces supporting differential replication
+    private Map<ServiceNamespace, int[]> replicaDigests;
 
     public PartitionReplicaSyncRequest() {
         allNamespaces = Collections.emptySet();
+        replicaDigests = Collections.emptyMap();
     }
 
     public PartitionReplicaSyncRequest(int partitionId, Collection<ServiceNamespace> namespaces, int replicaIndex) {
+        this(partitionId, namespaces, replicaIndex, Collections.<ServiceNamespace, int[]>emptyMap());
+    }
+
+    public PartitionReplicaSyncRequest(int partitionId, Collection<ServiceNamespace> namespaces, int replicaIndex,
+                                       Map<ServiceNamespace, int[]> replicaDigests) {
         this.allNamespaces = namespaces;
+        this.replicaDigests = replicaDigests;
         setPartitionId(partitionId);
         setReplicaIndex(replicaIndex);
     }
@@ -108,7 +121,14 @@ public final class PartitionReplicaSyncRequest extends AbstractPartitionOperatio
             }
 
             for (ServiceNamespace namespace : allNamespaces) {
-                Collection<Operation> operations = createFragmentReplicationOperations(event, namespace);
+                Collection<Operation> operations = null;
+                int[] replicaDigest = replicaDigests.get(namespace);
+                if (replicaDigest != null) {
+                    operations = createDifferentialReplicationOperations(event, namespace, replicaDigest);
+                }
+                if (operations == null) {
+                    operations = createFragmentReplicationOperations(event, namespace);
+                }
                 sendOperations(operations, namespace);
             }
         } finally {
@@ -235,6 +255,15 @@ public final class PartitionReplicaSyncRequest extends AbstractPartitionOperatio
         for (ServiceNamespace namespace : allNamespaces) {
             out.writeObject(namespace);
         }
+
+        // RU_COMPAT_3_10
+        if (out.getVersion().isGreaterOrEqual(Versions.V3_11)) {
+            out.writeInt(replicaDigests.size());
+            for (Map.Entry<ServiceNamespace, int[]> entry : replicaDigests.entrySet()) {
+                out.writeObject(entry.getKey());
+                out.writeIntArray(entry.getValue());
+            }
+        }
     }
 
     @Override
@@ -245,6 +274,16 @@ public final class PartitionReplicaSyncRequest extends AbstractPartitionOperatio
             ServiceNamespace ns = in.readObject();
             allNamespaces.add(ns);
         }
+
+        // RU_COMPAT_3_10
+        if (in.getVersion().isGreaterOrEqual(Versions.V3_11)) {
+            int digestCount = in.readInt();
+            replicaDigests = createHashMap(digestCount);
+            for (int i = 0; i < digestCount; i++) {
+                ServiceNamespace ns = in.readObject();
+                replicaDigests.put(ns, in.readIntArray());
+            }
+        }
     }
 
     @Override
@@ -18,11 +18,13 @@ package com.hazelcast.internal.serialization;
 
 import com.hazelcast.config.SerializationConfig;
 import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
 import com.hazelcast.nio.BufferObjectDataInput;
 import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.nio.Disposable;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.Packet;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.DataType;
 import com.hazelcast.nio.serialization.PortableReader;
@@ -67,6 +69,35 @@ public interface InternalSerializationService extends SerializationService, Disp
      */
     byte[] toBytes(Object obj, int leftPadding, boolean insertPartitionHash);
 
+    /**
+     * Writes the obj straight into a byte array taken from the given pool and wraps it in a {@link Packet}. Unlike
+     * {@link #toBytes(Object)}, the serialized bytes are not copied into an exact-sized byte array.
+     *
+     * The payload has the same layout as the byte array returned by {@link #toBytes(Object)}. It is returned to the
+     * pool by {@link Packet#releasePayload()} once the packet has been written.
+     *
+     * @param obj         object to write
+     * @param partitionId the partition ID of the packet
+     * @param payloadPool the pool to take the payload from
+     * @return the created packet
+     */
+    Packet toPacket(Object obj, int partitionId, ByteArrayPool payloadPool);
+
+    /**
+     * Writes the obj straight into a byte array taken from the given pool and wraps it in a {@link Packet} without a
+     * partition ID.
+     *
+     * The payload has the same layout as the byte array returned by {@link #toBytes(Object, int, boolean)}, so the
+     * padded bytes can be written by the caller using {@link Packet#toByteArray()}.
+     *
+     * @param obj                 object to write
+     * @param leftPadding         offset from beginning of the payload to start writing the object's bytes
+     * @param insertPartitionHash {@code true} to include the partition hash in the payload, otherwise {@code false}
+     * @param payloadPool         the pool to take the payload from
+     * @return the created packet
+     */
+    Packet toPacket(Object obj, int leftPadding, boolean insertPartitionHash, ByteArrayPool payloadPool);
+
     <B extends Data> B toData(Object obj, DataType type);
 
     <B extends Data> B toData(Object obj, DataType type, PartitioningStrategy strategy);
@@ -24,6 +24,7 @@ import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPool;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolFactory;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolThreadLocal;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
 import com.hazelcast.internal.usercodedeployment.impl.ClassLocator;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
@@ -31,6 +32,7 @@ import com.hazelcast.nio.BufferObjectDataInput;
 import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.Packet;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.DataSerializable;
 import com.hazelcast.nio.serialization.HazelcastSerializationException;
@@ -39,6 +41,7 @@ import com.hazelcast.nio.serialization.Serializer;
 import com.hazelcast.util.function.Supplier;
 
 import java.io.Externalizable;
+import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteOrder;
 import java.util.IdentityHashMap;
@@ -141,17 +144,7 @@ public abstract class AbstractSerializationService implements InternalSerializat
         BufferPool pool = bufferPoolThreadLocal.get();
         BufferObjectDataOutput out = pool.takeOutputBuffer();
         try {
-            out.position(leftPadding);
-
-            SerializerAdapter serializer = serializerFor(obj);
-            if (writeHash) {
-                int partitionHash = calculatePartitionHash(obj, strategy);
-                out.writeInt(partitionHash, BIG_ENDIAN);
-            }
-
-            out.writeInt(serializer.getTypeId(), serializerTypeIdByteOrder);
-
-            serializer.write(out, obj);
+            writeWithHeader(out, obj, leftPadding, writeHash, strategy, serializerTypeIdByteOrder);
             return out.toByteArray();
         } catch (Throwable e) {
             throw handleSerializeException(obj, e);
@@ -160,6 +153,63 @@ public abstract class AbstractSerializationService implements InternalSerializat
         }
     }
 
+    @Override
+    public Packet toPacket(Object obj, int partitionId, ByteArrayPool payloadPool) {
+        return toPacket(obj, partitionId, 0, true, globalPartitioningStrategy, BIG_ENDIAN, payloadPool);
+    }
+
+    @Override
+    public Packet toPacket(Object obj, int leftPadding, boolean insertPartitionHash, ByteArrayPool payloadPool) {
+        return toPacket(obj, -1, leftPadding, insertPartitionHash, globalPartitioningStrategy, getByteOrder(), payloadPool);
+    }
+
+    private Packet toPacket(Object obj, int partitionId, int leftPadding, boolean writeHash, PartitioningStrategy strategy,
+                            ByteOrder serializerTypeIdByteOrder, ByteArrayPool payloadPool) {
+        checkNotNull(obj);
+        checkNotNull(serializerTypeIdByteOrder);
+        checkNotNull(payloadPool);
+
+        BufferPool pool = bufferPoolThreadLocal.get();
+        BufferObjectDataOutput out = pool.takeOutputBuffer();
+        if (!(out instanceof ByteArrayObjectDataOutput)) {
+            pool.returnOutputBuffer(out);
+            byte[] bytes = toBytes(obj, leftPadding, writeHash, strategy, serializerTypeIdByteOrder);
+            return new Packet(bytes, partitionId);
+        }
+
+        // the output temporarily writes into the pooled payload, so the serialized bytes don't need to be
+        // copied into an exact-sized array. If the payload grows, the grown array becomes the payload.
+        ByteArrayObjectDataOutput byteArrayOut = (ByteArrayObjectDataOutput) out;
+        byte[] outBuffer = byteArrayOut.swapBuffer(payloadPool.take(leftPadding + HeapData.HEAP_DATA_OVERHEAD));
+        try {
+            writeWithHeader(out, obj, leftPadding, writeHash, strategy, serializerTypeIdByteOrder);
+        } catch (Throwable e) {
+            payloadPool.release(byteArrayOut.swapBuffer(outBuffer));
+            pool.returnOutputBuffer(out);
+            throw handleSerializeException(obj, e);
+        }
+
+        int payloadSize = out.position();
+        byte[] payload = byteArrayOut.swapBuffer(outBuffer);
+        pool.returnOutputBuffer(out);
+        return new Packet(payload, payloadSize, partitionId, payloadPool);
+    }
+
+    private void writeWithHeader(BufferObjectDataOutput out, Object obj, int leftPadding, boolean writeHash,
+                                 PartitioningStrategy strategy, ByteOrder serializerTypeIdByteOrder) throws IOException {
+        out.position(leftPadding);
+
+        SerializerAdapter serializer = serializerFor(obj);
+        if (writeHash) {
+            int partitionHash = calculatePartitionHash(obj, strategy);
+            out.writeInt(partitionHash, BIG_ENDIAN);
+        }
+
+        out.writeInt(serializer.getTypeId(), serializerTypeIdByteOrder);
+
+        serializer.write(out, obj);
+    }
+
     @Override
     public final <T> T toObject(final Object object) {
         if (!(object instanceof Data)) {
@@ -419,6 +469,19 @@ public abstract class AbstractSerializationService implements InternalSerializat
         return current == null;
     }
 
+    /**
+     * Registers a serializer only by its type-id. Such a serializer is used for deserialization but it is never
+     * looked up by the class of the object being serialized.
+     */
+    protected final void registerTypeId(Serializer serializer) {
+        SerializerAdapter adapter = createSerializerAdapter(serializer, this);
+        SerializerAdapter current = idMap.putIfAbsent(serializer.getTypeId(), adapter);
+        if (current != null && current.getImpl().getClass() != adapter.getImpl().getClass()) {
+            throw new IllegalStateException(
+                    "Serializer [" + current.getImpl() + "] has been already registered for type-id: " + serializer.getTypeId());
+        }
+    }
+
     protected final void registerConstant(Class type, Serializer serializer) {
         registerConstant(type, createSerializerAdapter(serializer, this));
     }
@@ -370,6 +370,17 @@ class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements Buf
         }
     }
 
+    /**
+     * Replaces the buffer this output writes to and returns the previous one. The position is not changed.
+     *
+     * Used to serialize straight into a buffer owned by the caller, e.g. a pooled packet payload.
+     */
+    final byte[] swapBuffer(byte[] newBuffer) {
+        byte[] oldBuffer = buffer;
+        buffer = newBuffer;
+        return oldBuffer;
+    }
+
     @Override
     public void writeObject(Object object) throws IOException {
         service.writeObject(this, object);
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+import java.io.IOException;
+
+import static com.hazelcast.internal.serialization.impl.DataCompressor.inflate;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.readIntB;
+
+/**
+ * Deserializes the {@link com.hazelcast.nio.serialization.Data} compressed by {@link DataCompressor}
+ * by inflating and then deserializing the original data.
+ * <p>
+ * This serializer is only registered by its type-id, objects are never serialized with it.
+ */
+public final class CompressedDataSerializer implements StreamSerializer<Object> {
+
+    private static final int HEADER_SIZE = 2 * INT_SIZE_IN_BYTES;
+
+    private final InternalSerializationService serializationService;
+
+    public CompressedDataSerializer(InternalSerializationService serializationService) {
+        this.serializationService = serializationService;
+    }
+
+    @Override
+    public void write(ObjectDataOutput out, Object object) throws IOException {
+        throw new UnsupportedOperationException("Compressed data can only be created by DataCompressor");
+    }
+
+    @Override
+    public Object read(ObjectDataInput in) throws IOException {
+        byte[] header = new byte[HEADER_SIZE];
+        in.readFully(header);
+        int originalSize = readIntB(header, 0);
+        int compressedSize = readIntB(header, INT_SIZE_IN_BYTES);
+
+        byte[] compressed = new byte[compressedSize];
+        in.readFully(compressed);
+        return serializationService.toObject(new HeapData(inflate(compressed, 0, compressedSize, originalSize)));
+    }
+
+    @Override
+    public int getTypeId() {
+        return SerializationConstants.COMPRESSED_DATA_TYPE;
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static com.hazelcast.internal.serialization.impl.HeapData.DATA_OFFSET;
+import static com.hazelcast.internal.serialization.impl.HeapData.PARTITION_HASH_OFFSET;
+import static com.hazelcast.internal.serialization.impl.HeapData.TYPE_OFFSET;
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.COMPRESSED_DATA_TYPE;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.readIntB;
+import static com.hazelcast.nio.Bits.writeIntB;
+import static java.util.Arrays.copyOf;
+
+/**
+ * Compresses and decompresses {@link Data} instances.
+ * <p>
+ * A compressed {@link Data} is a regular {@link HeapData} of type {@link SerializationConstants#COMPRESSED_DATA_TYPE}
+ * whose payload is the deflated content of the original {@link Data}, including its partition hash and type.
+ * Since {@link CompressedDataSerializer} is registered for this type, every serialization service can deserialize
+ * compressed data transparently. Therefore compressed data can be stored, replicated and sent to clients as it is
+ * and only gets decompressed when it is deserialized.
+ * <p>
+ * Compressed data layout:
+ * <pre>
+ * | partition-hash | type | original-size | compressed-size | compressed-bytes |
+ * </pre>
+ * The partition hash of the original data is kept, so compressed data is routed to the same partition.
+ * All header fields are written with BIG_ENDIAN byte-order.
+ */
+public final class DataCompressor {
+
+    static final int ORIGINAL_SIZE_OFFSET = DATA_OFFSET;
+    static final int COMPRESSED_SIZE_OFFSET = ORIGINAL_SIZE_OFFSET + INT_SIZE_IN_BYTES;
+    static final int COMPRESSED_BYTES_OFFSET = COMPRESSED_SIZE_OFFSET + INT_SIZE_IN_BYTES;
+
+    // Deflater and Inflater instances hold native zlib buffers, so they are reused per thread
+    private static final ThreadLocal<Deflater> DEFLATER = new ThreadLocal<Deflater>();
+    private static final ThreadLocal<Inflater> INFLATER = new ThreadLocal<Inflater>();
+
+    private DataCompressor() {
+    }
+
+    /**
+     * Compresses the given data if it is at least {@code minSize} bytes long and the compressed form is smaller
+     * than the original.
+     *
+     * @param data    the data to compress
+     * @param minSize minimum total size in bytes of the data to be considered for compression
+     * @return the compressed data or the given data if it is {@code null}, already compressed, smaller than
+     * {@code minSize} or not compressible
+     */
+    public static Data compress(Data data, int minSize) {
+        if (data == null || isCompressed(data) || data.totalSize() < minSize) {
+            return data;
+        }
+
+        byte[] original = data.toByteArray();
+        if (original.length <= COMPRESSED_BYTES_OFFSET) {
+            // not even the header of the compressed data would be smaller than the original
+            return data;
+        }
+        // compression is not worth it when the result would not be smaller than the original
+        byte[] compressed = new byte[original.length];
+        Deflater deflater = deflater();
+        int compressedSize;
+        try {
+            deflater.setInput(original);
+            deflater.finish();
+            compressedSize = deflater.deflate(compressed, COMPRESSED_BYTES_OFFSET,
+                    compressed.length - COMPRESSED_BYTES_OFFSET);
+            if (!deflater.finished()) {
+                return data;
+            }
+        } finally {
+            deflater.reset();
+        }
+
+        byte[] payload = copyOf(compressed, COMPRESSED_BYTES_OFFSET + compressedSize);
+        writeIntB(payload, PARTITION_HASH_OFFSET, data.getPartitionHash());
+        writeIntB(payload, TYPE_OFFSET, COMPRESSED_DATA_TYPE);
+        writeIntB(payload, ORIGINAL_SIZE_OFFSET, original.length);
+        writeIntB(payload, COMPRESSED_SIZE_OFFSET, compressedSize);
+        return new HeapData(payload);
+    }
+
+    /**
+     * Decompresses the given data.
+     *
+     * @param data the data to decompress
+     * @return the original data or the given data if it is {@code null} or not compressed
+     */
+    public static Data decompress(Data data) {
+        if (data == null || !isCompressed(data)) {
+            return data;
+        }
+
+        byte[] payload = data.toByteArray();
+        int originalSize = readIntB(payload, ORIGINAL_SIZE_OFFSET);
+        int compressedSize = readIntB(payload, COMPRESSED_SIZE_OFFSET);
+        return new HeapData(inflate(payload, COMPRESSED_BYTES_OFFSET, compressedSize, originalSize));
+    }
+
+    /**
+     * @return {@code true} if the given data is compressed, {@code false} otherwise
+     */
+    public static boolean isCompressed(Data data) {
+        return data.getType() == COMPRESSED_DATA_TYPE;
+    }
+
+    static byte[] inflate(byte[] compressed, int offset, int length, int originalSize) {
+        byte[] original = new byte[originalSize];
+        Inflater inflater = inflater();
+        try {
+            inflater.setInput(compressed, offset, length);
+            int inflatedSize = inflater.inflate(original);
+            if (inflatedSize != originalSize || !inflater.finished()) {
+                throw new HazelcastSerializationException("Corrupted compressed data! Expected " + originalSize
+                        + " bytes but inflated " + inflatedSize + " bytes");
+            }
+            return original;
+        } catch (DataFormatException e) {
+            throw new HazelcastSerializationException("Corrupted compressed data!", e);
+        } finally {
+            inflater.reset();
+        }
+    }
+
+    private static Deflater deflater() {
+        Deflater deflater = DEFLATER.get();
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+            DEFLATER.set(deflater);
+        }
+        return deflater;
+    }
+
+    private static Inflater inflater() {
+        Inflater inflater = INFLATER.get();
+        if (inflater == null) {
+            inflater = new Inflater();
+            INFLATER.set(inflater);
+        }
+        return inflater;
+    }
+}
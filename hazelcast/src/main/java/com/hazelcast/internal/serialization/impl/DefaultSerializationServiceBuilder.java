@@ -33,6 +33,7 @@ import com.hazelcast.nio.ClassLoaderUtil;
 import com.hazelcast.nio.ClassNameFilter;
 import com.hazelcast.nio.SerializationClassNameFilter;
 import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.CompactSerializer;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
 import com.hazelcast.nio.serialization.HazelcastSerializationException;
 import com.hazelcast.nio.serialization.PortableFactory;
@@ -43,6 +44,8 @@ import com.hazelcast.util.StringUtil;
 import com.hazelcast.util.function.Supplier;
 
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -65,6 +68,10 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
 
     protected final Set<ClassDefinition> classDefinitions = new HashSet<ClassDefinition>();
 
+    protected final Collection<CompactSerializer> compactSerializers = new ArrayList<CompactSerializer>();
+
+    protected final Collection<Class> pojoSerializerClasses = new ArrayList<Class>();
+
     protected ClassLoader classLoader;
     protected SerializationConfig config;
 
@@ -229,6 +236,8 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
             addConfigDataSerializableFactories(dataSerializableFactories, config, classLoader);
             addConfigPortableFactories(portableFactories, config, classLoader);
             classDefinitions.addAll(config.getClassDefinitions());
+            compactSerializers.addAll(config.getCompactSerializers());
+            pojoSerializerClasses.addAll(config.getPojoSerializerClasses());
         }
 
         InputOutputFactory inputOutputFactory = createInputOutputFactory();
@@ -294,6 +303,8 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
                     .withEnableSharedObject(enableSharedObject)
                     .withNotActiveExceptionSupplier(notActiveExceptionSupplier)
                     .withClassNameFilter(classNameFilter)
+                    .withCompactSerializers(compactSerializers)
+                    .withPojoSerializerClasses(pojoSerializerClasses)
                     .build();
                 serializationServiceV1.registerClassDefinitions(classDefinitions, checkClassDefErrors);
                 return serializationServiceV1;
@@ -98,6 +98,21 @@ public final class SerializationConstants {
     public static final int JAVASCRIPT_JSON_SERIALIZATION_TYPE = -130;
     public static final int GO_GOB_SERIALIZATION_TYPE = -140;
 
+    // ------------------------------------------------------------
+    // DATA COMPRESSION
+
+    public static final int COMPRESSED_DATA_TYPE = -150;
+
+    // ------------------------------------------------------------
+    // COMPACT SERIALIZATION
+
+    public static final int COMPACT_TYPE = -160;
+
+    // ------------------------------------------------------------
+    // POJO SERIALIZATION
+
+    public static final int POJO_TYPE = -170;
+
     // ------------------------------------------------------------
     // HIBERNATE SERIALIZERS
 
@@ -21,10 +21,14 @@ import com.hazelcast.internal.serialization.PortableContext;
 import com.hazelcast.internal.serialization.impl.ConstantSerializers.BooleanSerializer;
 import com.hazelcast.internal.serialization.impl.ConstantSerializers.ByteSerializer;
 import com.hazelcast.internal.serialization.impl.ConstantSerializers.StringArraySerializer;
+import com.hazelcast.internal.serialization.impl.compact.CompactStreamSerializer;
+import com.hazelcast.internal.serialization.impl.compact.DefaultCompactReader;
+import com.hazelcast.internal.serialization.impl.pojo.PojoStreamSerializer;
 import com.hazelcast.nio.BufferObjectDataInput;
 import com.hazelcast.nio.ClassNameFilter;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.CompactSerializer;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.DataSerializable;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
@@ -83,6 +87,7 @@ public class SerializationServiceV1 extends AbstractSerializationService {
 
     private final PortableContextImpl portableContext;
     private final PortableSerializer portableSerializer;
+    private final CompactStreamSerializer compactStreamSerializer;
 
     SerializationServiceV1(AbstractBuilder<?> builder) {
         super(builder);
@@ -101,8 +106,11 @@ public class SerializationServiceV1 extends AbstractSerializationService {
                 new JavaSerializer(builder.enableSharedObject, builder.enableCompression, builder.classNameFilter), this);
         javaExternalizableAdapter = createSerializerAdapter(
                 new JavaDefaultSerializers.ExternalizableSerializer(builder.enableCompression, builder.classNameFilter), this);
+        compactStreamSerializer = new CompactStreamSerializer(builder.compactSerializers);
         registerConstantSerializers();
         registerJavaTypeSerializers();
+        registerCompactSerializer();
+        registerPojoSerializer(new PojoStreamSerializer(builder.pojoSerializerClasses));
     }
 
     @Override
@@ -141,6 +149,22 @@ public class SerializationServiceV1 extends AbstractSerializationService {
         return portableContext;
     }
 
+    /**
+     * Creates a reader to read single fields of the given data in the compact format, without deserializing it.
+     *
+     * @param data the data in the compact format
+     * @return the reader
+     * @throws IOException if the data can't be read
+     */
+    public DefaultCompactReader createCompactReader(Data data) throws IOException {
+        BufferObjectDataInput in = createObjectDataInput(data);
+        return compactStreamSerializer.createReader(data, in);
+    }
+
+    public CompactStreamSerializer getCompactStreamSerializer() {
+        return compactStreamSerializer;
+    }
+
     private void registerConstantSerializers() {
         registerConstant(null, nullSerializerAdapter);
         registerConstant(DataSerializable.class, dataSerializerAdapter);
@@ -179,6 +203,24 @@ public class SerializationServiceV1 extends AbstractSerializationService {
 
         safeRegister(Serializable.class, javaSerializerAdapter);
         safeRegister(Externalizable.class, javaExternalizableAdapter);
+        registerTypeId(new CompressedDataSerializer(this));
+    }
+
+    private void registerCompactSerializer() {
+        SerializerAdapter adapter = createSerializerAdapter(compactStreamSerializer, this);
+        for (Class compactClass : compactStreamSerializer.getCompactClasses()) {
+            safeRegister(compactClass, adapter);
+        }
+        // compact data can be read without a serializer for its class, e.g. by queries
+        registerTypeId(compactStreamSerializer);
+    }
+
+    private void registerPojoSerializer(PojoStreamSerializer pojoStreamSerializer) {
+        SerializerAdapter adapter = createSerializerAdapter(pojoStreamSerializer, this);
+        for (Class pojoClass : pojoStreamSerializer.getPojoClasses()) {
+            safeRegister(pojoClass, adapter);
+        }
+        registerTypeId(pojoStreamSerializer);
     }
 
     public void registerClassDefinitions(Collection<ClassDefinition> classDefinitions, boolean checkClassDefErrors) {
@@ -259,6 +301,8 @@ public class SerializationServiceV1 extends AbstractSerializationService {
         private boolean enableCompression;
         private boolean enableSharedObject;
         private ClassNameFilter classNameFilter;
+        private Collection<CompactSerializer> compactSerializers = Collections.emptyList();
+        private Collection<Class> pojoSerializerClasses = Collections.emptyList();
 
         protected AbstractBuilder() {
         }
@@ -297,6 +341,16 @@ public class SerializationServiceV1 extends AbstractSerializationService {
             this.classNameFilter = classNameFilter;
             return self();
         }
+
+        public final T withCompactSerializers(Collection<CompactSerializer> compactSerializers) {
+            this.compactSerializers = compactSerializers;
+            return self();
+        }
+
+        public final T withPojoSerializerClasses(Collection<Class> pojoSerializerClasses) {
+            this.pojoSerializerClasses = pojoSerializerClasses;
+            return self();
+        }
     }
 
     public static final class Builder extends AbstractBuilder<Builder> {
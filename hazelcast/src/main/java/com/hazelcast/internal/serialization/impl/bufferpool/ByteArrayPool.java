@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.bufferpool;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import static com.hazelcast.util.Preconditions.checkNotNegative;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * A bounded, thread-safe pool of byte arrays.
+ *
+ * Unlike the {@link BufferPool}, the ByteArrayPool is shared between threads: it is used for outbound packet
+ * payloads which are serialized by the thread sending the packet but are released by the io thread once the
+ * packet has been written to the socket.
+ *
+ * Arrays returned to the pool are allowed to have grown while in use, up to {@link #MAX_SIZE_FACTOR} times the
+ * buffer size; larger arrays are left for the garbage collector so the pool can't retain too much memory.
+ */
+public final class ByteArrayPool {
+
+    static final int MAX_SIZE_FACTOR = 8;
+
+    // accessible for testing.
+    final Queue<byte[]> queue;
+
+    private final int bufferSize;
+    private final int maxPooledSize;
+
+    /**
+     * Creates a ByteArrayPool.
+     *
+     * @param capacity   the maximum number of pooled arrays. If 0, nothing is pooled and every take allocates.
+     * @param bufferSize the size of newly allocated arrays
+     */
+    public ByteArrayPool(int capacity, int bufferSize) {
+        checkNotNegative(capacity, "capacity can't be negative");
+        checkPositive(bufferSize, "bufferSize should be positive");
+        this.queue = capacity == 0 ? null : new ArrayBlockingQueue<byte[]>(capacity);
+        this.bufferSize = bufferSize;
+        this.maxPooledSize = bufferSize * MAX_SIZE_FACTOR;
+    }
+
+    /**
+     * Takes a byte array with at least the given length from the pool, or allocates one when none is available.
+     *
+     * The content of the array is undefined.
+     *
+     * @param minLength the minimum length of the array
+     * @return the taken byte array
+     */
+    public byte[] take(int minLength) {
+        if (queue != null) {
+            byte[] bytes = queue.poll();
+            if (bytes != null) {
+                if (bytes.length >= minLength) {
+                    return bytes;
+                }
+                queue.offer(bytes);
+            }
+        }
+        return new byte[Math.max(minLength, bufferSize)];
+    }
+
+    /**
+     * Returns a byte array to the pool.
+     *
+     * The array is silently dropped if the pool is full, or if the array is too small or too large to be pooled.
+     *
+     * @param bytes the byte array to return, can be {@code null}
+     */
+    public void release(byte[] bytes) {
+        if (queue == null || bytes == null || bytes.length < bufferSize || bytes.length > maxPooledSize) {
+            return;
+        }
+        queue.offer(bytes);
+    }
+
+    /**
+     * Returns the number of arrays currently in the pool.
+     */
+    public int size() {
+        return queue == null ? 0 : queue.size();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.internal.serialization.DataSerializerHook;
+import com.hazelcast.internal.serialization.impl.ArrayDataSerializableFactory;
+import com.hazelcast.internal.serialization.impl.FactoryIdHelper;
+import com.hazelcast.nio.serialization.DataSerializableFactory;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.util.ConstructorFunction;
+
+import static com.hazelcast.internal.serialization.impl.FactoryIdHelper.COMPACT_DS_FACTORY;
+import static com.hazelcast.internal.serialization.impl.FactoryIdHelper.COMPACT_DS_FACTORY_ID;
+
+public final class CompactDataSerializerHook implements DataSerializerHook {
+
+    public static final int F_ID = FactoryIdHelper.getFactoryId(COMPACT_DS_FACTORY, COMPACT_DS_FACTORY_ID);
+
+    public static final int SCHEMA = 0;
+    public static final int PUT_SCHEMAS_OP = 1;
+    public static final int FETCH_SCHEMA_OP = 2;
+
+    public static final int LEN = FETCH_SCHEMA_OP + 1;
+
+    @Override
+    public int getFactoryId() {
+        return F_ID;
+    }
+
+    @Override
+    public DataSerializableFactory createFactory() {
+        ConstructorFunction<Integer, IdentifiedDataSerializable>[] constructors = new ConstructorFunction[LEN];
+        constructors[SCHEMA] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            @Override
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new Schema();
+            }
+        };
+        constructors[PUT_SCHEMAS_OP] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            @Override
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new PutSchemasOperation();
+            }
+        };
+        constructors[FETCH_SCHEMA_OP] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            @Override
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new FetchSchemaOperation();
+            }
+        };
+        return new ArrayDataSerializableFactory(constructors);
+    }
+}
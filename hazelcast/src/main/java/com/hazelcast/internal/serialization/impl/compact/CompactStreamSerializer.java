@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.internal.serialization.impl.SerializationConstants;
+import com.hazelcast.nio.BufferObjectDataInput;
+import com.hazelcast.nio.BufferObjectDataOutput;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.CompactSerializer;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Serializes objects with their {@link CompactSerializer} to the compact format.
+ * <p>
+ * A serialized object consists of the ID of its {@link Schema}, the length of the object and the fields
+ * in the layout of the schema. The schemas are cached locally and shared via the {@link SchemaRegistry}.
+ */
+public final class CompactStreamSerializer implements StreamSerializer<Object> {
+
+    /**
+     * Marks a variable-size field with a {@code null} value in the offset table.
+     */
+    static final int NULL_OFFSET = -1;
+
+    private final Map<Class, CompactSerializer> serializersByClass = new HashMap<Class, CompactSerializer>();
+    private final Map<String, CompactSerializer> serializersByTypeName = new HashMap<String, CompactSerializer>();
+    private final ConcurrentMap<Class, Schema> schemasByClass = new ConcurrentHashMap<Class, Schema>();
+    private final ConcurrentMap<Long, Schema> schemasById = new ConcurrentHashMap<Long, Schema>();
+
+    private volatile SchemaRegistry schemaRegistry;
+
+    public CompactStreamSerializer(Collection<CompactSerializer> serializers) {
+        for (CompactSerializer serializer : serializers) {
+            if (serializersByTypeName.put(serializer.getTypeName(), serializer) != null) {
+                throw new IllegalArgumentException("Duplicate compact serializer for type name '"
+                        + serializer.getTypeName() + "'");
+            }
+            if (serializersByClass.put(serializer.getCompactClass(), serializer) != null) {
+                throw new IllegalArgumentException("Duplicate compact serializer for class "
+                        + serializer.getCompactClass().getName());
+            }
+        }
+    }
+
+    /**
+     * @return the classes which are serialized by this serializer
+     */
+    public Collection<Class> getCompactClasses() {
+        return serializersByClass.keySet();
+    }
+
+    /**
+     * Sets the registry which shares the schemas beyond this serializer.
+     *
+     * @param schemaRegistry the registry or {@code null} to keep the schemas local
+     */
+    public void setSchemaRegistry(SchemaRegistry schemaRegistry) {
+        this.schemaRegistry = schemaRegistry;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void write(ObjectDataOutput out, Object object) throws IOException {
+        CompactSerializer serializer = serializersByClass.get(object.getClass());
+        if (serializer == null) {
+            throw new HazelcastSerializationException("There is no compact serializer for " + object.getClass().getName());
+        }
+        Schema schema = getOrRegisterSchema(serializer, object);
+
+        BufferObjectDataOutput output = (BufferObjectDataOutput) out;
+        output.writeLong(schema.getSchemaId());
+        int lengthPosition = output.position();
+        output.writeInt(0);
+        DefaultCompactWriter writer = new DefaultCompactWriter(schema, output);
+        serializer.write(writer, object);
+        output.writeInt(lengthPosition, writer.end());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object read(ObjectDataInput in) throws IOException {
+        BufferObjectDataInput input = (BufferObjectDataInput) in;
+        DefaultCompactReader reader = createReader(input);
+        CompactSerializer serializer = serializersByTypeName.get(reader.getSchema().getTypeName());
+        if (serializer == null) {
+            throw new HazelcastSerializationException("There is no compact serializer for type '"
+                    + reader.getSchema().getTypeName() + "'");
+        }
+        int endPosition = input.position();
+        Object object = serializer.read(reader);
+        input.position(endPosition);
+        return object;
+    }
+
+    /**
+     * Creates a reader for the serialized object at the current position of the given input and moves the
+     * input behind the object.
+     */
+    private DefaultCompactReader createReader(BufferObjectDataInput input) throws IOException {
+        long schemaId = input.readLong();
+        int length = input.readInt();
+        int offset = input.position();
+        DefaultCompactReader reader = new DefaultCompactReader(getSchema(schemaId), input, offset);
+        input.position(offset + length);
+        return reader;
+    }
+
+    /**
+     * Creates a reader to read single fields of the given compact data.
+     *
+     * @param data  the data in the compact format
+     * @param input the input positioned at the start of the data
+     * @return the reader
+     * @throws IOException if the data can't be read
+     */
+    public DefaultCompactReader createReader(Data data, BufferObjectDataInput input) throws IOException {
+        if (!isCompact(data)) {
+            throw new IllegalArgumentException("Given data is not compact! -> " + data.getType());
+        }
+        return createReader(input);
+    }
+
+    private Schema getOrRegisterSchema(CompactSerializer serializer, Object object) throws IOException {
+        Class<?> clazz = object.getClass();
+        Schema schema = schemasByClass.get(clazz);
+        if (schema != null) {
+            return schema;
+        }
+        schema = buildSchema(serializer, object);
+        // the schema has to be registered before any data of the schema leaves this serializer
+        SchemaRegistry registry = schemaRegistry;
+        if (registry != null) {
+            registry.register(schema);
+        }
+        schemasById.putIfAbsent(schema.getSchemaId(), schema);
+        schemasByClass.putIfAbsent(clazz, schema);
+        return schema;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Schema buildSchema(CompactSerializer serializer, Object object) throws IOException {
+        SchemaWriter schemaWriter = new SchemaWriter(serializer.getTypeName());
+        serializer.write(schemaWriter, object);
+        return schemaWriter.build();
+    }
+
+    /**
+     * Returns the schema with the given ID, looking it up in the {@link SchemaRegistry} if it's not known locally.
+     *
+     * @param schemaId the ID of the schema
+     * @return the schema
+     * @throws HazelcastSerializationException if the schema is unknown
+     */
+    Schema getSchema(long schemaId) {
+        Schema schema = schemasById.get(schemaId);
+        if (schema != null) {
+            return schema;
+        }
+        SchemaRegistry registry = schemaRegistry;
+        schema = registry == null ? null : registry.lookup(schemaId);
+        if (schema == null) {
+            throw new HazelcastSerializationException("The schema with ID " + schemaId + " is unknown");
+        }
+        Schema current = schemasById.putIfAbsent(schemaId, schema);
+        return current == null ? schema : current;
+    }
+
+    @Override
+    public int getTypeId() {
+        return SerializationConstants.COMPACT_TYPE;
+    }
+
+    @Override
+    public void destroy() {
+        schemasByClass.clear();
+        schemasById.clear();
+    }
+
+    /**
+     * @param data the data to check
+     * @return {@code true} if the given data is in the compact format
+     */
+    public static boolean isCompact(Data data) {
+        return data.getType() == SerializationConstants.COMPACT_TYPE;
+    }
+}
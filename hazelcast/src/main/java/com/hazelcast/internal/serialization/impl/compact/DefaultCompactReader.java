@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.nio.BufferObjectDataInput;
+import com.hazelcast.nio.serialization.CompactReader;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.io.IOException;
+
+/**
+ * Reads the fields of an object in the layout given by its {@link Schema}.
+ * <p>
+ * Every field is read from its offset, so fields can be read in any order and single fields
+ * can be read without reading the whole object.
+ */
+public final class DefaultCompactReader implements CompactReader {
+
+    private final Schema schema;
+    private final BufferObjectDataInput in;
+    private final int offset;
+
+    DefaultCompactReader(Schema schema, BufferObjectDataInput in, int offset) {
+        this.schema = schema;
+        this.in = in;
+        this.offset = offset;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public boolean hasField(String fieldName) {
+        return schema.getField(fieldName) != null;
+    }
+
+    /**
+     * Reads the given field, regardless of its kind.
+     *
+     * @param fieldName name of the field
+     * @return the value of the field, primitive values are boxed
+     * @throws IOException
+     */
+    @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+    public Object read(String fieldName) throws IOException {
+        FieldDescriptor field = schema.getField(fieldName);
+        if (field == null) {
+            throw new HazelcastSerializationException("Unknown field '" + fieldName + "' of type '"
+                    + schema.getTypeName() + "'");
+        }
+        switch (field.getKind()) {
+            case BOOLEAN:
+                return readBoolean(fieldName);
+            case BYTE:
+                return readByte(fieldName);
+            case CHAR:
+                return readChar(fieldName);
+            case SHORT:
+                return readShort(fieldName);
+            case INT:
+                return readInt(fieldName);
+            case LONG:
+                return readLong(fieldName);
+            case FLOAT:
+                return readFloat(fieldName);
+            case DOUBLE:
+                return readDouble(fieldName);
+            case UTF:
+                return readUTF(fieldName);
+            case BYTE_ARRAY:
+                return readByteArray(fieldName);
+            case INT_ARRAY:
+                return readIntArray(fieldName);
+            case LONG_ARRAY:
+                return readLongArray(fieldName);
+            case DOUBLE_ARRAY:
+                return readDoubleArray(fieldName);
+            case UTF_ARRAY:
+                return readUTFArray(fieldName);
+            case OBJECT:
+                return readObject(fieldName);
+            default:
+                throw new IllegalStateException("Unhandled field kind: " + field.getKind());
+        }
+    }
+
+    private int fixedSizePosition(String fieldName, FieldKind kind) {
+        return offset + getField(fieldName, kind).getOffset();
+    }
+
+    /**
+     * Positions the input at the value of the given variable-size field.
+     *
+     * @return {@code true} if there is a value, {@code false} if the value is {@code null}
+     */
+    private boolean seekVariableSizeField(String fieldName, FieldKind kind) throws IOException {
+        int valueOffset = in.readInt(offset + getField(fieldName, kind).getOffset());
+        if (valueOffset == CompactStreamSerializer.NULL_OFFSET) {
+            return false;
+        }
+        in.position(offset + valueOffset);
+        return true;
+    }
+
+    private FieldDescriptor getField(String fieldName, FieldKind kind) {
+        FieldDescriptor field = schema.getField(fieldName);
+        if (field == null) {
+            throw new HazelcastSerializationException("Unknown field '" + fieldName + "' of type '"
+                    + schema.getTypeName() + "'");
+        }
+        if (field.getKind() != kind) {
+            throw new HazelcastSerializationException("Field '" + fieldName + "' of type '" + schema.getTypeName()
+                    + "' is of kind " + field.getKind() + ", but read as " + kind);
+        }
+        return field;
+    }
+
+    @Override
+    public boolean readBoolean(String fieldName) throws IOException {
+        return in.readBoolean(fixedSizePosition(fieldName, FieldKind.BOOLEAN));
+    }
+
+    @Override
+    public byte readByte(String fieldName) throws IOException {
+        return in.readByte(fixedSizePosition(fieldName, FieldKind.BYTE));
+    }
+
+    @Override
+    public char readChar(String fieldName) throws IOException {
+        return in.readChar(fixedSizePosition(fieldName, FieldKind.CHAR));
+    }
+
+    @Override
+    public short readShort(String fieldName) throws IOException {
+        return in.readShort(fixedSizePosition(fieldName, FieldKind.SHORT));
+    }
+
+    @Override
+    public int readInt(String fieldName) throws IOException {
+        return in.readInt(fixedSizePosition(fieldName, FieldKind.INT));
+    }
+
+    @Override
+    public long readLong(String fieldName) throws IOException {
+        return in.readLong(fixedSizePosition(fieldName, FieldKind.LONG));
+    }
+
+    @Override
+    public float readFloat(String fieldName) throws IOException {
+        return in.readFloat(fixedSizePosition(fieldName, FieldKind.FLOAT));
+    }
+
+    @Override
+    public double readDouble(String fieldName) throws IOException {
+        return in.readDouble(fixedSizePosition(fieldName, FieldKind.DOUBLE));
+    }
+
+    @Override
+    public String readUTF(String fieldName) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.UTF) ? in.readUTF() : null;
+    }
+
+    @Override
+    public byte[] readByteArray(String fieldName) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.BYTE_ARRAY) ? in.readByteArray() : null;
+    }
+
+    @Override
+    public int[] readIntArray(String fieldName) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.INT_ARRAY) ? in.readIntArray() : null;
+    }
+
+    @Override
+    public long[] readLongArray(String fieldName) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.LONG_ARRAY) ? in.readLongArray() : null;
+    }
+
+    @Override
+    public double[] readDoubleArray(String fieldName) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.DOUBLE_ARRAY) ? in.readDoubleArray() : null;
+    }
+
+    @Override
+    public String[] readUTFArray(String fieldName) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.UTF_ARRAY) ? in.readUTFArray() : null;
+    }
+
+    @Override
+    public <T> T readObject(String fieldName) throws IOException {
+        return seekVariableSizeField(fieldName, FieldKind.OBJECT) ? in.<T>readObject() : null;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.nio.BufferObjectDataOutput;
+import com.hazelcast.nio.serialization.CompactWriter;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.io.IOException;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+
+/**
+ * Writes the fields of an object in the layout given by its {@link Schema}.
+ * <p>
+ * The fixed-size area is reserved up front, so fixed-size fields are written to their offsets directly
+ * and variable-size fields are appended and registered in the offset table, regardless of the write order.
+ */
+final class DefaultCompactWriter implements CompactWriter {
+
+    private final Schema schema;
+    private final BufferObjectDataOutput out;
+    private final int offset;
+
+    DefaultCompactWriter(Schema schema, BufferObjectDataOutput out) {
+        this.schema = schema;
+        this.out = out;
+        this.offset = out.position();
+        out.writeZeroBytes(schema.getFixedSize());
+        for (FieldDescriptor field : schema.getFields()) {
+            if (!field.getKind().isFixedSize()) {
+                try {
+                    out.writeInt(offset + field.getOffset(), CompactStreamSerializer.NULL_OFFSET);
+                } catch (IOException e) {
+                    throw new HazelcastSerializationException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of bytes written for the object
+     */
+    int end() {
+        return out.position() - offset;
+    }
+
+    private int fixedSizePosition(String fieldName, FieldKind kind) {
+        return offset + getField(fieldName, kind).getOffset();
+    }
+
+    /**
+     * Registers the current position as the position of the given variable-size field.
+     *
+     * @return {@code true} if the value has to be written, {@code false} if the value is {@code null}
+     */
+    private boolean beginVariableSizeField(String fieldName, FieldKind kind, Object value) throws IOException {
+        FieldDescriptor field = getField(fieldName, kind);
+        if (value == null) {
+            return false;
+        }
+        out.writeInt(offset + field.getOffset(), out.position() - offset);
+        return true;
+    }
+
+    private FieldDescriptor getField(String fieldName, FieldKind kind) {
+        FieldDescriptor field = schema.getField(fieldName);
+        if (field == null) {
+            throw new HazelcastSerializationException("Field '" + fieldName + "' is not in the schema of type '"
+                    + schema.getTypeName() + "'. A compact serializer has to write the same fields for every object.");
+        }
+        if (field.getKind() != kind) {
+            throw new HazelcastSerializationException("Field '" + fieldName + "' of type '" + schema.getTypeName()
+                    + "' is of kind " + field.getKind() + ", but written as " + kind);
+        }
+        return field;
+    }
+
+    @Override
+    public void writeBoolean(String fieldName, boolean value) throws IOException {
+        out.writeBoolean(fixedSizePosition(fieldName, FieldKind.BOOLEAN), value);
+    }
+
+    @Override
+    public void writeByte(String fieldName, byte value) throws IOException {
+        out.writeByte(fixedSizePosition(fieldName, FieldKind.BYTE), value);
+    }
+
+    @Override
+    public void writeChar(String fieldName, char value) throws IOException {
+        out.writeChar(fixedSizePosition(fieldName, FieldKind.CHAR), value);
+    }
+
+    @Override
+    public void writeShort(String fieldName, short value) throws IOException {
+        out.writeShort(fixedSizePosition(fieldName, FieldKind.SHORT), value);
+    }
+
+    @Override
+    public void writeInt(String fieldName, int value) throws IOException {
+        out.writeInt(fixedSizePosition(fieldName, FieldKind.INT), value);
+    }
+
+    @Override
+    public void writeLong(String fieldName, long value) throws IOException {
+        out.writeLong(fixedSizePosition(fieldName, FieldKind.LONG), value);
+    }
+
+    @Override
+    public void writeFloat(String fieldName, float value) throws IOException {
+        out.writeFloat(fixedSizePosition(fieldName, FieldKind.FLOAT), value);
+    }
+
+    @Override
+    public void writeDouble(String fieldName, double value) throws IOException {
+        out.writeDouble(fixedSizePosition(fieldName, FieldKind.DOUBLE), value);
+    }
+
+    @Override
+    public void writeUTF(String fieldName, String value) throws IOException {
+        if (beginVariableSizeField(fieldName, FieldKind.UTF, value)) {
+            out.writeUTF(value);
+        }
+    }
+
+    @Override
+    public void writeByteArray(String fieldName, byte[] value) throws IOException {
+        if (beginVariableSizeField(fieldName, FieldKind.BYTE_ARRAY, value)) {
+            out.writeByteArray(value);
+        }
+    }
+
+    @Override
+    public void writeIntArray(String fieldName, int[] value) throws IOException {
+        if (beginVariableSizeField(fieldName, FieldKind.INT_ARRAY, value)) {
+            out.writeIntArray(value);
+        }
+    }
+
+    @Override
+    public void writeLongArray(String fieldName, long[] value) throws IOException {
+        if (beginVariableSizeField(fieldName, FieldKind.LONG_ARRAY, value)) {
+            out.writeLongArray(value);
+        }
+    }
+
+    @Override
+    public void writeDoubleArray(String fieldName, double[] value) throws IOException {
+        if (beginVariableSizeField(fieldName, FieldKind.DOUBLE_ARRAY, value)) {
+            out.writeDoubleArray(value);
+        }
+    }
+
+    @Override
+    public void writeUTFArray(String fieldName, String[] value) throws IOException {
+        if (beginVariableSizeField(fieldName, FieldKind.UTF_ARRAY, value)) {
+            out.writeUTFArray(value);
+        }
+    }
+
+    @Override
+    public void writeObject(String fieldName, Object value) throws IOException {
+        if (beginVariableSizeField(fieldName, FieldKind.OBJECT, value)) {
+            out.writeObject(value);
+        }
+    }
+}
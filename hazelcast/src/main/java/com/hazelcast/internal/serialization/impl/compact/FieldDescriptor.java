@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+/**
+ * Describes a field of a {@link Schema}.
+ * <p>
+ * The offset of a fixed-size field is the position of its value relative to the start of a serialized object.
+ * The offset of a variable-size field is the position of its entry in the offset table.
+ */
+public final class FieldDescriptor {
+
+    private final String name;
+    private final FieldKind kind;
+    private int offset = -1;
+
+    public FieldDescriptor(String name, FieldKind kind) {
+        this.name = name;
+        this.kind = kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public FieldKind getKind() {
+        return kind;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    @Override
+    public String toString() {
+        return "FieldDescriptor{"
+                + "name='" + name + '\''
+                + ", kind=" + kind
+                + ", offset=" + offset
+                + '}';
+    }
+}
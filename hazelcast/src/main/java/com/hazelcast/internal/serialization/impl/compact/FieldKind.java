@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import static com.hazelcast.nio.Bits.BOOLEAN_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.BYTE_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.CHAR_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.DOUBLE_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.FLOAT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.SHORT_SIZE_IN_BYTES;
+
+/**
+ * The kinds of fields of the compact format.
+ * <p>
+ * Fixed-size fields are stored at a fixed offset within a serialized object, variable-size fields are stored
+ * after the fixed-size fields and are located via an offset table.
+ */
+public enum FieldKind {
+
+    BOOLEAN(0, BOOLEAN_SIZE_IN_BYTES),
+    BYTE(1, BYTE_SIZE_IN_BYTES),
+    CHAR(2, CHAR_SIZE_IN_BYTES),
+    SHORT(3, SHORT_SIZE_IN_BYTES),
+    INT(4, INT_SIZE_IN_BYTES),
+    LONG(5, LONG_SIZE_IN_BYTES),
+    FLOAT(6, FLOAT_SIZE_IN_BYTES),
+    DOUBLE(7, DOUBLE_SIZE_IN_BYTES),
+    UTF(8),
+    BYTE_ARRAY(9),
+    INT_ARRAY(10),
+    LONG_ARRAY(11),
+    DOUBLE_ARRAY(12),
+    UTF_ARRAY(13),
+    OBJECT(14);
+
+    private static final FieldKind[] ALL = values();
+
+    private final int id;
+    private final int size;
+
+    FieldKind(int id) {
+        this(id, -1);
+    }
+
+    FieldKind(int id, int size) {
+        this.id = id;
+        this.size = size;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public boolean isFixedSize() {
+        return size > 0;
+    }
+
+    /**
+     * @return the size of a fixed-size field in bytes
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public static FieldKind getById(int id) {
+        if (id < 0 || id >= ALL.length) {
+            throw new IllegalArgumentException("Unknown field kind: " + id);
+        }
+        return ALL[id];
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.util.HashUtil.MurmurHash3_x64_64;
+import static com.hazelcast.util.StringUtil.stringToBytes;
+
+/**
+ * The schema of a type serialized in the compact format.
+ * <p>
+ * A schema consists of the type name and the names and kinds of the fields. It is identified by a 64-bit
+ * fingerprint of these, so every member can compute the same ID for the same schema without coordination.
+ * <p>
+ * The layout of a serialized object is derived from the schema: the fixed-size fields come first, ordered by
+ * size and name to keep them aligned, followed by an offset table with an entry per variable-size field.
+ * The values of the variable-size fields are appended after the offset table.
+ */
+public final class Schema implements IdentifiedDataSerializable {
+
+    private static final Comparator<FieldDescriptor> FIXED_SIZE_FIELD_ORDER = new Comparator<FieldDescriptor>() {
+        @Override
+        public int compare(FieldDescriptor o1, FieldDescriptor o2) {
+            int sizeDiff = o2.getKind().getSize() - o1.getKind().getSize();
+            return sizeDiff != 0 ? sizeDiff : o1.getName().compareTo(o2.getName());
+        }
+    };
+
+    private String typeName;
+    private Map<String, FieldDescriptor> fields;
+    private int fixedSize;
+    private long schemaId;
+
+    public Schema() {
+    }
+
+    public Schema(String typeName, Collection<FieldDescriptor> fields) {
+        this.typeName = typeName;
+        this.fields = new TreeMap<String, FieldDescriptor>();
+        for (FieldDescriptor field : fields) {
+            this.fields.put(field.getName(), new FieldDescriptor(field.getName(), field.getKind()));
+        }
+        init();
+    }
+
+    private void init() {
+        List<FieldDescriptor> fixedSizeFields = new ArrayList<FieldDescriptor>();
+        List<FieldDescriptor> variableSizeFields = new ArrayList<FieldDescriptor>();
+        for (FieldDescriptor field : fields.values()) {
+            if (field.getKind().isFixedSize()) {
+                fixedSizeFields.add(field);
+            } else {
+                variableSizeFields.add(field);
+            }
+        }
+        Collections.sort(fixedSizeFields, FIXED_SIZE_FIELD_ORDER);
+
+        int offset = 0;
+        for (FieldDescriptor field : fixedSizeFields) {
+            field.setOffset(offset);
+            offset += field.getKind().getSize();
+        }
+        // the variable-size fields are already ordered by name
+        for (FieldDescriptor field : variableSizeFields) {
+            field.setOffset(offset);
+            offset += INT_SIZE_IN_BYTES;
+        }
+        fixedSize = offset;
+        schemaId = fingerprint();
+    }
+
+    private long fingerprint() {
+        StringBuilder sb = new StringBuilder(typeName);
+        for (FieldDescriptor field : fields.values()) {
+            sb.append('\0').append(field.getName()).append('\0').append(field.getKind().getId());
+        }
+        byte[] bytes = stringToBytes(sb.toString());
+        return MurmurHash3_x64_64(bytes, 0, bytes.length);
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public long getSchemaId() {
+        return schemaId;
+    }
+
+    /**
+     * @return the size of the fixed-size fields and the offset table in bytes
+     */
+    public int getFixedSize() {
+        return fixedSize;
+    }
+
+    /**
+     * @return the fields ordered by their names
+     */
+    public Collection<FieldDescriptor> getFields() {
+        return fields.values();
+    }
+
+    public FieldDescriptor getField(String fieldName) {
+        return fields.get(fieldName);
+    }
+
+    @Override
+    public int getFactoryId() {
+        return CompactDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getId() {
+        return CompactDataSerializerHook.SCHEMA;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeUTF(typeName);
+        out.writeInt(fields.size());
+        for (FieldDescriptor field : fields.values()) {
+            out.writeUTF(field.getName());
+            out.writeByte(field.getKind().getId());
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        typeName = in.readUTF();
+        int fieldCount = in.readInt();
+        fields = new TreeMap<String, FieldDescriptor>();
+        for (int i = 0; i < fieldCount; i++) {
+            String name = in.readUTF();
+            FieldKind kind = FieldKind.getById(in.readByte());
+            fields.put(name, new FieldDescriptor(name, kind));
+        }
+        init();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Schema that = (Schema) o;
+        return schemaId == that.schemaId;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (schemaId ^ (schemaId >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "Schema{"
+                + "typeName='" + typeName + '\''
+                + ", schemaId=" + schemaId
+                + ", fields=" + fields.values()
+                + '}';
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+/**
+ * Shares the {@link Schema}s of the compact format between the users of the serialized data.
+ */
+public interface SchemaRegistry {
+
+    /**
+     * Registers a schema before the first object of the schema is serialized. When the method returns, the
+     * schema has to be available to everyone who might read the serialized object, either right away or via
+     * {@link #lookup(long)}.
+     *
+     * @param schema the schema to register
+     */
+    void register(Schema schema);
+
+    /**
+     * Looks up a schema which was registered by someone else.
+     *
+     * @param schemaId the ID of the schema
+     * @return the schema or {@code null} if the schema is unknown
+     * @throws SchemaNotReplicatedException if the schema is not yet available and the caller must not wait for it
+     */
+    Schema lookup(long schemaId);
+}
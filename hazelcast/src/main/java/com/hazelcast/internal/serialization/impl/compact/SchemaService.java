@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.core.Member;
+import com.hazelcast.internal.serialization.impl.SerializationServiceV1;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.ManagedService;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.OperationService;
+import com.hazelcast.spi.PreJoinAwareService;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationThread;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+import static com.hazelcast.util.FutureUtil.logAllExceptions;
+import static com.hazelcast.util.FutureUtil.waitWithDeadline;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * The cluster-wide {@link SchemaRegistry} of the compact format.
+ * <p>
+ * A new schema is replicated to all members before the first object of the schema is serialized, and joining
+ * members receive all known schemas before they join. A schema which is still unknown, e.g. because its
+ * replication to this member failed, is fetched from the other members.
+ * <p>
+ * An operation thread never waits for a remote call: a schema registered on an operation thread is replicated
+ * asynchronously, and a lookup of an unknown schema on an operation thread fetches the schema in the background
+ * and fails with the retryable {@link SchemaNotReplicatedException}.
+ */
+public class SchemaService implements ManagedService, PreJoinAwareService, SchemaRegistry {
+
+    public static final String SERVICE_NAME = "hz:impl:schemaService";
+
+    private static final long TIMEOUT_SECONDS = 30;
+
+    private final ConcurrentMap<Long, Schema> schemas = new ConcurrentHashMap<Long, Schema>();
+    private final ConcurrentMap<Long, Boolean> pendingFetches = new ConcurrentHashMap<Long, Boolean>();
+
+    private NodeEngine nodeEngine;
+    private ILogger logger;
+    private CompactStreamSerializer compactStreamSerializer;
+
+    @Override
+    public void init(NodeEngine nodeEngine, Properties properties) {
+        this.nodeEngine = nodeEngine;
+        this.logger = nodeEngine.getLogger(getClass());
+        SerializationService serializationService = nodeEngine.getSerializationService();
+        if (serializationService instanceof SerializationServiceV1) {
+            compactStreamSerializer = ((SerializationServiceV1) serializationService).getCompactStreamSerializer();
+            compactStreamSerializer.setSchemaRegistry(this);
+        }
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public void shutdown(boolean terminate) {
+        if (compactStreamSerializer != null) {
+            compactStreamSerializer.setSchemaRegistry(null);
+        }
+        schemas.clear();
+    }
+
+    @Override
+    public void register(final Schema schema) {
+        // the schema is known locally right away, so other members can fetch it during the replication
+        if (schemas.putIfAbsent(schema.getSchemaId(), schema) != null) {
+            return;
+        }
+        boolean async = isOperationThread();
+        List<Future> futures = new ArrayList<Future>();
+        OperationService operationService = nodeEngine.getOperationService();
+        Collection<Schema> schemaToReplicate = Collections.singletonList(schema);
+        for (Member member : nodeEngine.getClusterService().getMembers()) {
+            if (!member.localMember()) {
+                Operation op = new PutSchemasOperation(schemaToReplicate);
+                ICompletableFuture<Object> future = operationService.invokeOnTarget(SERVICE_NAME, op, member.getAddress());
+                if (async) {
+                    future.andThen(new ExecutionCallback<Object>() {
+                        @Override
+                        public void onResponse(Object response) {
+                        }
+
+                        @Override
+                        public void onFailure(Throwable t) {
+                            if (logger.isFinestEnabled()) {
+                                logger.finest("Could not replicate schema of type " + schema.getTypeName(), t);
+                            }
+                        }
+                    });
+                } else {
+                    futures.add(future);
+                }
+            }
+        }
+        // members which fail to receive the schema will fetch it on demand
+        waitWithDeadline(futures, TIMEOUT_SECONDS, SECONDS,
+                logAllExceptions(logger, "Could not replicate schema of type " + schema.getTypeName(), Level.FINEST));
+    }
+
+    @Override
+    public Schema lookup(long schemaId) {
+        Schema schema = schemas.get(schemaId);
+        if (schema != null) {
+            return schema;
+        }
+        if (isOperationThread()) {
+            fetchInBackground(schemaId);
+            throw new SchemaNotReplicatedException("The schema with ID " + schemaId
+                    + " has not been replicated to this member yet");
+        }
+        OperationService operationService = nodeEngine.getOperationService();
+        for (Member member : nodeEngine.getClusterService().getMembers()) {
+            if (member.localMember()) {
+                continue;
+            }
+            try {
+                Future<Schema> future = operationService.invokeOnTarget(SERVICE_NAME, new FetchSchemaOperation(schemaId),
+                        member.getAddress());
+                schema = future.get(TIMEOUT_SECONDS, SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (Exception e) {
+                if (logger.isFinestEnabled()) {
+                    logger.finest("Could not fetch schema " + schemaId + " from " + member, e);
+                }
+            }
+            if (schema != null) {
+                Schema current = schemas.putIfAbsent(schemaId, schema);
+                return current == null ? schema : current;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Fetches a schema from all other members without waiting for the responses. Only a single fetch of a schema
+     * is in flight at a time.
+     */
+    private void fetchInBackground(final long schemaId) {
+        if (pendingFetches.putIfAbsent(schemaId, Boolean.TRUE) != null) {
+            return;
+        }
+        List<Member> members = new ArrayList<Member>();
+        for (Member member : nodeEngine.getClusterService().getMembers()) {
+            if (!member.localMember()) {
+                members.add(member);
+            }
+        }
+        if (members.isEmpty()) {
+            pendingFetches.remove(schemaId);
+            return;
+        }
+        final AtomicInteger remaining = new AtomicInteger(members.size());
+        OperationService operationService = nodeEngine.getOperationService();
+        for (final Member member : members) {
+            ICompletableFuture<Schema> future = operationService.invokeOnTarget(SERVICE_NAME,
+                    new FetchSchemaOperation(schemaId), member.getAddress());
+            future.andThen(new ExecutionCallback<Schema>() {
+                @Override
+                public void onResponse(Schema schema) {
+                    if (schema != null) {
+                        schemas.putIfAbsent(schemaId, schema);
+                    }
+                    onFetchDone();
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    if (logger.isFinestEnabled()) {
+                        logger.finest("Could not fetch schema " + schemaId + " from " + member, t);
+                    }
+                    onFetchDone();
+                }
+
+                private void onFetchDone() {
+                    if (remaining.decrementAndGet() == 0) {
+                        pendingFetches.remove(schemaId);
+                    }
+                }
+            });
+        }
+    }
+
+    private static boolean isOperationThread() {
+        return Thread.currentThread() instanceof OperationThread;
+    }
+
+    // called by operations sent by other members
+    public Schema getSchemaOrNull(long schemaId) {
+        return schemas.get(schemaId);
+    }
+
+    // called by operations sent by other members
+    public void putSchemas(Collection<Schema> schemas) {
+        for (Schema schema : schemas) {
+            this.schemas.putIfAbsent(schema.getSchemaId(), schema);
+        }
+    }
+
+    @Override
+    public Operation getPreJoinOperation() {
+        if (schemas.isEmpty()) {
+            return null;
+        }
+        return new PutSchemasOperation(new ArrayList<Schema>(schemas.values()));
+    }
+}
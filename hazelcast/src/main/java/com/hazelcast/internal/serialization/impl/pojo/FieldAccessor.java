@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.pojo;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+
+/**
+ * Writes and reads a single field of a POJO with the {@link ObjectDataOutput}/{@link ObjectDataInput} method
+ * matching the field's type, so primitives, strings and primitive arrays don't pay for a type header.
+ * <p>
+ * The accessor is chosen once per field when the {@link PojoClassDescriptor} is created.
+ */
+abstract class FieldAccessor {
+
+    final Field field;
+
+    FieldAccessor(Field field) {
+        this.field = field;
+    }
+
+    /**
+     * Writes the value of the field of the given object.
+     */
+    abstract void write(ObjectDataOutput out, Object object) throws IOException, IllegalAccessException;
+
+    /**
+     * Reads a value and assigns it to the field of the given object.
+     */
+    abstract void read(ObjectDataInput in, Object object) throws IOException, IllegalAccessException;
+
+    /**
+     * Creates the accessor for the given field, which must have been made accessible.
+     */
+    @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+    static FieldAccessor create(Field field) {
+        Class<?> type = field.getType();
+        if (type == boolean.class) {
+            return new BooleanAccessor(field);
+        } else if (type == byte.class) {
+            return new ByteAccessor(field);
+        } else if (type == char.class) {
+            return new CharAccessor(field);
+        } else if (type == short.class) {
+            return new ShortAccessor(field);
+        } else if (type == int.class) {
+            return new IntAccessor(field);
+        } else if (type == long.class) {
+            return new LongAccessor(field);
+        } else if (type == float.class) {
+            return new FloatAccessor(field);
+        } else if (type == double.class) {
+            return new DoubleAccessor(field);
+        } else if (type == String.class) {
+            return new StringAccessor(field);
+        } else if (type == byte[].class) {
+            return new ByteArrayAccessor(field);
+        } else if (type == int[].class) {
+            return new IntArrayAccessor(field);
+        } else if (type == long[].class) {
+            return new LongArrayAccessor(field);
+        } else if (type == double[].class) {
+            return new DoubleArrayAccessor(field);
+        }
+        return new ObjectAccessor(field);
+    }
+
+    private static final class BooleanAccessor extends FieldAccessor {
+        BooleanAccessor(Field field) {
+            super(field);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws IOException, IllegalAccessException {
+            out.writeBoolean(field.getBoolean(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws IOException, IllegalAccessException {
+            field.setBoolean(object, in.readBoolean());
+        }
+    }
+
+    private static final class ByteAccessor extends FieldAccessor {
+        ByteAccessor(Field field) {
+            super(field);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws IOException, IllegalAccessException {
+            out.writeByte(field.getByte(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws IOException, IllegalAccessException {
+            field.setByte(object, in.readByte());
+        }
+    }
+
+    private static final class CharAccessor extends FieldAccessor {
+        CharAccessor(Field field) {
+            super(field);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws IOException, IllegalAccessException {
+            out.writeChar(field.getChar(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws IOException, IllegalAccessException {
+            field.setChar(object, in.readChar());
+        }
+    }
+
+    private static final class ShortAccessor extends FieldAccessor {
+        ShortAccessor(Field field) {
+            super(field);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws IOException, IllegalAccessException {
+            out.writeShort(field.getShort(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws IOException, IllegalAccessException {
+            field.setShort(object, in.readShort());
+        }
+    }
+
+    private static final class IntAccessor extends FieldAccessor {
+        IntAccessor(Field field) {
+            super(field);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws IOException, IllegalAccessException {
+            out.writeInt(field.getInt(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws IOException, IllegalAccessException {
+            field.setInt(object, in.readInt());
+        }
+    }
+
+    private static final class LongAccessor extends FieldAccessor {
+        LongAccessor(Field field) {
+            super(field);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws IOException, IllegalAccessException {
+            out.writeLong(field.getLong(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws IOException, IllegalAccessException {
+            field.setLong(object, in.readLong());
+        }
+    }
+
+    private static final class FloatAccessor extends FieldAccessor {
+        FloatAccessor(Field field) {
+            super(field);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws IOException, IllegalAccessException {
+            out.writeFloat(field.getFloat(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws IOException, IllegalAccessException {
+            field.setFloat(object, in.readFloat());
+        }
+    }
+
+    private static final class DoubleAccessor extends FieldAccessor {
+        DoubleAccessor(Field field) {
+            super(field);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws IOException, IllegalAccessException {
+            out.writeDouble(field.getDouble(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws IOException, IllegalAccessException {
+            field.setDouble(object, in.readDouble());
+        }
+    }
+
+    private static final class StringAccessor extends FieldAccessor {
+        StringAccessor(Field field) {
+            super(field);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws IOException, IllegalAccessException {
+            out.writeUTF((String) field.get(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws IOException, IllegalAccessException {
+            field.set(object, in.readUTF());
+        }
+    }
+
+    private static final class ByteArrayAccessor extends FieldAccessor {
+        ByteArrayAccessor(Field field) {
+            super(field);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws IOException, IllegalAccessException {
+            out.writeByteArray((byte[]) field.get(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws IOException, IllegalAccessException {
+            field.set(object, in.readByteArray());
+        }
+    }
+
+    private static final class IntArrayAccessor extends FieldAccessor {
+        IntArrayAccessor(Field field) {
+            super(field);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws IOException, IllegalAccessException {
+            out.writeIntArray((int[]) field.get(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws IOException, IllegalAccessException {
+            field.set(object, in.readIntArray());
+        }
+    }
+
+    private static final class LongArrayAccessor extends FieldAccessor {
+        LongArrayAccessor(Field field) {
+            super(field);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws IOException, IllegalAccessException {
+            out.writeLongArray((long[]) field.get(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws IOException, IllegalAccessException {
+            field.set(object, in.readLongArray());
+        }
+    }
+
+    private static final class DoubleArrayAccessor extends FieldAccessor {
+        DoubleArrayAccessor(Field field) {
+            super(field);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws IOException, IllegalAccessException {
+            out.writeDoubleArray((double[]) field.get(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws IOException, IllegalAccessException {
+            field.set(object, in.readDoubleArray());
+        }
+    }
+
+    private static final class ObjectAccessor extends FieldAccessor {
+        ObjectAccessor(Field field) {
+            super(field);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws IOException, IllegalAccessException {
+            out.writeObject(field.get(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws IOException, IllegalAccessException {
+            field.set(object, in.readObject());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.pojo;
+
+import com.hazelcast.util.HashUtil;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+
+import static com.hazelcast.util.StringUtil.stringToBytes;
+
+/**
+ * Describes how a POJO class is serialized by the {@link PojoStreamSerializer}: the constructor to create
+ * instances with and the accessors for its fields, in serialization order.
+ * <p>
+ * The fields are the non-static, non-transient fields of the class and its superclasses; superclass fields
+ * come first and the fields of a class are ordered by name, so reordering field declarations doesn't change
+ * the layout. The fingerprint identifies the layout; adding, removing, renaming or retyping a field changes it.
+ */
+final class PojoClassDescriptor {
+
+    private static final Comparator<Field> FIELD_NAME_COMPARATOR = new Comparator<Field>() {
+        @Override
+        public int compare(Field f1, Field f2) {
+            return f1.getName().compareTo(f2.getName());
+        }
+    };
+
+    private final Class<?> clazz;
+    private final Constructor<?> constructor;
+    private final FieldAccessor[] accessors;
+    private final int fingerprint;
+
+    PojoClassDescriptor(Class<?> clazz) {
+        this.clazz = clazz;
+        this.constructor = findConstructor(clazz);
+        List<Field> fields = collectFields(clazz);
+        this.accessors = new FieldAccessor[fields.size()];
+        StringBuilder layout = new StringBuilder(clazz.getName());
+        for (int i = 0; i < accessors.length; i++) {
+            Field field = fields.get(i);
+            field.setAccessible(true);
+            accessors[i] = FieldAccessor.create(field);
+            layout.append(';').append(field.getName()).append(':').append(field.getType().getName());
+        }
+        byte[] layoutBytes = stringToBytes(layout.toString());
+        this.fingerprint = HashUtil.MurmurHash3_x86_32(layoutBytes, 0, layoutBytes.length);
+    }
+
+    Class<?> getClazz() {
+        return clazz;
+    }
+
+    FieldAccessor[] getAccessors() {
+        return accessors;
+    }
+
+    int getFingerprint() {
+        return fingerprint;
+    }
+
+    Object newInstance() throws Exception {
+        return constructor.newInstance();
+    }
+
+    private static Constructor<?> findConstructor(Class<?> clazz) {
+        if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) {
+            throw new IllegalArgumentException("POJO serializer can't be created for abstract type " + clazz.getName());
+        }
+        if (clazz.isArray() || clazz.isPrimitive() || clazz.isEnum()) {
+            throw new IllegalArgumentException("POJO serializer can't be created for " + clazz.getName());
+        }
+        try {
+            Constructor<?> constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("POJO class " + clazz.getName() + " needs a no-arg constructor", e);
+        }
+    }
+
+    private static List<Field> collectFields(Class<?> clazz) {
+        LinkedList<Class<?>> hierarchy = new LinkedList<Class<?>>();
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.addFirst(c);
+        }
+
+        List<Field> fields = new ArrayList<Field>();
+        for (Class<?> c : hierarchy) {
+            Field[] declaredFields = c.getDeclaredFields();
+            Arrays.sort(declaredFields, FIELD_NAME_COMPARATOR);
+            for (Field field : declaredFields) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.pojo;
+
+import com.hazelcast.internal.serialization.impl.SerializationConstants;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Serializes plain Java objects field by field, as an opt-in replacement for the {@code java.io.Serializable}
+ * fallback of classes which can't be changed to implement {@code DataSerializable}.
+ * <p>
+ * The serialization plan of every registered class is built once, at construction: a {@link PojoClassDescriptor}
+ * with an accessor per field. A serialized object consists of a header, followed by its fields in the
+ * descriptor's order without any further metadata:
+ * <pre>
+ * | format-version (byte) | layout-fingerprint (int) | fields |
+ * </pre>
+ * Compatibility rules:
+ * <ul>
+ * <li>The format version is the version of this encoding, i.e. the header and the way the fields are written. It
+ * is increased whenever the encoding changes; a serializer reads its own and all older format versions and rejects
+ * newer ones with a {@link HazelcastSerializationException}.</li>
+ * <li>The fingerprint identifies the layout of the class, see {@link PojoClassDescriptor}. An object is only read
+ * into a class with exactly the same layout; an object written with a different layout, e.g. by a member running
+ * another version of the class, is rejected with a {@link HazelcastSerializationException} instead of being read
+ * into the wrong fields. So all members and clients sharing POJOs must run the same version of their classes; a
+ * class whose layout evolves should implement {@code VersionedPortable} or {@code DataSerializable} instead.</li>
+ * </ul>
+ */
+public final class PojoStreamSerializer implements StreamSerializer<Object> {
+
+    /**
+     * The version of the serialized form written by this serializer.
+     */
+    static final byte FORMAT_VERSION = 1;
+
+    private final Map<Class, PojoClassDescriptor> descriptorsByClass = new HashMap<Class, PojoClassDescriptor>();
+    private final Map<Integer, PojoClassDescriptor> descriptorsByFingerprint = new HashMap<Integer, PojoClassDescriptor>();
+
+    public PojoStreamSerializer(Collection<Class> classes) {
+        for (Class clazz : classes) {
+            PojoClassDescriptor descriptor = new PojoClassDescriptor(clazz);
+            if (descriptorsByClass.put(clazz, descriptor) != null) {
+                throw new IllegalArgumentException("Duplicate POJO serializer for class " + clazz.getName());
+            }
+            PojoClassDescriptor existing = descriptorsByFingerprint.put(descriptor.getFingerprint(), descriptor);
+            if (existing != null) {
+                throw new IllegalArgumentException("POJO classes " + clazz.getName() + " and "
+                        + existing.getClazz().getName() + " have the same layout fingerprint");
+            }
+        }
+    }
+
+    /**
+     * @return the classes which are serialized by this serializer
+     */
+    public Collection<Class> getPojoClasses() {
+        return descriptorsByClass.keySet();
+    }
+
+    @Override
+    public void write(ObjectDataOutput out, Object object) throws IOException {
+        PojoClassDescriptor descriptor = descriptorsByClass.get(object.getClass());
+        if (descriptor == null) {
+            throw new HazelcastSerializationException("No POJO serializer registered for " + object.getClass().getName());
+        }
+
+        out.writeByte(FORMAT_VERSION);
+        out.writeInt(descriptor.getFingerprint());
+        try {
+            for (FieldAccessor accessor : descriptor.getAccessors()) {
+                accessor.write(out, object);
+            }
+        } catch (IllegalAccessException e) {
+            throw new HazelcastSerializationException(e);
+        }
+    }
+
+    @Override
+    public Object read(ObjectDataInput in) throws IOException {
+        byte formatVersion = in.readByte();
+        if (formatVersion > FORMAT_VERSION) {
+            throw new HazelcastSerializationException("Unsupported POJO serialization format version " + formatVersion
+                    + ", the latest supported version is " + FORMAT_VERSION
+                    + ". The object was written by a newer version of Hazelcast.");
+        }
+        int fingerprint = in.readInt();
+        PojoClassDescriptor descriptor = descriptorsByFingerprint.get(fingerprint);
+        if (descriptor == null) {
+            throw new HazelcastSerializationException("No POJO serializer registered for layout fingerprint "
+                    + fingerprint + ". Either the class isn't registered with a POJO serializer on this member, or the"
+                    + " object was written with a different version of the class.");
+        }
+
+        try {
+            Object object = descriptor.newInstance();
+            for (FieldAccessor accessor : descriptor.getAccessors()) {
+                accessor.read(in, object);
+            }
+            return object;
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new HazelcastSerializationException("Failed to read POJO " + descriptor.getClazz().getName(), e);
+        }
+    }
+
+    @Override
+    public int getTypeId() {
+        return SerializationConstants.POJO_TYPE;
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.util.counters;
+
+import com.hazelcast.internal.util.RuntimeAvailableProcessors;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * A thread-safe counter which spreads increments over a number of padded stripes, so it can be incremented
+ * by many threads concurrently without contending on a single cache line.
+ *
+ * The stripes are only summed up when the value is read, so reads are more expensive than with a
+ * {@link MwCounter}. That is why this counter is meant for hot-path statistics which are read rarely.
+ *
+ * The StripedCounter doesn't implement {@link Counter}, since an increment can't cheaply return the new value.
+ */
+public final class StripedCounter {
+
+    /**
+     * The number of longs between two stripes, so every stripe lives on its own cache line.
+     */
+    private static final int PADDING = 8;
+    private static final int MAX_STRIPE_COUNT = 64;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    private StripedCounter(int stripeCount) {
+        this.cells = new AtomicLongArray(stripeCount * PADDING);
+        this.mask = stripeCount - 1;
+    }
+
+    /**
+     * Gets the current value of the counter by summing up all stripes.
+     *
+     * @return the current value of the counter
+     */
+    public long get() {
+        long sum = 0;
+        for (int i = 0; i < cells.length(); i += PADDING) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Increments the counter by one.
+     */
+    public void inc() {
+        cells.incrementAndGet(index());
+    }
+
+    /**
+     * Increments (or decrements) the counter by the given amount.
+     *
+     * @param amount the amount to increase or decrease the counter with
+     */
+    public void inc(long amount) {
+        cells.addAndGet(index(), amount);
+    }
+
+    /**
+     * Sets the counter to the given value.
+     *
+     * This method is not atomic in regard to concurrent increments.
+     *
+     * @param value the new value of the counter
+     */
+    public void set(long value) {
+        for (int i = PADDING; i < cells.length(); i += PADDING) {
+            cells.set(i, 0);
+        }
+        cells.set(0, value);
+    }
+
+    private int index() {
+        // thread IDs are handed out sequentially, so they are spread well over the stripes
+        return ((int) Thread.currentThread().getId() & mask) * PADDING;
+    }
+
+    @Override
+    public String toString() {
+        return "StripedCounter{"
+                + "value=" + get()
+                + '}';
+    }
+
+    /**
+     * Creates a new StripedCounter with 0 as its initial value and a stripe count based on the available processors.
+     *
+     * @return the new StripedCounter, set to 0.
+     */
+    public static StripedCounter newStripedCounter() {
+        int stripeCount = Math.min(nextPowerOfTwo(RuntimeAvailableProcessors.get()), MAX_STRIPE_COUNT);
+        return new StripedCounter(stripeCount);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.merkletree;
+
+import java.util.Arrays;
+
+import static com.hazelcast.util.HashUtil.MurmurHash3_fmix;
+import static com.hazelcast.util.Preconditions.checkTrue;
+
+/**
+ * A fixed-depth, array-backed Merkle tree over key-value hashes.
+ * <p>
+ * Each entry is assigned to a leaf by its key hash. A leaf hash is the sum of the hashes of its entries, so the tree can
+ * be maintained incrementally on every entry addition, update and removal without knowing the other entries of the
+ * leaf. The hash of an inner node is computed from the hashes of its children and it is updated along the path to the
+ * root on each leaf change.
+ * <p>
+ * The nodes are stored in breadth-first order in a single array, the root having the order {@code 0} and the children of
+ * the node {@code n} having the orders {@code 2n + 1} and {@code 2n + 2}. Two trees of the same depth can be compared
+ * with {@link #findDifferentLeaves(int[], int[])} by their {@link #getNodeHashes() node hashes}, which descends only into
+ * the subtrees with different hashes.
+ * <p>
+ * This class is not thread-safe. It is expected to be updated on the partition thread owning the data it describes.
+ */
+public class MerkleTree {
+
+    /**
+     * The minimum depth of a Merkle tree
+     */
+    public static final int MIN_DEPTH = 2;
+    /**
+     * The maximum depth of a Merkle tree. A tree of this depth has 4095 nodes and takes 16KB, which is kept for each
+     * record store and sent with each replica sync request.
+     */
+    public static final int MAX_DEPTH = 12;
+
+    private static final int HASH_MULTIPLIER = 31;
+
+    private final int depth;
+    private final int leafLevelOffset;
+    private final int[] nodeHashes;
+
+    public MerkleTree(int depth) {
+        checkTrue(depth >= MIN_DEPTH && depth <= MAX_DEPTH,
+                "Merkle tree depth must be in the range [" + MIN_DEPTH + "-" + MAX_DEPTH + "], but it is " + depth);
+        this.depth = depth;
+        int leafCount = 1 << (depth - 1);
+        this.leafLevelOffset = leafCount - 1;
+        this.nodeHashes = new int[2 * leafCount - 1];
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getLeafCount() {
+        return leafLevelOffset + 1;
+    }
+
+    /**
+     * Returns the leaf which the entry with the given key hash belongs to.
+     *
+     * @param keyHash the hash of the key
+     * @return the leaf order, in the range {@code [0, leafCount)}
+     */
+    public int getLeafOrder(int keyHash) {
+        return getLeafOrder(keyHash, depth);
+    }
+
+    /**
+     * Updates the tree with the addition of an entry.
+     */
+    public void updateAdd(int keyHash, int valueHash) {
+        updateLeaf(keyHash, entryHash(keyHash, valueHash));
+    }
+
+    /**
+     * Updates the tree with the update of the value of an entry.
+     */
+    public void updateReplace(int keyHash, int oldValueHash, int newValueHash) {
+        updateLeaf(keyHash, entryHash(keyHash, newValueHash) - entryHash(keyHash, oldValueHash));
+    }
+
+    /**
+     * Updates the tree with the removal of an entry.
+     */
+    public void updateRemove(int keyHash, int valueHash) {
+        updateLeaf(keyHash, -entryHash(keyHash, valueHash));
+    }
+
+    /**
+     * Resets the tree to the state of no entries.
+     */
+    public void clear() {
+        Arrays.fill(nodeHashes, 0);
+    }
+
+    /**
+     * Returns a copy of the hashes of all nodes of the tree in breadth-first order.
+     */
+    public int[] getNodeHashes() {
+        return Arrays.copyOf(nodeHashes, nodeHashes.length);
+    }
+
+    /**
+     * Compares this tree with a remote tree of the same depth and returns the leaves with different hashes.
+     *
+     * @param remoteNodeHashes the node hashes of the remote tree
+     * @return the sorted orders of the leaves with different hashes
+     * @see #findDifferentLeaves(int[], int[])
+     */
+    public int[] findDifferentLeaves(int[] remoteNodeHashes) {
+        return findDifferentLeaves(nodeHashes, remoteNodeHashes);
+    }
+
+    private void updateLeaf(int keyHash, int delta) {
+        if (delta == 0) {
+            return;
+        }
+
+        int nodeOrder = leafLevelOffset + getLeafOrder(keyHash);
+        nodeHashes[nodeOrder] += delta;
+        while (nodeOrder > 0) {
+            int parentOrder = (nodeOrder - 1) >> 1;
+            int leftChildOrder = 2 * parentOrder + 1;
+            nodeHashes[parentOrder] = combine(nodeHashes[leftChildOrder], nodeHashes[leftChildOrder + 1]);
+            nodeOrder = parentOrder;
+        }
+    }
+
+    /**
+     * Returns the depth of the tree which the given node hashes belong to, or {@code -1} if the number of the hashes
+     * does not match any valid tree depth.
+     */
+    public static int getDepth(int[] nodeHashes) {
+        for (int depth = MIN_DEPTH; depth <= MAX_DEPTH; depth++) {
+            if (nodeHashes.length == (1 << depth) - 1) {
+                return depth;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the leaf which the entry with the given key hash belongs to in a tree with the given depth.
+     */
+    public static int getLeafOrder(int keyHash, int depth) {
+        // the high bits of the key hash are used, the low bits are shared by the keys of the same partition
+        return MurmurHash3_fmix(keyHash) >>> (Integer.SIZE - (depth - 1));
+    }
+
+    /**
+     * Compares the node hashes of two trees of the same depth and returns the leaves with different hashes.
+     *
+     * @param localNodeHashes  the node hashes of the local tree
+     * @param remoteNodeHashes the node hashes of the remote tree
+     * @return the sorted orders of the leaves with different hashes
+     * @throws IllegalArgumentException if the node hashes do not belong to trees of the same depth
+     */
+    public static int[] findDifferentLeaves(int[] localNodeHashes, int[] remoteNodeHashes) {
+        checkTrue(localNodeHashes.length == remoteNodeHashes.length, "Merkle trees must have the same depth");
+        int depth = getDepth(localNodeHashes);
+        checkTrue(depth != -1, "Invalid Merkle tree node count: " + localNodeHashes.length);
+
+        int leafLevelOffset = (1 << (depth - 1)) - 1;
+        int[] leaves = new int[leafLevelOffset + 1];
+        int leafCount = findDifferentLeaves(localNodeHashes, remoteNodeHashes, 0, leafLevelOffset, leaves, 0);
+        return Arrays.copyOf(leaves, leafCount);
+    }
+
+    private static int findDifferentLeaves(int[] local, int[] remote, int nodeOrder, int leafLevelOffset,
+                                           int[] leaves, int leafCount) {
+        if (local[nodeOrder] == remote[nodeOrder]) {
+            return leafCount;
+        }
+
+        if (nodeOrder >= leafLevelOffset) {
+            leaves[leafCount] = nodeOrder - leafLevelOffset;
+            return leafCount + 1;
+        }
+
+        int leftChildOrder = 2 * nodeOrder + 1;
+        int count = findDifferentLeaves(local, remote, leftChildOrder, leafLevelOffset, leaves, leafCount);
+        return findDifferentLeaves(local, remote, leftChildOrder + 1, leafLevelOffset, leaves, count);
+    }
+
+    private static int entryHash(int keyHash, int valueHash) {
+        return MurmurHash3_fmix(HASH_MULTIPLIER * keyHash + valueHash);
+    }
+
+    private static int combine(int leftHash, int rightHash) {
+        return MurmurHash3_fmix(HASH_MULTIPLIER * leftHash + rightHash);
+    }
+}
@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl;
 
 import com.hazelcast.core.MapLoader;
+import com.hazelcast.core.SegmentedMapLoader;
 import com.hazelcast.internal.diagnostics.StoreLatencyPlugin;
 import com.hazelcast.internal.diagnostics.StoreLatencyPlugin.LatencyProbe;
 
@@ -27,10 +28,11 @@ public class LatencyTrackingMapLoader<K, V> implements MapLoader<K, V> {
 
     static final String KEY = "MapStoreLatency";
 
+    final MapLoader<K, V> delegate;
+    final LatencyProbe loadAllKeysProbe;
+
     private final LatencyProbe loadProbe;
-    private final LatencyProbe loadAllKeysProbe;
     private final LatencyProbe loadAllProbe;
-    private final MapLoader<K, V> delegate;
 
     public LatencyTrackingMapLoader(MapLoader<K, V> delegate, StoreLatencyPlugin plugin, String mapName) {
         this.delegate = delegate;
@@ -39,6 +41,17 @@ public class LatencyTrackingMapLoader<K, V> implements MapLoader<K, V> {
         this.loadAllKeysProbe = plugin.newProbe(KEY, mapName, "loadAllKeys");
     }
 
+    /**
+     * Creates a latency tracking wrapper which is a {@link SegmentedMapLoader}
+     * if and only if the given delegate is one.
+     */
+    public static <K, V> MapLoader<K, V> create(MapLoader<K, V> delegate, StoreLatencyPlugin plugin, String mapName) {
+        if (delegate instanceof SegmentedMapLoader) {
+            return new LatencyTrackingSegmentedMapLoader<K, V>(delegate, plugin, mapName);
+        }
+        return new LatencyTrackingMapLoader<K, V>(delegate, plugin, mapName);
+    }
+
     @Override
     public V load(K key) {
         long startNanos = System.nanoTime();
@@ -68,4 +81,27 @@ public class LatencyTrackingMapLoader<K, V> implements MapLoader<K, V> {
             loadAllKeysProbe.recordValue(System.nanoTime() - startNanos);
         }
     }
+
+    private static final class LatencyTrackingSegmentedMapLoader<K, V> extends LatencyTrackingMapLoader<K, V>
+            implements SegmentedMapLoader<K, V> {
+
+        LatencyTrackingSegmentedMapLoader(MapLoader<K, V> delegate, StoreLatencyPlugin plugin, String mapName) {
+            super(delegate, plugin, mapName);
+        }
+
+        @Override
+        public int getKeySegmentCount() {
+            return ((SegmentedMapLoader<K, V>) delegate).getKeySegmentCount();
+        }
+
+        @Override
+        public Iterable<K> loadAllKeys(int segment) {
+            long startNanos = System.nanoTime();
+            try {
+                return ((SegmentedMapLoader<K, V>) delegate).loadAllKeys(segment);
+            } finally {
+                loadAllKeysProbe.recordValue(System.nanoTime() - startNanos);
+            }
+        }
+    }
 }
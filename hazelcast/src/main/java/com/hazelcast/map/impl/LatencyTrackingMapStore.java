@@ -17,21 +17,25 @@
 package com.hazelcast.map.impl;
 
 import com.hazelcast.core.MapStore;
+import com.hazelcast.core.OrderedBatchMapStore;
 import com.hazelcast.internal.diagnostics.StoreLatencyPlugin;
 import com.hazelcast.internal.diagnostics.StoreLatencyPlugin.LatencyProbe;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 @SuppressWarnings("unchecked")
 public class LatencyTrackingMapStore<K, V> implements MapStore<K, V> {
+
     static final String KEY = "MapStoreLatency";
 
+    final MapStore<K, V> delegate;
+
     private final LatencyProbe deleteProbe;
     private final LatencyProbe deleteAllProbe;
     private final LatencyProbe storeProbe;
     private final LatencyProbe storeAllProbe;
-    private final MapStore<K, V> delegate;
 
     public LatencyTrackingMapStore(MapStore<K, V> delegate, StoreLatencyPlugin plugin, String mapName) {
         this.delegate = delegate;
@@ -41,6 +45,17 @@ public class LatencyTrackingMapStore<K, V> implements MapStore<K, V> {
         this.storeAllProbe = plugin.newProbe(KEY, mapName, "storeAll");
     }
 
+    /**
+     * Creates a latency tracking wrapper which is an {@link OrderedBatchMapStore}
+     * if and only if the given delegate is one.
+     */
+    public static <K, V> MapStore<K, V> create(MapStore<K, V> delegate, StoreLatencyPlugin plugin, String mapName) {
+        if (delegate instanceof OrderedBatchMapStore) {
+            return new LatencyTrackingOrderedBatchMapStore<K, V>(delegate, plugin, mapName);
+        }
+        return new LatencyTrackingMapStore<K, V>(delegate, plugin, mapName);
+    }
+
     @Override
     public V load(K key) {
         throw new UnsupportedOperationException();
@@ -97,4 +112,24 @@ public class LatencyTrackingMapStore<K, V> implements MapStore<K, V> {
         }
     }
 
+    private static final class LatencyTrackingOrderedBatchMapStore<K, V> extends LatencyTrackingMapStore<K, V>
+            implements OrderedBatchMapStore<K, V> {
+
+        private final LatencyProbe storeBatchProbe;
+
+        LatencyTrackingOrderedBatchMapStore(MapStore<K, V> delegate, StoreLatencyPlugin plugin, String mapName) {
+            super(delegate, plugin, mapName);
+            this.storeBatchProbe = plugin.newProbe(KEY, mapName, "storeBatch");
+        }
+
+        @Override
+        public void storeBatch(List<Map.Entry<K, V>> entries) {
+            long startNanos = System.nanoTime();
+            try {
+                ((OrderedBatchMapStore<K, V>) delegate).storeBatch(entries);
+            } finally {
+                storeBatchProbe.recordValue(System.nanoTime() - startNanos);
+            }
+        }
+    }
 }
@@ -44,6 +44,7 @@ import com.hazelcast.query.impl.getters.Extractors;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.ObjectNamespace;
 import com.hazelcast.spi.partition.IPartitionService;
+import com.hazelcast.spi.properties.GroupProperty;
 import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.ConstructorFunction;
 import com.hazelcast.util.ExceptionUtil;
@@ -187,7 +188,10 @@ public class MapContainer {
             public RecordFactory createNew(Void notUsedArg) {
                 switch (mapConfig.getInMemoryFormat()) {
                     case BINARY:
-                        return new DataRecordFactory(mapConfig, serializationService, partitioningStrategy);
+                        int valueCompressionMinSize = mapServiceContext.getNodeEngine().getProperties()
+                                .getInteger(GroupProperty.MAP_VALUE_COMPRESSION_MIN_SIZE);
+                        return new DataRecordFactory(mapConfig, serializationService, partitioningStrategy,
+                                valueCompressionMinSize);
                     case OBJECT:
                         return new ObjectRecordFactory(mapConfig, serializationService);
                     default:
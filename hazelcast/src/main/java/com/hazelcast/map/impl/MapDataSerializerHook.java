@@ -116,6 +116,7 @@ import com.hazelcast.map.impl.operation.TriggerLoadIfNeededOperation;
 import com.hazelcast.map.impl.operation.TryPutOperation;
 import com.hazelcast.map.impl.operation.TryRemoveOperation;
 import com.hazelcast.map.impl.operation.WriteBehindStateHolder;
+import com.hazelcast.map.impl.operation.WriteThroughSetUnlockOperation;
 import com.hazelcast.map.impl.query.AggregationResult;
 import com.hazelcast.map.impl.query.Query;
 import com.hazelcast.map.impl.query.QueryEventFilter;
@@ -308,8 +309,9 @@ public final class MapDataSerializerHook implements DataSerializerHook {
     public static final int EVENT_JOURNAL_READ_RESULT_SET = 145;
     public static final int MERGE_FACTORY = 146;
     public static final int MERGE = 147;
+    public static final int WRITE_THROUGH_SET_UNLOCK = 148;
 
-    private static final int LEN = MERGE + 1;
+    private static final int LEN = WRITE_THROUGH_SET_UNLOCK + 1;
 
     @Override
     public int getFactoryId() {
@@ -1040,6 +1042,11 @@ public final class MapDataSerializerHook implements DataSerializerHook {
                 return new MergeOperation();
             }
         };
+        constructors[WRITE_THROUGH_SET_UNLOCK] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new WriteThroughSetUnlockOperation();
+            }
+        };
 
         return new ArrayDataSerializableFactory(constructors);
     }
@@ -55,16 +55,20 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.logging.Logger.getLogger;
 import static com.hazelcast.map.impl.MapKeyLoaderUtil.assignRole;
+import static com.hazelcast.map.impl.MapKeyLoaderUtil.limitShared;
 import static com.hazelcast.map.impl.MapKeyLoaderUtil.toBatches;
 import static com.hazelcast.map.impl.MapKeyLoaderUtil.toPartition;
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
 import static com.hazelcast.nio.IOUtil.closeResource;
 import static com.hazelcast.spi.ExecutionService.MAP_LOAD_ALL_KEYS_EXECUTOR;
+import static com.hazelcast.spi.ExecutionService.MAP_LOAD_KEY_SEGMENTS_EXECUTOR;
 import static com.hazelcast.util.IterableUtil.limit;
 import static com.hazelcast.util.IterableUtil.map;
+import static com.hazelcast.util.IterableUtil.nullToEmpty;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -430,22 +434,19 @@ public class MapKeyLoader {
         Throwable loadError = null;
 
         try {
-            Iterable<Object> allKeys = mapStoreContext.loadAllKeys();
-            keys = allKeys.iterator();
-            Iterator<Data> dataKeys = map(keys, toData);
             int mapMaxSize = clusterSize * maxSizePerNode;
-
-            if (mapMaxSize > 0) {
-                dataKeys = limit(dataKeys, mapMaxSize);
-            }
-
-            Iterator<Entry<Integer, Data>> partitionsAndKeys = map(dataKeys, toPartition(partitionService));
-            Iterator<Map<Integer, List<Data>>> batches = toBatches(partitionsAndKeys, maxBatch);
-
-            List<Future> futures = new ArrayList<Future>();
-            while (batches.hasNext()) {
-                Map<Integer, List<Data>> batch = batches.next();
-                futures.addAll(sendBatch(batch, replaceExistingValues));
+            MapStoreWrapper storeWrapper = mapStoreContext.getMapStoreWrapper();
+            List<Future> futures;
+            if (storeWrapper.isSegmentedMapLoader()) {
+                futures = dispatchKeySegments(storeWrapper, mapMaxSize, replaceExistingValues);
+            } else {
+                Iterable<Object> allKeys = mapStoreContext.loadAllKeys();
+                keys = allKeys.iterator();
+                Iterator<Data> dataKeys = map(keys, toData);
+                if (mapMaxSize > 0) {
+                    dataKeys = limit(dataKeys, mapMaxSize);
+                }
+                futures = dispatchKeys(dataKeys, replaceExistingValues);
             }
 
             // This acts as a barrier to prevent re-ordering of key distribution operations (LoadAllOperation)
@@ -466,6 +467,87 @@ public class MapKeyLoader {
         }
     }
 
+    /**
+     * Batches the keys by partition and sends the batches to the partition owners
+     * for value loading.
+     *
+     * @param dataKeys              the keys to be dispatched
+     * @param replaceExistingValues if the existing entries for the loaded keys should be replaced
+     * @return a list of futures representing pending completion of the value offloading tasks
+     */
+    private List<Future> dispatchKeys(Iterator<Data> dataKeys, boolean replaceExistingValues) {
+        Iterator<Entry<Integer, Data>> partitionsAndKeys = map(dataKeys, toPartition(partitionService));
+        Iterator<Map<Integer, List<Data>>> batches = toBatches(partitionsAndKeys, maxBatch);
+
+        List<Future> futures = new ArrayList<Future>();
+        while (batches.hasNext()) {
+            Map<Integer, List<Data>> batch = batches.next();
+            futures.addAll(sendBatch(batch, replaceExistingValues));
+        }
+        return futures;
+    }
+
+    /**
+     * Loads the key segments of a {@link com.hazelcast.core.SegmentedMapLoader} in parallel
+     * on the {@link ExecutionService#MAP_LOAD_KEY_SEGMENTS_EXECUTOR} executor and dispatches
+     * the keys of each segment while it is being loaded. The optional limit on the number of
+     * loaded keys is shared by all segments.
+     *
+     * @param storeWrapper          the map store wrapper of the segmented map loader
+     * @param mapMaxSize            the maximum number of keys to be loaded or a non-positive value if unlimited
+     * @param replaceExistingValues if the existing entries for the loaded keys should be replaced
+     * @return a list of futures representing pending completion of the value offloading tasks
+     * @throws Exception if loading or dispatching the keys of any segment failed
+     * @see com.hazelcast.core.SegmentedMapLoader#loadAllKeys(int)
+     */
+    private List<Future> dispatchKeySegments(final MapStoreWrapper storeWrapper, int mapMaxSize,
+                                             final boolean replaceExistingValues) throws Exception {
+        int segmentCount = storeWrapper.getKeySegmentCount();
+        final AtomicInteger remainingKeys = mapMaxSize > 0 ? new AtomicInteger(mapMaxSize) : null;
+        List<Future<List<Future>>> segmentFutures = new ArrayList<Future<List<Future>>>(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            final int segment = i;
+            segmentFutures.add(execService.submit(MAP_LOAD_KEY_SEGMENTS_EXECUTOR, new Callable<List<Future>>() {
+                @Override
+                public List<Future> call() {
+                    return dispatchKeySegment(storeWrapper, segment, remainingKeys, replaceExistingValues);
+                }
+            }));
+        }
+
+        List<Future> futures = new ArrayList<Future>();
+        Exception segmentError = null;
+        for (Future<List<Future>> segmentFuture : segmentFutures) {
+            // wait for all segments, so no key is dispatched after the key load completion
+            try {
+                futures.addAll(segmentFuture.get());
+            } catch (ExecutionException e) {
+                segmentError = segmentError == null ? e : segmentError;
+            }
+        }
+        if (segmentError != null) {
+            FutureUtil.waitForever(futures);
+            throw segmentError;
+        }
+        return futures;
+    }
+
+    private List<Future> dispatchKeySegment(MapStoreWrapper storeWrapper, int segment, AtomicInteger remainingKeys,
+                                            boolean replaceExistingValues) {
+        Iterator<Object> keys = nullToEmpty(storeWrapper.loadAllKeys(segment)).iterator();
+        try {
+            Iterator<Data> dataKeys = map(keys, toData);
+            if (remainingKeys != null) {
+                dataKeys = limitShared(dataKeys, remainingKeys);
+            }
+            return dispatchKeys(dataKeys, replaceExistingValues);
+        } finally {
+            if (keys instanceof Closeable) {
+                closeResource((Closeable) keys);
+            }
+        }
+    }
+
     /**
      * Sends the key batches to the partition owners for value loading.
      * The returned futures represent pending offloading of the value loading on the
@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.config.MaxSizeConfig.MaxSizePolicy.PER_NODE;
 import static com.hazelcast.util.MapUtil.createHashMap;
@@ -126,6 +127,49 @@ public final class MapKeyLoaderUtil {
         return batch;
     }
 
+    /**
+     * Limits the iterator to the number of elements left in the shared {@code remaining} counter.
+     * Each returned element decrements the counter, so several iterators limited by the same
+     * counter together return at most its initial value of elements.
+     *
+     * @param iterator  the iterator to be limited
+     * @param remaining the shared number of elements which may still be returned
+     * @return the limited iterator
+     */
+    static <T> Iterator<T> limitShared(final Iterator<T> iterator, final AtomicInteger remaining) {
+        return new UnmodifiableIterator<T>() {
+            private boolean acquired;
+
+            @Override
+            public boolean hasNext() {
+                if (acquired) {
+                    return true;
+                }
+                if (!iterator.hasNext()) {
+                    return false;
+                }
+                int current;
+                do {
+                    current = remaining.get();
+                    if (current <= 0) {
+                        return false;
+                    }
+                } while (!remaining.compareAndSet(current, current - 1));
+                acquired = true;
+                return true;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                acquired = false;
+                return iterator.next();
+            }
+        };
+    }
+
     /**
      * Returns the configured maximum entry count per node if the max
      * size policy is {@link MaxSizeConfig.MaxSizePolicy#PER_NODE}
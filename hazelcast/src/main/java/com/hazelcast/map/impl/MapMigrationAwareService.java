@@ -17,6 +17,8 @@
 package com.hazelcast.map.impl;
 
 import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataGenerator;
+import com.hazelcast.internal.util.merkletree.MerkleTree;
+import com.hazelcast.map.impl.operation.MapReplicationChunkIterator;
 import com.hazelcast.map.impl.operation.MapReplicationOperation;
 import com.hazelcast.map.impl.querycache.QueryCacheContext;
 import com.hazelcast.map.impl.querycache.publisher.PublisherContext;
@@ -27,7 +29,8 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.query.impl.IndexInfo;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.QueryableEntry;
-import com.hazelcast.spi.FragmentedMigrationAwareService;
+import com.hazelcast.spi.ChunkedMigrationAwareService;
+import com.hazelcast.spi.DifferentialReplicationAwareService;
 import com.hazelcast.spi.ObjectNamespace;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.PartitionMigrationEvent;
@@ -44,13 +47,14 @@ import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.flu
 import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.removeAccumulator;
 import static com.hazelcast.spi.partition.MigrationEndpoint.DESTINATION;
 import static com.hazelcast.spi.partition.MigrationEndpoint.SOURCE;
+import static com.hazelcast.util.ThreadUtil.assertRunningOnPartitionThread;
 
 /**
  * Defines migration behavior of map service.
  *
  * @see MapService
  */
-class MapMigrationAwareService implements FragmentedMigrationAwareService {
+class MapMigrationAwareService implements ChunkedMigrationAwareService, DifferentialReplicationAwareService {
 
     protected final MapServiceContext mapServiceContext;
     protected final SerializationService serializationService;
@@ -132,6 +136,55 @@ class MapMigrationAwareService implements FragmentedMigrationAwareService {
         return operation;
     }
 
+    @Override
+    public Iterator<Operation> prepareReplicationChunks(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                        long maxChunkSizeInBytes) {
+        assert isKnownServiceNamespace(namespace) : namespace + " is not a MapService namespace!";
+
+        int partitionId = event.getPartitionId();
+        PartitionContainer container = mapServiceContext.getPartitionContainer(partitionId);
+        RecordStore recordStore = container.getExistingRecordStore(((ObjectNamespace) namespace).getObjectName());
+        if (recordStore == null || recordStore.size() == 0
+                || recordStore.getMapContainer().getMapConfig().getTotalBackupCount() < event.getReplicaIndex()) {
+            return null;
+        }
+
+        return new MapReplicationChunkIterator(mapServiceContext, container, namespace, event.getReplicaIndex(),
+                maxChunkSizeInBytes);
+    }
+
+    @Override
+    public int[] getReplicaDigest(PartitionReplicationEvent event, ServiceNamespace namespace) {
+        assertRunningOnPartitionThread();
+
+        PartitionContainer container = mapServiceContext.getPartitionContainer(event.getPartitionId());
+        RecordStore recordStore = container.getExistingRecordStore(((ObjectNamespace) namespace).getObjectName());
+        MerkleTree merkleTree = recordStore != null ? recordStore.getMerkleTree() : null;
+        return merkleTree != null ? merkleTree.getNodeHashes() : null;
+    }
+
+    @Override
+    public Operation prepareDifferentialReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                             int[] replicaDigest) {
+        assert isKnownServiceNamespace(namespace) : namespace + " is not a MapService namespace!";
+
+        int partitionId = event.getPartitionId();
+        PartitionContainer container = mapServiceContext.getPartitionContainer(partitionId);
+        RecordStore recordStore = container.getExistingRecordStore(((ObjectNamespace) namespace).getObjectName());
+        MerkleTree merkleTree = recordStore != null ? recordStore.getMerkleTree() : null;
+        if (merkleTree == null || MerkleTree.getDepth(replicaDigest) != merkleTree.getDepth()
+                || recordStore.getMapContainer().getMapConfig().getTotalBackupCount() < event.getReplicaIndex()) {
+            return null;
+        }
+
+        int[] differentLeaves = merkleTree.findDifferentLeaves(replicaDigest);
+        Operation operation = new MapReplicationOperation(container, namespace, event.getReplicaIndex(),
+                merkleTree.getDepth(), differentLeaves);
+        operation.setService(mapServiceContext.getService());
+        operation.setNodeEngine(mapServiceContext.getNodeEngine());
+        return operation;
+    }
+
     private boolean assertAllKnownNamespaces(Collection<ServiceNamespace> namespaces) {
         for (ServiceNamespace namespace : namespaces) {
             assert isKnownServiceNamespace(namespace) : namespace + " is not a MapService namespace!";
@@ -22,12 +22,13 @@ import com.hazelcast.internal.cluster.ClusterStateListener;
 import com.hazelcast.internal.cluster.ClusterVersionListener;
 import com.hazelcast.map.impl.event.MapEventPublishingService;
 import com.hazelcast.monitor.LocalMapStats;
+import com.hazelcast.spi.ChunkedMigrationAwareService;
 import com.hazelcast.spi.ClientAwareService;
+import com.hazelcast.spi.DifferentialReplicationAwareService;
 import com.hazelcast.spi.DistributedObjectNamespace;
 import com.hazelcast.spi.EventFilter;
 import com.hazelcast.spi.EventPublishingService;
 import com.hazelcast.spi.EventRegistration;
-import com.hazelcast.spi.FragmentedMigrationAwareService;
 import com.hazelcast.spi.ManagedService;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.NotifiableEventListener;
@@ -52,6 +53,7 @@ import com.hazelcast.version.Version;
 import com.hazelcast.wan.WanReplicationEvent;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Properties;
 
@@ -74,7 +76,7 @@ import static com.hazelcast.core.EntryEventType.INVALIDATION;
  * @see MapClientAwareService
  * @see MapServiceContext
  */
-public class MapService implements ManagedService, FragmentedMigrationAwareService,
+public class MapService implements ManagedService, ChunkedMigrationAwareService, DifferentialReplicationAwareService,
         TransactionalService, RemoteService, EventPublishingService<Object, ListenerAdapter>,
         PostJoinAwareService, SplitBrainHandlerService, ReplicationSupportingService, StatisticsAwareService<LocalMapStats>,
         PartitionAwareService, ClientAwareService, QuorumAwareService, NotifiableEventListener, ClusterStateListener,
@@ -142,6 +144,23 @@ public class MapService implements ManagedService, FragmentedMigrationAwareServi
         return migrationAwareService.prepareReplicationOperation(event, namespaces);
     }
 
+    @Override
+    public Iterator<Operation> prepareReplicationChunks(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                        long maxChunkSizeInBytes) {
+        return migrationAwareService.prepareReplicationChunks(event, namespace, maxChunkSizeInBytes);
+    }
+
+    @Override
+    public int[] getReplicaDigest(PartitionReplicationEvent event, ServiceNamespace namespace) {
+        return migrationAwareService.getReplicaDigest(event, namespace);
+    }
+
+    @Override
+    public Operation prepareDifferentialReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                             int[] replicaDigest) {
+        return migrationAwareService.prepareDifferentialReplicationOperation(event, namespace, replicaDigest);
+    }
+
     @Override
     public void beforeMigration(PartitionMigrationEvent event) {
         migrationAwareService.beforeMigration(event);
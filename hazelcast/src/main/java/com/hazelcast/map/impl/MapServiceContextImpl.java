@@ -25,6 +25,7 @@ import com.hazelcast.core.PartitioningStrategy;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.util.InvocationUtil;
 import com.hazelcast.internal.util.LocalRetryableExecution;
+import com.hazelcast.internal.util.RuntimeAvailableProcessors;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.MapInterceptor;
 import com.hazelcast.map.impl.event.MapEventPublisher;
@@ -83,6 +84,7 @@ import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.ConcurrencyUtil;
 import com.hazelcast.util.ConstructorFunction;
 import com.hazelcast.util.ContextMutexFactory;
+import com.hazelcast.util.executor.ExecutorType;
 import com.hazelcast.util.executor.ManagedExecutorService;
 
 import java.util.ArrayList;
@@ -104,12 +106,16 @@ import static com.hazelcast.map.impl.ListenerAdapters.createListenerAdapter;
 import static com.hazelcast.map.impl.MapListenerFlagOperator.setAndGetListenerFlags;
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
 import static com.hazelcast.query.impl.predicates.QueryOptimizerFactory.newOptimizer;
+import static com.hazelcast.spi.ExecutionService.MAP_WRITE_BEHIND_EXECUTOR;
+import static com.hazelcast.spi.ExecutionService.QUERY_CACHE_POPULATION_EXECUTOR;
 import static com.hazelcast.spi.ExecutionService.QUERY_EXECUTOR;
 import static com.hazelcast.spi.Operation.GENERIC_PARTITION_ID;
 import static com.hazelcast.spi.properties.GroupProperty.AGGREGATION_ACCUMULATION_PARALLEL_EVALUATION;
 import static com.hazelcast.spi.properties.GroupProperty.INDEX_COPY_BEHAVIOR;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_WRITE_BEHIND_CONCURRENCY;
 import static com.hazelcast.spi.properties.GroupProperty.OPERATION_CALL_TIMEOUT_MILLIS;
 import static com.hazelcast.spi.properties.GroupProperty.QUERY_PREDICATE_PARALLEL_EVALUATION;
+import static java.lang.Math.max;
 import static java.lang.Thread.currentThread;
 
 /**
@@ -119,6 +125,7 @@ import static java.lang.Thread.currentThread;
 class MapServiceContextImpl implements MapServiceContext {
 
     protected static final long DESTROY_TIMEOUT_SECONDS = 30;
+    private static final int QUERY_CACHE_POPULATION_QUEUE_CAPACITY = 1000;
 
     protected final ConcurrentMap<String, MapContainer> mapContainers = new ConcurrentHashMap<String, MapContainer>();
     protected final AtomicReference<Collection<Integer>> ownedPartitions = new AtomicReference<Collection<Integer>>();
@@ -182,6 +189,23 @@ class MapServiceContextImpl implements MapServiceContext {
         this.logger = nodeEngine.getLogger(getClass());
 
         initRecordComparators();
+        registerWriteBehindExecutor();
+        nodeEngine.getExecutionService().register(QUERY_CACHE_POPULATION_EXECUTOR, RuntimeAvailableProcessors.get(),
+                QUERY_CACHE_POPULATION_QUEUE_CAPACITY, ExecutorType.CACHED);
+    }
+
+    /**
+     * Registers the executor of the parallel write-behind stores. Each write-behind map has at most
+     * {@link com.hazelcast.spi.properties.GroupProperty#MAP_WRITE_BEHIND_CONCURRENCY} tasks on it, the
+     * pool size caps the concurrent store calls of all maps and can be set with an executor config.
+     */
+    private void registerWriteBehindExecutor() {
+        int concurrency = nodeEngine.getProperties().getInteger(MAP_WRITE_BEHIND_CONCURRENCY);
+        if (concurrency > 1) {
+            int poolSize = max(concurrency, RuntimeAvailableProcessors.get());
+            nodeEngine.getExecutionService()
+                    .register(MAP_WRITE_BEHIND_EXECUTOR, poolSize, Integer.MAX_VALUE, ExecutorType.CACHED);
+        }
     }
 
     ConstructorFunction<String, MapContainer> createMapConstructor() {
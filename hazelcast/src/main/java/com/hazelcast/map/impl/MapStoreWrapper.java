@@ -20,7 +20,9 @@ import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.MapLoader;
 import com.hazelcast.core.MapLoaderLifecycleSupport;
 import com.hazelcast.core.MapStore;
+import com.hazelcast.core.OrderedBatchMapStore;
 import com.hazelcast.core.PostProcessingMapStore;
+import com.hazelcast.core.SegmentedMapLoader;
 import com.hazelcast.internal.diagnostics.Diagnostics;
 import com.hazelcast.internal.diagnostics.StoreLatencyPlugin;
 import com.hazelcast.query.impl.getters.ReflectionHelper;
@@ -29,6 +31,7 @@ import com.hazelcast.spi.impl.NodeEngineImpl;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -101,11 +104,11 @@ public class MapStoreWrapper implements MapStore, MapLoaderLifecycleSupport {
         }
 
         if (mapLoader != null) {
-            this.mapLoader = new LatencyTrackingMapLoader(mapLoader, storeLatencyPlugin, mapName);
+            this.mapLoader = LatencyTrackingMapLoader.create(mapLoader, storeLatencyPlugin, mapName);
         }
 
         if (mapStore != null) {
-            this.mapStore = new LatencyTrackingMapStore(mapStore, storeLatencyPlugin, mapName);
+            this.mapStore = LatencyTrackingMapStore.create(mapStore, storeLatencyPlugin, mapName);
         }
     }
 
@@ -129,6 +132,17 @@ public class MapStoreWrapper implements MapStore, MapLoaderLifecycleSupport {
         }
     }
 
+    /**
+     * Stores and deletes the given entries in order, see {@link OrderedBatchMapStore#storeBatch(List)}.
+     * Must only be called when {@link #isOrderedBatchMapStore()} returns {@code true}.
+     */
+    public void storeBatch(List<Map.Entry> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+        ((OrderedBatchMapStore) mapStore).storeBatch((List) entries);
+    }
+
     @Override
     public void deleteAll(Collection keys) {
         if (keys == null || keys.isEmpty()) {
@@ -159,6 +173,34 @@ public class MapStoreWrapper implements MapStore, MapLoaderLifecycleSupport {
         return null;
     }
 
+    /**
+     * @return {@code true} if the configured {@link MapLoader} can load its keys in segments
+     * @see SegmentedMapLoader
+     */
+    public boolean isSegmentedMapLoader() {
+        return isMapLoader() && mapLoader instanceof SegmentedMapLoader;
+    }
+
+    /**
+     * Returns the number of key segments.
+     * Must only be called when {@link #isSegmentedMapLoader()} returns {@code true}.
+     *
+     * @see SegmentedMapLoader#getKeySegmentCount()
+     */
+    public int getKeySegmentCount() {
+        return ((SegmentedMapLoader) mapLoader).getKeySegmentCount();
+    }
+
+    /**
+     * Returns an {@link Iterable} of the keys of the given segment.
+     * Must only be called when {@link #isSegmentedMapLoader()} returns {@code true}.
+     *
+     * @see SegmentedMapLoader#loadAllKeys(int)
+     */
+    public Iterable<Object> loadAllKeys(int segment) {
+        return ((SegmentedMapLoader) mapLoader).loadAllKeys(segment);
+    }
+
     @Override
     public Object load(Object key) {
         if (isMapLoader()) {
@@ -186,6 +228,14 @@ public class MapStoreWrapper implements MapStore, MapLoaderLifecycleSupport {
         return isMapStore() && mapStore instanceof PostProcessingMapStore;
     }
 
+    /**
+     * @return {@code true} if the configured {@link MapStore} can store ordered batches
+     * @see OrderedBatchMapStore
+     */
+    public boolean isOrderedBatchMapStore() {
+        return isMapStore() && mapStore instanceof OrderedBatchMapStore;
+    }
+
     @Override
     public String toString() {
         return "MapStoreWrapper{" + "mapName='" + mapName + '\''
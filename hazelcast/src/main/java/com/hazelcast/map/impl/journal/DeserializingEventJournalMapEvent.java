@@ -20,7 +20,7 @@ import com.hazelcast.core.EntryEventType;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.HazelcastInstanceAware;
 import com.hazelcast.map.impl.MapDataSerializerHook;
-import com.hazelcast.map.journal.EventJournalMapEvent;
+import com.hazelcast.map.journal.DataAwareEventJournalMapEvent;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.impl.SerializationServiceSupport;
@@ -33,7 +33,7 @@ import java.io.IOException;
         justification = "equality is checked by serialised data in superclass, not deserialised instances in this class")
 public class DeserializingEventJournalMapEvent<K, V>
         extends InternalEventJournalMapEvent
-        implements EventJournalMapEvent<K, V>, HazelcastInstanceAware {
+        implements DataAwareEventJournalMapEvent<K, V>, HazelcastInstanceAware {
     private SerializationService serializationService;
     private K objectKey;
     private V objectNewValue;
@@ -89,8 +89,13 @@ public class DeserializingEventJournalMapEvent<K, V>
         out.writeData(toData(dataOldValue, objectOldValue));
     }
 
+    /**
+     * Returns the serialized form of a key or value. The serialized form the
+     * event was created with is preferred, so accessing the deserialized key
+     * or values, e.g. in a predicate, doesn't cause them to be serialized again.
+     */
     private Data toData(Data data, Object o) {
-        return o != null ? serializationService.toData(o) : data;
+        return data != null ? data : serializationService.toData(o);
     }
 
     @Override
@@ -23,6 +23,7 @@ import com.hazelcast.map.impl.MapStoreWrapper;
 import com.hazelcast.map.impl.mapstore.writebehind.WriteBehindProcessor;
 import com.hazelcast.map.impl.mapstore.writebehind.WriteBehindQueue;
 import com.hazelcast.map.impl.mapstore.writebehind.WriteBehindStore;
+import com.hazelcast.map.impl.mapstore.writethrough.WriteThroughBatcher;
 import com.hazelcast.map.impl.mapstore.writethrough.WriteThroughStore;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.properties.GroupProperty;
@@ -90,7 +91,13 @@ public final class MapDataStores {
         final InternalSerializationService serializationService
                 = ((InternalSerializationService) nodeEngine.getSerializationService());
 
-        return (MapDataStore<K, V>) new WriteThroughStore(store, serializationService);
+        WriteThroughBatcher batcher = null;
+        if (nodeEngine.getProperties().getBoolean(GroupProperty.MAP_WRITE_THROUGH_ASYNC)) {
+            int writeBatchSize = mapStoreContext.getMapStoreConfig().getWriteBatchSize();
+            batcher = new WriteThroughBatcher(store, serializationService, nodeEngine.getExecutionService(),
+                    nodeEngine.getLogger(WriteThroughBatcher.class), writeBatchSize);
+        }
+        return (MapDataStore<K, V>) new WriteThroughStore(store, serializationService, batcher);
 
     }
 
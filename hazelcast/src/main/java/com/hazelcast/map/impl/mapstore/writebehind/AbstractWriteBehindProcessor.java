@@ -19,6 +19,7 @@ package com.hazelcast.map.impl.mapstore.writebehind;
 import com.hazelcast.config.MapStoreConfig;
 import com.hazelcast.core.MapStore;
 import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.MapStoreWrapper;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.spi.serialization.SerializationService;
 
@@ -40,11 +41,19 @@ abstract class AbstractWriteBehindProcessor<T> implements WriteBehindProcessor<T
 
     protected final MapStore mapStore;
 
+    /**
+     * {@code true} if the map store can persist ordered batches of mixed store and delete
+     * operations, see {@link com.hazelcast.core.OrderedBatchMapStore}.
+     */
+    protected final boolean orderedBatching;
+
     private final SerializationService serializationService;
 
     AbstractWriteBehindProcessor(MapStoreContext mapStoreContext) {
         this.serializationService = mapStoreContext.getSerializationService();
-        this.mapStore = mapStoreContext.getMapStoreWrapper();
+        MapStoreWrapper mapStoreWrapper = mapStoreContext.getMapStoreWrapper();
+        this.mapStore = mapStoreWrapper;
+        this.orderedBatching = mapStoreWrapper.isOrderedBatchMapStore();
         this.logger = mapStoreContext.getLogger(DefaultWriteBehindProcessor.class);
         MapStoreConfig mapStoreConfig = mapStoreContext.getMapStoreConfig();
         this.writeBatchSize = mapStoreConfig.getWriteBatchSize();
@@ -16,10 +16,12 @@
 
 package com.hazelcast.map.impl.mapstore.writebehind;
 
+import com.hazelcast.map.impl.MapStoreWrapper;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
 import com.hazelcast.nio.serialization.Data;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -78,6 +80,12 @@ class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEn
             return Collections.emptyMap();
         }
         final Map<Integer, List<DelayedEntry>> failsPerPartition = new HashMap<Integer, List<DelayedEntry>>();
+        if (orderedBatching) {
+            // an ordered batch can carry stores and deletes of the same key, so there is
+            // no need to split entries by operation type or to coalesce them per key.
+            addToFails(callOrderedBatchStoreWithListeners(delayedEntries), failsPerPartition);
+            return failsPerPartition;
+        }
         final List<DelayedEntry> entriesToProcess = new ArrayList<DelayedEntry>();
         StoreOperationType operationType = null;
         StoreOperationType previousOperationType;
@@ -137,7 +145,8 @@ class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEn
         // Due to that limitation it is not possible to provide a correct no-write-coalescing write-behind behavior.
         // Under that limitation of current MapStore interface, we are making a workaround and persisting all
         // entries one by one for no-write-coalescing write-behind map-stores and as a result not doing batching
-        // when writeCoalescing is false.
+        // when writeCoalescing is false. Map stores implementing OrderedBatchMapStore don't have that limitation
+        // and are handled by callOrderedBatchStoreWithListeners instead.
         if (size == 1 || !writeCoalescing) {
             return processEntriesOneByOne(delayedEntries, operationType);
         }
@@ -175,6 +184,52 @@ class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEn
         return totalFailures == null ? Collections.EMPTY_LIST : totalFailures;
     }
 
+    /**
+     * Passes all entries to {@link com.hazelcast.core.OrderedBatchMapStore#storeBatch} in their
+     * original order. Entries which are still left in the batch after the retries are stored
+     * one by one.
+     *
+     * @param delayedEntries sorted entries to be processed.
+     * @return failed entry list if any.
+     */
+    private List<DelayedEntry> callOrderedBatchStoreWithListeners(final List<DelayedEntry> delayedEntries) {
+        final List<Map.Entry> batch = new ArrayList<Map.Entry>(delayedEntries.size());
+        for (DelayedEntry delayedEntry : delayedEntries) {
+            batch.add(new BatchEntry(delayedEntry, toObject(delayedEntry.getKey()), toObject(delayedEntry.getValue())));
+        }
+        final List<DelayedEntry> failedEntryList = retryCall(new RetryTask<DelayedEntry>() {
+
+            @Override
+            public boolean run() throws Exception {
+                List<DelayedEntry> entries = batchedEntries(batch);
+                callBeforeStoreListeners(entries);
+                ((MapStoreWrapper) mapStore).storeBatch(batch);
+                callAfterStoreListeners(entries);
+                return true;
+            }
+
+            @Override
+            public List<DelayedEntry> failureList() {
+                return batchedEntries(batch);
+            }
+        });
+        final List<DelayedEntry> failedTries = new ArrayList<DelayedEntry>();
+        for (DelayedEntry entry : failedEntryList) {
+            StoreOperationType operationType = entry.getValue() == null
+                    ? StoreOperationType.DELETE : StoreOperationType.WRITE;
+            failedTries.addAll(callSingleStoreWithListeners(entry, operationType));
+        }
+        return failedTries;
+    }
+
+    private static List<DelayedEntry> batchedEntries(List<Map.Entry> batch) {
+        List<DelayedEntry> entries = new ArrayList<DelayedEntry>(batch.size());
+        for (Map.Entry entry : batch) {
+            entries.add(((BatchEntry) entry).delayedEntry);
+        }
+        return entries;
+    }
+
     private Map prepareBatchMap(DelayedEntry[] delayedEntries) {
         final int length = delayedEntries.length;
         final Map<Object, DelayedEntry> batchMap = createHashMap(length);
@@ -431,6 +486,19 @@ class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEn
         List<T> failureList();
     }
 
+    /**
+     * Deserialized entry of an ordered batch which remembers its originating {@link DelayedEntry}.
+     */
+    private static final class BatchEntry extends AbstractMap.SimpleImmutableEntry<Object, Object> {
+
+        private final transient DelayedEntry delayedEntry;
+
+        BatchEntry(DelayedEntry delayedEntry, Object key, Object value) {
+            super(key, value);
+            this.delayedEntry = delayedEntry;
+        }
+    }
+
     private void sleepSeconds(long secs) {
         try {
             SECONDS.sleep(secs);
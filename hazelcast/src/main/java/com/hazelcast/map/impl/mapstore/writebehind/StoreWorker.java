@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.mapstore.writebehind;
 
 import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.PartitionContainer;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
@@ -35,7 +36,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static com.hazelcast.spi.ExecutionService.MAP_WRITE_BEHIND_EXECUTOR;
 import static com.hazelcast.util.CollectionUtil.isEmpty;
 import static java.lang.Thread.currentThread;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -45,7 +49,13 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * That thread uses this runnable task to process write-behind-queues. This task collects entries from
  * write behind queues and passes them to {@link #writeBehindProcessor}.
  * <p/>
- * Only one {@link StoreWorker} task is created for a map on a member.
+ * Only one {@link StoreWorker} task is created for a map on a member. When
+ * {@link GroupProperty#MAP_WRITE_BEHIND_CONCURRENCY} is greater than one, it stripes the
+ * partitions and stores the selected entries of each stripe as a separate task on the
+ * {@link com.hazelcast.spi.ExecutionService#MAP_WRITE_BEHIND_EXECUTOR} executor. The worker
+ * does not wait for these tasks; instead, the partitions of a stripe are skipped until the
+ * previous store of the stripe has finished, so a slow stripe does not hold back the others
+ * and the stores of a key never overlap.
  */
 public class StoreWorker implements Runnable {
 
@@ -54,12 +64,21 @@ public class StoreWorker implements Runnable {
     private final IPartitionService partitionService;
     private final ExecutionService executionService;
     private final WriteBehindProcessor writeBehindProcessor;
+    private final ILogger logger;
     /**
      * Run on backup nodes after this interval.
      */
     private final long backupDelayMillis;
     private final long writeDelayMillis;
     private final int partitionCount;
+    /**
+     * Maximum number of stripes stored in parallel.
+     */
+    private final int concurrency;
+    /**
+     * Marks the stripes whose entries are being stored, only used when {@link #concurrency} is greater than one.
+     */
+    private final AtomicBoolean[] storingStripes;
     /**
      * Entries are fetched from write-behind-queues according to highestStoreTime. If an entry
      * has a store-time which is smaller than or equal to the highestStoreTime, it will be processed.
@@ -80,6 +99,12 @@ public class StoreWorker implements Runnable {
         this.lastHighestStoreTime = Clock.currentTimeMillis();
         this.writeDelayMillis = SECONDS.toMillis(getWriteDelaySeconds(mapStoreContext));
         this.partitionCount = partitionService.getPartitionCount();
+        this.concurrency = Math.max(1, nodeEngine.getProperties().getInteger(GroupProperty.MAP_WRITE_BEHIND_CONCURRENCY));
+        this.storingStripes = new AtomicBoolean[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            storingStripes[i] = new AtomicBoolean();
+        }
+        this.logger = nodeEngine.getLogger(StoreWorker.class);
     }
 
 
@@ -128,6 +153,11 @@ public class StoreWorker implements Runnable {
                 break;
             }
 
+            if (storingStripes[partitionId % concurrency].get()) {
+                // the entries of this partition are still being stored, they are selected again in a later run
+                continue;
+            }
+
             RecordStore recordStore = getRecordStoreOrNull(mapName, partitionId);
             if (!hasEntryInWriteBehindQueue(recordStore)) {
                 continue;
@@ -145,9 +175,11 @@ public class StoreWorker implements Runnable {
         }
 
         if (!isEmpty(ownersList)) {
-            Map<Integer, List<DelayedEntry>> failuresPerPartition = writeBehindProcessor.process(ownersList);
-            removeFinishedStoreOperationsFromQueues(mapName, ownersList);
-            reAddFailedStoreOperationsToQueues(mapName, failuresPerPartition);
+            if (concurrency > 1) {
+                storeInParallel(ownersList);
+            } else {
+                store(ownersList);
+            }
         }
 
         if (!isEmpty(backupsList)) {
@@ -158,6 +190,53 @@ public class StoreWorker implements Runnable {
 
     }
 
+    private void store(List<DelayedEntry> entries) {
+        Map<Integer, List<DelayedEntry>> failuresPerPartition = writeBehindProcessor.process(entries);
+        removeFinishedStoreOperationsFromQueues(mapName, entries);
+        reAddFailedStoreOperationsToQueues(mapName, failuresPerPartition);
+    }
+
+    /**
+     * Stripes entries by partition ID and stores each stripe as a separate task on the write-behind
+     * executor. Does not wait for the tasks: a stripe is marked as being stored until its task has
+     * finished, and {@link #runInternal()} skips the partitions of such stripes. So a map never has
+     * more than {@link #concurrency} store calls in flight, and the entries of a partition are never
+     * stored by two tasks at once.
+     *
+     * @param entries entries of owned partitions to be stored.
+     */
+    private void storeInParallel(List<DelayedEntry> entries) {
+        List<List<DelayedEntry>> stripes = new ArrayList<List<DelayedEntry>>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            stripes.add(null);
+        }
+        for (DelayedEntry entry : entries) {
+            int stripe = entry.getPartitionId() % concurrency;
+            List<DelayedEntry> stripeEntries = stripes.get(stripe);
+            if (stripeEntries == null) {
+                stripeEntries = new ArrayList<DelayedEntry>();
+                stripes.set(stripe, stripeEntries);
+            }
+            stripeEntries.add(entry);
+        }
+
+        for (int stripe = 0; stripe < concurrency; stripe++) {
+            List<DelayedEntry> stripeEntries = stripes.get(stripe);
+            if (stripeEntries == null) {
+                continue;
+            }
+            AtomicBoolean storing = storingStripes[stripe];
+            storing.set(true);
+            try {
+                executionService.execute(MAP_WRITE_BEHIND_EXECUTOR, new StoreStripeTask(stripeEntries, storing));
+            } catch (RejectedExecutionException e) {
+                // the entries stay in the write-behind queues and are selected again in the next run
+                storing.set(false);
+                logger.finest("Write-behind store of map '" + mapName + "' was rejected", e);
+            }
+        }
+    }
+
     private static List<DelayedEntry> initListIfNull(List<DelayedEntry> list, int capacity) {
         if (list == null) {
             list = new ArrayList<DelayedEntry>(capacity);
@@ -301,4 +380,46 @@ public class StoreWorker implements Runnable {
     public String toString() {
         return "StoreWorker{" + "mapName='" + mapName + "'}";
     }
+
+    /**
+     * Stores the entries of a stripe and clears its {@link #storingStripes} mark afterwards, even if
+     * the store fails, so the stripe is selected again in the next run.
+     */
+    private final class StoreStripeTask implements Runnable {
+
+        private final List<DelayedEntry> entries;
+        private final AtomicBoolean storing;
+
+        StoreStripeTask(List<DelayedEntry> entries, AtomicBoolean storing) {
+            this.entries = entries;
+            this.storing = storing;
+        }
+
+        @Override
+        public void run() {
+            try {
+                store(entries);
+            } catch (Exception e) {
+                logger.warning("Write-behind store of map '" + mapName + "' failed", e);
+            } finally {
+                storing.set(false);
+            }
+            notifyFlush(entries);
+        }
+
+        private void notifyFlush(List<DelayedEntry> entries) {
+            int lastPartitionId = -1;
+            for (DelayedEntry entry : entries) {
+                int partitionId = entry.getPartitionId();
+                if (partitionId == lastPartitionId) {
+                    continue;
+                }
+                lastPartitionId = partitionId;
+                RecordStore recordStore = getRecordStoreOrNull(mapName, partitionId);
+                if (recordStore != null) {
+                    ((WriteBehindStore) recordStore.getMapDataStore()).notifyFlush();
+                }
+            }
+        }
+    }
 }
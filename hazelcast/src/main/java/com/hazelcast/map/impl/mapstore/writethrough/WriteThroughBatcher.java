@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writethrough;
+
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.MapStoreWrapper;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.ExecutionService;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hazelcast.spi.ExecutionService.MAP_WRITE_THROUGH_EXECUTOR;
+import static com.hazelcast.util.MapUtil.createHashMap;
+
+/**
+ * Stores write-through entries off the partition threads and coalesces the
+ * entries stored by concurrent operations into {@link com.hazelcast.core.MapStore#storeAll(Map)}
+ * batches.
+ * <p/>
+ * Entries are stored in the order they were added by a single drain task per map
+ * which runs on the {@link ExecutionService#MAP_WRITE_THROUGH_EXECUTOR} executor.
+ * A batch is closed when it reaches the write batch size or when it would contain
+ * a key twice, so every store of a key is persisted and the callbacks of a key are
+ * notified in order. When a batch fails, its entries are stored one by one, so only
+ * the entries which can not be stored fail.
+ *
+ * @see com.hazelcast.spi.properties.GroupProperty#MAP_WRITE_THROUGH_ASYNC
+ */
+public class WriteThroughBatcher {
+
+    private final MapStoreWrapper store;
+    private final SerializationService serializationService;
+    private final ExecutionService executionService;
+    private final ILogger logger;
+    private final int maxBatchSize;
+    private final Queue<PendingStore> pendingStores = new ConcurrentLinkedQueue<PendingStore>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Runnable drainTask = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    public WriteThroughBatcher(MapStoreWrapper store, SerializationService serializationService,
+                               ExecutionService executionService, ILogger logger, int maxBatchSize) {
+        this.store = store;
+        this.serializationService = serializationService;
+        this.executionService = executionService;
+        this.logger = logger;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * Adds an entry to be stored. The callback is notified on the write-through executor
+     * after the entry has been stored or has failed to be stored.
+     *
+     * @param key      the key to be stored
+     * @param value    the value to be stored
+     * @param callback the callback to be notified of the store result
+     */
+    public void store(Data key, Object value, ExecutionCallback<Object> callback) {
+        pendingStores.offer(new PendingStore(key, value, callback));
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (!pendingStores.isEmpty() && draining.compareAndSet(false, true)) {
+            executionService.execute(MAP_WRITE_THROUGH_EXECUTOR, drainTask);
+        }
+    }
+
+    private void drain() {
+        try {
+            List<PendingStore> batch;
+            while (!(batch = nextBatch()).isEmpty()) {
+                storeBatch(batch);
+            }
+        } finally {
+            draining.set(false);
+            scheduleDrain();
+        }
+    }
+
+    private List<PendingStore> nextBatch() {
+        List<PendingStore> batch = new ArrayList<PendingStore>();
+        Set<Data> keys = new HashSet<Data>();
+        PendingStore pendingStore;
+        while (batch.size() < maxBatchSize && (pendingStore = pendingStores.peek()) != null) {
+            if (!keys.add(pendingStore.key)) {
+                break;
+            }
+            batch.add(pendingStores.poll());
+        }
+        return batch;
+    }
+
+    private void storeBatch(List<PendingStore> batch) {
+        Map<Object, Object> entries = null;
+        if (batch.size() > 1) {
+            entries = createHashMap(batch.size());
+            for (PendingStore pendingStore : batch) {
+                pendingStore.objectKey = serializationService.toObject(pendingStore.key);
+                entries.put(pendingStore.objectKey, serializationService.toObject(pendingStore.value));
+            }
+            try {
+                store.storeAll(entries);
+                for (PendingStore pendingStore : batch) {
+                    notifyStored(pendingStore);
+                }
+                return;
+            } catch (Throwable t) {
+                logger.warning("Could not store a batch of " + batch.size() + " entries, storing them one by one", t);
+            }
+        }
+        for (PendingStore pendingStore : batch) {
+            // like in write-behind, the entries which the map store removed from the batch are already stored
+            if (entries == null || entries.containsKey(pendingStore.objectKey)) {
+                try {
+                    store.store(serializationService.toObject(pendingStore.key),
+                            serializationService.toObject(pendingStore.value));
+                } catch (Throwable t) {
+                    notifyFailed(pendingStore, t);
+                    continue;
+                }
+            }
+            notifyStored(pendingStore);
+        }
+    }
+
+    private void notifyStored(PendingStore pendingStore) {
+        try {
+            pendingStore.callback.onResponse(null);
+        } catch (Throwable t) {
+            logger.severe("Failed to notify write-through store callback", t);
+        }
+    }
+
+    private void notifyFailed(PendingStore pendingStore, Throwable cause) {
+        try {
+            pendingStore.callback.onFailure(cause);
+        } catch (Throwable t) {
+            logger.severe("Failed to notify write-through store callback", t);
+        }
+    }
+
+    private static final class PendingStore {
+
+        private final Data key;
+        private final Object value;
+        private final ExecutionCallback<Object> callback;
+        private Object objectKey;
+
+        private PendingStore(Data key, Object value, ExecutionCallback<Object> callback) {
+            this.key = key;
+            this.value = value;
+            this.callback = callback;
+        }
+    }
+}
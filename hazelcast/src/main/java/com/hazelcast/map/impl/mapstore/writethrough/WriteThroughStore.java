@@ -27,8 +27,26 @@ import com.hazelcast.nio.serialization.Data;
  */
 public class WriteThroughStore extends AbstractMapDataStore<Data, Object> {
 
+    private final WriteThroughBatcher batcher;
+
     public WriteThroughStore(MapStoreWrapper store, InternalSerializationService serializationService) {
+        this(store, serializationService, null);
+    }
+
+    public WriteThroughStore(MapStoreWrapper store, InternalSerializationService serializationService,
+                             WriteThroughBatcher batcher) {
         super(store, serializationService);
+        this.batcher = batcher;
+    }
+
+    /**
+     * Returns the batcher which stores entries asynchronously or {@code null}
+     * if entries are stored synchronously.
+     *
+     * @see com.hazelcast.spi.properties.GroupProperty#MAP_WRITE_THROUGH_ASYNC
+     */
+    public WriteThroughBatcher getBatcher() {
+        return batcher;
     }
 
     @Override
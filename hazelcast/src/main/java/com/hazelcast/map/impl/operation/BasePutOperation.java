@@ -97,7 +97,8 @@ public abstract class BasePutOperation extends LockAwareOperation implements Bac
     public Operation getBackupOperation() {
         final Record record = recordStore.getRecord(dataKey);
         final RecordInfo replicationInfo = buildRecordInfo(record);
-        if (isPostProcessing(recordStore)) {
+        if (isPostProcessing(recordStore) || mapContainer.getMapConfig().isValueCompressionEnabled()) {
+            // the stored value is replicated, so compressed values are not compressed again on the backups
             dataValue = mapServiceContext.toData(record.getValue());
         }
         return new PutBackupOperation(name, dataKey, dataValue, replicationInfo, putTransient);
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.spi.ObjectNamespace;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.ServiceNamespace;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the records of a single map partition and creates a {@link MapReplicationOperation}
+ * for each chunk of records, bounded by the given max chunk size.
+ * <p>
+ * The chunks are created lazily, so only a single chunk of the replicated records is held in memory.
+ * This iterator is not thread-safe and it must be used on the partition thread.
+ */
+public class MapReplicationChunkIterator implements Iterator<Operation> {
+
+    private final MapServiceContext mapServiceContext;
+    private final PartitionContainer container;
+    private final ServiceNamespace namespace;
+    private final int replicaIndex;
+    private final long maxChunkSizeInBytes;
+    private final Iterator<Record> records;
+
+    private boolean firstChunk = true;
+
+    public MapReplicationChunkIterator(MapServiceContext mapServiceContext, PartitionContainer container,
+                                       ServiceNamespace namespace, int replicaIndex, long maxChunkSizeInBytes) {
+        this.mapServiceContext = mapServiceContext;
+        this.container = container;
+        this.namespace = namespace;
+        this.replicaIndex = replicaIndex;
+        this.maxChunkSizeInBytes = maxChunkSizeInBytes;
+
+        RecordStore recordStore = container.getExistingRecordStore(((ObjectNamespace) namespace).getObjectName());
+        this.records = recordStore.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        // the first chunk is always sent, even if it is empty, to replace the replica data on the destination
+        return firstChunk || records.hasNext();
+    }
+
+    @Override
+    public Operation next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        Operation operation = new MapReplicationOperation(container, namespace, replicaIndex, records,
+                maxChunkSizeInBytes, firstChunk);
+        operation.setService(mapServiceContext.getService());
+        operation.setNodeEngine(mapServiceContext.getNodeEngine());
+        firstChunk = false;
+        return operation;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() is not supported!");
+    }
+}
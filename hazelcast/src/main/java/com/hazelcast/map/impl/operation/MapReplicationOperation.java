@@ -37,8 +37,11 @@ import com.hazelcast.spi.serialization.SerializationService;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 
 import static com.hazelcast.map.impl.record.Records.buildRecordInfo;
+import static java.util.Collections.singleton;
 
 /**
  * Replicates all IMap-states of this partition to a replica partition.
@@ -69,6 +72,35 @@ public class MapReplicationOperation extends Operation implements IdentifiedData
         this.mapNearCacheStateHolder.prepare(container, namespaces, replicaIndex);
     }
 
+    /**
+     * Creates an operation which replicates a chunk of the records of the given namespace.
+     * Only the first chunk replaces the replica data, the following chunks are appended to it.
+     */
+    MapReplicationOperation(PartitionContainer container, ServiceNamespace namespace, int replicaIndex,
+                            Iterator<Record> records, long maxChunkSizeInBytes, boolean firstChunk) {
+        setPartitionId(container.getPartitionId()).setReplicaIndex(replicaIndex);
+        Collection<ServiceNamespace> namespaces = firstChunk
+                ? singleton(namespace) : Collections.<ServiceNamespace>emptySet();
+        this.mapReplicationStateHolder.prepareChunk(container, namespace, replicaIndex, records, maxChunkSizeInBytes,
+                !firstChunk);
+        this.writeBehindStateHolder.prepare(container, namespaces, replicaIndex);
+        this.mapNearCacheStateHolder.prepare(container, namespaces, replicaIndex);
+    }
+
+    /**
+     * Creates an operation which replicates the records of the given Merkle tree leaves of the namespace.
+     * The records of these leaves are replaced on the replica, the other records are not touched.
+     */
+    public MapReplicationOperation(PartitionContainer container, ServiceNamespace namespace, int replicaIndex,
+                                   int merkleTreeDepth, int[] merkleTreeLeaves) {
+        setPartitionId(container.getPartitionId()).setReplicaIndex(replicaIndex);
+        Collection<ServiceNamespace> namespaces = singleton(namespace);
+        this.mapReplicationStateHolder.prepareLeaves(container, namespace, replicaIndex, merkleTreeDepth,
+                merkleTreeLeaves);
+        this.writeBehindStateHolder.prepare(container, namespaces, replicaIndex);
+        this.mapNearCacheStateHolder.prepare(container, namespaces, replicaIndex);
+    }
+
     @Override
     public void run() {
         mapReplicationStateHolder.applyState();
@@ -19,6 +19,7 @@ package com.hazelcast.map.impl.operation;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.core.Member;
 import com.hazelcast.internal.cluster.ClusterService;
+import com.hazelcast.internal.util.merkletree.MerkleTree;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.PartitionContainer;
@@ -46,6 +47,7 @@ import com.hazelcast.version.Version;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -55,11 +57,13 @@ import java.util.Set;
 
 import static com.hazelcast.instance.BuildInfoProvider.getBuildInfo;
 import static com.hazelcast.internal.cluster.Versions.V3_10;
+import static com.hazelcast.internal.cluster.Versions.V3_11;
 import static com.hazelcast.internal.cluster.Versions.V3_9;
 import static com.hazelcast.map.impl.record.Records.applyRecordInfo;
 import static com.hazelcast.map.impl.record.Records.getValueOrCachedValue;
 import static com.hazelcast.map.impl.recordstore.RecordStore.DEFAULT_TTL;
 import static com.hazelcast.util.MapUtil.createHashMap;
+import static java.util.Collections.singleton;
 
 /**
  * Holder for raw IMap key-value pairs and their metadata.
@@ -96,6 +100,16 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
     // operations, which meant that the index did not include some data.
     protected transient List<MapIndexInfo> mapIndexInfos;
 
+    // records of a single map, set only when the map is replicated in chunks
+    protected transient Collection<RecordReplicationInfo> chunk;
+
+    // when true, the replicated records are appended to the existing replica data instead of replacing it
+    protected boolean appendRecords;
+
+    // when set, only the records of these Merkle tree leaves are replicated and replaced on the replica
+    protected int[] merkleTreeLeaves;
+    protected int merkleTreeDepth;
+
     private transient Address target;
 
     private MapReplicationOperation operation;
@@ -155,6 +169,59 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
         }
     }
 
+    void prepareChunk(PartitionContainer container, ServiceNamespace namespace, int replicaIndex,
+                      Iterator<Record> records, long maxChunkSizeInBytes, boolean appendRecords) {
+        prepare(container, singleton(namespace), replicaIndex);
+        this.appendRecords = appendRecords;
+        this.chunk = new ArrayList<RecordReplicationInfo>();
+
+        RecordStore recordStore = storesByMapName.get(((ObjectNamespace) namespace).getObjectName());
+        if (recordStore == null) {
+            return;
+        }
+
+        SerializationService ss = getSerializationService(recordStore);
+        long chunkSize = 0;
+        while (chunkSize < maxChunkSizeInBytes && records.hasNext()) {
+            RecordReplicationInfo replicationInfo = operation.toReplicationInfo(records.next(), ss);
+            chunk.add(replicationInfo);
+            chunkSize += getSize(replicationInfo);
+        }
+    }
+
+    void prepareLeaves(PartitionContainer container, ServiceNamespace namespace, int replicaIndex,
+                       int merkleTreeDepth, int[] merkleTreeLeaves) {
+        prepare(container, singleton(namespace), replicaIndex);
+        this.appendRecords = true;
+        this.merkleTreeDepth = merkleTreeDepth;
+        this.merkleTreeLeaves = merkleTreeLeaves;
+        this.chunk = new ArrayList<RecordReplicationInfo>();
+
+        RecordStore<Record> recordStore = storesByMapName.get(((ObjectNamespace) namespace).getObjectName());
+        if (recordStore == null || merkleTreeLeaves.length == 0) {
+            return;
+        }
+
+        SerializationService ss = getSerializationService(recordStore);
+        Iterator<Record> iterator = recordStore.iterator();
+        while (iterator.hasNext()) {
+            Record record = iterator.next();
+            if (isInMerkleTreeLeaves(record.getKey())) {
+                chunk.add(operation.toReplicationInfo(record, ss));
+            }
+        }
+    }
+
+    private boolean isInMerkleTreeLeaves(Data key) {
+        int leafOrder = MerkleTree.getLeafOrder(key.hashCode(), merkleTreeDepth);
+        return Arrays.binarySearch(merkleTreeLeaves, leafOrder) >= 0;
+    }
+
+    private static long getSize(RecordReplicationInfo replicationInfo) {
+        Data value = replicationInfo.getValue();
+        return replicationInfo.getKey().totalSize() + (value != null ? value.totalSize() : 0);
+    }
+
     void applyState() {
         ThreadUtil.assertRunningOnPartitionThread();
 
@@ -165,8 +232,12 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
                 Collection<RecordReplicationInfo> recordReplicationInfos = dataEntry.getValue();
                 final String mapName = dataEntry.getKey();
                 RecordStore recordStore = operation.getRecordStore(mapName);
-                recordStore.reset();
-                recordStore.setPreMigrationLoadedStatus(loaded.get(mapName));
+                if (!appendRecords) {
+                    recordStore.reset();
+                    recordStore.setPreMigrationLoadedStatus(loaded.get(mapName));
+                } else if (merkleTreeLeaves != null) {
+                    removeRecordsInMerkleTreeLeaves(recordStore, recordReplicationInfos);
+                }
 
                 MapContainer mapContainer = recordStore.getMapContainer();
                 PartitionContainer partitionContainer = recordStore.getMapContainer().getMapServiceContext()
@@ -180,7 +251,7 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
                 final SerializationService serializationService = mapContainer.getMapServiceContext().getNodeEngine()
                         .getSerializationService();
                 final boolean indexesMustBePopulated = indexesMustBePopulated(indexes, operation);
-                if (indexesMustBePopulated) {
+                if (indexesMustBePopulated && !appendRecords) {
                     // defensively clear possible stale leftovers in non-global indexes from the previous failed promotion attempt
                     indexes.clearContents();
                 }
@@ -212,6 +283,34 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
         }
     }
 
+    /**
+     * Removes the records of the replicated Merkle tree leaves which do not exist on the primary replica anymore.
+     */
+    private void removeRecordsInMerkleTreeLeaves(RecordStore recordStore,
+                                                 Collection<RecordReplicationInfo> recordReplicationInfos) {
+        if (merkleTreeLeaves.length == 0) {
+            return;
+        }
+
+        Set<Data> replicatedKeys = new HashSet<Data>(recordReplicationInfos.size());
+        for (RecordReplicationInfo recordReplicationInfo : recordReplicationInfos) {
+            replicatedKeys.add(recordReplicationInfo.getKey());
+        }
+
+        List<Data> keysToRemove = new ArrayList<Data>();
+        Iterator<Record> iterator = recordStore.iterator();
+        while (iterator.hasNext()) {
+            Data key = iterator.next().getKey();
+            if (isInMerkleTreeLeaves(key) && !replicatedKeys.contains(key)) {
+                keysToRemove.add(key);
+            }
+        }
+
+        for (Data key : keysToRemove) {
+            recordStore.removeBackup(key);
+        }
+    }
+
     private void applyIndexesState() {
         if (mapIndexInfos != null) {
             for (MapIndexInfo mapIndexInfo : mapIndexInfos) {
@@ -264,6 +363,14 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
             SerializationService ss = getSerializationService(recordStore);
 
             out.writeUTF(mapName);
+            if (chunk != null) {
+                out.writeInt(chunk.size());
+                for (RecordReplicationInfo replicationInfo : chunk) {
+                    out.writeObject(replicationInfo);
+                }
+                continue;
+            }
+
             out.writeInt(recordStore.size());
 
             Iterator<Record> iterator = recordStore.iterator();
@@ -287,6 +394,13 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
                 out.writeObject(mapIndexInfo);
             }
         }
+
+        // RU_COMPAT_3_10
+        if (out.getVersion().isGreaterOrEqual(V3_11)) {
+            out.writeBoolean(appendRecords);
+            out.writeIntArray(merkleTreeLeaves);
+            out.writeInt(merkleTreeDepth);
+        }
     }
 
     private static SerializationService getSerializationService(RecordStore recordStore) {
@@ -325,6 +439,13 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
                 mapIndexInfos.add(mapIndexInfo);
             }
         }
+
+        // RU_COMPAT_3_10
+        if (in.getVersion().isGreaterOrEqual(V3_11)) {
+            appendRecords = in.readBoolean();
+            merkleTreeLeaves = in.readIntArray();
+            merkleTreeDepth = in.readInt();
+        }
     }
 
     @Override
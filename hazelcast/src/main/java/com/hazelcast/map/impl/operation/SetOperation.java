@@ -16,17 +16,41 @@
 
 package com.hazelcast.map.impl.operation;
 
+import com.hazelcast.core.ExecutionCallback;
 import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.mapstore.MapDataStore;
+import com.hazelcast.map.impl.mapstore.writethrough.WriteThroughBatcher;
+import com.hazelcast.map.impl.mapstore.writethrough.WriteThroughStore;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.CallStatus;
+import com.hazelcast.spi.Offload;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.OperationAccessor;
+import com.hazelcast.spi.OperationResponseHandler;
+import com.hazelcast.spi.exception.RetryableHazelcastException;
+import com.hazelcast.spi.exception.WrongTargetException;
 import com.hazelcast.spi.impl.MutatingOperation;
+import com.hazelcast.spi.impl.operationservice.impl.responses.CallTimeoutResponse;
+import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
+import com.hazelcast.util.UuidUtil;
 
 import static com.hazelcast.core.EntryEventType.ADDED;
 import static com.hazelcast.core.EntryEventType.UPDATED;
+import static com.hazelcast.spi.InvocationBuilder.DEFAULT_TRY_PAUSE_MILLIS;
+import static com.hazelcast.util.ExceptionUtil.sneakyThrow;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class SetOperation extends BasePutOperation implements MutatingOperation {
 
     private boolean newRecord;
 
+    /**
+     * {@code true} if the store call has been offloaded, in which case
+     * a {@link WriteThroughSetUnlockOperation} updates the record store afterwards.
+     */
+    private transient boolean offloaded;
+
     public SetOperation() {
     }
 
@@ -34,6 +58,30 @@ public class SetOperation extends BasePutOperation implements MutatingOperation
         super(name, dataKey, value, ttl);
     }
 
+    @Override
+    public CallStatus call() throws Exception {
+        if (shouldWait()) {
+            return CallStatus.WAIT;
+        }
+        // like the offloadable entry processors, the store is only offloaded if the key is not locked,
+        // since the key is locked while the entry is stored; a lock holder stores synchronously
+        WriteThroughBatcher batcher = getWriteThroughBatcher();
+        if (batcher != null && !recordStore.isLocked(dataKey)) {
+            recordStore.checkIfLoaded();
+            offloaded = true;
+            return new WriteThroughOffload(batcher);
+        }
+        return super.call();
+    }
+
+    private WriteThroughBatcher getWriteThroughBatcher() {
+        MapDataStore mapDataStore = recordStore.getMapDataStore();
+        if (!(mapDataStore instanceof WriteThroughStore) || isPostProcessing(recordStore)) {
+            return null;
+        }
+        return ((WriteThroughStore) mapDataStore).getBatcher();
+    }
+
     @Override
     public void run() {
         Object oldValue = recordStore.set(dataKey, dataValue, ttl);
@@ -46,6 +94,9 @@ public class SetOperation extends BasePutOperation implements MutatingOperation
 
     @Override
     public void afterRun() {
+        if (offloaded) {
+            return;
+        }
         eventType = newRecord ? ADDED : UPDATED;
 
         super.afterRun();
@@ -55,4 +106,130 @@ public class SetOperation extends BasePutOperation implements MutatingOperation
     public int getId() {
         return MapDataSerializerHook.SET;
     }
+
+    /**
+     * Stores the entry via the {@link WriteThroughBatcher} while the key is locked locally, so all
+     * other operations on the key, including the operations of a lock holder, queue behind the store.
+     * Once the entry is stored, a {@link WriteThroughSetUnlockOperation} puts it into the record store
+     * and unlocks the key. The backups of that operation are acknowledged to the invocation of this
+     * operation.
+     * <p/>
+     * Like for the offloadable entry processors, the lock is local and it is not migrated. If the
+     * partition has been migrated while the entry was stored, the stored entry is put into the map on
+     * the new owner with a {@link PutTransientOperation}, so it is not stored twice.
+     */
+    private final class WriteThroughOffload extends Offload {
+
+        private static final int SET_UNLOCK_FAST_RETRY_LIMIT = 10;
+
+        private final WriteThroughBatcher batcher;
+        // the local locks are not re-entrant, so a random caller keeps the lock apart from the locks of the caller
+        private final String lockCaller = UuidUtil.newUnsecureUuidString();
+
+        private int setUnlockRetryCount;
+
+        private WriteThroughOffload(WriteThroughBatcher batcher) {
+            super(SetOperation.this);
+            this.batcher = batcher;
+        }
+
+        @Override
+        public void start() {
+            if (!recordStore.localLock(dataKey, lockCaller, threadId, getCallId(), -1)) {
+                // should not happen since the key is not locked and we are on the partition thread
+                throw new IllegalStateException("Could not lock the key for the write-through store");
+            }
+            try {
+                batcher.store(dataKey, dataValue, new ExecutionCallback<Object>() {
+                    @Override
+                    public void onResponse(Object response) {
+                        setAndUnlock(true, null);
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        setAndUnlock(false, t);
+                    }
+                });
+            } catch (Throwable t) {
+                recordStore.unlock(dataKey, lockCaller, threadId, getCallId());
+                sneakyThrow(t);
+            }
+        }
+
+        private void setAndUnlock(final boolean stored, final Throwable storeFailure) {
+            Operation operation = new WriteThroughSetUnlockOperation(name, dataKey, dataValue, ttl, lockCaller,
+                    threadId, stored);
+            operation.setPartitionId(getPartitionId());
+            operation.setReplicaIndex(0);
+            operation.setNodeEngine(nodeEngine);
+            operation.setCallerUuid(getCallerUuid());
+            OperationAccessor.setCallerAddress(operation, getCallerAddress());
+            // the backup acks are sent to the invocation of the set operation
+            OperationAccessor.setCallId(operation, getCallId());
+            operation.setOperationResponseHandler(new OperationResponseHandler() {
+                @Override
+                public void sendResponse(Operation op, Object response) {
+                    if (isRetryable(response)) {
+                        retry(op);
+                    } else if (storeFailure != null) {
+                        SetOperation.this.sendResponse(storeFailure);
+                    } else if (response instanceof WrongTargetException || isNotLocked(response)) {
+                        putStored();
+                    } else if (response instanceof NormalResponse) {
+                        NormalResponse normalResponse = (NormalResponse) response;
+                        SetOperation.this.sendResponse(new NormalResponse(null, getCallId(),
+                                normalResponse.getBackupAcks(), isUrgent()));
+                    } else if (response instanceof Throwable) {
+                        SetOperation.this.sendResponse(response);
+                    } else {
+                        SetOperation.this.sendResponse(null);
+                    }
+                }
+            });
+            operationService.execute(operation);
+        }
+
+        private boolean isRetryable(Object response) {
+            return response instanceof CallTimeoutResponse
+                    || response instanceof RetryableHazelcastException && !(response instanceof WrongTargetException);
+        }
+
+        private boolean isNotLocked(Object response) {
+            Object value = response instanceof NormalResponse ? ((NormalResponse) response).getValue() : response;
+            return Boolean.FALSE.equals(value);
+        }
+
+        private void retry(final Operation op) {
+            setUnlockRetryCount++;
+            if (setUnlockRetryCount > SET_UNLOCK_FAST_RETRY_LIMIT) {
+                executionService.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        operationService.execute(op);
+                    }
+                }, DEFAULT_TRY_PAUSE_MILLIS, MILLISECONDS);
+            } else {
+                operationService.execute(op);
+            }
+        }
+
+        private void putStored() {
+            PutTransientOperation operation = new PutTransientOperation(name, dataKey, dataValue, ttl);
+            operation.setThreadId(threadId);
+            operation.setCallerUuid(getCallerUuid());
+            operationService.invokeOnPartition(MapService.SERVICE_NAME, operation, getPartitionId())
+                    .andThen(new ExecutionCallback<Object>() {
+                        @Override
+                        public void onResponse(Object response) {
+                            sendResponse(null);
+                        }
+
+                        @Override
+                        public void onFailure(Throwable t) {
+                            sendResponse(t);
+                        }
+                    });
+        }
+    }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.concurrent.lock.LockWaitNotifyKey;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.Notifier;
+import com.hazelcast.spi.WaitNotifyKey;
+
+import java.io.IOException;
+
+/**
+ * Set & Unlock processing for the asynchronous write-through of a {@link SetOperation}.
+ * <p/>
+ * The {@link SetOperation} locks the key locally while its entry is stored, so the operations
+ * on the key queue behind the store. Once the entry is stored, this operation puts it into the
+ * record store without storing it again and unlocks the key. If the store failed, it only
+ * unlocks the key.
+ * <p/>
+ * The response is {@code false} if the key is no longer locked by the {@link SetOperation},
+ * e.g. since the partition has been migrated in the meantime. In that case nothing is changed.
+ */
+public class WriteThroughSetUnlockOperation extends PutTransientOperation implements Notifier {
+
+    private String caller;
+    private boolean stored;
+
+    private transient boolean locked;
+
+    public WriteThroughSetUnlockOperation() {
+    }
+
+    public WriteThroughSetUnlockOperation(String name, Data dataKey, Data value, long ttl, String caller,
+                                          long threadId, boolean stored) {
+        super(name, dataKey, value, ttl);
+        this.caller = caller;
+        this.stored = stored;
+        this.setThreadId(threadId);
+    }
+
+    @Override
+    public boolean shouldWait() {
+        // the key is locked by the set operation this operation is part of
+        return false;
+    }
+
+    @Override
+    public void run() {
+        locked = recordStore.isLockedBy(dataKey, caller, threadId);
+        if (!locked) {
+            return;
+        }
+        try {
+            if (stored) {
+                super.run();
+            }
+        } finally {
+            recordStore.unlock(dataKey, caller, threadId, getCallId());
+        }
+    }
+
+    @Override
+    public void afterRun() {
+        if (locked && stored) {
+            super.afterRun();
+        }
+    }
+
+    @Override
+    public boolean shouldBackup() {
+        return locked && stored && super.shouldBackup();
+    }
+
+    @Override
+    public Object getResponse() {
+        return locked;
+    }
+
+    @Override
+    public boolean shouldNotify() {
+        return locked;
+    }
+
+    @Override
+    public WaitNotifyKey getNotifiedKey() {
+        return new LockWaitNotifyKey(getServiceNamespace(), dataKey);
+    }
+
+    @Override
+    public int getId() {
+        return MapDataSerializerHook.WRITE_THROUGH_SET_UNLOCK;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeUTF(caller);
+        out.writeBoolean(stored);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        caller = in.readUTF();
+        stored = in.readBoolean();
+    }
+}
@@ -37,6 +37,7 @@ import com.hazelcast.map.impl.querycache.subscriber.SubscriberContext;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.SerializableByConvention;
+import com.hazelcast.spi.ExecutionService;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.util.ContextMutexFactory;
@@ -44,6 +45,7 @@ import com.hazelcast.util.ContextMutexFactory;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import static com.hazelcast.core.LifecycleEvent.LifecycleState.SHUTTING_DOWN;
 
@@ -132,6 +134,11 @@ public class NodeQueryCacheContext implements QueryCacheContext {
         return queryCacheScheduler;
     }
 
+    @Override
+    public Executor getPopulationExecutor() {
+        return nodeEngine.getExecutionService().getExecutor(ExecutionService.QUERY_CACHE_POPULATION_EXECUTOR);
+    }
+
     @Override
     public InternalSerializationService getSerializationService() {
         return (InternalSerializationService) nodeEngine.getSerializationService();
@@ -25,6 +25,7 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.util.ContextMutexFactory;
 
 import java.util.Collection;
+import java.util.concurrent.Executor;
 
 /**
  * A global context which contains all sub-contexts which are responsible for all
@@ -86,6 +87,15 @@ public interface QueryCacheContext {
      */
     QueryCacheScheduler getQueryCacheScheduler();
 
+    /**
+     * Returns the executor which populates new query caches with the results
+     * of their initial queries in parallel.
+     *
+     * @return executor for query cache population tasks.
+     * @see com.hazelcast.map.impl.querycache.subscriber.QueryCachePopulator
+     */
+    Executor getPopulationExecutor();
+
     /**
      * Returns member list of the cluster. This will be used to send operations to all nodes.
      *
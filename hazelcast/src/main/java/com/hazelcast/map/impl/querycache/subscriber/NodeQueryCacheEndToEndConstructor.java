@@ -16,27 +16,28 @@
 
 package com.hazelcast.map.impl.querycache.subscriber;
 
-import com.hazelcast.core.EntryEventType;
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.core.ICompletableFuture;
 import com.hazelcast.core.Member;
 import com.hazelcast.map.impl.query.QueryResult;
-import com.hazelcast.map.impl.query.QueryResultRow;
 import com.hazelcast.map.impl.querycache.InvokerWrapper;
 import com.hazelcast.map.impl.querycache.accumulator.AccumulatorInfo;
 import com.hazelcast.map.impl.querycache.subscriber.operation.MadePublishableOperation;
 import com.hazelcast.map.impl.querycache.subscriber.operation.PublisherCreateOperation;
 import com.hazelcast.nio.Address;
-import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.Operation;
-import com.hazelcast.util.ExceptionUtil;
+import com.hazelcast.util.Clock;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-import static com.hazelcast.util.FutureUtil.returnWithDeadline;
 import static com.hazelcast.util.FutureUtil.waitWithDeadline;
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 
 /**
@@ -53,8 +54,8 @@ public class NodeQueryCacheEndToEndConstructor extends AbstractQueryCacheEndToEn
     @Override
     public void createPublisherAccumulator(AccumulatorInfo info) throws Exception {
         // create publishers and execute initial population query in one go
-        Collection<QueryResult> results = createPublishersAndGetQueryResults(info);
-        setResults(queryCache, results);
+        List<ICompletableFuture<QueryResult>> futures = createPublishers(info);
+        populate(futures);
         boolean populate = info.isPopulate();
 
         if (logger.isFinestEnabled()) {
@@ -66,16 +67,49 @@ public class NodeQueryCacheEndToEndConstructor extends AbstractQueryCacheEndToEn
         }
     }
 
-    private Collection<QueryResult> createPublishersAndGetQueryResults(AccumulatorInfo info) {
+    private List<ICompletableFuture<QueryResult>> createPublishers(AccumulatorInfo info) {
         InvokerWrapper invokerWrapper = context.getInvokerWrapper();
         Collection<Member> members = context.getMemberList();
-        List<Future<QueryResult>> futures = new ArrayList<Future<QueryResult>>(members.size());
+        List<ICompletableFuture<QueryResult>> futures = new ArrayList<ICompletableFuture<QueryResult>>(members.size());
         for (Member member : members) {
             Address address = member.getAddress();
             Future future = invokerWrapper.invokeOnTarget(new PublisherCreateOperation(info), address);
-            futures.add(future);
+            futures.add((ICompletableFuture<QueryResult>) future);
         }
-        return returnWithDeadline(futures, OPERATION_WAIT_TIMEOUT_MINUTES, MINUTES);
+        return futures;
+    }
+
+    /**
+     * Adds the query result of each member to the query cache as soon as it is
+     * received, in the order the members respond. The entries of the results are
+     * added in parallel by a {@link QueryCachePopulator}. A failed or late result
+     * is ignored, like the results of the other end-to-end operations.
+     */
+    private void populate(List<ICompletableFuture<QueryResult>> futures) {
+        QueryCachePopulator populator = new QueryCachePopulator(queryCache, includeValue, context.getPopulationExecutor());
+        long deadline = Clock.currentTimeMillis() + MINUTES.toMillis(OPERATION_WAIT_TIMEOUT_MINUTES);
+        CountDownLatch handedOver = new CountDownLatch(futures.size());
+        AtomicBoolean closed = new AtomicBoolean();
+        for (ICompletableFuture<QueryResult> future : futures) {
+            future.andThen(new PopulatingCallback(populator, handedOver, closed));
+        }
+        try {
+            if (!handedOver.await(remainingMillis(deadline), MILLISECONDS)) {
+                logger.warning(format("Not all members sent the initial results of query cache %s in time",
+                        queryCache.getName()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (closed) {
+                closed.set(true);
+            }
+        }
+        populator.await(remainingMillis(deadline), MILLISECONDS);
+    }
+
+    private static long remainingMillis(long deadline) {
+        return Math.max(0, deadline - Clock.currentTimeMillis());
     }
 
     private void madePublishable(String mapName, String cacheId) throws Exception {
@@ -92,50 +126,42 @@ public class NodeQueryCacheEndToEndConstructor extends AbstractQueryCacheEndToEn
         waitWithDeadline(futures, OPERATION_WAIT_TIMEOUT_MINUTES, MINUTES);
     }
 
-    private void setResults(InternalQueryCache queryCache, Collection<QueryResult> results) {
-        if (results == null || results.isEmpty()) {
-            return;
+    /**
+     * Hands the initial query result of a member over to the populator, unless the population has already ended.
+     */
+    private final class PopulatingCallback implements ExecutionCallback<QueryResult> {
+        private final QueryCachePopulator populator;
+        private final CountDownLatch handedOver;
+        private final AtomicBoolean closed;
+
+        PopulatingCallback(QueryCachePopulator populator, CountDownLatch handedOver, AtomicBoolean closed) {
+            this.populator = populator;
+            this.handedOver = handedOver;
+            this.closed = closed;
         }
 
-        //todo: afaik no switch is needed since queryresults will not contain value if it wasn't requested.
-        if (includeValue) {
-            populateWithValues(queryCache, results);
-        } else {
-            populateWithoutValues(queryCache, results);
-        }
-    }
-
-    private void populateWithValues(InternalQueryCache queryCache, Collection<QueryResult> resultSets) {
-        for (QueryResult queryResult : resultSets) {
+        @Override
+        public void onResponse(QueryResult result) {
             try {
-                if (queryResult == null || queryResult.isEmpty()) {
-                    continue;
+                if (result != null && !result.isEmpty()) {
+                    // the population must not be closed while the result is handed over
+                    synchronized (closed) {
+                        if (!closed.get()) {
+                            populator.addEntries(result.getRows());
+                        }
+                    }
                 }
-                for (QueryResultRow row : queryResult) {
-                    Data keyData = row.getKey();
-                    Data valueData = row.getValue();
-                    queryCache.setInternal(keyData, valueData, false, EntryEventType.ADDED);
-                }
-            } catch (Throwable t) {
-                throw ExceptionUtil.rethrow(t);
+            } finally {
+                handedOver.countDown();
             }
         }
 
-    }
-
-    private void populateWithoutValues(InternalQueryCache queryCache, Collection<QueryResult> resultSets) {
-        for (QueryResult queryResult : resultSets) {
-            try {
-                if (queryResult == null) {
-                    continue;
-                }
-                for (QueryResultRow row : queryResult) {
-                    Data dataKey = row.getKey();
-                    queryCache.setInternal(dataKey, null, false, EntryEventType.ADDED);
-                }
-            } catch (Throwable t) {
-                throw ExceptionUtil.rethrow(t);
+        @Override
+        public void onFailure(Throwable t) {
+            if (logger.isFinestEnabled()) {
+                logger.finest("Initial query of query cache " + queryCache.getName() + " failed on a member", t);
             }
+            handedOver.countDown();
         }
     }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.querycache.subscriber;
+
+import com.hazelcast.core.EntryEventType;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.util.FutureUtil.RETHROW_EVERYTHING;
+import static com.hazelcast.util.FutureUtil.waitWithDeadline;
+
+/**
+ * Populates a new {@link InternalQueryCache} with the results of its initial query.
+ * <p>
+ * The results are split into chunks which are added to the query cache in parallel
+ * by the given executor, so that the record store and the indexes of the query cache
+ * are filled by several threads. Results can be added as soon as they are received
+ * from a member, while the results of other members are still awaited. If the executor
+ * rejects a chunk, it is added by the calling thread.
+ * <p>
+ * Multiple threads can add results at a time.
+ */
+public class QueryCachePopulator {
+
+    /**
+     * Maximum number of entries added to the query cache by a single task.
+     */
+    static final int CHUNK_SIZE = 10000;
+
+    private final InternalQueryCache queryCache;
+    private final boolean includeValue;
+    private final Executor executor;
+    private final List<Future> chunks = new ArrayList<Future>();
+
+    public QueryCachePopulator(InternalQueryCache queryCache, boolean includeValue, Executor executor) {
+        this.queryCache = queryCache;
+        this.includeValue = includeValue;
+        this.executor = executor;
+    }
+
+    /**
+     * Adds the given key-value pairs to the query cache.
+     *
+     * @param entries the entries to add, the values are ignored if the query cache does not include values
+     */
+    public void addEntries(Collection<? extends Map.Entry<Data, Data>> entries) {
+        List<? extends Map.Entry<Data, Data>> entryList = toList(entries);
+        for (int from = 0; from < entryList.size(); from += CHUNK_SIZE) {
+            final List<? extends Map.Entry<Data, Data>> chunk
+                    = entryList.subList(from, Math.min(from + CHUNK_SIZE, entryList.size()));
+            addChunk(new Runnable() {
+                @Override
+                public void run() {
+                    for (Map.Entry<Data, Data> entry : chunk) {
+                        Data valueData = includeValue ? entry.getValue() : null;
+                        queryCache.setInternal(entry.getKey(), valueData, false, EntryEventType.ADDED);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Adds the given keys to the query cache, which does not include values.
+     *
+     * @param keys the keys to add
+     */
+    public void addKeys(Collection<Data> keys) {
+        List<Data> keyList = toList(keys);
+        for (int from = 0; from < keyList.size(); from += CHUNK_SIZE) {
+            final List<Data> chunk = keyList.subList(from, Math.min(from + CHUNK_SIZE, keyList.size()));
+            addChunk(new Runnable() {
+                @Override
+                public void run() {
+                    for (Data keyData : chunk) {
+                        queryCache.setInternal(keyData, null, false, EntryEventType.ADDED);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Waits until all results added so far are in the query cache.
+     *
+     * @param timeout  the maximum time to wait
+     * @param timeUnit the unit of the timeout
+     * @throws com.hazelcast.core.HazelcastException if adding an entry failed or the wait timed out
+     */
+    public void await(long timeout, TimeUnit timeUnit) {
+        List<Future> futures;
+        synchronized (chunks) {
+            futures = new ArrayList<Future>(chunks);
+        }
+        waitWithDeadline(futures, timeout, timeUnit, RETHROW_EVERYTHING);
+    }
+
+    private static <T> List<T> toList(Collection<T> collection) {
+        return collection instanceof List ? (List<T>) collection : new ArrayList<T>(collection);
+    }
+
+    private void addChunk(Runnable chunk) {
+        FutureTask<Object> task = new FutureTask<Object>(chunk, null);
+        synchronized (chunks) {
+            chunks.add(task);
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+}
@@ -19,6 +19,8 @@ package com.hazelcast.map.impl.record;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.serialization.SerializationService;
 
+import static com.hazelcast.internal.serialization.impl.DataCompressor.decompress;
+
 public class DataRecordComparator implements RecordComparator {
 
     private final SerializationService serializationService;
@@ -36,8 +38,9 @@ public class DataRecordComparator implements RecordComparator {
             return false;
         }
         // the PartitioningStrategy is not needed here, since `Data.equals()` only checks the payload, not the partitionHash
-        Data data1 = serializationService.toData(value1);
-        Data data2 = serializationService.toData(value2);
+        // compressed values are decompressed, so they are comparable with the uncompressed ones
+        Data data1 = decompress(serializationService.toData(value1));
+        Data data2 = decompress(serializationService.toData(value2));
         return data1.equals(data2);
     }
 }
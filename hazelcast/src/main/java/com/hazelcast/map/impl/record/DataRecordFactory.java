@@ -22,26 +22,39 @@ import com.hazelcast.core.PartitioningStrategy;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.serialization.SerializationService;
 
+import static com.hazelcast.internal.serialization.impl.DataCompressor.compress;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_VALUE_COMPRESSION_MIN_SIZE;
+import static java.lang.Integer.parseInt;
+
 public class DataRecordFactory implements RecordFactory<Data> {
 
     private final SerializationService serializationService;
     private final PartitioningStrategy partitionStrategy;
     private final CacheDeserializedValues cacheDeserializedValues;
     private final boolean statisticsEnabled;
+    private final boolean valueCompressionEnabled;
+    private final int valueCompressionMinSize;
 
     public DataRecordFactory(MapConfig config, SerializationService serializationService,
                              PartitioningStrategy partitionStrategy) {
+        this(config, serializationService, partitionStrategy, parseInt(MAP_VALUE_COMPRESSION_MIN_SIZE.getDefaultValue()));
+    }
+
+    public DataRecordFactory(MapConfig config, SerializationService serializationService,
+                             PartitioningStrategy partitionStrategy, int valueCompressionMinSize) {
         this.serializationService = serializationService;
         this.partitionStrategy = partitionStrategy;
         this.statisticsEnabled = config.isStatisticsEnabled();
         this.cacheDeserializedValues = config.getCacheDeserializedValues();
+        this.valueCompressionEnabled = config.isValueCompressionEnabled();
+        this.valueCompressionMinSize = valueCompressionMinSize;
     }
 
     @Override
     public Record<Data> newRecord(Object value) {
         assert value != null : "value can not be null";
 
-        final Data data = serializationService.toData(value, partitionStrategy);
+        final Data data = toStoredData(value);
         switch (cacheDeserializedValues) {
             case NEVER:
                 return statisticsEnabled ? new DataRecordWithStats(data) : new DataRecord(data);
@@ -54,12 +67,12 @@ public class DataRecordFactory implements RecordFactory<Data> {
     public void setValue(Record<Data> record, Object value) {
         assert value != null : "value can not be null";
 
-        final Data v;
-        if (value instanceof Data) {
-            v = (Data) value;
-        } else {
-            v = serializationService.toData(value, partitionStrategy);
-        }
-        record.setValue(v);
+        record.setValue(toStoredData(value));
+    }
+
+    private Data toStoredData(Object value) {
+        Data data = value instanceof Data ? (Data) value : serializationService.toData(value, partitionStrategy);
+        // already compressed data, e.g. received by a backup, is stored as it is
+        return valueCompressionEnabled ? compress(data, valueCompressionMinSize) : data;
     }
 }
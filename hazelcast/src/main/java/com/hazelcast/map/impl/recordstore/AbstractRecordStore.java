@@ -19,6 +19,7 @@ package com.hazelcast.map.impl.recordstore;
 import com.hazelcast.concurrent.lock.LockService;
 import com.hazelcast.concurrent.lock.LockStore;
 import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.internal.util.merkletree.MerkleTree;
 import com.hazelcast.map.impl.EntryCostEstimator;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapService;
@@ -36,6 +37,7 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.properties.GroupProperty;
 import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.Clock;
 
@@ -64,6 +66,7 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     protected final LocalRecordStoreStatsImpl stats = new LocalRecordStoreStatsImpl();
 
     protected Storage<Data, Record> storage;
+    protected MerkleTree merkleTree;
 
     protected AbstractRecordStore(MapContainer mapContainer, int partitionId) {
         this.name = mapContainer.getName();
@@ -88,6 +91,24 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     @Override
     public void init() {
         this.storage = createStorage(recordFactory, inMemoryFormat);
+        this.merkleTree = createMerkleTree();
+    }
+
+    private MerkleTree createMerkleTree() {
+        int depth = mapServiceContext.getNodeEngine().getProperties().getInteger(GroupProperty.MAP_MERKLE_TREE_DEPTH);
+        // record hashes are computed from the serialized values, so the tree is maintained only for BINARY format
+        if (depth == 0 || inMemoryFormat != InMemoryFormat.BINARY || !(storage instanceof StorageImpl)) {
+            return null;
+        }
+
+        MerkleTree tree = new MerkleTree(depth);
+        ((StorageImpl) storage).setMerkleTree(tree);
+        return tree;
+    }
+
+    @Override
+    public MerkleTree getMerkleTree() {
+        return merkleTree;
     }
 
     @Override
@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.recordstore;
 
 import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.internal.util.merkletree.MerkleTree;
 import com.hazelcast.core.EntryView;
 import com.hazelcast.internal.nearcache.impl.invalidation.InvalidationQueue;
 import com.hazelcast.map.impl.MapContainer;
@@ -478,4 +479,13 @@ public interface RecordStore<R extends Record> {
      * for this map.
      */
     boolean hasQueryCache();
+
+    /**
+     * Returns the Merkle tree of the records of this record store which is
+     * used for detecting the differences between the partition replicas.
+     *
+     * @return the Merkle tree or {@code null} if it is not maintained
+     * @see com.hazelcast.spi.properties.GroupProperty#MAP_MERKLE_TREE_DEPTH
+     */
+    MerkleTree getMerkleTree();
 }
@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.recordstore;
 
 import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.internal.util.merkletree.MerkleTree;
 import com.hazelcast.map.impl.EntryCostEstimator;
 import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
 import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
@@ -47,6 +48,8 @@ public class StorageImpl<R extends Record> implements Storage<Data, R> {
 
     // not final for testing purposes.
     private EntryCostEstimator<Data, Record> entryCostEstimator;
+    // tree of record hashes, only maintained when set
+    private MerkleTree merkleTree;
 
     StorageImpl(RecordFactory<R> recordFactory, InMemoryFormat inMemoryFormat, SerializationService serializationService) {
         this.recordFactory = recordFactory;
@@ -59,6 +62,9 @@ public class StorageImpl<R extends Record> implements Storage<Data, R> {
         records.clear();
 
         entryCostEstimator.reset();
+        if (merkleTree != null) {
+            merkleTree.clear();
+        }
     }
 
     @Override
@@ -77,6 +83,7 @@ public class StorageImpl<R extends Record> implements Storage<Data, R> {
         ((AbstractRecord) record).setKey(key);
 
         R previousRecord = records.put(key, record);
+        updateMerkleTree(key, previousRecord, record);
 
         if (previousRecord == null) {
             updateCostEstimate(entryCostEstimator.calculateEntryCost(key, record));
@@ -89,10 +96,14 @@ public class StorageImpl<R extends Record> implements Storage<Data, R> {
     @Override
     public void updateRecordValue(Data key, R record, Object value) {
         updateCostEstimate(-entryCostEstimator.calculateValueCost(record));
+        int oldValueHash = merkleTree != null ? valueHash(record) : 0;
 
         recordFactory.setValue(record, value);
 
         updateCostEstimate(entryCostEstimator.calculateValueCost(record));
+        if (merkleTree != null) {
+            merkleTree.updateReplace(key.hashCode(), oldValueHash, valueHash(record));
+        }
     }
 
     @Override
@@ -137,6 +148,7 @@ public class StorageImpl<R extends Record> implements Storage<Data, R> {
 
         Data key = record.getKey();
         records.remove(key);
+        updateMerkleTree(key, record, null);
 
         updateCostEstimate(-entryCostEstimator.calculateEntryCost(key, record));
     }
@@ -149,6 +161,33 @@ public class StorageImpl<R extends Record> implements Storage<Data, R> {
         this.entryCostEstimator = entryCostEstimator;
     }
 
+    /**
+     * Sets the Merkle tree to be updated on each mutation of this storage. The tree must describe the current content of
+     * this storage, so it should be set while the storage is empty.
+     */
+    public void setMerkleTree(MerkleTree merkleTree) {
+        this.merkleTree = merkleTree;
+    }
+
+    private void updateMerkleTree(Data key, R oldRecord, R newRecord) {
+        if (merkleTree == null || oldRecord == newRecord) {
+            return;
+        }
+
+        int keyHash = key.hashCode();
+        if (oldRecord != null) {
+            merkleTree.updateRemove(keyHash, valueHash(oldRecord));
+        }
+        if (newRecord != null) {
+            merkleTree.updateAdd(keyHash, valueHash(newRecord));
+        }
+    }
+
+    private static int valueHash(Record record) {
+        Object value = record.getValue();
+        return value != null ? value.hashCode() : 0;
+    }
+
     @Override
     public void disposeDeferredBlocks() {
         // NOP intentionally.
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.journal;
+
+import com.hazelcast.nio.serialization.Data;
+
+/**
+ * An event of the map event journal which also exposes the serialized
+ * key and values of the event.
+ * <p>
+ * The events passed to the predicate and the projection of an event
+ * journal read implement this interface. The key and values of an event
+ * are only deserialized when they are accessed through the methods of
+ * {@link EventJournalMapEvent}, so a predicate or projection working on the
+ * serialized form, e.g. comparing the key to a serialized key or returning
+ * the serialized new value, doesn't deserialize the event at all.
+ *
+ * @param <K> the entry key type
+ * @param <V> the entry value type
+ * @since 3.11
+ */
+public interface DataAwareEventJournalMapEvent<K, V> extends EventJournalMapEvent<K, V> {
+
+    /**
+     * Returns the serialized key of the event entry.
+     *
+     * @return the serialized entry key
+     */
+    Data getDataKey();
+
+    /**
+     * Returns the serialized new value of the event entry.
+     *
+     * @return the serialized new value, {@code null} if there is no new value
+     * @see #getNewValue()
+     */
+    Data getDataNewValue();
+
+    /**
+     * Returns the serialized old value of the event entry.
+     *
+     * @return the serialized old value, {@code null} if there is no old value
+     * @see #getOldValue()
+     */
+    Data getDataOldValue();
+}
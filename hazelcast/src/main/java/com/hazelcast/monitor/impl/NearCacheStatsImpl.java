@@ -18,10 +18,12 @@ package com.hazelcast.monitor.impl;
 
 import com.eclipsesource.json.JsonObject;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.StripedCounter;
 import com.hazelcast.monitor.NearCacheStats;
 
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
+import static com.hazelcast.internal.util.counters.StripedCounter.newStripedCounter;
 import static com.hazelcast.util.JsonUtil.getLong;
 import static com.hazelcast.util.JsonUtil.getString;
 import static java.lang.String.format;
@@ -36,10 +38,6 @@ public class NearCacheStatsImpl implements NearCacheStats {
             newUpdater(NearCacheStatsImpl.class, "ownedEntryCount");
     private static final AtomicLongFieldUpdater<NearCacheStatsImpl> OWNED_ENTRY_MEMORY_COST =
             newUpdater(NearCacheStatsImpl.class, "ownedEntryMemoryCost");
-    private static final AtomicLongFieldUpdater<NearCacheStatsImpl> HITS =
-            newUpdater(NearCacheStatsImpl.class, "hits");
-    private static final AtomicLongFieldUpdater<NearCacheStatsImpl> MISSES =
-            newUpdater(NearCacheStatsImpl.class, "misses");
     private static final AtomicLongFieldUpdater<NearCacheStatsImpl> EVICTIONS =
             newUpdater(NearCacheStatsImpl.class, "evictions");
     private static final AtomicLongFieldUpdater<NearCacheStatsImpl> EXPIRATIONS =
@@ -57,10 +55,9 @@ public class NearCacheStatsImpl implements NearCacheStats {
     private volatile long ownedEntryCount;
     @Probe
     private volatile long ownedEntryMemoryCost;
-    @Probe
-    private volatile long hits;
-    @Probe
-    private volatile long misses;
+    // hits and misses are incremented on every Near Cache read, so they are striped to avoid contention
+    private final StripedCounter hits = newStripedCounter();
+    private final StripedCounter misses = newStripedCounter();
     @Probe
     private volatile long evictions;
     @Probe
@@ -92,8 +89,8 @@ public class NearCacheStatsImpl implements NearCacheStats {
         creationTime = stats.creationTime;
         ownedEntryCount = stats.ownedEntryCount;
         ownedEntryMemoryCost = stats.ownedEntryMemoryCost;
-        hits = stats.hits;
-        misses = stats.misses;
+        hits.set(stats.getHits());
+        misses.set(stats.getMisses());
         evictions = stats.evictions;
         expirations = stats.expirations;
         invalidations = stats.invalidations;
@@ -146,36 +143,40 @@ public class NearCacheStatsImpl implements NearCacheStats {
         OWNED_ENTRY_MEMORY_COST.addAndGet(this, -ownedEntryMemoryCost);
     }
 
+    @Probe
     @Override
     public long getHits() {
-        return hits;
+        return hits.get();
     }
 
     // just for testing
     void setHits(long hits) {
-        HITS.set(this, hits);
+        this.hits.set(hits);
     }
 
     public void incrementHits() {
-        HITS.incrementAndGet(this);
+        hits.inc();
     }
 
+    @Probe
     @Override
     public long getMisses() {
-        return misses;
+        return misses.get();
     }
 
     // just for testing
     void setMisses(long misses) {
-        MISSES.set(this, misses);
+        this.misses.set(misses);
     }
 
     public void incrementMisses() {
-        MISSES.incrementAndGet(this);
+        misses.inc();
     }
 
     @Override
     public double getRatio() {
+        long hits = getHits();
+        long misses = getMisses();
         if (misses == 0) {
             if (hits == 0) {
                 return Double.NaN;
@@ -288,8 +289,8 @@ public class NearCacheStatsImpl implements NearCacheStats {
         root.add("ownedEntryCount", ownedEntryCount);
         root.add("ownedEntryMemoryCost", ownedEntryMemoryCost);
         root.add("creationTime", creationTime);
-        root.add("hits", hits);
-        root.add("misses", misses);
+        root.add("hits", getHits());
+        root.add("misses", getMisses());
         root.add("evictions", evictions);
         root.add("expirations", expirations);
         root.add("invalidations", invalidations);
@@ -308,8 +309,8 @@ public class NearCacheStatsImpl implements NearCacheStats {
         ownedEntryCount = getLong(json, "ownedEntryCount", -1L);
         ownedEntryMemoryCost = getLong(json, "ownedEntryMemoryCost", -1L);
         creationTime = getLong(json, "creationTime", -1L);
-        hits = getLong(json, "hits", -1L);
-        misses = getLong(json, "misses", -1L);
+        hits.set(getLong(json, "hits", -1L));
+        misses.set(getLong(json, "misses", -1L));
         evictions = getLong(json, "evictions", -1L);
         expirations = getLong(json, "expirations", -1L);
         invalidations = getLong(json, "invalidations", -1L);
@@ -328,8 +329,8 @@ public class NearCacheStatsImpl implements NearCacheStats {
                 + "ownedEntryCount=" + ownedEntryCount
                 + ", ownedEntryMemoryCost=" + ownedEntryMemoryCost
                 + ", creationTime=" + creationTime
-                + ", hits=" + hits
-                + ", misses=" + misses
+                + ", hits=" + getHits()
+                + ", misses=" + getMisses()
                 + ", ratio=" + format("%.1f%%", getRatio())
                 + ", evictions=" + evictions
                 + ", expirations=" + expirations
@@ -18,6 +18,7 @@ package com.hazelcast.nio;
 
 import com.hazelcast.internal.networking.OutboundFrame;
 import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
 import com.hazelcast.spi.annotation.PrivateApi;
 
 import static com.hazelcast.nio.PacketIOHelper.HEADER_SIZE;
@@ -108,6 +109,11 @@ public final class Packet extends HeapData implements OutboundFrame {
     private int partitionId;
     private transient Connection conn;
 
+    // only set when the payload is borrowed from a pool; the pooled array is usually larger than its content,
+    // so then the size is tracked separately.
+    private transient ByteArrayPool payloadPool;
+    private transient int pooledPayloadSize;
+
     public Packet() {
     }
 
@@ -120,6 +126,25 @@ public final class Packet extends HeapData implements OutboundFrame {
         this.partitionId = partitionId;
     }
 
+    /**
+     * Creates a Packet with a payload borrowed from the given pool. Only the first {@code payloadSize} bytes of the
+     * payload are part of the packet.
+     *
+     * The payload is returned to the pool by {@link #releasePayload()} once the packet has been written, so such a
+     * packet can't be shared between multiple connections.
+     *
+     * @param payload     the pooled payload
+     * @param payloadSize the number of bytes in use
+     * @param partitionId the partition ID
+     * @param payloadPool the pool the payload was taken from
+     */
+    public Packet(byte[] payload, int payloadSize, int partitionId, ByteArrayPool payloadPool) {
+        super(payload);
+        this.partitionId = partitionId;
+        this.payloadPool = payloadPool;
+        this.pooledPayloadSize = payloadSize;
+    }
+
     /**
      * Gets the Connection this Packet was send with.
      *
@@ -217,6 +242,28 @@ public final class Packet extends HeapData implements OutboundFrame {
         return isFlagRaised(FLAG_URGENT);
     }
 
+    /**
+     * Returns the payload to the pool it was borrowed from. After this call the packet has no payload anymore.
+     *
+     * Has no effect if the payload isn't pooled.
+     */
+    public void releasePayload() {
+        ByteArrayPool pool = payloadPool;
+        if (pool == null) {
+            return;
+        }
+        byte[] bytes = payload;
+        payload = null;
+        payloadPool = null;
+        pooledPayloadSize = 0;
+        pool.release(bytes);
+    }
+
+    @Override
+    public int totalSize() {
+        return payloadPool != null ? pooledPayloadSize : super.totalSize();
+    }
+
     @Override
     public int getFrameLength() {
         return (payload != null ? totalSize() : 0) + HEADER_SIZE;
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.serialization;
+
+import com.hazelcast.spi.annotation.Beta;
+
+import java.io.IOException;
+
+/**
+ * Provides a mean of reading the fields of a {@link CompactSerializer} from the compact binary format.
+ * <p>
+ * Every field is located by its offset in the schema, so fields can be read in any order
+ * and reading a single field doesn't require to read the preceding ones.
+ */
+@Beta
+public interface CompactReader {
+
+    /**
+     * @param fieldName name of the field
+     * @return {@code true} if the schema of the serialized object contains the given field
+     */
+    boolean hasField(String fieldName);
+
+    /**
+     * Reads a primitive boolean.
+     *
+     * @param fieldName name of the field
+     * @return the boolean value read
+     * @throws IOException
+     */
+    boolean readBoolean(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive byte.
+     *
+     * @param fieldName name of the field
+     * @return the byte value read
+     * @throws IOException
+     */
+    byte readByte(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive char.
+     *
+     * @param fieldName name of the field
+     * @return the char value read
+     * @throws IOException
+     */
+    char readChar(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive short.
+     *
+     * @param fieldName name of the field
+     * @return the short value read
+     * @throws IOException
+     */
+    short readShort(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive int.
+     *
+     * @param fieldName name of the field
+     * @return the int value read
+     * @throws IOException
+     */
+    int readInt(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive long.
+     *
+     * @param fieldName name of the field
+     * @return the long value read
+     * @throws IOException
+     */
+    long readLong(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive float.
+     *
+     * @param fieldName name of the field
+     * @return the float value read
+     * @throws IOException
+     */
+    float readFloat(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive double.
+     *
+     * @param fieldName name of the field
+     * @return the double value read
+     * @throws IOException
+     */
+    double readDouble(String fieldName) throws IOException;
+
+    /**
+     * Reads an UTF string.
+     *
+     * @param fieldName name of the field
+     * @return the String value read
+     * @throws IOException
+     */
+    String readUTF(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive byte-array.
+     *
+     * @param fieldName name of the field
+     * @return the byte[] value read
+     * @throws IOException
+     */
+    byte[] readByteArray(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive int-array.
+     *
+     * @param fieldName name of the field
+     * @return the int[] value read
+     * @throws IOException
+     */
+    int[] readIntArray(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive long-array.
+     *
+     * @param fieldName name of the field
+     * @return the long[] value read
+     * @throws IOException
+     */
+    long[] readLongArray(String fieldName) throws IOException;
+
+    /**
+     * Reads a primitive double-array.
+     *
+     * @param fieldName name of the field
+     * @return the double[] value read
+     * @throws IOException
+     */
+    double[] readDoubleArray(String fieldName) throws IOException;
+
+    /**
+     * Reads a String-array.
+     *
+     * @param fieldName name of the field
+     * @return the String[] value read
+     * @throws IOException
+     */
+    String[] readUTFArray(String fieldName) throws IOException;
+
+    /**
+     * Reads an arbitrary object which was written by {@link CompactWriter#writeObject(String, Object)}.
+     *
+     * @param fieldName name of the field
+     * @param <T>       the type of the object
+     * @return the object read
+     * @throws IOException
+     */
+    <T> T readObject(String fieldName) throws IOException;
+}
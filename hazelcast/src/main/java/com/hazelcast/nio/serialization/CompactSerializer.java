@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.serialization;
+
+import com.hazelcast.spi.annotation.Beta;
+
+import java.io.IOException;
+
+/**
+ * Serializes objects of a class to the compact binary format.
+ * <p>
+ * Unlike a {@link Portable}, the field names and types are not written with every object. They are part of a schema,
+ * which is derived from the fields written by the serializer and identified by a 64-bit fingerprint. Every object
+ * only carries the fingerprint of its schema, and the schema is shared once within the cluster. Since every field
+ * has a fixed offset within the schema, single fields can be read without deserializing the whole object, e.g. by
+ * predicates and projections.
+ * <p>
+ * Compact serializers are registered via {@link com.hazelcast.config.SerializationConfig#addCompactSerializer}.
+ *
+ * @param <T> the type of the serialized objects
+ */
+@Beta
+public interface CompactSerializer<T> {
+
+    /**
+     * Returns the name of the serialized type, which is part of the schema. It identifies the serializer
+     * which is used to read the objects, so it has to be unique within the cluster.
+     *
+     * @return the type name
+     */
+    String getTypeName();
+
+    /**
+     * @return the class of the serialized objects
+     */
+    Class<T> getCompactClass();
+
+    /**
+     * Writes the fields of the given object.
+     *
+     * @param writer CompactWriter to write the fields to
+     * @param object the object to be written
+     * @throws IOException
+     */
+    void write(CompactWriter writer, T object) throws IOException;
+
+    /**
+     * Reads an object from its fields.
+     *
+     * @param reader CompactReader to read the fields from
+     * @return the object read
+     * @throws IOException
+     */
+    T read(CompactReader reader) throws IOException;
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.serialization;
+
+import com.hazelcast.spi.annotation.Beta;
+
+import java.io.IOException;
+
+/**
+ * Provides a mean of writing the fields of a {@link CompactSerializer} to the compact binary format.
+ * <p>
+ * Fields can be written in any order, but a serializer has to write the same set of fields for every object
+ * of its type, since the fields define the schema of the type.
+ */
+@Beta
+public interface CompactWriter {
+
+    /**
+     * Writes a primitive boolean.
+     *
+     * @param fieldName name of the field
+     * @param value     boolean value to be written
+     * @throws IOException
+     */
+    void writeBoolean(String fieldName, boolean value) throws IOException;
+
+    /**
+     * Writes a primitive byte.
+     *
+     * @param fieldName name of the field
+     * @param value     byte value to be written
+     * @throws IOException
+     */
+    void writeByte(String fieldName, byte value) throws IOException;
+
+    /**
+     * Writes a primitive char.
+     *
+     * @param fieldName name of the field
+     * @param value     char value to be written
+     * @throws IOException
+     */
+    void writeChar(String fieldName, char value) throws IOException;
+
+    /**
+     * Writes a primitive short.
+     *
+     * @param fieldName name of the field
+     * @param value     short value to be written
+     * @throws IOException
+     */
+    void writeShort(String fieldName, short value) throws IOException;
+
+    /**
+     * Writes a primitive int.
+     *
+     * @param fieldName name of the field
+     * @param value     int value to be written
+     * @throws IOException
+     */
+    void writeInt(String fieldName, int value) throws IOException;
+
+    /**
+     * Writes a primitive long.
+     *
+     * @param fieldName name of the field
+     * @param value     long value to be written
+     * @throws IOException
+     */
+    void writeLong(String fieldName, long value) throws IOException;
+
+    /**
+     * Writes a primitive float.
+     *
+     * @param fieldName name of the field
+     * @param value     float value to be written
+     * @throws IOException
+     */
+    void writeFloat(String fieldName, float value) throws IOException;
+
+    /**
+     * Writes a primitive double.
+     *
+     * @param fieldName name of the field
+     * @param value     double value to be written
+     * @throws IOException
+     */
+    void writeDouble(String fieldName, double value) throws IOException;
+
+    /**
+     * Writes an UTF string.
+     *
+     * @param fieldName name of the field
+     * @param value     String value to be written
+     * @throws IOException
+     */
+    void writeUTF(String fieldName, String value) throws IOException;
+
+    /**
+     * Writes a primitive byte-array.
+     *
+     * @param fieldName name of the field
+     * @param value     byte[] value to be written
+     * @throws IOException
+     */
+    void writeByteArray(String fieldName, byte[] value) throws IOException;
+
+    /**
+     * Writes a primitive int-array.
+     *
+     * @param fieldName name of the field
+     * @param value     int[] value to be written
+     * @throws IOException
+     */
+    void writeIntArray(String fieldName, int[] value) throws IOException;
+
+    /**
+     * Writes a primitive long-array.
+     *
+     * @param fieldName name of the field
+     * @param value     long[] value to be written
+     * @throws IOException
+     */
+    void writeLongArray(String fieldName, long[] value) throws IOException;
+
+    /**
+     * Writes a primitive double-array.
+     *
+     * @param fieldName name of the field
+     * @param value     double[] value to be written
+     * @throws IOException
+     */
+    void writeDoubleArray(String fieldName, double[] value) throws IOException;
+
+    /**
+     * Writes a String-array.
+     *
+     * @param fieldName name of the field
+     * @param value     String[] value to be written
+     * @throws IOException
+     */
+    void writeUTFArray(String fieldName, String[] value) throws IOException;
+
+    /**
+     * Writes an arbitrary object with the regular Hazelcast serialization,
+     * e.g. a nested compact object.
+     *
+     * @param fieldName name of the field
+     * @param value     object to be written
+     * @throws IOException
+     */
+    void writeObject(String fieldName, Object value) throws IOException;
+}
@@ -28,7 +28,8 @@ import java.nio.ByteBuffer;
  * It writes {@link Packet} instances to the {@link ByteBuffer}.
  *
  * It makes use of a flyweight to allow the sharing of a packet-instance over multiple connections. The flyweight contains
- * the actual 'position' state of what has been written.
+ * the actual 'position' state of what has been written. Packets with a pooled payload are the exception: their payload
+ * is returned to the pool once the packet has been written.
  *
  * @see PacketDecoder
  */
@@ -38,6 +39,12 @@ public class PacketEncoder implements ChannelOutboundHandler<Packet> {
 
     @Override
     public boolean onWrite(Packet packet, ByteBuffer dst) {
-        return packetWriter.writeTo(packet, dst);
+        if (!packetWriter.writeTo(packet, dst)) {
+            return false;
+        }
+
+        // a pooled payload is never shared between connections, so it can be returned as soon as it is written
+        packet.releasePayload();
+        return true;
     }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.SerializationServiceV1;
+import com.hazelcast.internal.serialization.impl.compact.DefaultCompactReader;
+import com.hazelcast.nio.serialization.Data;
+
+/**
+ * Reads a single field of data in the compact format by its offset, without deserializing the data.
+ * <p>
+ * Nested paths are resolved by reading the first field and extracting the rest of the path
+ * from the read object by reflection.
+ */
+final class CompactGetter extends Getter {
+
+    private final InternalSerializationService serializationService;
+
+    CompactGetter(InternalSerializationService serializationService) {
+        super(null);
+        this.serializationService = serializationService;
+    }
+
+    @Override
+    Object getValue(Object target, String fieldPath) throws Exception {
+        Data data = (Data) target;
+        DefaultCompactReader reader = ((SerializationServiceV1) serializationService).createCompactReader(data);
+
+        int dotIndex = fieldPath.indexOf('.');
+        String fieldName = dotIndex < 0 ? fieldPath : fieldPath.substring(0, dotIndex);
+        if (!reader.hasField(fieldName)) {
+            return null;
+        }
+        Object value = reader.read(fieldName);
+        if (dotIndex < 0 || value == null) {
+            return value;
+        }
+        String remainingPath = fieldPath.substring(dotIndex + 1);
+        return ReflectionHelper.createGetter(value, remainingPath).getValue(value);
+    }
+
+    @Override
+    Object getValue(Object obj) throws Exception {
+        throw new IllegalArgumentException("Path agnostic value extraction unsupported");
+    }
+
+    @Override
+    Class getReturnType() {
+        throw new IllegalArgumentException("Non applicable for CompactGetter");
+    }
+
+    @Override
+    boolean isCacheable() {
+        // Non-cacheable since it's a generic getter and the cache shouldn't be polluted with the same instance
+        // for various keys. A singleton should be used instead during getter creation.
+        return false;
+    }
+}
@@ -28,6 +28,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import static com.hazelcast.internal.serialization.impl.DataCompressor.decompress;
+import static com.hazelcast.internal.serialization.impl.compact.CompactStreamSerializer.isCompact;
 import static com.hazelcast.query.impl.getters.ExtractorHelper.extractArgumentsFromAttributeName;
 import static com.hazelcast.query.impl.getters.ExtractorHelper.extractAttributeNameNameWithoutArguments;
 
@@ -39,6 +41,7 @@ public final class Extractors {
     private static final float EVICTION_PERCENTAGE = 0.2f;
 
     private volatile PortableGetter genericPortableGetter;
+    private volatile CompactGetter genericCompactGetter;
 
     /**
      * Maps the extractorAttributeName WITHOUT the arguments to a ValueExtractor instance.
@@ -71,7 +74,7 @@ public final class Extractors {
     }
 
     /**
-     * @return Data (in this case it's portable) or Object (in this case it's non-portable)
+     * @return Data (in this case it's portable or compact) or Object (in this case it's neither portable nor compact)
      */
     private static Object getTargetObject(InternalSerializationService serializationService, Object target) {
         Data targetData;
@@ -83,12 +86,13 @@ public final class Extractors {
         }
 
         if (target instanceof Data) {
-            targetData = (Data) target;
-            if (targetData.isPortable()) {
+            // compressed data may wrap a portable, so it's decompressed to be queried without deserialization
+            targetData = decompress((Data) target);
+            if (targetData.isPortable() || isCompact(targetData)) {
                 return targetData;
             } else {
                 // convert non-portable Data to object
-                return serializationService.toObject(target);
+                return serializationService.toObject(targetData);
             }
         }
 
@@ -115,6 +119,13 @@ public final class Extractors {
             return new ExtractorGetter(serializationService, valueExtractor, arguments);
         } else {
             if (targetObject instanceof Data) {
+                if (isCompact((Data) targetObject)) {
+                    if (genericCompactGetter == null) {
+                        // will be initialised a couple of times in the worst case
+                        genericCompactGetter = new CompactGetter(serializationService);
+                    }
+                    return genericCompactGetter;
+                }
                 if (genericPortableGetter == null) {
                     // will be initialised a couple of times in the worst case
                     genericPortableGetter = new PortableGetter(serializationService);
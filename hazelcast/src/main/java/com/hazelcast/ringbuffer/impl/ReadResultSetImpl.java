@@ -61,6 +61,9 @@ public class ReadResultSetImpl<O, E> extends AbstractList<E>
     private transient IFunction<O, Boolean> filter;
     private transient Predicate<? super O> predicate;
     private transient Projection<? super O, E> projection;
+    private transient long minBytes;
+    private transient long maxBytes;
+    private transient long byteCount;
 
     private Data[] items;
     private long[] seqs;
@@ -91,12 +94,40 @@ public class ReadResultSetImpl<O, E> extends AbstractList<E>
         this.projection = projection;
     }
 
+    /**
+     * Sets the limits on the serialized size of the items in this result set.
+     * Once the items reach {@code minBytes}, the minimum size of the result
+     * set is considered to be reached, regardless of the number of items. Once
+     * they reach {@code maxBytes}, both the minimum and the maximum size are
+     * considered to be reached. Since the limits are checked after adding an
+     * item, the result set always contains at least one item and can exceed
+     * {@code maxBytes} by the size of the last item.
+     *
+     * @param minBytes the byte watermark at which the result set is large enough, {@code 0} to disable
+     * @param maxBytes the maximum number of bytes in the result set, {@code 0} to disable
+     */
+    public void setByteLimits(long minBytes, long maxBytes) {
+        this.minBytes = minBytes;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the total serialized size of the items in this result set.
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
     public boolean isMaxSizeReached() {
-        return size == maxSize;
+        return size == maxSize || isMaxBytesReached();
     }
 
     public boolean isMinSizeReached() {
-        return size >= minSize;
+        return size >= minSize || (minBytes > 0 && byteCount >= minBytes) || isMaxBytesReached();
+    }
+
+    private boolean isMaxBytesReached() {
+        return maxBytes > 0 && byteCount >= maxBytes;
     }
 
     @SuppressFBWarnings("EI_EXPOSE_REP")
@@ -173,6 +204,9 @@ public class ReadResultSetImpl<O, E> extends AbstractList<E>
         items[size] = resultItem;
         seqs[size] = seq;
         size++;
+        if (resultItem != null) {
+            byteCount += resultItem.totalSize();
+        }
     }
 
 
@@ -19,6 +19,7 @@ package com.hazelcast.ringbuffer.impl;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.RingbufferConfig;
 import com.hazelcast.core.HazelcastException;
+import com.hazelcast.nio.IOUtil;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.Data;
@@ -30,13 +31,19 @@ import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.Notifier;
 import com.hazelcast.spi.ObjectNamespace;
 import com.hazelcast.spi.WaitNotifyKey;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.spi.serialization.SerializationService;
 
+import java.io.File;
 import java.io.IOException;
 
 import static com.hazelcast.config.InMemoryFormat.BINARY;
 import static com.hazelcast.config.InMemoryFormat.OBJECT;
 import static com.hazelcast.config.InMemoryFormat.values;
+import static com.hazelcast.spi.properties.GroupProperty.RINGBUFFER_OVERFLOW_DIRECTORY;
+import static com.hazelcast.spi.properties.GroupProperty.RINGBUFFER_OVERFLOW_SEGMENT_COUNT;
+import static com.hazelcast.spi.properties.GroupProperty.RINGBUFFER_OVERFLOW_SEGMENT_SIZE_BYTES;
+import static com.hazelcast.util.UuidUtil.newUnsecureUuidString;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -46,6 +53,10 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * storage, keeping the wait/notify key for blocking operations, ringbuffer
  * item expiration and other things not related to the ringbuffer data
  * structure.
+ * <p>
+ * If {@link com.hazelcast.spi.properties.GroupProperty#RINGBUFFER_OVERFLOW_DIRECTORY}
+ * is set, the items overwritten in the ringbuffer are kept in a local
+ * {@link RingbufferOverflow} and remain readable.
  *
  * @param <T> the type of items in the ringbuffer container
  * @param <E> the type of items in the ringbuffer
@@ -56,6 +67,7 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
     private static final long TTL_DISABLED = 0;
 
     private ObjectNamespace namespace;
+    private int partitionId;
 
     // a cached version of the wait notify key needed to wait for a change if the ringbuffer is empty
     private RingbufferWaitNotifyKey emptyRingWaitNotifyKey;
@@ -69,6 +81,11 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
     private RingbufferConfig config;
     private RingbufferStoreWrapper store;
     private SerializationService serializationService;
+    /**
+     * The local overflow tier of the ringbuffer, {@code null} if the overflow
+     * is disabled. It is not part of the serialized state of the container.
+     */
+    private RingbufferOverflow overflow;
 
     /**
      * The ringbuffer containing the items. The type of contained items depends on the {@link #inMemoryFormat} :
@@ -97,6 +114,7 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
      */
     public RingbufferContainer(ObjectNamespace namespace, int partitionId) {
         this.namespace = namespace;
+        this.partitionId = partitionId;
         this.emptyRingWaitNotifyKey = new RingbufferWaitNotifyKey(namespace, partitionId);
     }
 
@@ -136,6 +154,7 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
         this.config = config;
         this.serializationService = nodeEngine.getSerializationService();
         initRingbufferStore(nodeEngine.getConfigClassLoader());
+        initOverflow(nodeEngine);
     }
 
     private void initRingbufferStore(ClassLoader configClassLoader) {
@@ -157,6 +176,22 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
         }
     }
 
+    private void initOverflow(NodeEngine nodeEngine) {
+        HazelcastProperties properties = nodeEngine.getProperties();
+        String directory = properties.getString(RINGBUFFER_OVERFLOW_DIRECTORY);
+        if (overflow != null || directory == null || directory.isEmpty()
+                || store.isEnabled() || config.getTimeToLiveSeconds() != TTL_DISABLED) {
+            return;
+        }
+        String name = IOUtil.toFileName(namespace.getServiceName() + "-" + namespace.getObjectName());
+        File overflowDirectory = new File(new File(directory, String.valueOf(partitionId)),
+                name + "-" + newUnsecureUuidString());
+        this.overflow = new RingbufferOverflow(overflowDirectory,
+                properties.getInteger(RINGBUFFER_OVERFLOW_SEGMENT_SIZE_BYTES),
+                properties.getInteger(RINGBUFFER_OVERFLOW_SEGMENT_COUNT),
+                nodeEngine.getLogger(RingbufferOverflow.class));
+    }
+
     public RingbufferStoreWrapper getStore() {
         return store;
     }
@@ -431,11 +466,12 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
         }
 
         final long headSequence = ringbuffer.headSequence();
-        if (readSequence < headSequence && !store.isEnabled()) {
+        if (readSequence < headSequence && !store.isEnabled() && !isInOverflow(readSequence)) {
+            final long oldestSequence = oldestReadableSequence();
             throw new StaleSequenceException("sequence:" + readSequence
                     + " is too small and data store is disabled. "
-                    + "The current headSequence is:" + headSequence
-                    + " tailSequence is:" + tailSequence, headSequence);
+                    + "The current headSequence is:" + oldestSequence
+                    + " tailSequence is:" + tailSequence, oldestSequence);
         }
     }
 
@@ -455,22 +491,42 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
         }
 
         final long headSequence = ringbuffer.headSequence();
-        if (sequence < headSequence && !store.isEnabled()) {
+        if (sequence < headSequence && !store.isEnabled() && !isInOverflow(sequence)) {
+            final long oldestSequence = oldestReadableSequence();
             throw new StaleSequenceException("sequence:" + sequence
                     + " is too small and data store is disabled."
-                    + " The current headSequence is:" + headSequence
-                    + " tailSequence is:" + tailSequence, headSequence);
+                    + " The current headSequence is:" + oldestSequence
+                    + " tailSequence is:" + tailSequence, oldestSequence);
         }
     }
 
+    private boolean isInOverflow(long sequence) {
+        return overflow != null && overflow.contains(sequence);
+    }
+
     /**
-     * Reads the item at the specified sequence or loads it from the ringbuffer
-     * store if one is enabled. The type of the returned object is equal to the
-     * ringbuffer format.
+     * Returns the sequence of the oldest item which can be read without the
+     * data store. This is the head of the overflow if it directly precedes
+     * the items in the ringbuffer, otherwise the head of the ringbuffer.
+     */
+    private long oldestReadableSequence() {
+        final long headSequence = ringbuffer.headSequence();
+        if (overflow != null && !overflow.isEmpty() && overflow.tailSequence() == headSequence - 1) {
+            return overflow.headSequence();
+        }
+        return headSequence;
+    }
+
+    /**
+     * Reads the item at the specified sequence from the ringbuffer or its
+     * overflow, or loads it from the ringbuffer store if one is enabled. The
+     * returned object is either in the ringbuffer format or serialized.
      */
     private Object readOrLoadItem(long sequence) {
         Object item;
-        if (sequence < ringbuffer.headSequence() && store.isEnabled()) {
+        if (sequence < ringbuffer.headSequence() && isInOverflow(sequence)) {
+            item = overflow.read(sequence);
+        } else if (sequence < ringbuffer.headSequence() && store.isEnabled()) {
             item = store.load(sequence);
         } else {
             item = ringbuffer.read(sequence);
@@ -482,6 +538,12 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
     private long addInternal(T item) {
         final E rbItem = convertToRingbufferFormat(item);
 
+        // the oldest item is about to be overwritten, so we move it to the overflow.
+        if (overflow != null && ringbuffer.size() == ringbuffer.getCapacity()) {
+            final long headSequence = ringbuffer.headSequence();
+            overflow.append(headSequence, convertToData(ringbuffer.read(headSequence)));
+        }
+
         // first we write the dataItem in the ring.
         final long tailSequence = ringbuffer.add(rbItem);
 
@@ -642,5 +704,23 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
         if (expirationPolicy != null) {
             expirationPolicy.clear();
         }
+        if (overflow != null) {
+            overflow.clear();
+        }
+    }
+
+    /**
+     * Releases the local resources of this container, such as the overflow
+     * segment files. Called when the container is removed from this member.
+     */
+    public void dispose() {
+        if (overflow != null) {
+            overflow.clear();
+        }
+    }
+
+    // just for testing
+    RingbufferOverflow getOverflow() {
+        return overflow;
     }
 }
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.ringbuffer.impl;
+
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.serialization.Data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.IOUtil.closeResource;
+import static com.hazelcast.nio.IOUtil.deleteQuietly;
+import static com.hazelcast.util.ExceptionUtil.rethrow;
+import static java.lang.Math.max;
+
+/**
+ * The RingbufferOverflow is a local, disk backed tier of a
+ * {@link RingbufferContainer}. It keeps the items which were overwritten
+ * in the in-memory ringbuffer in append-only segment files, so readers
+ * lagging behind the in-memory ringbuffer can still read them.
+ * <p>
+ * The overflow always holds a contiguous range of sequences ending just
+ * before the head of the in-memory ringbuffer. When the configured number
+ * of segments is exceeded, the oldest segment is deleted. The overflow is
+ * not replicated; it only contains the items overwritten on this member.
+ * <p>
+ * The segments are written and read with positional {@link FileChannel}
+ * calls rather than memory-mapped, since a mapping is only released when
+ * its buffer is garbage collected. Closing the channel of a deleted segment
+ * releases its file right away.
+ * <p>
+ * Like the {@link ArrayRingbuffer}, the overflow is only accessed by the
+ * partition thread, so no thread safety is needed.
+ */
+class RingbufferOverflow {
+
+    private static final int INITIAL_SEGMENT_ITEMS = 64;
+    private static final int NULL_ITEM_LENGTH = -1;
+
+    private final File directory;
+    private final int segmentSize;
+    private final int maxSegmentCount;
+    private final ILogger logger;
+    private final List<Segment> segments = new ArrayList<Segment>();
+    private int openFileCount;
+
+    RingbufferOverflow(File directory, int segmentSize, int maxSegmentCount, ILogger logger) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegmentCount = maxSegmentCount;
+        this.logger = logger;
+    }
+
+    boolean isEmpty() {
+        return segments.isEmpty();
+    }
+
+    /**
+     * Returns the sequence of the oldest item in the overflow or {@code -1}
+     * if the overflow is empty.
+     */
+    long headSequence() {
+        return segments.isEmpty() ? -1 : segments.get(0).firstSequence;
+    }
+
+    /**
+     * Returns the sequence of the newest item in the overflow or {@code -1}
+     * if the overflow is empty.
+     */
+    long tailSequence() {
+        return segments.isEmpty() ? -1 : segments.get(segments.size() - 1).lastSequence();
+    }
+
+    boolean contains(long sequence) {
+        return !segments.isEmpty() && sequence >= headSequence() && sequence <= tailSequence();
+    }
+
+    int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Returns the number of segment files which are currently open.
+     */
+    int getOpenFileCount() {
+        return openFileCount;
+    }
+
+    /**
+     * Appends the item with the given sequence. If the sequence doesn't
+     * directly follow the {@link #tailSequence()}, the previous content of
+     * the overflow is discarded to keep the sequences contiguous.
+     * <p>
+     * If the item can't be written to disk, the overflow is cleared and a
+     * warning is logged. Adding items to the ringbuffer never fails because
+     * of the overflow.
+     *
+     * @param sequence the sequence of the item
+     * @param item     the serialized item, can be {@code null}
+     */
+    void append(long sequence, Data item) {
+        if (!segments.isEmpty() && sequence != tailSequence() + 1) {
+            clear();
+        }
+
+        byte[] bytes = item == null ? null : item.toByteArray();
+        int recordSize = INT_SIZE_IN_BYTES + (bytes == null ? 0 : bytes.length);
+        try {
+            Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (segment == null || segment.remaining() < recordSize) {
+                segment = newSegment(sequence, max(segmentSize, recordSize));
+                segments.add(segment);
+                if (segments.size() > maxSegmentCount) {
+                    delete(segments.remove(0));
+                }
+            }
+            segment.append(bytes);
+        } catch (IOException e) {
+            logger.warning("Failed to write ringbuffer overflow to " + directory
+                    + ", discarding the overflowed items. Cause: " + e.getMessage());
+            clear();
+        }
+    }
+
+    /**
+     * Reads the item with the given sequence.
+     *
+     * @param sequence the sequence of the item
+     * @return the serialized item, can be {@code null}
+     * @throws IllegalArgumentException if the overflow doesn't contain the sequence
+     */
+    Data read(long sequence) {
+        for (Segment segment : segments) {
+            if (sequence >= segment.firstSequence && sequence <= segment.lastSequence()) {
+                return segment.read(sequence);
+            }
+        }
+        throw new IllegalArgumentException("sequence:" + sequence + " is not in the overflow. The overflow contains "
+                + headSequence() + " to " + tailSequence());
+    }
+
+    /**
+     * Removes all items and deletes the segment files.
+     */
+    void clear() {
+        for (Segment segment : segments) {
+            delete(segment);
+        }
+        segments.clear();
+        deleteQuietly(directory);
+    }
+
+    private Segment newSegment(long firstSequence, int size) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Could not create directory " + directory);
+        }
+        File file = new File(directory, firstSequence + ".segment");
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        openFileCount++;
+        return new Segment(file, raf, firstSequence, size);
+    }
+
+    private void delete(Segment segment) {
+        segment.delete();
+        openFileCount--;
+    }
+
+    private static final class Segment {
+
+        private final File file;
+        private final RandomAccessFile raf;
+        private final FileChannel channel;
+        private final long firstSequence;
+        private final int capacity;
+        private int position;
+        private int[] offsets = new int[INITIAL_SEGMENT_ITEMS];
+        private int count;
+
+        Segment(File file, RandomAccessFile raf, long firstSequence, int capacity) {
+            this.file = file;
+            this.raf = raf;
+            this.channel = raf.getChannel();
+            this.firstSequence = firstSequence;
+            this.capacity = capacity;
+        }
+
+        long lastSequence() {
+            return firstSequence + count - 1;
+        }
+
+        int remaining() {
+            return capacity - position;
+        }
+
+        void append(byte[] bytes) throws IOException {
+            ByteBuffer record = ByteBuffer.allocate(INT_SIZE_IN_BYTES + (bytes == null ? 0 : bytes.length));
+            if (bytes == null) {
+                record.putInt(NULL_ITEM_LENGTH);
+            } else {
+                record.putInt(bytes.length);
+                record.put(bytes);
+            }
+            record.flip();
+            write(record, position);
+
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            offsets[count++] = position;
+            position += record.limit();
+        }
+
+        Data read(long sequence) {
+            int offset = offsets[(int) (sequence - firstSequence)];
+            try {
+                ByteBuffer length = ByteBuffer.allocate(INT_SIZE_IN_BYTES);
+                read(length, offset);
+                if (length.getInt(0) == NULL_ITEM_LENGTH) {
+                    return null;
+                }
+                ByteBuffer bytes = ByteBuffer.allocate(length.getInt(0));
+                read(bytes, offset + INT_SIZE_IN_BYTES);
+                return new HeapData(bytes.array());
+            } catch (IOException e) {
+                throw rethrow(e);
+            }
+        }
+
+        private void write(ByteBuffer src, long filePosition) throws IOException {
+            long offset = filePosition;
+            while (src.hasRemaining()) {
+                offset += channel.write(src, offset);
+            }
+        }
+
+        private void read(ByteBuffer dst, long filePosition) throws IOException {
+            long offset = filePosition;
+            while (dst.hasRemaining()) {
+                int read = channel.read(dst, offset);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of " + file);
+                }
+                offset += read;
+            }
+        }
+
+        void delete() {
+            closeResource(raf);
+            deleteQuietly(file);
+        }
+    }
+}
@@ -147,11 +147,19 @@ public class RingbufferService implements ManagedService, RemoteService, Fragmen
         if (partitionContainers == null) {
             return;
         }
-        partitionContainers.remove(namespace);
+        final RingbufferContainer container = partitionContainers.remove(namespace);
+        if (container != null) {
+            container.dispose();
+        }
     }
 
     @Override
     public void reset() {
+        for (Map<ObjectNamespace, RingbufferContainer> partitionContainers : containers.values()) {
+            for (RingbufferContainer container : partitionContainers.values()) {
+                container.dispose();
+            }
+        }
         containers.clear();
     }
 
@@ -231,7 +239,11 @@ public class RingbufferService implements ManagedService, RemoteService, Fragmen
         checkNotNull(ringbuffer, "ringbuffer can't be null");
         ringbuffer.init(config, nodeEngine);
         ringbuffer.getStore().instrument(nodeEngine);
-        getOrCreateRingbufferContainers(partitionId).put(ringbuffer.getNamespace(), ringbuffer);
+        final RingbufferContainer previous
+                = getOrCreateRingbufferContainers(partitionId).put(ringbuffer.getNamespace(), ringbuffer);
+        if (previous != null && previous != ringbuffer) {
+            previous.dispose();
+        }
     }
 
     @Override
@@ -292,6 +304,7 @@ public class RingbufferService implements ManagedService, RemoteService, Fragmen
             final RingbufferContainer container = entry.getValue();
             if (thresholdReplicaIndex < 0 || container.getConfig().getTotalBackupCount() < thresholdReplicaIndex) {
                 iterator.remove();
+                container.dispose();
             }
         }
     }
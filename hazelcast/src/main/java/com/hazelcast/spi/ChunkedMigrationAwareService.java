@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi;
+
+import java.util.Iterator;
+
+/**
+ * {@code ChunkedMigrationAwareService} is an extension to the {@link FragmentedMigrationAwareService} which allows
+ * migration of a single replica fragment in multiple bounded chunks.
+ * <p>
+ * Each chunk is sent to the destination in a separate migration operation and the next chunk is prepared only after
+ * the destination acknowledges the previous one. So neither the source nor the destination needs to hold a whole
+ * replica fragment in memory and the destination applies the replica data incrementally.
+ * <p>
+ * Chunked migration is used only when fragmented migration is enabled and it can be enabled/disabled using
+ * configuration property {@link com.hazelcast.spi.properties.GroupProperty#PARTITION_CHUNKED_MIGRATION_ENABLED}.
+ *
+ * @see FragmentedMigrationAwareService
+ * @see ServiceNamespace
+ * @since 3.11
+ */
+public interface ChunkedMigrationAwareService extends FragmentedMigrationAwareService {
+
+    /**
+     * Returns an iterator of operations which replicate the service data of the given namespace in chunks.
+     * <p>
+     * This method is called on the source member, on the partition thread. The returned iterator is also consumed on
+     * the partition thread, each chunk is created lazily right before it is sent. Since the partition is migrating,
+     * its data does not change while the chunks are being created.
+     * <p>
+     * The first chunk should replace the replica data on the destination, while the following chunks should be
+     * appended to it. The returned operations are executed on the destination member in the order of iteration.
+     * <p>
+     * Returning null is allowed and means the namespace is replicated with a single operation created by
+     * {@link #prepareReplicationOperation(PartitionReplicationEvent, java.util.Collection)}.
+     *
+     * @param event               replication event
+     * @param namespace           replica fragment namespace to replicate
+     * @param maxChunkSizeInBytes approximate upper bound of the replicated data size of a chunk
+     * @return iterator of replication operations or null if the namespace is not replicated in chunks
+     */
+    Iterator<Operation> prepareReplicationChunks(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                 long maxChunkSizeInBytes);
+}
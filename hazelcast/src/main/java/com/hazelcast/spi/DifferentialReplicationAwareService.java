@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi;
+
+/**
+ * {@code DifferentialReplicationAwareService} is an extension to the {@link FragmentedMigrationAwareService} which allows
+ * synchronization of a stale backup replica fragment by transferring only the data which differs between the primary
+ * and the backup replica.
+ * <p>
+ * When a backup replica detects that a replica fragment is stale, it attaches a digest of its own replica data to the
+ * sync request sent to the primary replica. The primary replica compares the digest with its own data and responds with
+ * an operation which replicates only the different parts of the fragment.
+ *
+ * @see FragmentedMigrationAwareService
+ * @see ServiceNamespace
+ * @since 3.11
+ */
+public interface DifferentialReplicationAwareService extends FragmentedMigrationAwareService {
+
+    /**
+     * Returns the digest of the local replica data of the given namespace, to be sent to the primary replica for
+     * the comparison.
+     * <p>
+     * This method is called on the backup replica and it can be called outside of the partition thread.
+     *
+     * @param event     replication event
+     * @param namespace replica fragment namespace
+     * @return digest of the replica data or null if the namespace does not support differential replication
+     */
+    int[] getReplicaDigest(PartitionReplicationEvent event, ServiceNamespace namespace);
+
+    /**
+     * Returns an operation which replicates the data of the given namespace differing from the given replica digest.
+     * <p>
+     * This method is called on the primary replica, on the partition thread.
+     * Returning null means the whole namespace is replicated with the operation created by
+     * {@link #prepareReplicationOperation(PartitionReplicationEvent, java.util.Collection)}.
+     *
+     * @param event         replication event
+     * @param namespace     replica fragment namespace
+     * @param replicaDigest digest of the backup replica data, created by
+     *                      {@link #getReplicaDigest(PartitionReplicationEvent, ServiceNamespace)}
+     * @return replication operation or null if the differences cannot be replicated for the given digest
+     */
+    Operation prepareDifferentialReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                      int[] replicaDigest);
+}
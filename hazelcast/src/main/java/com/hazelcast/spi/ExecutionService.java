@@ -96,6 +96,42 @@ public interface ExecutionService {
      */
     String MAP_LOAD_ALL_KEYS_EXECUTOR = "hz:map-loadAllKeys";
 
+    /**
+     * The name of the executor that loads the key segments of a
+     * {@link com.hazelcast.core.SegmentedMapLoader} in parallel and
+     * dispatches the keys to the partition owners for value loading.
+     *
+     * @see com.hazelcast.core.SegmentedMapLoader#loadAllKeys(int)
+     */
+    String MAP_LOAD_KEY_SEGMENTS_EXECUTOR = "hz:map-loadKeySegments";
+
+    /**
+     * Name of the executor which stores write-behind entries in parallel
+     * when {@link com.hazelcast.spi.properties.GroupProperty#MAP_WRITE_BEHIND_CONCURRENCY}
+     * is greater than one. Its pool size caps the number of concurrent
+     * write-behind store calls of all maps on a member. It defaults to the
+     * greater of that property and the number of available processors and
+     * can be changed with an executor config of this name.
+     */
+    String MAP_WRITE_BEHIND_EXECUTOR = "hz:map-write-behind";
+
+    /**
+     * Name of the executor which stores write-through entries off the
+     * partition threads when
+     * {@link com.hazelcast.spi.properties.GroupProperty#MAP_WRITE_THROUGH_ASYNC}
+     * is enabled.
+     */
+    String MAP_WRITE_THROUGH_EXECUTOR = "hz:map-write-through";
+
+    /**
+     * Name of the executor which adds the results of the initial queries
+     * of new query caches to them in parallel. Its queue is bounded, a
+     * rejected task is run by the thread handing over the results.
+     *
+     * @see com.hazelcast.map.impl.querycache.subscriber.QueryCachePopulator
+     */
+    String QUERY_CACHE_POPULATION_EXECUTOR = "hz:query-cache-population";
+
     ManagedExecutorService register(String name, int poolSize, int queueCapacity, ExecutorType type);
 
     ManagedExecutorService getExecutor(String name);
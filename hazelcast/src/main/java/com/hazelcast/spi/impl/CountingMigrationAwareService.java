@@ -16,6 +16,8 @@
 
 package com.hazelcast.spi.impl;
 
+import com.hazelcast.spi.ChunkedMigrationAwareService;
+import com.hazelcast.spi.DifferentialReplicationAwareService;
 import com.hazelcast.spi.FragmentedMigrationAwareService;
 import com.hazelcast.spi.MigrationAwareService;
 import com.hazelcast.spi.Operation;
@@ -24,13 +26,14 @@ import com.hazelcast.spi.PartitionReplicationEvent;
 import com.hazelcast.spi.ServiceNamespace;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A {@link MigrationAwareService} that delegates to another {@link MigrationAwareService} and keeps track of the number of
  * migrations concerning the partition owner (either as current or new replica index) currently in-flight.
  */
-public class CountingMigrationAwareService implements FragmentedMigrationAwareService {
+public class CountingMigrationAwareService implements ChunkedMigrationAwareService, DifferentialReplicationAwareService {
 
     static final int PRIMARY_REPLICA_INDEX = 0;
     static final int IN_FLIGHT_MIGRATION_STAMP = -1;
@@ -68,6 +71,34 @@ public class CountingMigrationAwareService implements FragmentedMigrationAwareSe
         return migrationAwareService.prepareReplicationOperation(event, namespaces);
     }
 
+    @Override
+    public Iterator<Operation> prepareReplicationChunks(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                        long maxChunkSizeInBytes) {
+        if (migrationAwareService instanceof ChunkedMigrationAwareService) {
+            return ((ChunkedMigrationAwareService) migrationAwareService)
+                    .prepareReplicationChunks(event, namespace, maxChunkSizeInBytes);
+        }
+        return null;
+    }
+
+    @Override
+    public int[] getReplicaDigest(PartitionReplicationEvent event, ServiceNamespace namespace) {
+        if (migrationAwareService instanceof DifferentialReplicationAwareService) {
+            return ((DifferentialReplicationAwareService) migrationAwareService).getReplicaDigest(event, namespace);
+        }
+        return null;
+    }
+
+    @Override
+    public Operation prepareDifferentialReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                             int[] replicaDigest) {
+        if (migrationAwareService instanceof DifferentialReplicationAwareService) {
+            return ((DifferentialReplicationAwareService) migrationAwareService)
+                    .prepareDifferentialReplicationOperation(event, namespace, replicaDigest);
+        }
+        return null;
+    }
+
     @Override
     public void beforeMigration(PartitionMigrationEvent event) {
         if (isPrimaryReplicaMigrationEvent(event)) {
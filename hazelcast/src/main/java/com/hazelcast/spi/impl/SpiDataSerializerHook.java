@@ -23,10 +23,12 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.spi.DistributedObjectNamespace;
 import com.hazelcast.spi.OperationControl;
 import com.hazelcast.spi.impl.eventservice.impl.EventEnvelope;
+import com.hazelcast.spi.impl.eventservice.impl.EventEnvelopeBatch;
 import com.hazelcast.spi.impl.eventservice.impl.TrueEventFilter;
 import com.hazelcast.spi.impl.eventservice.impl.operations.DeregistrationOperation;
 import com.hazelcast.spi.impl.eventservice.impl.operations.OnJoinRegistrationOperation;
 import com.hazelcast.spi.impl.eventservice.impl.operations.RegistrationOperation;
+import com.hazelcast.spi.impl.eventservice.impl.operations.SendEventAndDrainOperation;
 import com.hazelcast.spi.impl.eventservice.impl.operations.SendEventOperation;
 import com.hazelcast.spi.impl.operationservice.impl.operations.Backup;
 import com.hazelcast.spi.impl.operationservice.impl.operations.PartitionIteratingOperation;
@@ -67,6 +69,8 @@ public final class SpiDataSerializerHook implements DataSerializerHook {
     public static final int UNMODIFIABLE_LAZY_LIST = 18;
     public static final int OPERATION_CONTROL = 19;
     public static final int DISTRIBUTED_OBJECT_NS = 20;
+    public static final int EVENT_ENVELOPE_BATCH = 21;
+    public static final int SEND_EVENT_AND_DRAIN = 22;
 
     private static final DataSerializableFactory FACTORY = createFactoryInternal();
 
@@ -122,6 +126,10 @@ public final class SpiDataSerializerHook implements DataSerializerHook {
                         return new OperationControl();
                     case DISTRIBUTED_OBJECT_NS:
                         return new DistributedObjectNamespace();
+                    case EVENT_ENVELOPE_BATCH:
+                        return new EventEnvelopeBatch();
+                    case SEND_EVENT_AND_DRAIN:
+                        return new SendEventAndDrainOperation();
                     default:
                         return null;
                 }
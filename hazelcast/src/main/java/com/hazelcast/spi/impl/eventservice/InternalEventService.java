@@ -19,6 +19,7 @@ package com.hazelcast.spi.impl.eventservice;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.spi.EventRegistration;
 import com.hazelcast.spi.EventService;
+import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.PostJoinAwareService;
 import com.hazelcast.spi.PreJoinAwareService;
 import com.hazelcast.util.function.Consumer;
@@ -37,4 +38,14 @@ public interface InternalEventService extends EventService, Consumer<Packet>, Pr
      * @param eventRegistration the EventRegistration to close.
      */
     void close(EventRegistration eventRegistration);
+
+    /**
+     * Parks the {@code op} if the operations of its partition have published events faster than a listener processes
+     * them, or if operations of the partition parked before are not run yet. Urgent operations are never parked.
+     *
+     * @param op the operation about to run
+     * @return {@code true} if the operation was parked and is executed again later, {@code false} if it may run now
+     * @see com.hazelcast.spi.properties.GroupProperty#EVENT_REGISTRATION_QUEUE_CAPACITY
+     */
+    boolean parkIfBackpressured(Operation op);
 }
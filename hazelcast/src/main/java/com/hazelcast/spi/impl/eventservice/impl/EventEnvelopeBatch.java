@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.impl.SpiDataSerializerHook;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch of {@link EventEnvelope}s sent to a member in a single event
+ * packet. The envelopes are processed in the order they were added.
+ *
+ * @see RemoteEventBatcher
+ */
+public final class EventEnvelopeBatch implements IdentifiedDataSerializable {
+
+    private List<EventEnvelope> envelopes;
+
+    public EventEnvelopeBatch() {
+    }
+
+    EventEnvelopeBatch(List<EventEnvelope> envelopes) {
+        this.envelopes = envelopes;
+    }
+
+    public List<EventEnvelope> getEnvelopes() {
+        return envelopes;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return SpiDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getId() {
+        return SpiDataSerializerHook.EVENT_ENVELOPE_BATCH;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeInt(envelopes.size());
+        for (EventEnvelope envelope : envelopes) {
+            envelope.writeData(out);
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        int size = in.readInt();
+        envelopes = new ArrayList<EventEnvelope>(size);
+        for (int i = 0; i < size; i++) {
+            EventEnvelope envelope = new EventEnvelope();
+            envelope.readData(in);
+            envelopes.add(envelope);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EventEnvelopeBatch{size=" + (envelopes == null ? 0 : envelopes.size()) + '}';
+    }
+}
@@ -16,9 +16,11 @@
 
 package com.hazelcast.spi.impl.eventservice.impl;
 
+import com.hazelcast.core.ExecutionCallback;
 import com.hazelcast.core.ICompletableFuture;
 import com.hazelcast.instance.MemberImpl;
 import com.hazelcast.internal.cluster.ClusterService;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.metrics.MetricsProvider;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
@@ -32,16 +34,24 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.EventFilter;
 import com.hazelcast.spi.EventRegistration;
 import com.hazelcast.spi.EventService;
+import com.hazelcast.spi.LiveOperations;
+import com.hazelcast.spi.LiveOperationsTracker;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.eventservice.InternalEventService;
 import com.hazelcast.spi.impl.eventservice.impl.operations.DeregistrationOperationSupplier;
 import com.hazelcast.spi.impl.eventservice.impl.operations.OnJoinRegistrationOperation;
 import com.hazelcast.spi.impl.eventservice.impl.operations.RegistrationOperationSupplier;
+import com.hazelcast.spi.impl.eventservice.impl.operations.SendEventAndDrainOperation;
 import com.hazelcast.spi.impl.eventservice.impl.operations.SendEventOperation;
+import com.hazelcast.spi.impl.operationexecutor.OperationHostileThread;
+import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationThread;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionOperationThread;
 import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.util.UuidUtil;
 import com.hazelcast.util.executor.StripedExecutor;
+import com.hazelcast.util.executor.StripedRunnable;
 import com.hazelcast.util.function.Supplier;
 
 import java.io.Closeable;
@@ -54,15 +64,23 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
 import static com.hazelcast.internal.util.InvocationUtil.invokeOnStableClusterSerial;
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static com.hazelcast.spi.properties.GroupProperty.EVENT_BACKPRESSURE_MAX_WAIT_MILLIS;
+import static com.hazelcast.spi.properties.GroupProperty.EVENT_BATCH_DELAY_MILLIS;
+import static com.hazelcast.spi.properties.GroupProperty.EVENT_BATCH_SIZE;
 import static com.hazelcast.spi.properties.GroupProperty.EVENT_QUEUE_CAPACITY;
 import static com.hazelcast.spi.properties.GroupProperty.EVENT_QUEUE_TIMEOUT_MILLIS;
+import static com.hazelcast.spi.properties.GroupProperty.EVENT_REGISTRATION_QUEUE_CAPACITY;
 import static com.hazelcast.spi.properties.GroupProperty.EVENT_SYNC_TIMEOUT_MILLIS;
 import static com.hazelcast.spi.properties.GroupProperty.EVENT_THREAD_COUNT;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_COUNT;
 import static com.hazelcast.util.EmptyStatement.ignore;
 import static com.hazelcast.util.ExceptionUtil.rethrow;
 import static com.hazelcast.util.ThreadUtil.createThreadName;
@@ -92,7 +110,7 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
  * event can be retransmitted causing it to be received by the target node at a later time.
  */
 @SuppressWarnings("checkstyle:classfanoutcomplexity")
-public class EventServiceImpl implements InternalEventService, MetricsProvider {
+public class EventServiceImpl implements InternalEventService, MetricsProvider, LiveOperationsTracker {
 
     public static final String SERVICE_NAME = "hz:core:eventService";
 
@@ -157,11 +175,34 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
     private final MwCounter rejectedCount = newMwCounter();
     @Probe(name = "syncDeliveryFailureCount")
     private final MwCounter syncDeliveryFailureCount = newMwCounter();
+    @Probe(name = "backpressureTimeoutCount")
+    private final MwCounter backpressureTimeoutCount = newMwCounter();
+    /** The number of asynchronous event packets sent, a packet carries a batch of events if batching is enabled */
+    @Probe(name = "sentEventPacketCount")
+    private final MwCounter sentEventPacketCount = newMwCounter();
+    /**
+     * The maximum number of published but not yet processed events per listener registration, {@code 0} if
+     * events may be dropped when the event queue is full.
+     *
+     * @see com.hazelcast.spi.properties.GroupProperty#EVENT_REGISTRATION_QUEUE_CAPACITY
+     */
+    @Probe(name = "registrationQueueCapacity")
+    private final int registrationQueueCapacity;
+    /** The maximum time a publishing thread waits for a listener to catch up */
+    private final long backpressureMaxWaitMs;
+    /** Parks the operations of partition threads publishing too fast, {@code null} if delivery is not lossless */
+    private final PublisherBackpressure publisherBackpressure;
 
     private  final int sendEventSyncTimeoutMillis;
 
     private final InternalSerializationService serializationService;
     private final int eventSyncFrequency;
+    /**
+     * Packs remote events into batches, {@code null} if event batching is disabled.
+     *
+     * @see com.hazelcast.spi.properties.GroupProperty#EVENT_BATCH_DELAY_MILLIS
+     */
+    private final RemoteEventBatcher remoteEventBatcher;
 
     public EventServiceImpl(NodeEngineImpl nodeEngine) {
         this.nodeEngine = nodeEngine;
@@ -173,13 +214,26 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
         this.eventQueueTimeoutMs = hazelcastProperties.getMillis(EVENT_QUEUE_TIMEOUT_MILLIS);
         this.sendEventSyncTimeoutMillis = hazelcastProperties.getInteger(EVENT_SYNC_TIMEOUT_MILLIS);
         this.eventSyncFrequency = loadEventSyncFrequency();
+        this.registrationQueueCapacity = hazelcastProperties.getInteger(EVENT_REGISTRATION_QUEUE_CAPACITY);
+        this.backpressureMaxWaitMs = hazelcastProperties.getMillis(EVENT_BACKPRESSURE_MAX_WAIT_MILLIS);
 
+        // with lossless delivery the queued events are bounded per registration, so the executor must not reject them
         this.eventExecutor = new StripedExecutor(
                 nodeEngine.getNode().getLogger(EventServiceImpl.class),
                 createThreadName(nodeEngine.getHazelcastInstance().getName(), "event"),
                 eventThreadCount,
-                eventQueueCapacity);
+                isLossless() ? Integer.MAX_VALUE : eventQueueCapacity);
+        this.publisherBackpressure = isLossless()
+                ? new PublisherBackpressure(this, nodeEngine.getOperationService(), nodeEngine.getExecutionService(),
+                hazelcastProperties.getInteger(PARTITION_COUNT), backpressureMaxWaitMs)
+                : null;
         this.segments = new ConcurrentHashMap<String, EventServiceSegment>();
+
+        long batchDelayMillis = hazelcastProperties.getMillis(EVENT_BATCH_DELAY_MILLIS);
+        this.remoteEventBatcher = batchDelayMillis > 0
+                ? new RemoteEventBatcher(this, nodeEngine, eventThreadCount, hazelcastProperties.getInteger(EVENT_BATCH_SIZE),
+                batchDelayMillis)
+                : null;
     }
 
 
@@ -226,6 +280,10 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
         return eventQueueCapacity;
     }
 
+    long getSentEventPacketCount() {
+        return sentEventPacketCount.get();
+    }
+
     @Probe(name = "eventQueueSize", level = MANDATORY)
     @Override
     public int getEventQueueSize() {
@@ -401,7 +459,7 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
             executeLocal(serviceName, event, registration, orderKey);
         } else {
             EventEnvelope eventEnvelope = new EventEnvelope(registration.getId(), serviceName, event);
-            sendEvent(registration.getSubscriber(), eventEnvelope, orderKey);
+            sendRemoteEvent((Registration) registration, eventEnvelope, orderKey);
         }
     }
 
@@ -421,7 +479,7 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
                 eventData = serializationService.toData(event);
             }
             EventEnvelope eventEnvelope = new EventEnvelope(registration.getId(), serviceName, eventData);
-            sendEvent(registration.getSubscriber(), eventEnvelope, orderKey);
+            sendRemoteEvent((Registration) registration, eventEnvelope, orderKey);
         }
     }
 
@@ -448,7 +506,7 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
                 continue;
             }
             EventEnvelope eventEnvelope = new EventEnvelope(registration.getId(), serviceName, eventData);
-            sendEvent(registration.getSubscriber(), eventEnvelope, orderKey);
+            sendRemoteEvent((Registration) registration, eventEnvelope, orderKey);
         }
     }
 
@@ -456,6 +514,9 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
      * Processes the {@code event} on this node. If the event is not accepted to the executor
      * in {@link #eventQueueTimeoutMs}, it will be rejected and not processed. This means that we increase the
      * rejected count and log the failure.
+     * With lossless delivery, the publisher is slowed down while the registration has
+     * {@link #registrationQueueCapacity} unprocessed events (see {@link #acquireEventPermit(Registration)}).
+     * The event is then never rejected, except on shutdown.
      *
      * @param serviceName  the name of the service responsible for this event
      * @param event        the event
@@ -469,14 +530,21 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
         }
 
         Registration reg = (Registration) registration;
+        if (reg.getListener() == null) {
+            logger.warning("Something seems wrong! Listener instance is null! -> " + reg);
+            return;
+        }
+        boolean permit = isLossless() && acquireEventPermit(reg);
+        Runnable congestion = isLossless() && !permit ? congestPartition(reg) : null;
         try {
-            if (reg.getListener() != null) {
-                eventExecutor.execute(new LocalEventDispatcher(this, serviceName, event, reg.getListener()
-                        , orderKey, eventQueueTimeoutMs));
-            } else {
-                logger.warning("Something seems wrong! Listener instance is null! -> " + reg);
-            }
+            eventExecutor.execute(new LocalEventDispatcher(this, serviceName, event, reg.getListener()
+                    , orderKey, eventQueueTimeoutMs, reg, permit, congestion));
         } catch (RejectedExecutionException e) {
+            if (permit) {
+                reg.releaseEventPermit();
+            } else if (congestion != null) {
+                congestion.run();
+            }
             rejectedCount.inc();
 
             if (eventExecutor.isLive()) {
@@ -486,6 +554,145 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
         }
     }
 
+    private boolean isLossless() {
+        return registrationQueueCapacity > 0;
+    }
+
+    /**
+     * Takes an event permit of the local registration. If none is free, the event is delivered without a permit,
+     * so the registration exceeds its capacity for a while, and the publisher is slowed down:
+     * <ul>
+     * <li>a partition thread does not wait, the next operations of the partition are parked until a permit is free,
+     * see {@link #congestPartition(Registration)}</li>
+     * <li>other operation threads and I/O threads neither wait nor park</li>
+     * <li>any other thread waits up to {@link #backpressureMaxWaitMs} for a permit</li>
+     * </ul>
+     *
+     * @return {@code true} if a permit was taken and must be released once the event is processed
+     */
+    private boolean acquireEventPermit(Registration registration) {
+        Semaphore permits = registration.getEventPermits(registrationQueueCapacity);
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (!mayWaitForListener()) {
+            return false;
+        }
+        try {
+            if (permits.tryAcquire(backpressureMaxWaitMs, MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        onBackpressureTimeout(registration);
+        return false;
+    }
+
+    /** Returns {@code true} if the current thread may wait for a listener to catch up, i.e. it is not a system thread */
+    private static boolean mayWaitForListener() {
+        Thread thread = Thread.currentThread();
+        return !(thread instanceof OperationThread || thread instanceof OperationHostileThread);
+    }
+
+    /**
+     * Congests the partition of the task running on the current thread by the {@code registration} after an event
+     * was published to it without a permit.
+     * <p>
+     * The returned congestion must run once that event is processed and then waits for a free permit. So at most one
+     * event of each partition beyond the capacity of the registration is unprocessed.
+     *
+     * @return the congestion, or {@code null} if the current thread is not a partition thread or the partition is
+     * already congested by the registration
+     */
+    private Runnable congestPartition(Registration registration) {
+        int partitionId = currentPartitionId();
+        return partitionId >= 0 ? publisherBackpressure.congest(partitionId, registration) : null;
+    }
+
+    /**
+     * Returns the partition of the task running on the current thread if it is a partition thread, otherwise -1
+     */
+    private static int currentPartitionId() {
+        Thread thread = Thread.currentThread();
+        if (!(thread instanceof PartitionOperationThread)) {
+            return -1;
+        }
+        OperationRunner runner = ((PartitionOperationThread) thread).currentRunner();
+        return runner != null ? runner.getPartitionId() : -1;
+    }
+
+    @Override
+    public boolean parkIfBackpressured(Operation op) {
+        return publisherBackpressure != null && op.getPartitionId() >= 0 && !op.isUrgent()
+                && publisherBackpressure.park(op);
+    }
+
+    @Override
+    public void populate(LiveOperations liveOperations) {
+        if (publisherBackpressure != null) {
+            publisherBackpressure.populate(liveOperations);
+        }
+    }
+
+    void onBackpressureTimeout(Registration registration) {
+        backpressureTimeoutCount.inc();
+        logFailure("Listener of %s:%s did not catch up with its events in %d ms, delivering events beyond its capacity",
+                registration.getServiceName(), registration.getTopic(), backpressureMaxWaitMs);
+    }
+
+    /**
+     * Sends a remote event to the subscriber of the {@code registration}. With lossless delivery, every
+     * {@link #registrationQueueCapacity}th event of the registration is sent as a {@link SendEventAndDrainOperation}
+     * and the publisher is slowed down until the subscriber has processed the events sent to it so far, like in
+     * {@link #acquireEventPermit(Registration)}.
+     */
+    private void sendRemoteEvent(Registration registration, EventEnvelope eventEnvelope, int orderKey) {
+        // RU_COMPAT_3_10
+        if (isLossless() && registration.incrementPublishCount() % registrationQueueCapacity == 0
+                && nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V3_11)) {
+            sendEventAndDrain(registration, eventEnvelope, orderKey);
+        } else {
+            sendEvent(registration.getSubscriber(), eventEnvelope, orderKey);
+        }
+    }
+
+    private void sendEventAndDrain(Registration registration, EventEnvelope eventEnvelope, int orderKey) {
+        Address subscriber = registration.getSubscriber();
+        int eventOrderKey = orderKey;
+        if (isBatchingEnabled()) {
+            // the batched events with the same order key must not be overtaken by this event, so it is sent
+            // after them and processed by the event thread of their stripe on the subscriber
+            remoteEventBatcher.flush(subscriber, orderKey);
+            eventOrderKey = remoteEventBatcher.getStripeOrderKey(orderKey);
+        }
+        SendEventAndDrainOperation op = new SendEventAndDrainOperation(eventEnvelope, eventOrderKey);
+        ICompletableFuture<Object> f = nodeEngine.getOperationService()
+                .createInvocationBuilder(eventEnvelope.getServiceName(), op, subscriber)
+                .setTryCount(SEND_RETRY_COUNT).invoke();
+        int partitionId = currentPartitionId();
+        if (partitionId >= 0) {
+            f.andThen(new DrainCallback(eventEnvelope, publisherBackpressure.congest(partitionId, registration)));
+        } else if (mayWaitForListener()) {
+            try {
+                f.get(backpressureMaxWaitMs, MILLISECONDS);
+            } catch (TimeoutException e) {
+                onBackpressureTimeout(registration);
+            } catch (Exception e) {
+                onDrainFailure(eventEnvelope, e);
+            }
+        } else {
+            f.andThen(new DrainCallback(eventEnvelope, null));
+        }
+    }
+
+    private void onDrainFailure(EventEnvelope eventEnvelope, Throwable t) {
+        syncDeliveryFailureCount.inc();
+        if (logger.isFinestEnabled()) {
+            logger.finest("Event delivery failed. Event: " + eventEnvelope, t);
+        }
+    }
+
     /**
      * Sends a remote event to the {@code subscriber}.
      * Each event segment keeps track of the published event count. On every {@link #eventSyncFrequency} the event will
@@ -494,6 +701,8 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
      * we increase the failure count and log the failure (see {@link EventProcessor})
      * Otherwise, we send an asynchronous event. This means that we don't wait to see if the processing failed with an
      * exception (see {@link RemoteEventProcessor})
+     * If event batching is enabled, asynchronous events are passed to the {@link RemoteEventBatcher} and sent together
+     * with other events to the same subscriber.
      */
     private void sendEvent(Address subscriber, EventEnvelope eventEnvelope, int orderKey) {
         String serviceName = eventEnvelope.getServiceName();
@@ -501,7 +710,14 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
         boolean sync = segment.incrementPublish() % eventSyncFrequency == 0;
 
         if (sync) {
-            SendEventOperation op = new SendEventOperation(eventEnvelope, orderKey);
+            int eventOrderKey = orderKey;
+            if (isBatchingEnabled()) {
+                // the batched events with the same order key must not be overtaken by this event, so it is sent
+                // after them and processed by the event thread of their stripe on the subscriber
+                remoteEventBatcher.flush(subscriber, orderKey);
+                eventOrderKey = remoteEventBatcher.getStripeOrderKey(orderKey);
+            }
+            SendEventOperation op = new SendEventOperation(eventEnvelope, eventOrderKey);
             Future f = nodeEngine.getOperationService()
                     .createInvocationBuilder(serviceName, op, subscriber)
                     .setTryCount(SEND_RETRY_COUNT).invoke();
@@ -513,14 +729,39 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
                     logger.finest("Sync event delivery failed. Event: " + eventEnvelope, e);
                 }
             }
+        } else if (isBatchingEnabled()) {
+            Object event = eventEnvelope.getEvent();
+            if (!(event instanceof Data)) {
+                // the event is serialized later by the sending thread, so we make sure it can't change in the meantime
+                eventEnvelope = new EventEnvelope(eventEnvelope.getEventId(), serviceName, serializationService.toData(event));
+            }
+            remoteEventBatcher.add(subscriber, eventEnvelope, orderKey);
         } else {
-            Packet packet = new Packet(serializationService.toBytes(eventEnvelope), orderKey)
-                    .setPacketType(Packet.Type.EVENT);
+            transmit(eventEnvelope, orderKey, subscriber);
+        }
+    }
 
-            if (!nodeEngine.getNode().getConnectionManager().transmit(packet, subscriber)) {
-                if (nodeEngine.isRunning()) {
-                    logFailure("Failed to send event packet to: %s, connection might not be alive.", subscriber);
-                }
+    private boolean isBatchingEnabled() {
+        // RU_COMPAT_3_10
+        return remoteEventBatcher != null
+                && nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V3_11);
+    }
+
+    /**
+     * Sends an {@link EventEnvelope} or an {@link EventEnvelopeBatch} to the {@code subscriber} as an event packet.
+     *
+     * @param eventObject the envelope or the batch of envelopes
+     * @param orderKey    the order key of the packet, which defines the event thread processing it on the subscriber
+     * @param subscriber  the member to send the packet to
+     */
+    void transmit(Object eventObject, int orderKey, Address subscriber) {
+        Packet packet = new Packet(serializationService.toBytes(eventObject), orderKey)
+                .setPacketType(Packet.Type.EVENT);
+        sentEventPacketCount.inc();
+
+        if (!nodeEngine.getNode().getConnectionManager().transmit(packet, subscriber)) {
+            if (nodeEngine.isRunning()) {
+                logFailure("Failed to send event packet to: %s, connection might not be alive.", subscriber);
             }
         }
     }
@@ -549,6 +790,33 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
         return segment;
     }
 
+    /**
+     * Runs the {@code task} on an event thread once all event threads have processed the events queued
+     * before this call.
+     *
+     * @param task the task to run
+     * @throws RejectedExecutionException if the event queue is full or the event executor is shut down
+     */
+    public void executeAfterQueuedEvents(final Runnable task) {
+        final AtomicInteger remaining = new AtomicInteger(eventThreadCount);
+        for (int i = 0; i < eventThreadCount; i++) {
+            final int stripe = i;
+            eventExecutor.execute(new StripedRunnable() {
+                @Override
+                public int getKey() {
+                    return stripe;
+                }
+
+                @Override
+                public void run() {
+                    if (remaining.decrementAndGet() == 0) {
+                        task.run();
+                    }
+                }
+            });
+        }
+    }
+
     /** Returns {@code true} if the subscriber of the registration is this node */
     boolean isLocal(EventRegistration reg) {
         return nodeEngine.getThisAddress().equals(reg.getSubscriber());
@@ -631,6 +899,12 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
     public void shutdown() {
         logger.finest("Stopping event executor...");
         eventExecutor.shutdown();
+        if (publisherBackpressure != null) {
+            publisherBackpressure.releaseAll();
+        }
+        if (remoteEventBatcher != null) {
+            remoteEventBatcher.shutdown();
+        }
         for (EventServiceSegment segment : segments.values()) {
             segment.clear();
         }
@@ -642,6 +916,9 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
         for (EventServiceSegment segment : segments.values()) {
             segment.onMemberLeft(address);
         }
+        if (remoteEventBatcher != null) {
+            remoteEventBatcher.onMemberLeft(address);
+        }
     }
 
     /**
@@ -667,4 +944,34 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
         }
     }
 
+    /**
+     * Completes a {@link SendEventAndDrainOperation} without waiting for it and releases the congestion of the
+     * publishing partition thread, if any.
+     */
+    private final class DrainCallback implements ExecutionCallback<Object> {
+        private final EventEnvelope eventEnvelope;
+        private final Runnable congestion;
+
+        DrainCallback(EventEnvelope eventEnvelope, Runnable congestion) {
+            this.eventEnvelope = eventEnvelope;
+            this.congestion = congestion;
+        }
+
+        @Override
+        public void onResponse(Object response) {
+            release();
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            onDrainFailure(eventEnvelope, t);
+            release();
+        }
+
+        private void release() {
+            if (congestion != null) {
+                congestion.run();
+            }
+        }
+    }
 }
@@ -25,7 +25,8 @@ import java.util.concurrent.TimeUnit;
 /**
  * A {@link StripedRunnable} responsible of processing the {@link #event} on a thread defined by the {@link #orderKey}.
  * Processes the event by dispatching it on the responsible {@link EventPublishingService} together with the listener
- * responsible for the event.
+ * responsible for the event. If the dispatcher holds an event permit of the listener registration, the permit is
+ * released once the event has been processed.
  *
  * @see EventPublishingService#dispatchEvent(Object, Object)
  */
@@ -37,15 +38,27 @@ public final class LocalEventDispatcher implements StripedRunnable, TimeoutRunna
     private final Object listener;
     private final int orderKey;
     private final long timeoutMs;
+    // with lossless delivery, the event took a permit of the registration or congested the partition publishing it
+    private final Registration registration;
+    private final boolean permit;
+    private final Runnable congestion;
 
     public LocalEventDispatcher(EventServiceImpl eventService, String serviceName, Object event, Object listener,
                                 int orderKey, long timeoutMs) {
+        this(eventService, serviceName, event, listener, orderKey, timeoutMs, null, false, null);
+    }
+
+    LocalEventDispatcher(EventServiceImpl eventService, String serviceName, Object event, Object listener,
+                         int orderKey, long timeoutMs, Registration registration, boolean permit, Runnable congestion) {
         this.eventService = eventService;
         this.serviceName = serviceName;
         this.event = event;
         this.listener = listener;
         this.orderKey = orderKey;
         this.timeoutMs = timeoutMs;
+        this.registration = registration;
+        this.permit = permit;
+        this.congestion = congestion;
     }
 
     @Override
@@ -60,8 +73,16 @@ public final class LocalEventDispatcher implements StripedRunnable, TimeoutRunna
 
     @Override
     public void run() {
-        final EventPublishingService<Object, Object> service = eventService.nodeEngine.getService(serviceName);
-        service.dispatchEvent(event, listener);
+        try {
+            final EventPublishingService<Object, Object> service = eventService.nodeEngine.getService(serviceName);
+            service.dispatchEvent(event, listener);
+        } finally {
+            if (permit) {
+                registration.releaseEventPermit();
+            } else if (congestion != null) {
+                registration.awaitEventPermit(congestion);
+            }
+        }
     }
 
     @Override
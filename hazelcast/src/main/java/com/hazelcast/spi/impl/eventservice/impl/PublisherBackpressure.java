@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.spi.ExecutionService;
+import com.hazelcast.spi.LiveOperations;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.UrgentSystemOperation;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationservice.InternalOperationService;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Slows down the partitions whose operations publish events faster than the listener of a registration processes
+ * them, see {@link com.hazelcast.spi.properties.GroupProperty#EVENT_REGISTRATION_QUEUE_CAPACITY}.
+ * <p>
+ * A partition thread never waits for a listener. When an operation publishes an event beyond the capacity of a
+ * registration, the event is still delivered but the partition of the operation becomes congested by the registration.
+ * The operations of the partition which would run next are then parked, so the other partitions of the thread are
+ * not affected. Once every registration congesting the partition has caught up, or the congestion has lasted for the
+ * maximum backpressure wait, the parked operations are run on the partition thread in their original order.
+ * <p>
+ * All non-urgent operations of a congested partition are parked, not only the mutating ones, and an operation
+ * arriving while operations are parked is parked behind them. So the operations of a partition still run in the
+ * order they arrived, and a read does not overtake a parked update. The parked operations are reported as live
+ * operations, so their invocations get heartbeats and don't time out while parked.
+ */
+final class PublisherBackpressure {
+
+    // the maximum number of parked operations run by a single partition task before yielding the partition thread
+    private static final int MAX_OPERATIONS_PER_RELEASE_TASK = 100;
+
+    private final Gate[] gates;
+    private final EventServiceImpl eventService;
+    private final InternalOperationService operationService;
+    private final ExecutionService executionService;
+    private final long maxWaitMs;
+
+    PublisherBackpressure(EventServiceImpl eventService, InternalOperationService operationService,
+                          ExecutionService executionService, int partitionCount, long maxWaitMs) {
+        this.eventService = eventService;
+        this.operationService = operationService;
+        this.executionService = executionService;
+        this.maxWaitMs = maxWaitMs;
+        this.gates = new Gate[partitionCount];
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            gates[partitionId] = new Gate(partitionId);
+        }
+    }
+
+    /**
+     * Congests the partition by the {@code registration}. Called on the partition thread.
+     *
+     * @return the task to run once the registration has caught up, or {@code null} if the partition is already
+     * congested by the registration
+     */
+    Runnable congest(int partitionId, Registration registration) {
+        Gate gate = gates[partitionId];
+        final Congestion congestion = new Congestion(gate, registration);
+        if (!gate.congest(congestion)) {
+            return null;
+        }
+        executionService.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (congestion.release()) {
+                    eventService.onBackpressureTimeout(congestion.registration);
+                }
+            }
+        }, maxWaitMs, MILLISECONDS);
+        return congestion;
+    }
+
+    /**
+     * Parks the {@code op} if its partition is congested or has parked operations. Called on the partition thread.
+     *
+     * @return {@code true} if the operation was parked and is run later
+     */
+    boolean park(Operation op) {
+        return gates[op.getPartitionId()].park(op);
+    }
+
+    /**
+     * Releases the parked operations of all partitions, e.g. on shutdown.
+     */
+    void releaseAll() {
+        for (Gate gate : gates) {
+            gate.releaseAll();
+        }
+    }
+
+    /**
+     * Adds the parked operations to the {@code liveOperations}.
+     */
+    void populate(LiveOperations liveOperations) {
+        for (Gate gate : gates) {
+            gate.populate(liveOperations);
+        }
+    }
+
+    /**
+     * The congestions and parked operations of a partition. The operations are parked and the partition is congested
+     * on the partition thread, the congestions are released by the event, scheduler or response threads.
+     */
+    private final class Gate implements PartitionSpecificRunnable, UrgentSystemOperation {
+        private final int partitionId;
+        private final Map<Registration, Congestion> congestions = new HashMap<Registration, Congestion>();
+        private final Queue<Operation> parkedOperations = new LinkedList<Operation>();
+        // true while the partition is congested or has parked operations; read without locking for every operation
+        private volatile boolean closed;
+        // true while this gate is queued on the partition thread to run the parked operations
+        private boolean releasing;
+        // the parked operation being run by this gate, it must not be parked again; only accessed by the partition thread
+        private Operation releasedOperation;
+
+        Gate(int partitionId) {
+            this.partitionId = partitionId;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return partitionId;
+        }
+
+        synchronized boolean congest(Congestion congestion) {
+            if (congestions.containsKey(congestion.registration)) {
+                return false;
+            }
+            congestions.put(congestion.registration, congestion);
+            closed = true;
+            return true;
+        }
+
+        boolean park(Operation op) {
+            if (!closed || op == releasedOperation) {
+                return false;
+            }
+            synchronized (this) {
+                if (!closed) {
+                    return false;
+                }
+                parkedOperations.offer(op);
+                return true;
+            }
+        }
+
+        synchronized boolean release(Congestion congestion) {
+            if (congestions.get(congestion.registration) != congestion) {
+                return false;
+            }
+            congestions.remove(congestion.registration);
+            if (congestions.isEmpty()) {
+                releaseParkedOperations();
+            }
+            return true;
+        }
+
+        synchronized void releaseAll() {
+            congestions.clear();
+            releaseParkedOperations();
+        }
+
+        synchronized void populate(LiveOperations liveOperations) {
+            for (Operation op : parkedOperations) {
+                liveOperations.add(op.getCallerAddress(), op.getCallId());
+            }
+        }
+
+        private void releaseParkedOperations() {
+            if (parkedOperations.isEmpty()) {
+                closed = false;
+            } else if (!releasing) {
+                releasing = true;
+                operationService.execute(this);
+            }
+        }
+
+        /**
+         * Runs the parked operations in order until the partition is congested again or there are no more parked
+         * operations. The operations arriving meanwhile are parked behind them.
+         */
+        @Override
+        public void run() {
+            for (int i = 0; i < MAX_OPERATIONS_PER_RELEASE_TASK; i++) {
+                Operation op = nextReleasedOperation();
+                if (op == null) {
+                    return;
+                }
+                releasedOperation = op;
+                try {
+                    operationService.run(op);
+                } finally {
+                    releasedOperation = null;
+                }
+            }
+            // let the other partitions of the thread run, the remaining operations are run by the next task
+            operationService.execute(this);
+        }
+
+        private synchronized Operation nextReleasedOperation() {
+            Operation op = congestions.isEmpty() ? parkedOperations.poll() : null;
+            if (op == null) {
+                releasing = false;
+                closed = !congestions.isEmpty();
+            }
+            return op;
+        }
+    }
+
+    /**
+     * The congestion of a partition by a registration, released by running it.
+     */
+    private static final class Congestion implements Runnable {
+        private final Gate gate;
+        private final Registration registration;
+
+        Congestion(Gate gate, Registration registration) {
+            this.gate = gate;
+            this.registration = registration;
+        }
+
+        @Override
+        public void run() {
+            release();
+        }
+
+        boolean release() {
+            return gate.release(this);
+        }
+    }
+}
@@ -25,6 +25,10 @@ import com.hazelcast.spi.EventRegistration;
 import com.hazelcast.util.Preconditions;
 
 import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 
 // Even though this class is not used in client-member communication, we annotate it to be excluded from related tests, as it
 // cannot implement IdentifiedDataSerializable (both EventRegistration and IdentifiedDataSerializable interfaces define a
@@ -40,6 +44,10 @@ public class Registration implements EventRegistration {
     private Address subscriber;
     private transient boolean localOnly;
     private transient Object listener;
+    // the state of lossless event delivery, see GroupProperty#EVENT_REGISTRATION_QUEUE_CAPACITY
+    private transient volatile Semaphore eventPermits;
+    private final transient Queue<Runnable> eventPermitWaiters = new ConcurrentLinkedQueue<Runnable>();
+    private final transient AtomicLong publishCount = new AtomicLong();
 
     public Registration() {
     }
@@ -87,6 +95,50 @@ public class Registration implements EventRegistration {
         return listener;
     }
 
+    /**
+     * Returns the permits of the events published to this local registration which are not processed yet.
+     * The permits are created with the given {@code capacity} on the first call.
+     */
+    Semaphore getEventPermits(int capacity) {
+        Semaphore permits = eventPermits;
+        if (permits == null) {
+            synchronized (this) {
+                permits = eventPermits;
+                if (permits == null) {
+                    permits = new Semaphore(capacity);
+                    eventPermits = permits;
+                }
+            }
+        }
+        return permits;
+    }
+
+    /**
+     * Releases a permit taken from {@link #getEventPermits(int)} and runs the waiters for a free permit.
+     */
+    void releaseEventPermit() {
+        eventPermits.release();
+        for (Runnable waiter = eventPermitWaiters.poll(); waiter != null; waiter = eventPermitWaiters.poll()) {
+            waiter.run();
+        }
+    }
+
+    /**
+     * Runs the {@code waiter} once a permit of this local registration is free. The waiter may run more than once.
+     */
+    void awaitEventPermit(Runnable waiter) {
+        eventPermitWaiters.offer(waiter);
+        // the last permit may have been released before the waiter was added
+        if (eventPermits.availablePermits() > 0 && eventPermitWaiters.remove(waiter)) {
+            waiter.run();
+        }
+    }
+
+    /** Increments and returns the number of events published to this registration by this member */
+    long incrementPublishCount() {
+        return publishCount.incrementAndGet();
+    }
+
     // Registration equals() and hashCode() relies on the ID field only,
     // because the registration ID is unique in the cluster
     @Override
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.nio.Address;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.util.ConstructorFunction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.hazelcast.util.ConcurrencyUtil.getOrPutIfAbsent;
+import static com.hazelcast.util.HashUtil.hashToIndex;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Packs the remote events sent to a member into {@link EventEnvelopeBatch}es,
+ * so that many events are sent in a single event packet.
+ * <p>
+ * The events are batched per target member and per stripe of the order
+ * key, using the same number of stripes as the event executor. A batch
+ * packet carries the stripe as its order key, so all events with the same
+ * order key end up in the batches of one stripe, which are processed in
+ * order by a single event thread on the target member. An event which is
+ * sent on another path, like a synchronous event, must be sent after
+ * {@link #flush(Address, int) flushing} the stripe of its order key and
+ * with the {@link #getStripeOrderKey(int) order key of the stripe}, so it
+ * is processed by the same event thread after the batched events.
+ * <p>
+ * A batch is sent by the publishing thread once it is full and otherwise by
+ * a task which runs every batch delay. The events of a stripe are sent
+ * by one thread at a time and in the order they were added.
+ *
+ * @see com.hazelcast.spi.properties.GroupProperty#EVENT_BATCH_DELAY_MILLIS
+ */
+class RemoteEventBatcher {
+
+    private final EventServiceImpl eventService;
+    private final NodeEngineImpl nodeEngine;
+    private final int stripeCount;
+    private final int batchSize;
+    private final long delayMillis;
+    private final ConcurrentMap<Address, Stripe[]> stripesByTarget = new ConcurrentHashMap<Address, Stripe[]>();
+    private final ConstructorFunction<Address, Stripe[]> stripesConstructor = new ConstructorFunction<Address, Stripe[]>() {
+        @Override
+        public Stripe[] createNew(Address target) {
+            Stripe[] stripes = new Stripe[stripeCount];
+            for (int i = 0; i < stripeCount; i++) {
+                stripes[i] = new Stripe(target, i);
+            }
+            return stripes;
+        }
+    };
+
+    private volatile ScheduledFuture<?> flushTask;
+
+    RemoteEventBatcher(EventServiceImpl eventService, NodeEngineImpl nodeEngine, int stripeCount, int batchSize,
+                       long delayMillis) {
+        this.eventService = eventService;
+        this.nodeEngine = nodeEngine;
+        this.stripeCount = stripeCount;
+        this.batchSize = batchSize;
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * Adds an event to the batch of the target member. If the batch is full,
+     * it is sent by the calling thread. The event is dropped if the target
+     * is not a member of the cluster anymore.
+     *
+     * @param target   the member to send the event to
+     * @param envelope the event
+     * @param orderKey the order key of the event
+     */
+    void add(Address target, EventEnvelope envelope, int orderKey) {
+        if (!isMember(target)) {
+            return;
+        }
+        ensureFlushTaskScheduled();
+        Stripe stripe = getStripe(target, orderKey);
+        stripe.queue.offer(envelope);
+        if (stripe.size.incrementAndGet() >= batchSize && stripe.lock.tryLock()) {
+            try {
+                stripe.send();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Sends all pending events for the target member with the stripe of the
+     * order key, waiting for any concurrent send of the stripe to complete.
+     * Used before an event is sent on another path, so it doesn't overtake
+     * the batched events with the same order key.
+     *
+     * @see #getStripeOrderKey(int)
+     */
+    void flush(Address target, int orderKey) {
+        Stripe[] stripes = stripesByTarget.get(target);
+        if (stripes == null) {
+            return;
+        }
+        Stripe stripe = stripes[getStripeOrderKey(orderKey)];
+        stripe.lock.lock();
+        try {
+            stripe.send();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the order key of the batch packets which carry the events with
+     * the given order key. An event sent on another path must use it, so it
+     * is processed by the same event thread as the batches on the target
+     * member.
+     *
+     * @param orderKey the order key of the event
+     * @return the order key of the stripe of the event
+     */
+    int getStripeOrderKey(int orderKey) {
+        return hashToIndex(orderKey, stripeCount);
+    }
+
+    /**
+     * Sends the pending events of all stripes which are not being sent by
+     * another thread at the moment. The stripes of targets which are not
+     * members anymore are discarded, since an {@link #add} racing with
+     * {@link #onMemberLeft} may have recreated them.
+     */
+    void flushAll() {
+        for (Map.Entry<Address, Stripe[]> entry : stripesByTarget.entrySet()) {
+            if (!isMember(entry.getKey())) {
+                stripesByTarget.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            for (Stripe stripe : entry.getValue()) {
+                if (stripe.size.get() > 0 && stripe.lock.tryLock()) {
+                    try {
+                        stripe.send();
+                    } finally {
+                        stripe.lock.unlock();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Discards the pending events for a member which has left the cluster.
+     */
+    void onMemberLeft(Address target) {
+        stripesByTarget.remove(target);
+    }
+
+    void shutdown() {
+        ScheduledFuture<?> task = flushTask;
+        if (task != null) {
+            task.cancel(false);
+        }
+        stripesByTarget.clear();
+    }
+
+    private boolean isMember(Address target) {
+        return nodeEngine.getClusterService().getMember(target) != null;
+    }
+
+    private Stripe getStripe(Address target, int orderKey) {
+        Stripe[] stripes = getOrPutIfAbsent(stripesByTarget, target, stripesConstructor);
+        return stripes[getStripeOrderKey(orderKey)];
+    }
+
+    private void ensureFlushTaskScheduled() {
+        if (flushTask != null) {
+            return;
+        }
+        synchronized (this) {
+            if (flushTask == null) {
+                flushTask = nodeEngine.getExecutionService().scheduleWithRepetition(new Runnable() {
+                    @Override
+                    public void run() {
+                        flushAll();
+                    }
+                }, delayMillis, delayMillis, MILLISECONDS);
+            }
+        }
+    }
+
+    private final class Stripe {
+
+        private final Address target;
+        private final int index;
+        private final Queue<EventEnvelope> queue = new ConcurrentLinkedQueue<EventEnvelope>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final Lock lock = new ReentrantLock();
+
+        Stripe(Address target, int index) {
+            this.target = target;
+            this.index = index;
+        }
+
+        /**
+         * Sends the pending events in batches of at most the batch size.
+         * Must be called with the {@link #lock} held.
+         */
+        void send() {
+            List<EventEnvelope> batch = new ArrayList<EventEnvelope>(batchSize);
+            EventEnvelope envelope;
+            while ((envelope = queue.poll()) != null) {
+                size.decrementAndGet();
+                batch.add(envelope);
+                if (batch.size() == batchSize) {
+                    eventService.transmit(new EventEnvelopeBatch(batch), index, target);
+                    batch = new ArrayList<EventEnvelope>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                eventService.transmit(new EventEnvelopeBatch(batch), index, target);
+            }
+        }
+    }
+}
@@ -26,6 +26,8 @@ import static com.hazelcast.util.EmptyStatement.ignore;
  * An extension of the {@link EventProcessor} which logs and swallows any exception while processing the event.
  * The {@link #orderKey} for this processor is equal to the packet partition ID. This means that when running
  * inside a {@link com.hazelcast.util.executor.StripedExecutor}, all events for the same partition ID will be ordered.
+ * The packet contains either a single {@link EventEnvelope} or an {@link EventEnvelopeBatch}, in which case the
+ * events of the batch are processed one after another.
  *
  * @see EventServiceImpl#sendEvent(com.hazelcast.nio.Address, EventEnvelope, int)
  */
@@ -42,8 +44,25 @@ public class RemoteEventProcessor extends EventProcessor implements StripedRunna
 
     @Override
     public void run() {
+        Object eventObject;
+        try {
+            eventObject = eventService.nodeEngine.toObject(packet);
+        } catch (Exception e) {
+            eventService.logger.warning("Error while logging processing event", e);
+            return;
+        }
+
+        if (eventObject instanceof EventEnvelopeBatch) {
+            for (EventEnvelope eventEnvelope : ((EventEnvelopeBatch) eventObject).getEnvelopes()) {
+                processSafely(eventEnvelope);
+            }
+        } else {
+            processSafely((EventEnvelope) eventObject);
+        }
+    }
+
+    private void processSafely(EventEnvelope eventEnvelope) {
         try {
-            EventEnvelope eventEnvelope = eventService.nodeEngine.toObject(packet);
             process(eventEnvelope);
         } catch (ReplicatedMapCantBeCreatedOnLiteMemberException e) {
             // this happens when there is a lite member in the cluster
@@ -95,6 +95,14 @@ public abstract class OperationThread extends HazelcastManagedThread implements
 
     public abstract OperationRunner operationRunner(int partitionId);
 
+    /**
+     * Returns the {@link OperationRunner} running the current task of this thread, or {@code null} if there is none.
+     * Can only be called by this thread.
+     */
+    public final OperationRunner currentRunner() {
+        return currentRunner;
+    }
+
     @Override
     public final void run() {
         nodeExtension.onThreadStart(this);
@@ -191,6 +191,10 @@ class OperationRunnerImpl extends OperationRunner implements MetricsProvider {
 
             ensureQuorumPresent(op);
 
+            if (nodeEngine.getEventService().parkIfBackpressured(op)) {
+                return;
+            }
+
             op.beforeRun();
 
             call(op);
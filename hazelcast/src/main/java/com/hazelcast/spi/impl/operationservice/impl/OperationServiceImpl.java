@@ -27,6 +27,7 @@ import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.partition.InternalPartitionService;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
 import com.hazelcast.internal.util.RuntimeAvailableProcessors;
 import com.hazelcast.internal.util.counters.Counter;
 import com.hazelcast.internal.util.counters.MwCounter;
@@ -150,8 +151,12 @@ public final class OperationServiceImpl implements InternalOperationService, Met
         this.backpressureRegulator = new BackpressureRegulator(
                 node.getProperties(), node.getLogger(BackpressureRegulator.class));
 
+        ByteArrayPool packetPayloadPool = new ByteArrayPool(
+                node.getProperties().getInteger(GroupProperty.OPERATION_PACKET_POOL_CAPACITY),
+                node.getProperties().getInteger(GroupProperty.OPERATION_PACKET_POOL_BUFFER_SIZE));
+
         this.outboundResponseHandler = new OutboundResponseHandler(thisAddress, serializationService, node,
-                node.getLogger(OutboundResponseHandler.class));
+                node.getLogger(OutboundResponseHandler.class), packetPayloadPool);
 
         this.invocationRegistry = new InvocationRegistry(
                 node.getLogger(OperationServiceImpl.class), backpressureRegulator.newCallIdSequence());
@@ -160,7 +165,8 @@ public final class OperationServiceImpl implements InternalOperationService, Met
                 nodeEngine, thisAddress, node.getProperties(), invocationRegistry,
                 node.getLogger(InvocationMonitor.class), serializationService, nodeEngine.getServiceManager());
 
-        this.outboundOperationHandler = new OutboundOperationHandler(node, thisAddress, serializationService);
+        this.outboundOperationHandler = new OutboundOperationHandler(node, thisAddress, serializationService,
+                packetPayloadPool);
 
         this.backupHandler = new OperationBackupHandler(this, outboundOperationHandler);
 
@@ -18,6 +18,7 @@ package com.hazelcast.spi.impl.operationservice.impl;
 
 import com.hazelcast.instance.Node;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.Connection;
 import com.hazelcast.nio.Packet;
@@ -33,11 +34,14 @@ public class OutboundOperationHandler {
     private final Address thisAddress;
     private final InternalSerializationService serializationService;
     private final Node node;
+    private final ByteArrayPool payloadPool;
 
-    public OutboundOperationHandler(Node node, Address thisAddress, InternalSerializationService serializationService) {
+    public OutboundOperationHandler(Node node, Address thisAddress, InternalSerializationService serializationService,
+                                    ByteArrayPool payloadPool) {
         this.node = node;
         this.thisAddress = thisAddress;
         this.serializationService = serializationService;
+        this.payloadPool = payloadPool;
     }
 
     public boolean send(Operation op, Address target) {
@@ -52,9 +56,10 @@ public class OutboundOperationHandler {
     }
 
     public boolean send(Operation op, Connection connection) {
-        byte[] bytes = serializationService.toBytes(op);
-        int partitionId = op.getPartitionId();
-        Packet packet = new Packet(bytes, partitionId).setPacketType(Packet.Type.OPERATION);
+        // the operation is serialized straight into the pooled payload of the packet, which is
+        // returned to the pool once the packet has been written to the connection
+        Packet packet = serializationService.toPacket(op, op.getPartitionId(), payloadPool)
+                .setPacketType(Packet.Type.OPERATION);
 
         if (op.isUrgent()) {
             packet.raiseFlags(FLAG_URGENT);
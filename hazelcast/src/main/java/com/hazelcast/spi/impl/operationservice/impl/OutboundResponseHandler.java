@@ -18,6 +18,7 @@ package com.hazelcast.spi.impl.operationservice.impl;
 
 import com.hazelcast.instance.Node;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.ConnectionManager;
@@ -71,16 +72,19 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
     // it sucks we need to pass in Node as argument; but this is due to the ConnectionManager which is created after
     // the OperationService is created.
     private final Node node;
+    private final ByteArrayPool payloadPool;
 
     OutboundResponseHandler(Address thisAddress,
                             InternalSerializationService serializationService,
                             Node node,
-                            ILogger logger) {
+                            ILogger logger,
+                            ByteArrayPool payloadPool) {
         this.thisAddress = thisAddress;
         this.serializationService = serializationService;
         this.useBigEndian = serializationService.getByteOrder() == BIG_ENDIAN;
         this.node = node;
         this.logger = logger;
+        this.payloadPool = payloadPool;
     }
 
     @Override
@@ -115,9 +119,7 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
             throw new IllegalArgumentException("Target is this node! -> " + target + ", response: " + response);
         }
 
-        byte[] bytes = serializationService.toBytes(response);
-
-        Packet packet = newResponsePacket(bytes, response.isUrgent());
+        Packet packet = initResponsePacket(serializationService.toPacket(response, -1, payloadPool), response.isUrgent());
 
         return transmit(target, packet);
     }
@@ -131,31 +133,34 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
     }
 
     Packet toNormalResponsePacket(long callId, int backupAcks, boolean urgent, Object value) {
-        byte[] bytes;
+        Packet packet;
         boolean isData = value instanceof Data;
         if (isData) {
             Data data = (Data) value;
 
             int dataLengthInBytes = data.totalSize();
-            bytes = new byte[OFFSET_DATA_PAYLOAD + dataLengthInBytes];
+            int payloadSize = OFFSET_DATA_PAYLOAD + dataLengthInBytes;
+            byte[] bytes = payloadPool.take(payloadSize);
             writeInt(bytes, OFFSET_DATA_LENGTH, dataLengthInBytes, useBigEndian);
 
             // this is a crucial part. If data is NativeMemoryData, instead of calling Data.toByteArray which causes a
             // byte-array to be created and a intermediate copy of the data, we immediately copy the NativeMemoryData
             // into the bytes for the packet.
             data.copyTo(bytes, OFFSET_DATA_PAYLOAD);
+            packet = new Packet(bytes, payloadSize, -1, payloadPool);
         } else if (value == null) {
             // since there are many 'null' responses we optimize this case as well.
-            bytes = new byte[OFFSET_NOT_DATA + INT_SIZE_IN_BYTES];
+            byte[] bytes = new byte[OFFSET_NOT_DATA + INT_SIZE_IN_BYTES];
             writeInt(bytes, OFFSET_NOT_DATA, CONSTANT_TYPE_NULL, useBigEndian);
+            packet = new Packet(bytes, -1);
         } else {
-            // for regular object we currently can't guess how big the bytes will be; so we just hand it
-            // over to the serializationService to deal with it. The negative part is that this does lead to
-            // an intermediate copy of the data.
-
-            bytes = serializationService.toBytes(value, OFFSET_NOT_DATA, false);
+            // for regular object we currently can't guess how big the bytes will be; so the value is serialized
+            // straight into a pooled payload which is large enough for most responses, so there is no intermediate
+            // copy of the data.
+            packet = serializationService.toPacket(value, OFFSET_NOT_DATA, false, payloadPool);
         }
 
+        byte[] bytes = packet.toByteArray();
         writeResponsePrologueBytes(bytes, NORMAL_RESPONSE, callId, urgent);
 
         // backup-acks (will fit in a byte)
@@ -164,7 +169,7 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         bytes[OFFSET_IS_DATA] = (byte) (isData ? 1 : 0);
         //the remaining part of the byte array is already filled, so we are done.
 
-        return newResponsePacket(bytes, urgent);
+        return initResponsePacket(packet, urgent);
     }
 
     public void sendBackupAck(Address target, long callId, boolean urgent) {
@@ -180,7 +185,7 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
 
         writeResponsePrologueBytes(bytes, BACKUP_ACK_RESPONSE, callId, urgent);
 
-        return newResponsePacket(bytes, urgent);
+        return initResponsePacket(new Packet(bytes, -1), urgent);
     }
 
     private void writeResponsePrologueBytes(byte[] bytes, int typeId, long callId, boolean urgent) {
@@ -200,9 +205,8 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         bytes[OFFSET_URGENT] = (byte) (urgent ? 1 : 0);
     }
 
-    private Packet newResponsePacket(byte[] bytes, boolean urgent) {
-        Packet packet = new Packet(bytes, -1)
-                .setPacketType(OPERATION)
+    private Packet initResponsePacket(Packet packet, boolean urgent) {
+        packet.setPacketType(OPERATION)
                 .raiseFlags(FLAG_OP_RESPONSE);
 
         if (urgent) {
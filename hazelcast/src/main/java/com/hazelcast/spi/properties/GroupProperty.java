@@ -170,6 +170,52 @@ public final class GroupProperty {
     public static final HazelcastProperty EVENT_SYNC_TIMEOUT_MILLIS
             = new HazelcastProperty("hazelcast.event.sync.timeout.millis", 5000, MILLISECONDS);
 
+    /**
+     * The maximum time a remote event is held back to be sent together with other events to the same member.
+     * <p>
+     * When set, the events published to a remote listener member within this time are packed into a single event
+     * packet, instead of sending each event in its own packet. Events are batched per target member and per event
+     * thread stripe of the order key, so the events with the same order key are still processed in order.
+     * A batch is sent when it reaches {@link #EVENT_BATCH_SIZE} events or when the delay expires. When {@code 0},
+     * which is the default, each event is sent in its own packet.
+     */
+    public static final HazelcastProperty EVENT_BATCH_DELAY_MILLIS
+            = new HazelcastProperty("hazelcast.event.batch.delay.millis", 0, MILLISECONDS);
+
+    /**
+     * The maximum number of remote events packed into a single event packet.
+     * See {@link #EVENT_BATCH_DELAY_MILLIS}.
+     */
+    public static final HazelcastProperty EVENT_BATCH_SIZE
+            = new HazelcastProperty("hazelcast.event.batch.size", 100);
+
+    /**
+     * The maximum number of events of a single listener registration which may be published but not yet processed.
+     * <p>
+     * When set, events are no longer dropped when the event queue is full. Instead, the publisher is slowed down
+     * until the listener has caught up: a local listener processes one of its queued events, or a remote
+     * subscriber confirms it has processed the events sent to it so far. A partition thread does not wait for the
+     * listener, the next operations of the publishing partition are parked instead and run later in their original
+     * order. Other threads, except system threads, wait.
+     * The memory used by queued events is then bounded by the number of listener registrations instead of by
+     * {@link #EVENT_QUEUE_CAPACITY}, which is ignored. A publisher is slowed down at most
+     * {@link #EVENT_BACKPRESSURE_MAX_WAIT_MILLIS}. When {@code 0}, which is the default, events are dropped when
+     * the event queue is full.
+     */
+    public static final HazelcastProperty EVENT_REGISTRATION_QUEUE_CAPACITY
+            = new HazelcastProperty("hazelcast.event.registration.queue.capacity", 0);
+
+    /**
+     * The maximum time a publisher is slowed down waiting for a listener to catch up.
+     * See {@link #EVENT_REGISTRATION_QUEUE_CAPACITY}.
+     * <p>
+     * The wait is bounded so that a listener which itself waits for the publisher, e.g. by updating an entry
+     * in the partition of the event, can not deadlock it. When the wait times out, the parked operations run
+     * again, the event is delivered anyway and the timeout is counted.
+     */
+    public static final HazelcastProperty EVENT_BACKPRESSURE_MAX_WAIT_MILLIS
+            = new HazelcastProperty("hazelcast.event.backpressure.max.wait.millis", 10000, MILLISECONDS);
+
 
     public static final HazelcastProperty HEALTH_MONITORING_LEVEL
             = new HazelcastProperty("hazelcast.health.monitoring.level", HealthMonitorLevel.SILENT.toString());
@@ -244,6 +290,27 @@ public final class GroupProperty {
     public static final HazelcastProperty MAP_LOAD_CHUNK_SIZE
             = new HazelcastProperty("hazelcast.map.load.chunk.size", 1000);
 
+    /**
+     * The minimum size in bytes of a serialized map value to be compressed, when value compression is enabled
+     * for the map.
+     *
+     * @see com.hazelcast.config.MapConfig#setValueCompressionEnabled(boolean)
+     */
+    public static final HazelcastProperty MAP_VALUE_COMPRESSION_MIN_SIZE
+            = new HazelcastProperty("hazelcast.map.value.compression.min.size", 1024);
+
+    /**
+     * The depth of the Merkle trees maintained over the records of each map partition, or {@code 0} to disable them.
+     * When enabled, a stale backup replica of a map partition is synchronized by transferring only the entries of the
+     * Merkle tree leaves which differ between the primary and the backup replica, instead of the whole partition.
+     * A tree has {@code 2^depth - 1} nodes, each of them taking 4 bytes, and the whole tree of the backup replica is sent
+     * with each sync request. The depth must be in the range [2-12], a tree of depth 12 taking 16KB per map partition.
+     * The trees are maintained only for the maps with {@link com.hazelcast.config.InMemoryFormat#BINARY BINARY}
+     * in-memory format.
+     */
+    public static final HazelcastProperty MAP_MERKLE_TREE_DEPTH
+            = new HazelcastProperty("hazelcast.map.merkle.tree.depth", 0);
+
     /**
      * The delay until the first run of the {@link com.hazelcast.internal.cluster.impl.SplitBrainHandler}
      */
@@ -275,6 +342,21 @@ public final class GroupProperty {
     public static final HazelcastProperty FAIL_ON_INDETERMINATE_OPERATION_STATE
             = new HazelcastProperty("hazelcast.operation.fail.on.indeterminate.state", false);
 
+    /**
+     * The maximum number of byte arrays pooled for outbound operation and response packets. Operations and responses
+     * are serialized straight into a pooled array which is returned to the pool once the packet has been written to
+     * the network. Setting it to 0 disables the pooling.
+     */
+    public static final HazelcastProperty OPERATION_PACKET_POOL_CAPACITY
+            = new HazelcastProperty("hazelcast.operation.packet.pool.capacity", 128);
+
+    /**
+     * The size in bytes of the byte arrays allocated for the outbound operation and response packet pool. Arrays that
+     * grow while an operation is serialized into them are pooled up to 8 times this size.
+     */
+    public static final HazelcastProperty OPERATION_PACKET_POOL_BUFFER_SIZE
+            = new HazelcastProperty("hazelcast.operation.packet.pool.buffer.size", 4096);
+
     /**
      * Maximum number of retries for an invocation. After threshold is reached, invocation is assumed as failed.
      */
@@ -578,6 +660,36 @@ public final class GroupProperty {
             = new HazelcastProperty("hazelcast.partition.migration.timeout", 300, SECONDS);
     public static final HazelcastProperty PARTITION_FRAGMENTED_MIGRATION_ENABLED
             = new HazelcastProperty("hazelcast.partition.migration.fragments.enabled", true);
+    /**
+     * Enables migration of large replica fragments in bounded chunks, for services supporting it.
+     * Each chunk is sent only after the previous one is acknowledged by the migration destination.
+     * Used only when {@link #PARTITION_FRAGMENTED_MIGRATION_ENABLED} is enabled.
+     */
+    public static final HazelcastProperty PARTITION_CHUNKED_MIGRATION_ENABLED
+            = new HazelcastProperty("hazelcast.partition.migration.chunks.enabled", true);
+    /**
+     * Approximate maximum size in megabytes of the replica data sent in a single migration chunk.
+     */
+    public static final HazelcastProperty PARTITION_MIGRATION_CHUNK_MAX_SIZE
+            = new HazelcastProperty("hazelcast.partition.migration.chunks.max.size.mb", 16);
+    /**
+     * Maximum number of migrations the master executes in parallel. Migrations are executed in parallel only
+     * when this is greater than 1 and all members in the cluster are at least on version 3.11.
+     */
+    public static final HazelcastProperty PARTITION_MAX_PARALLEL_MIGRATIONS
+            = new HazelcastProperty("hazelcast.partition.migration.max.parallel", 1);
+    /**
+     * Maximum number of parallel migrations in which a single member sends partition data,
+     * when {@link #PARTITION_MAX_PARALLEL_MIGRATIONS} is greater than 1.
+     */
+    public static final HazelcastProperty PARTITION_MAX_PARALLEL_OUTGOING_MIGRATIONS
+            = new HazelcastProperty("hazelcast.partition.migration.max.parallel.outgoing", 1);
+    /**
+     * Maximum number of parallel migrations in which a single member receives partition data,
+     * when {@link #PARTITION_MAX_PARALLEL_MIGRATIONS} is greater than 1.
+     */
+    public static final HazelcastProperty PARTITION_MAX_PARALLEL_INCOMING_MIGRATIONS
+            = new HazelcastProperty("hazelcast.partition.migration.max.parallel.incoming", 1);
     public static final HazelcastProperty DISABLE_STALE_READ_ON_PARTITION_MIGRATION
             = new HazelcastProperty("hazelcast.partition.migration.stale.read.disabled", false);
 
@@ -656,6 +768,90 @@ public final class GroupProperty {
     public static final HazelcastProperty MAP_WRITE_BEHIND_QUEUE_CAPACITY
             = new HazelcastProperty("hazelcast.map.write.behind.queue.capacity", 50000);
 
+    /**
+     * Maximum number of concurrent {@link com.hazelcast.core.MapStore} calls a write-behind map makes on a member.
+     * <p/>
+     * With the default value of {@code 1} the write-behind queues of all partitions of a map are stored one after
+     * another. With a greater value the partitions are striped across that many store tasks, which run on the
+     * {@link com.hazelcast.spi.ExecutionService#MAP_WRITE_BEHIND_EXECUTOR} executor. Store operations on a key are
+     * still made in order, since all operations on a key belong to the same partition.
+     */
+    public static final HazelcastProperty MAP_WRITE_BEHIND_CONCURRENCY
+            = new HazelcastProperty("hazelcast.map.write.behind.concurrency", 1);
+
+    /**
+     * Enables asynchronous write-through for {@link com.hazelcast.core.IMap#set} on maps with a write-through
+     * {@link com.hazelcast.core.MapStore}.
+     * <p/>
+     * When enabled, the store call is offloaded from the partition thread to the
+     * {@link com.hazelcast.spi.ExecutionService#MAP_WRITE_THROUGH_EXECUTOR} executor and the stores of concurrent
+     * operations are coalesced into {@link com.hazelcast.core.MapStore#storeAll} batches of up to
+     * {@link com.hazelcast.config.MapStoreConfig#getWriteBatchSize()} entries. The entry is put into the map and the
+     * operation completes only after the store succeeded, so a failing store still fails the operation and leaves
+     * the map unchanged. Other operations on the partition are not blocked while the store is in progress, the
+     * key is locked though, so the operations which wait for a lock on the key queue behind the store.
+     * <p/>
+     * Maps with interceptors or a {@link com.hazelcast.core.PostProcessingMapStore} are always stored synchronously.
+     */
+    public static final HazelcastProperty MAP_WRITE_THROUGH_ASYNC
+            = new HazelcastProperty("hazelcast.map.write.through.async", false);
+
+    /**
+     * The directory in which ringbuffers keep their overflow segments. When set, the items overwritten in the
+     * in-memory ringbuffer are spilled to append-only segment files in this directory, one set of
+     * segments per ringbuffer partition, and can still be read from there. This allows reliable topic and event
+     * journal readers which lag behind for a while to catch up instead of failing with a
+     * {@link com.hazelcast.ringbuffer.StaleSequenceException}.
+     * <p/>
+     * The overflow is local to the member and is not replicated. It is not used for ringbuffers with a
+     * {@link com.hazelcast.core.RingbufferStore} or a time to live. When empty, which is the default, the overflow
+     * is disabled.
+     */
+    public static final HazelcastProperty RINGBUFFER_OVERFLOW_DIRECTORY
+            = new HazelcastProperty("hazelcast.ringbuffer.overflow.directory", "");
+
+    /**
+     * The size in bytes of a single ringbuffer overflow segment file.
+     * See {@link #RINGBUFFER_OVERFLOW_DIRECTORY}.
+     */
+    public static final HazelcastProperty RINGBUFFER_OVERFLOW_SEGMENT_SIZE_BYTES
+            = new HazelcastProperty("hazelcast.ringbuffer.overflow.segment.size.bytes", 16 * 1024 * 1024);
+
+    /**
+     * The maximum number of overflow segment files kept for a ringbuffer partition. When exceeded, the
+     * segment holding the oldest items is deleted. See {@link #RINGBUFFER_OVERFLOW_DIRECTORY}.
+     */
+    public static final HazelcastProperty RINGBUFFER_OVERFLOW_SEGMENT_COUNT
+            = new HazelcastProperty("hazelcast.ringbuffer.overflow.segment.count", 4);
+
+    /**
+     * The maximum serialized size in bytes of the events returned by a single event journal read, as done by
+     * {@link com.hazelcast.internal.journal.EventJournalReader#readFromEventJournal}. A batch stops at the event which
+     * reaches the limit, so it always contains at least one event. The limit also completes a read which has
+     * not yet reached its minimum number of events. When {@code 0}, which is the default, only the number of
+     * events limits a batch.
+     */
+    public static final HazelcastProperty EVENT_JOURNAL_READ_MAX_BYTES
+            = new HazelcastProperty("hazelcast.event.journal.read.max.bytes", 0);
+
+    /**
+     * The serialized size in bytes of events at which an event journal read, as done by
+     * {@link com.hazelcast.internal.journal.EventJournalReader#readFromEventJournal}, returns even if it has not yet
+     * reached its minimum number of events. When {@code 0}, which is the default, a read waits for the minimum
+     * number of events.
+     */
+    public static final HazelcastProperty EVENT_JOURNAL_READ_MIN_BYTES
+            = new HazelcastProperty("hazelcast.event.journal.read.min.bytes", 0);
+
+    /**
+     * The maximum time an event journal read, as done by
+     * {@link com.hazelcast.internal.journal.EventJournalReader#readFromEventJournal}, waits for its minimum number of
+     * events. Once it expires, the read returns the events it has collected so far, which can be none. When
+     * {@code -1}, which is the default, a read waits until it has its minimum number of events.
+     */
+    public static final HazelcastProperty EVENT_JOURNAL_READ_MAX_WAIT_MILLIS
+            = new HazelcastProperty("hazelcast.event.journal.read.max.wait.millis", -1, MILLISECONDS);
+
     /**
      * Defines cache invalidation event batch sending is enabled or not.
      */
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.topic;
+
+import com.hazelcast.core.Message;
+
+/**
+ * A {@link ReliableMessageListener} which processes the messages of a reliable topic in parallel,
+ * while messages with the same key are still processed in the order they were published.
+ * <p/>
+ * Each batch read from the ringbuffer is split into {@link #getParallelism()} ordered sub-streams
+ * by the hash of {@link #getMessageKey(Message)}. The sub-streams are processed concurrently on
+ * the executor of the reliable topic, see {@link com.hazelcast.config.ReliableTopicConfig#getExecutor()},
+ * so the listener must be thread-safe. The next batch is read when all sub-streams of the current
+ * batch are processed. If the listener also implements {@link ReliableMessageBatchListener}, each
+ * sub-stream is passed to a single {@link ReliableMessageBatchListener#onMessages} call.
+ * <p/>
+ * {@link #storeSequence(long)} is called once per batch, before the batch is processed, with the
+ * sequence of the last message of the batch.
+ *
+ * @param <E> type of the message payload
+ */
+public interface KeyedReliableMessageListener<E> extends ReliableMessageListener<E> {
+
+    /**
+     * Returns the number of sub-streams processed in parallel. It is called once,
+     * when the listener is registered.
+     *
+     * @return the number of sub-streams, at least {@code 1}
+     */
+    int getParallelism();
+
+    /**
+     * Returns the key which determines the sub-stream of a message. Messages with equal
+     * keys are processed in order. A {@code null} key is allowed.
+     *
+     * @param message the message
+     * @return the key of the message
+     */
+    Object getMessageKey(Message<E> message);
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.topic;
+
+import com.hazelcast.core.Message;
+
+import java.util.List;
+
+/**
+ * A {@link ReliableMessageListener} which receives the messages of a reliable topic in batches.
+ * <p/>
+ * The messages read from the ringbuffer in one go, up to
+ * {@link com.hazelcast.config.ReliableTopicConfig#getReadBatchSize()}, are passed to a single
+ * {@link #onMessages(List)} call instead of one {@link #onMessage(com.hazelcast.core.Message)}
+ * call per message, which is then never called.
+ * <p/>
+ * {@link #storeSequence(long)} is called once per batch, before the batch is processed, with the
+ * sequence of the last message of the batch. If {@link #onMessages(List)} throws an exception and
+ * {@link #isTerminal(Throwable)} returns {@code false}, the listener continues with the next batch.
+ *
+ * @param <E> type of the message payload
+ */
+public interface ReliableMessageBatchListener<E> extends ReliableMessageListener<E> {
+
+    /**
+     * Invoked when a batch of messages is received.
+     *
+     * @param messages the messages in the order they were published, never empty
+     */
+    void onMessages(List<Message<E>> messages);
+}
@@ -0,0 +1,437 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.topic.impl.reliable;
+
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.core.HazelcastInstanceNotActiveException;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.Message;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.ringbuffer.ReadResultSet;
+import com.hazelcast.ringbuffer.Ringbuffer;
+import com.hazelcast.ringbuffer.StaleSequenceException;
+import com.hazelcast.spi.exception.DistributedObjectDestroyedException;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.topic.KeyedReliableMessageListener;
+import com.hazelcast.topic.ReliableMessageBatchListener;
+import com.hazelcast.topic.ReliableMessageListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@link com.hazelcast.core.ExecutionCallback} that will try to read an
+ * item from the ringbuffer or blocks if no item is available. All data
+ * that are read is pushed into the {@link com.hazelcast.core.MessageListener}.
+ * It is a self-perpetuating stream of async calls.
+ * <p/>
+ * The runner keeps track of the sequence.
+ * <p/>
+ * A {@link ReliableMessageBatchListener} receives each read batch in one call and
+ * a {@link KeyedReliableMessageListener} receives the sub-streams of each read batch
+ * in parallel. In both cases the next batch is read after the current one is processed.
+ * <p/>
+ * This class is shared by the member and the client side reliable topic proxies, the
+ * subclasses provide what differs between them.
+ *
+ * @param <E> message type
+ */
+public abstract class MessageRunner<E> implements ExecutionCallback<ReadResultSet<ReliableTopicMessage>> {
+
+    protected final ReliableMessageListener<E> listener;
+    protected final Ringbuffer<ReliableTopicMessage> ringbuffer;
+    protected final String topicName;
+    protected final ILogger logger;
+
+    private final String id;
+    private final int batchSize;
+    private final SerializationService serializationService;
+    private final Executor executor;
+    private final ConcurrentMap<String, ? extends MessageRunner> runnersMap;
+    private final ReliableMessageBatchListener<E> batchListener;
+    private final KeyedReliableMessageListener<E> keyedListener;
+    private final int parallelism;
+    private long sequence;
+    private volatile boolean cancelled;
+
+    @SuppressWarnings("unchecked")
+    public MessageRunner(String id, ReliableMessageListener<E> listener, Ringbuffer<ReliableTopicMessage> ringbuffer,
+                         String topicName, int batchSize, SerializationService serializationService, Executor executor,
+                         ConcurrentMap<String, ? extends MessageRunner> runnersMap, ILogger logger) {
+        this.id = id;
+        this.listener = listener;
+        this.ringbuffer = ringbuffer;
+        this.topicName = topicName;
+        this.batchSize = batchSize;
+        this.serializationService = serializationService;
+        this.executor = executor;
+        this.runnersMap = runnersMap;
+        this.logger = logger;
+        this.batchListener = listener instanceof ReliableMessageBatchListener
+                ? (ReliableMessageBatchListener<E>) listener : null;
+        this.parallelism = ReliableMessageStreams.getParallelism(listener);
+        this.keyedListener = parallelism > 1 ? (KeyedReliableMessageListener<E>) listener : null;
+
+        // we are going to listen to next publication. We don't care about what already has been published.
+        long initialSequence = listener.retrieveInitialSequence();
+        if (initialSequence == -1) {
+            initialSequence = ringbuffer.tailSequence() + 1;
+        }
+        this.sequence = initialSequence;
+    }
+
+    public void next() {
+        if (cancelled) {
+            return;
+        }
+
+        ICompletableFuture<ReadResultSet<ReliableTopicMessage>> f =
+                ringbuffer.readManyAsync(sequence, 1, batchSize, null);
+        f.andThen(this, executor);
+    }
+
+    // This method is called from the provided executor.
+    @Override
+    public void onResponse(ReadResultSet<ReliableTopicMessage> result) {
+        if (batchListener != null || keyedListener != null) {
+            processBatch(result);
+            return;
+        }
+
+        // we process all messages in batch. So we don't release the thread and reschedule ourselves;
+        // but we'll process whatever was received in 1 go.
+        for (Object item : result) {
+            ReliableTopicMessage message = (ReliableTopicMessage) item;
+
+            if (cancelled) {
+                return;
+            }
+
+            try {
+                listener.storeSequence(sequence);
+                process(message);
+            } catch (Throwable t) {
+                if (terminate(t)) {
+                    cancel();
+                    return;
+                }
+            }
+
+            sequence++;
+        }
+        next();
+    }
+
+    /**
+     * Processes a whole read batch, either on this thread or split into sub-streams
+     * which are processed in parallel. The next batch is read once all messages of
+     * this batch are processed.
+     *
+     * @param result the read batch
+     */
+    private void processBatch(ReadResultSet<ReliableTopicMessage> result) {
+        if (cancelled) {
+            return;
+        }
+
+        List<Message<E>> messages = new ArrayList<Message<E>>(result.size());
+        for (Object item : result) {
+            messages.add(toMessage((ReliableTopicMessage) item));
+        }
+        if (messages.isEmpty()) {
+            next();
+            return;
+        }
+        long lastSequence = sequence + messages.size() - 1;
+        sequence += messages.size();
+
+        try {
+            listener.storeSequence(lastSequence);
+        } catch (Throwable t) {
+            if (terminate(t)) {
+                cancel();
+                return;
+            }
+        }
+
+        if (keyedListener == null) {
+            deliver(messages);
+            next();
+            return;
+        }
+        List<List<Message<E>>> streams;
+        try {
+            streams = ReliableMessageStreams.split(messages, keyedListener, parallelism);
+        } catch (Throwable t) {
+            if (terminate(t)) {
+                cancel();
+                return;
+            }
+            // the batch can't be split by key, so it is delivered as a single stream which keeps the order of every key
+            deliver(messages);
+            next();
+            return;
+        }
+        AtomicInteger remainingStreams = new AtomicInteger(streams.size());
+        for (List<Message<E>> stream : streams) {
+            StreamTask task = new StreamTask(stream, remainingStreams);
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        }
+    }
+
+    /**
+     * Passes the messages to the listener, in a single call if it is a batch listener.
+     *
+     * @param messages the messages to be delivered
+     */
+    private void deliver(List<Message<E>> messages) {
+        if (batchListener != null) {
+            if (cancelled) {
+                return;
+            }
+            try {
+                for (int i = 0; i < messages.size(); i++) {
+                    updateStatistics();
+                }
+                batchListener.onMessages(messages);
+            } catch (Throwable t) {
+                if (terminate(t)) {
+                    cancel();
+                }
+            }
+            return;
+        }
+
+        for (Message<E> message : messages) {
+            if (cancelled) {
+                return;
+            }
+            try {
+                updateStatistics();
+                listener.onMessage(message);
+            } catch (Throwable t) {
+                if (terminate(t)) {
+                    cancel();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Delivers a sub-stream of a batch. The task which delivers the
+     * last sub-stream of the batch triggers reading the next batch.
+     */
+    private final class StreamTask implements Runnable {
+
+        private final List<Message<E>> messages;
+        private final AtomicInteger remainingStreams;
+
+        private StreamTask(List<Message<E>> messages, AtomicInteger remainingStreams) {
+            this.messages = messages;
+            this.remainingStreams = remainingStreams;
+        }
+
+        @Override
+        public void run() {
+            try {
+                deliver(messages);
+            } finally {
+                if (remainingStreams.decrementAndGet() == 0) {
+                    next();
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes the message by increasing the local topic stats and
+     * calling the user supplied listener.
+     *
+     * @param message the reliable topic message
+     * @throws Throwable
+     */
+    private void process(ReliableTopicMessage message) throws Throwable {
+        updateStatistics();
+        listener.onMessage(toMessage(message));
+    }
+
+    private Message<E> toMessage(ReliableTopicMessage m) {
+        Member member = getMember(m);
+        E payload = serializationService.toObject(m.getPayload());
+        return new Message<E>(topicName, payload, m.getPublishTime(), member);
+    }
+
+    // This method is called from the provided executor.
+    @Override
+    public void onFailure(Throwable t) {
+        if (cancelled) {
+            return;
+        }
+
+        t = adjustThrowable(t);
+        if (t instanceof IllegalArgumentException && listener.isLossTolerant()) {
+            if (handleIllegalArgumentException((IllegalArgumentException) t)) {
+                return;
+            }
+        } else if (t instanceof StaleSequenceException) {
+            if (handleStaleSequenceException((StaleSequenceException) t)) {
+                return;
+            }
+        } else if (t instanceof HazelcastInstanceNotActiveException) {
+            if (logger.isFinestEnabled()) {
+                logger.finest("Terminating MessageListener " + listener + " on topic: " + topicName + ". "
+                        + " Reason: HazelcastInstance is shutting down");
+            }
+        } else if (t instanceof DistributedObjectDestroyedException) {
+            if (logger.isFinestEnabled()) {
+                logger.finest("Terminating MessageListener " + listener + " on topic: " + topicName + ". "
+                        + "Reason: Topic is destroyed");
+            }
+        } else if (!handleInternalException(t)) {
+            logger.warning("Terminating MessageListener " + listener + " on topic: " + topicName + ". "
+                    + "Reason: Unhandled exception, message: " + t.getMessage(), t);
+        }
+
+        cancel();
+    }
+
+    /**
+     * Handles a {@link StaleSequenceException} associated with requesting
+     * a sequence older than the {@code headSequence}.
+     * This may indicate that the reader was too slow and items in the
+     * ringbuffer were already overwritten.
+     *
+     * @param staleSequenceException the exception
+     * @return if the exception was handled and the listener may continue reading
+     */
+    private boolean handleStaleSequenceException(StaleSequenceException staleSequenceException) {
+        long headSeq = getHeadSequence(staleSequenceException);
+        if (listener.isLossTolerant()) {
+            if (logger.isFinestEnabled()) {
+                logger.finest("MessageListener " + listener + " on topic: " + topicName + " ran into a stale sequence. "
+                        + "Jumping from oldSequence: " + sequence
+                        + " to sequence: " + headSeq);
+            }
+            sequence = headSeq;
+            next();
+            return true;
+        }
+
+        logger.warning("Terminating MessageListener:" + listener + " on topic: " + topicName + ". "
+                + "Reason: The listener was too slow or the retention period of the message has been violated. "
+                + "head: " + headSeq + " sequence:" + sequence);
+        return false;
+    }
+
+    /**
+     * Handles the {@link IllegalArgumentException} associated with requesting
+     * a sequence larger than the {@code tailSequence + 1}.
+     * This may indicate that an entire partition or an entire ringbuffer was
+     * lost.
+     *
+     * @param t the exception
+     * @return if the exception was handled and the listener may continue reading
+     */
+    private boolean handleIllegalArgumentException(IllegalArgumentException t) {
+        final long currentHeadSequence = ringbuffer.headSequence();
+        if (logger.isFinestEnabled()) {
+            logger.finest(String.format("MessageListener %s on topic %s requested a too large sequence: %s. "
+                            + ". Jumping from old sequence: %s to sequence: %s",
+                    listener, topicName, t.getMessage(), sequence, currentHeadSequence));
+        }
+        this.sequence = currentHeadSequence;
+        next();
+        return true;
+    }
+
+    public void cancel() {
+        cancelled = true;
+        runnersMap.remove(id);
+    }
+
+    private boolean terminate(Throwable failure) {
+        if (cancelled) {
+            return true;
+        }
+
+        try {
+            boolean terminate = listener.isTerminal(failure);
+            if (terminate) {
+                logger.warning("Terminating MessageListener " + listener + " on topic: " + topicName + ". "
+                        + "Reason: Unhandled exception, message: " + failure.getMessage(), failure);
+            } else {
+                if (logger.isFinestEnabled()) {
+                    logger.finest("MessageListener " + listener + " on topic: " + topicName + " ran into an exception:"
+                            + " message:" + failure.getMessage(), failure);
+                }
+            }
+            return terminate;
+        } catch (Throwable t) {
+            logger.warning("Terminating messageListener:" + listener + " on topic: " + topicName + ". "
+                    + "Reason: Unhandled exception while calling ReliableMessageListener.isTerminal() method", t);
+            return true;
+        }
+    }
+
+    /**
+     * Returns the member which published the message.
+     *
+     * @param m the reliable topic message
+     * @return the publishing member or {@code null} if it is not known
+     */
+    protected abstract Member getMember(ReliableTopicMessage m);
+
+    /**
+     * Updates the statistics of the topic for a received message.
+     */
+    protected abstract void updateStatistics();
+
+    /**
+     * Returns the head sequence of the ringbuffer after a {@link StaleSequenceException}.
+     *
+     * @param staleSequenceException the exception
+     * @return the sequence to continue reading from
+     */
+    protected abstract long getHeadSequence(StaleSequenceException staleSequenceException);
+
+    /**
+     * Unwraps the failure of a read, if needed, before it is handled.
+     *
+     * @param t the failure
+     * @return the failure to handle
+     */
+    protected abstract Throwable adjustThrowable(Throwable t);
+
+    /**
+     * Handles a read failure which is specific to the member or the client side.
+     * The runner is cancelled afterwards.
+     *
+     * @param t the failure
+     * @return {@code true} if the failure has been handled, {@code false} if it is an unhandled failure
+     */
+    protected abstract boolean handleInternalException(Throwable t);
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.topic.impl.reliable;
+
+import com.hazelcast.core.Message;
+import com.hazelcast.topic.KeyedReliableMessageListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.util.HashUtil.hashToIndex;
+
+/**
+ * Utility methods for delivering reliable topic messages to a
+ * {@link KeyedReliableMessageListener}, shared by the member and client side
+ * listener runners.
+ */
+public final class ReliableMessageStreams {
+
+    private ReliableMessageStreams() {
+    }
+
+    /**
+     * Splits the messages into ordered sub-streams by the hash of their key.
+     * Messages with equal keys end up in the same sub-stream, in their original order.
+     *
+     * @param messages    the messages to be split
+     * @param listener    the listener which provides the message keys
+     * @param parallelism the maximum number of sub-streams
+     * @return the non-empty sub-streams
+     */
+    public static <E> List<List<Message<E>>> split(List<Message<E>> messages, KeyedReliableMessageListener<E> listener,
+                                                   int parallelism) {
+        List<List<Message<E>>> streams = new ArrayList<List<Message<E>>>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            streams.add(null);
+        }
+        for (Message<E> message : messages) {
+            Object key = listener.getMessageKey(message);
+            int index = key == null ? 0 : hashToIndex(key.hashCode(), parallelism);
+            List<Message<E>> stream = streams.get(index);
+            if (stream == null) {
+                stream = new ArrayList<Message<E>>();
+                streams.set(index, stream);
+            }
+            stream.add(message);
+        }
+
+        List<List<Message<E>>> result = new ArrayList<List<Message<E>>>(parallelism);
+        for (List<Message<E>> stream : streams) {
+            if (stream != null) {
+                result.add(stream);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the parallelism of the listener, or {@code 1} if the
+     * listener doesn't process messages in parallel.
+     *
+     * @param listener the listener
+     * @return the number of sub-streams to be processed in parallel
+     */
+    public static int getParallelism(Object listener) {
+        if (listener instanceof KeyedReliableMessageListener) {
+            return Math.max(1, ((KeyedReliableMessageListener) listener).getParallelism());
+        }
+        return 1;
+    }
+}
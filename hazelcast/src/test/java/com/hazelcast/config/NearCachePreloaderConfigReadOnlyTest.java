@@ -50,4 +50,9 @@ public class NearCachePreloaderConfigReadOnlyTest {
     public void setStoreIntervalSecondsOnReadOnlyNearCachePreloaderConfigShouldFail() {
         getReadOnlyConfig().setStoreIntervalSeconds(5);
     }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void setStoreValuesOnReadOnlyNearCachePreloaderConfigShouldFail() {
+        getReadOnlyConfig().setStoreValues(true);
+    }
 }
@@ -27,6 +27,7 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -85,12 +86,22 @@ public class NearCachePreloaderConfigTest {
         config.setStoreIntervalSeconds(-1);
     }
 
+    @Test
+    public void setStoreValues() {
+        assertFalse(config.isStoreValues());
+
+        config.setStoreValues(true);
+
+        assertTrue(config.isStoreValues());
+    }
+
     @Test
     public void testSerialization() {
         config.setEnabled(true);
         config.setDirectory("myParentDirectory");
         config.setStoreInitialDelaySeconds(23);
         config.setStoreIntervalSeconds(42);
+        config.setStoreValues(true);
 
         SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
         Data serialized = serializationService.toData(config);
@@ -100,6 +111,7 @@ public class NearCachePreloaderConfigTest {
         assertEquals(config.getDirectory(), deserialized.getDirectory());
         assertEquals(config.getStoreInitialDelaySeconds(), deserialized.getStoreInitialDelaySeconds());
         assertEquals(config.getStoreIntervalSeconds(), deserialized.getStoreIntervalSeconds());
+        assertEquals(config.isStoreValues(), deserialized.isStoreValues());
         assertEquals(config.toString(), deserialized.toString());
     }
 }
@@ -17,6 +17,7 @@
 package com.hazelcast.internal.config;
 
 import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NativeMemoryConfig;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
@@ -50,13 +51,21 @@ public class ConfigValidatorNearCacheConfigTest extends HazelcastTestSupport {
     }
 
     /**
-     * Not supported in open source version, so test is expected to throw exception.
+     * Requires an enabled native memory config, so test is expected to throw exception.
      */
     @Test(expected = IllegalArgumentException.class)
     public void checkNearCacheConfig_NATIVE() {
         checkNearCacheConfig(MAP_NAME, getNearCacheConfig(NATIVE), null, false);
     }
 
+    @Test
+    public void checkNearCacheConfig_NATIVE_withNativeMemoryConfig() {
+        NativeMemoryConfig nativeMemoryConfig = new NativeMemoryConfig()
+                .setEnabled(true);
+
+        checkNearCacheConfig(MAP_NAME, getNearCacheConfig(NATIVE), nativeMemoryConfig, false);
+    }
+
     /**
      * Not supported client configuration, so test is expected to throw exception.
      */
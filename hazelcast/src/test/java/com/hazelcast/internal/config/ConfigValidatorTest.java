@@ -133,30 +133,20 @@ public class ConfigValidatorTest extends HazelcastTestSupport {
     }
 
     @Test
-    public void checkNearCacheNativeMemoryConfig_shouldNotNeedNativeMemoryConfig_BINARY_onOS() {
-        checkNearCacheNativeMemoryConfig(BINARY, null, false);
+    public void checkNearCacheNativeMemoryConfig_shouldNotNeedNativeMemoryConfig_BINARY() {
+        checkNearCacheNativeMemoryConfig(BINARY, null);
     }
 
     @Test
-    public void checkNearCacheNativeMemoryConfig_shouldNotNeedNativeMemoryConfig_BINARY_onEE() {
-        checkNearCacheNativeMemoryConfig(BINARY, null, true);
-    }
-
-    @Test
-    public void checkNearCacheNativeMemoryConfig_shouldNotThrowExceptionWithoutNativeMemoryConfig_NATIVE_onOS() {
-        checkNearCacheNativeMemoryConfig(NATIVE, null, false);
-    }
-
-    @Test
-    public void checkNearCacheNativeMemoryConfig_shouldNotThrowExceptionWithNativeMemoryConfig_NATIVE_onEE() {
+    public void checkNearCacheNativeMemoryConfig_shouldNotThrowExceptionWithNativeMemoryConfig_NATIVE() {
         NativeMemoryConfig nativeMemoryConfig = new NativeMemoryConfig()
                 .setEnabled(true);
 
-        checkNearCacheNativeMemoryConfig(NATIVE, nativeMemoryConfig, true);
+        checkNearCacheNativeMemoryConfig(NATIVE, nativeMemoryConfig);
     }
 
     @Test(expected = IllegalArgumentException.class)
-    public void checkNearCacheNativeMemoryConfig_shouldThrowExceptionWithoutNativeMemoryConfig_NATIVE_onEE() {
-        checkNearCacheNativeMemoryConfig(NATIVE, null, true);
+    public void checkNearCacheNativeMemoryConfig_shouldThrowExceptionWithoutNativeMemoryConfig_NATIVE() {
+        checkNearCacheNativeMemoryConfig(NATIVE, null);
     }
 }
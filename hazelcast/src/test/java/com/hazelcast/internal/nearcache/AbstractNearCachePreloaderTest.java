@@ -162,10 +162,27 @@ public abstract class AbstractNearCachePreloaderTest<NK, NV> extends HazelcastTe
         storeAndLoad(4223, STRING);
     }
 
+    @Test(timeout = 10 * MINUTE)
+    @Category(SlowTest.class)
+    public void testStoreAndLoad_withIntegerKeys_withValues() {
+        storeAndLoad(2342, INTEGER, true);
+    }
+
+    @Test(timeout = 10 * MINUTE)
+    @Category(SlowTest.class)
+    public void testStoreAndLoad_withStringKeys_withValues() {
+        storeAndLoad(4223, STRING, true);
+    }
+
     private void storeAndLoad(int keyCount, KeyType keyType) {
+        storeAndLoad(keyCount, keyType, false);
+    }
+
+    private void storeAndLoad(int keyCount, KeyType keyType, boolean storeValues) {
         nearCacheConfig.getPreloaderConfig()
                 .setStoreInitialDelaySeconds(3)
-                .setStoreIntervalSeconds(1);
+                .setStoreIntervalSeconds(1)
+                .setStoreValues(storeValues);
 
         NearCacheTestContext<Object, String, NK, NV> context = createContext(true);
 
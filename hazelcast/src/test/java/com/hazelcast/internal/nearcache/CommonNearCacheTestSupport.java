@@ -18,6 +18,8 @@ package com.hazelcast.internal.nearcache;
 
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
+import com.hazelcast.internal.nearcache.impl.store.NativeNearCacheRecordStore;
 import com.hazelcast.internal.nearcache.impl.store.NearCacheDataRecordStore;
 import com.hazelcast.internal.nearcache.impl.store.NearCacheObjectRecordStore;
 import com.hazelcast.internal.serialization.InternalSerializationService;
@@ -65,6 +67,9 @@ public abstract class CommonNearCacheTestSupport extends HazelcastTestSupport {
             case OBJECT:
                 recordStore = new NearCacheObjectRecordStore<K, V>(DEFAULT_NEAR_CACHE_NAME, nearCacheConfig, ss, null);
                 break;
+            case NATIVE:
+                recordStore = new NativeNearCacheRecordStore<K, V>(DEFAULT_NEAR_CACHE_NAME, nearCacheConfig, ss, null);
+                break;
             default:
                 throw new IllegalArgumentException("Unsupported in-memory format: " + inMemoryFormat);
         }
@@ -72,6 +77,14 @@ public abstract class CommonNearCacheTestSupport extends HazelcastTestSupport {
         return recordStore;
     }
 
+    <K, V> NearCacheRecordStore<K, V> createNativeNearCacheRecordStore(NearCacheConfig nearCacheConfig,
+                                                                       UnsafeMemoryAllocator nativeMemoryAllocator) {
+        NearCacheRecordStore<K, V> recordStore = new NativeNearCacheRecordStore<K, V>(DEFAULT_NEAR_CACHE_NAME,
+                nearCacheConfig, ss, null, nativeMemoryAllocator);
+        recordStore.initialize();
+        return recordStore;
+    }
+
     @SuppressWarnings("unused")
     TaskScheduler createTaskScheduler() {
         ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(1);
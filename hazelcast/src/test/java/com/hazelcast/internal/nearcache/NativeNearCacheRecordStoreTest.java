@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.nearcache;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionConfig.MaxSizePolicy;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.config.InMemoryFormat.NATIVE;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.READ_PERMITTED;
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NativeNearCacheRecordStoreTest extends NearCacheRecordStoreTestSupport {
+
+    @Test
+    public void putAndGetRecord() {
+        putAndGetRecord(NATIVE);
+    }
+
+    @Test
+    public void putAndRemoveRecord() {
+        putAndRemoveRecord(NATIVE);
+    }
+
+    @Test
+    public void clearRecords() {
+        clearRecordsOrDestroyStore(NATIVE, false);
+    }
+
+    @Test
+    public void destroyStore() {
+        clearRecordsOrDestroyStore(NATIVE, true);
+    }
+
+    @Test
+    public void statsCalculated() {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                statsCalculated(NATIVE);
+            }
+        });
+    }
+
+    @Test
+    public void ttlEvaluated() {
+        ttlEvaluated(NATIVE);
+    }
+
+    @Test
+    public void maxIdleTimeEvaluatedSuccessfully() {
+        maxIdleTimeEvaluatedSuccessfully(NATIVE);
+    }
+
+    @Test
+    public void expiredRecordsCleanedUpSuccessfullyBecauseOfTTL() {
+        expiredRecordsCleanedUpSuccessfully(NATIVE, false);
+    }
+
+    @Test
+    public void expiredRecordsCleanedUpSuccessfullyBecauseOfIdleTime() {
+        expiredRecordsCleanedUpSuccessfully(NATIVE, true);
+    }
+
+    @Test
+    public void canCreateWithEntryCountMaxSizePolicy() {
+        createNearCacheWithMaxSizePolicy(NATIVE, MaxSizePolicy.ENTRY_COUNT, 1000);
+    }
+
+    @Test
+    public void canCreateWithUsedNativeMemorySizeMaxSizePolicy() {
+        createNearCacheWithMaxSizePolicy(NATIVE, MaxSizePolicy.USED_NATIVE_MEMORY_SIZE, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cannotCreateWithFreeNativeMemorySizeMaxSizePolicy() {
+        createNearCacheWithMaxSizePolicy(NATIVE, MaxSizePolicy.FREE_NATIVE_MEMORY_SIZE, 1000000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cannotCreateWithUsedNativeMemoryPercentageMaxSizePolicy() {
+        createNearCacheWithMaxSizePolicy(NATIVE, MaxSizePolicy.USED_NATIVE_MEMORY_PERCENTAGE, 99);
+    }
+
+    @Test
+    public void evictionTriggeredAndHandledSuccessfullyWithEntryCountMaxSizePolicyAndLRUEvictionPolicy() {
+        doEvictionWithEntryCountMaxSizePolicy(EvictionPolicy.LRU);
+    }
+
+    @Test
+    public void evictionTriggeredAndHandledSuccessfullyWithEntryCountMaxSizePolicyAndLFUEvictionPolicy() {
+        doEvictionWithEntryCountMaxSizePolicy(EvictionPolicy.LFU);
+    }
+
+    @Test
+    public void evictionTriggeredAndHandledSuccessfullyWithEntryCountMaxSizePolicyAndRandomEvictionPolicy() {
+        doEvictionWithEntryCountMaxSizePolicy(EvictionPolicy.RANDOM);
+    }
+
+    @Test
+    public void evictionTriggeredAndHandledSuccessfullyWithUsedNativeMemorySizeMaxSizePolicy() {
+        EvictionConfig evictionConfig = new EvictionConfig()
+                .setMaximumSizePolicy(MaxSizePolicy.USED_NATIVE_MEMORY_SIZE)
+                .setSize(1);
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, NATIVE)
+                .setEvictionConfig(evictionConfig);
+        NearCacheRecordStore<Integer, byte[]> nearCacheRecordStore = createNearCacheRecordStore(nearCacheConfig, NATIVE);
+
+        // 1000 values with 10 KB each don't fit into 1 MB
+        int recordCount = 1000;
+        for (int i = 0; i < recordCount; i++) {
+            nearCacheRecordStore.doEvictionIfRequired();
+            nearCacheRecordStore.put(i, null, new byte[10 * 1024]);
+        }
+
+        int size = nearCacheRecordStore.size();
+        assertTrue("Expected evictions, but Near Cache size is " + size, size < recordCount);
+        assertEquals(recordCount - size, nearCacheRecordStore.getNearCacheStats().getEvictions());
+        nearCacheRecordStore.destroy();
+    }
+
+    @Test
+    public void reserveAndPublish() {
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, NATIVE);
+        NearCacheRecordStore<Integer, String> nearCacheRecordStore = createNearCacheRecordStore(nearCacheConfig, NATIVE);
+
+        long reservationId = nearCacheRecordStore.tryReserveForUpdate(1, null);
+        assertNotEquals(NOT_RESERVED, reservationId);
+        assertEquals(NOT_RESERVED, nearCacheRecordStore.tryReserveForUpdate(1, null));
+        assertNull(nearCacheRecordStore.get(1));
+
+        assertEquals("value", nearCacheRecordStore.tryPublishReserved(1, "value", reservationId, true));
+        assertEquals("value", nearCacheRecordStore.get(1));
+        assertEquals(1, nearCacheRecordStore.getNearCacheStats().getOwnedEntryCount());
+
+        // a stale reservation doesn't overwrite the published value
+        assertEquals("value", nearCacheRecordStore.tryPublishReserved(1, "otherValue", reservationId, true));
+        nearCacheRecordStore.destroy();
+    }
+
+    @Test
+    public void getRecord_returnsDetachedCopy() {
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, NATIVE);
+        NearCacheRecordStore<Integer, String> nearCacheRecordStore = createNearCacheRecordStore(nearCacheConfig, NATIVE);
+        nearCacheRecordStore.put(1, null, "value");
+        nearCacheRecordStore.get(1);
+
+        NearCacheRecord record = nearCacheRecordStore.getRecord(1);
+        nearCacheRecordStore.destroy();
+
+        assertNotNull(record);
+        assertNotNull(record.getValue());
+        assertEquals(READ_PERMITTED, record.getRecordState());
+        assertEquals(1, record.getAccessHit());
+    }
+
+    @Test
+    public void putNullValue() {
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, NATIVE);
+        NearCacheRecordStore<Integer, String> nearCacheRecordStore = createNearCacheRecordStore(nearCacheConfig, NATIVE);
+
+        nearCacheRecordStore.put(1, null, null);
+
+        assertEquals(NearCache.CACHED_AS_NULL, nearCacheRecordStore.get(1));
+        nearCacheRecordStore.destroy();
+    }
+
+    @Test
+    public void get_ofReservedRecord_countsMiss() {
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, NATIVE);
+        NearCacheRecordStore<Integer, String> nearCacheRecordStore = createNearCacheRecordStore(nearCacheConfig, NATIVE);
+        nearCacheRecordStore.tryReserveForUpdate(1, null);
+
+        assertNull(nearCacheRecordStore.get(1));
+        assertEquals(1, nearCacheRecordStore.getNearCacheStats().getMisses());
+        assertEquals(0, nearCacheRecordStore.getNearCacheStats().getHits());
+        nearCacheRecordStore.destroy();
+    }
+
+    @Test
+    public void put_whenNativeMemoryIsExhausted_thenRecordsAreForceEvicted() {
+        UnsafeMemoryAllocator nativeMemoryAllocator = new UnsafeMemoryAllocator(MEGABYTES.toBytes(1));
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, NATIVE);
+        NearCacheRecordStore<Integer, byte[]> nearCacheRecordStore
+                = createNativeNearCacheRecordStore(nearCacheConfig, nativeMemoryAllocator);
+
+        // 1000 values with 10 KB each don't fit into 1 MB, although the max-size policy doesn't evict
+        int recordCount = 1000;
+        for (int i = 0; i < recordCount; i++) {
+            nearCacheRecordStore.put(i, null, new byte[10 * 1024]);
+            assertNotNull(nearCacheRecordStore.get(i));
+            assertTrue(nativeMemoryAllocator.getUsedMemory() <= MEGABYTES.toBytes(1));
+        }
+
+        int size = nearCacheRecordStore.size();
+        assertTrue("Expected forced evictions, but Near Cache size is " + size, size < recordCount);
+        nearCacheRecordStore.destroy();
+        assertEquals(0, nativeMemoryAllocator.getUsedMemory());
+    }
+
+    @Test
+    public void put_whenNativeMemoryIsUsedByOtherNearCache_thenValueIsNotCached() {
+        UnsafeMemoryAllocator nativeMemoryAllocator = new UnsafeMemoryAllocator(MEGABYTES.toBytes(1));
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, NATIVE);
+        NearCacheRecordStore<Integer, byte[]> fullRecordStore
+                = createNativeNearCacheRecordStore(nearCacheConfig, nativeMemoryAllocator);
+        NearCacheRecordStore<Integer, byte[]> otherRecordStore
+                = createNativeNearCacheRecordStore(nearCacheConfig, nativeMemoryAllocator);
+        for (int i = 0; i < 200; i++) {
+            fullRecordStore.put(i, null, new byte[10 * 1024]);
+        }
+
+        otherRecordStore.put(1, null, new byte[100 * 1024]);
+
+        assertNull(otherRecordStore.get(1));
+        assertEquals(0, otherRecordStore.size());
+        assertTrue(nativeMemoryAllocator.getUsedMemory() <= MEGABYTES.toBytes(1));
+        otherRecordStore.destroy();
+        fullRecordStore.destroy();
+    }
+
+    @Test
+    public void get_concurrentlyWithPuts() throws Exception {
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, NATIVE);
+        final NearCacheRecordStore<Integer, String> nearCacheRecordStore = createNearCacheRecordStore(nearCacheConfig, NATIVE);
+        final int keyCount = 100;
+        for (int i = 0; i < keyCount; i++) {
+            nearCacheRecordStore.put(i, null, "value-" + i);
+        }
+
+        final AtomicBoolean stop = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        while (!stop.get()) {
+                            for (int i = 0; i < keyCount; i++) {
+                                String value = nearCacheRecordStore.get(i);
+                                if (value != null && !value.equals("value-" + i) && !value.startsWith("value-" + i + "-")) {
+                                    throw new AssertionError("Unexpected value " + value + " for key " + i);
+                                }
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failure.set(e);
+                    }
+                }
+            };
+            readers[i].start();
+        }
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < keyCount; i++) {
+                nearCacheRecordStore.put(i, null, "value-" + i + "-" + round);
+            }
+        }
+        stop.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(keyCount, nearCacheRecordStore.size());
+        nearCacheRecordStore.destroy();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void get_afterDestroy() {
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, NATIVE);
+        NearCacheRecordStore<Integer, String> nearCacheRecordStore = createNearCacheRecordStore(nearCacheConfig, NATIVE);
+        nearCacheRecordStore.destroy();
+
+        nearCacheRecordStore.get(1);
+    }
+
+    private void doEvictionWithEntryCountMaxSizePolicy(EvictionPolicy evictionPolicy) {
+        int maxSize = DEFAULT_RECORD_COUNT / 2;
+
+        EvictionConfig evictionConfig = new EvictionConfig()
+                .setMaximumSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+                .setSize(maxSize)
+                .setEvictionPolicy(evictionPolicy);
+
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, NATIVE)
+                .setEvictionConfig(evictionConfig);
+
+        NearCacheRecordStore<Integer, String> nearCacheRecordStore = createNearCacheRecordStore(nearCacheConfig, NATIVE);
+
+        for (int i = 0; i < DEFAULT_RECORD_COUNT; i++) {
+            nearCacheRecordStore.put(i, null, "Record-" + i);
+            nearCacheRecordStore.doEvictionIfRequired();
+            assertTrue(maxSize >= nearCacheRecordStore.size());
+        }
+        nearCacheRecordStore.destroy();
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.preloader;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.NearCachePreloaderConfig;
+import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.NearCacheRecordStore;
+import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataContainer;
+import com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector;
+import com.hazelcast.internal.nearcache.impl.record.NearCacheObjectRecord;
+import com.hazelcast.internal.nearcache.impl.store.NearCacheObjectRecordStore;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.hazelcast.internal.nearcache.NearCacheRecord.TIME_NOT_SET;
+import static com.hazelcast.nio.IOUtil.closeResource;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NearCachePreloaderTest extends HazelcastTestSupport {
+
+    private static final int PARTITION_COUNT = 10;
+    private static final long OLD_CREATION_TIME = 1;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final MetaDataContainer[] metaData = new MetaDataContainer[PARTITION_COUNT];
+    private final StaleReadDetector staleReadDetector = new TestStaleReadDetector();
+    private final Set<Object> loadedKeys = Collections.newSetFromMap(new ConcurrentHashMap<Object, Boolean>());
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private String nearCacheName;
+    private NearCachePreloaderConfig preloaderConfig;
+    private File storeFile;
+    private NearCachePreloader<Integer> preloader;
+    private NearCacheObjectRecordStore<Integer, String> recordStore;
+
+    @Before
+    public void setUp() throws Exception {
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            metaData[i] = new MetaDataContainer();
+            metaData[i].setUuid(UUID.randomUUID());
+            metaData[i].setSequence(i);
+        }
+
+        nearCacheName = randomMapName();
+        File directory = tempFolder.newFolder();
+        preloaderConfig = new NearCachePreloaderConfig()
+                .setEnabled(true)
+                .setStoreValues(true)
+                .setDirectory(directory.getAbsolutePath());
+        storeFile = new File(directory, "nearCache-" + nearCacheName + ".store");
+        preloader = new NearCachePreloader<Integer>(nearCacheName, preloaderConfig, new NearCacheStatsImpl(),
+                serializationService);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        if (preloader != null) {
+            preloader.destroy();
+        }
+        if (recordStore != null) {
+            recordStore.destroy();
+        }
+    }
+
+    @Test
+    public void testLoad_putsStoredValuesIntoRecordStore() {
+        preloader.storeEntries(createEntries(0, 5000, OLD_CREATION_TIME), staleReadDetector);
+
+        load(executor);
+
+        assertValuesLoadedFromFile(0, 5000);
+        assertEquals(5000, recordStore.size());
+    }
+
+    @Test
+    public void testLoad_whenExecutorRejects_thenCallingThreadLoadsAllValues() {
+        preloader.storeEntries(createEntries(0, 5000, OLD_CREATION_TIME), staleReadDetector);
+        executor.shutdown();
+
+        load(executor);
+
+        assertValuesLoadedFromFile(0, 5000);
+    }
+
+    @Test
+    public void testStore_appendsOnlyNewEntries() throws Exception {
+        preloader.storeEntries(createEntries(0, 100, OLD_CREATION_TIME), staleReadDetector);
+        byte[] compacted = readStoreFile();
+
+        List<Map.Entry<Integer, NearCacheRecord>> entries = createEntries(0, 100, OLD_CREATION_TIME);
+        entries.addAll(createEntries(100, 110, System.currentTimeMillis()));
+        preloader.storeEntries(entries, staleReadDetector);
+        byte[] appended = readStoreFile();
+
+        // the compacted part is left untouched and the new entries are appended as a new segment
+        assertTrue(appended.length > compacted.length);
+        assertArrayEquals(compacted, Arrays.copyOf(appended, compacted.length));
+
+        load(null);
+
+        assertValuesLoadedFromFile(0, 110);
+    }
+
+    @Test
+    public void testStore_compactsWhenAppendedSegmentsOutgrowCompactedPart() throws Exception {
+        preloader.storeEntries(createEntries(0, 100, OLD_CREATION_TIME), staleReadDetector);
+
+        List<Map.Entry<Integer, NearCacheRecord>> entries = createEntries(0, 100, OLD_CREATION_TIME);
+        entries.addAll(createEntries(100, 300, System.currentTimeMillis()));
+        preloader.storeEntries(entries, staleReadDetector);
+        long appendedLength = storeFile.length();
+
+        // only the remaining entries are written into the compacted file, the removed ones are dropped
+        preloader.storeEntries(createEntries(250, 300, OLD_CREATION_TIME), staleReadDetector);
+        assertTrue(storeFile.length() < appendedLength);
+
+        load(executor);
+
+        assertValuesLoadedFromFile(250, 300);
+        assertEquals(50, recordStore.size());
+        assertNull(recordStore.get(0));
+    }
+
+    @Test
+    public void testLoad_ignoresTornSegment() throws Exception {
+        preloader.storeEntries(createEntries(0, 100, OLD_CREATION_TIME), staleReadDetector);
+
+        // a segment header which claims more bytes than the file contains, as left by a failed append
+        RandomAccessFile file = new RandomAccessFile(storeFile, "rw");
+        try {
+            file.seek(file.length());
+            file.writeInt(1000);
+            file.writeInt(10);
+            file.writeInt(0);
+        } finally {
+            closeResource(file);
+        }
+
+        load(executor);
+
+        assertValuesLoadedFromFile(0, 100);
+    }
+
+    @Test
+    public void testLoad_rejectsValuesWithStaleSequence() {
+        preloader.storeEntries(createEntries(0, 100, OLD_CREATION_TIME), staleReadDetector);
+        int stalePartitionId = getPartitionId(0);
+        metaData[stalePartitionId].setSequence(metaData[stalePartitionId].getSequence() + 1);
+
+        load(executor);
+
+        assertStaleValuesFetched(stalePartitionId);
+    }
+
+    @Test
+    public void testLoad_rejectsValuesWithStaleUuid() {
+        preloader.storeEntries(createEntries(0, 100, OLD_CREATION_TIME), staleReadDetector);
+        int stalePartitionId = getPartitionId(0);
+        metaData[stalePartitionId].setUuid(UUID.randomUUID());
+
+        load(executor);
+
+        assertStaleValuesFetched(stalePartitionId);
+    }
+
+    private void assertStaleValuesFetched(int stalePartitionId) {
+        int staleCount = 0;
+        for (int key = 0; key < 100; key++) {
+            if (getPartitionId(key) == stalePartitionId) {
+                // the stale value is not loaded from the file, but its key is fetched from the data structure
+                assertNull(recordStore.get(key));
+                assertTrue(loadedKeys.contains(key));
+                staleCount++;
+            } else {
+                assertEquals("value-" + key, recordStore.get(key));
+            }
+        }
+        assertEquals(staleCount, loadedKeys.size());
+    }
+
+    private void assertValuesLoadedFromFile(int fromKey, int toKey) {
+        for (int key = fromKey; key < toKey; key++) {
+            assertEquals("value-" + key, recordStore.get(key));
+        }
+        assertEquals("no key should be fetched from the data structure", 0, loadedKeys.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void load(ExecutorService loadExecutor) {
+        // the lock of the store file is released, so a new preloader can be created like after a restart
+        preloader.destroy();
+        preloader = new NearCachePreloader<Integer>(nearCacheName, preloaderConfig, new NearCacheStatsImpl(),
+                serializationService);
+
+        NearCacheConfig nearCacheConfig = new NearCacheConfig()
+                .setInMemoryFormat(InMemoryFormat.OBJECT)
+                .setSerializeKeys(false);
+        recordStore = new NearCacheObjectRecordStore<Integer, String>(nearCacheName, nearCacheConfig, serializationService,
+                getClass().getClassLoader());
+        recordStore.initialize();
+        recordStore.setStaleReadDetector(staleReadDetector);
+
+        NearCacheRecordStore store = recordStore;
+        preloader.loadKeys(createAdapter(), (NearCacheRecordStore<Integer, Object>) store, false, loadExecutor);
+    }
+
+    private List<Map.Entry<Integer, NearCacheRecord>> createEntries(int fromKey, int toKey, long creationTime) {
+        List<Map.Entry<Integer, NearCacheRecord>> entries = new ArrayList<Map.Entry<Integer, NearCacheRecord>>();
+        for (int key = fromKey; key < toKey; key++) {
+            NearCacheObjectRecord<String> record = new NearCacheObjectRecord<String>("value-" + key, creationTime,
+                    TIME_NOT_SET);
+            record.setPartitionId(getPartitionId(key));
+            entries.add(new AbstractMap.SimpleEntry<Integer, NearCacheRecord>(key, record));
+        }
+        return entries;
+    }
+
+    private byte[] readStoreFile() throws IOException {
+        RandomAccessFile file = new RandomAccessFile(storeFile, "r");
+        try {
+            byte[] content = new byte[(int) file.length()];
+            file.readFully(content);
+            return content;
+        } finally {
+            closeResource(file);
+        }
+    }
+
+    private int getPartitionId(Object key) {
+        Data keyData = serializationService.toData(key);
+        return Math.abs(keyData.getPartitionHash() % PARTITION_COUNT);
+    }
+
+    /**
+     * Records the keys which are fetched from the data structure instead of being loaded from the store file.
+     */
+    @SuppressWarnings("unchecked")
+    private DataStructureAdapter<Object, ?> createAdapter() {
+        return (DataStructureAdapter<Object, ?>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{DataStructureAdapter.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if ("getAll".equals(method.getName())) {
+                            loadedKeys.addAll((Collection<?>) args[0]);
+                            return Collections.emptyMap();
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private class TestStaleReadDetector implements StaleReadDetector {
+
+        @Override
+        public boolean isStaleRead(Object key, NearCacheRecord record) {
+            return false;
+        }
+
+        @Override
+        public int getPartitionId(Object key) {
+            return NearCachePreloaderTest.this.getPartitionId(key);
+        }
+
+        @Override
+        public MetaDataContainer getMetaDataContainer(int partitionId) {
+            return metaData[partitionId];
+        }
+    }
+}
@@ -31,10 +31,13 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static com.hazelcast.internal.nearcache.impl.store.AbstractNearCacheRecordStore.ACCESS_HIT_SAMPLING_RATE;
+import static com.hazelcast.internal.nearcache.impl.store.AbstractNearCacheRecordStore.ACCESS_HIT_SAMPLING_THRESHOLD;
 import static com.hazelcast.internal.nearcache.NearCacheRecord.READ_PERMITTED;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastSerialClassRunner.class)
 @Category({QuickTest.class, ParallelTest.class})
@@ -99,6 +102,35 @@ public class AbstractNearCacheRecordStoreTest {
         assertEquals(1, store.getNearCacheStats().getOwnedEntryCount());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAccessHit_isExactBelowSamplingThreshold() {
+        store.put(KEY, null, VALUE1);
+
+        for (int i = 0; i < ACCESS_HIT_SAMPLING_THRESHOLD; i++) {
+            store.get(KEY);
+        }
+
+        assertEquals(ACCESS_HIT_SAMPLING_THRESHOLD, store.getRecord(KEY).getAccessHit());
+        assertEquals(ACCESS_HIT_SAMPLING_THRESHOLD, store.getNearCacheStats().getHits());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAccessHit_isSampledAboveSamplingThreshold() {
+        store.put(KEY, null, VALUE1);
+
+        int accessCount = ACCESS_HIT_SAMPLING_THRESHOLD + 100 * ACCESS_HIT_SAMPLING_RATE;
+        for (int i = 0; i < accessCount; i++) {
+            store.get(KEY);
+        }
+
+        int accessHit = store.getRecord(KEY).getAccessHit();
+        assertTrue("accessHit " + accessHit + " should be above the threshold", accessHit > ACCESS_HIT_SAMPLING_THRESHOLD);
+        assertEquals(0, (accessHit - ACCESS_HIT_SAMPLING_THRESHOLD) % ACCESS_HIT_SAMPLING_RATE);
+        assertEquals(accessCount, store.getNearCacheStats().getHits());
+    }
+
     @SuppressWarnings("unchecked")
     private void assertRecordState(long recordState) {
         assertEquals(recordState, store.getRecord(KEY).getRecordState());
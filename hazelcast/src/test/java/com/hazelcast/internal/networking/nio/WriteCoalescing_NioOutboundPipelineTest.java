@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.tcp.TcpIpConnection;
+import com.hazelcast.nio.tcp.TcpIpConnection_AbstractTest;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.util.function.Consumer;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class WriteCoalescing_NioOutboundPipelineTest extends TcpIpConnection_AbstractTest {
+
+    private static final int WRITER_COUNT = 4;
+    private static final int PACKETS_PER_WRITER = 100;
+    private static final long WRITE_COALESCING_MILLIS = 500;
+
+    private final AtomicInteger packetsReceived = new AtomicInteger();
+
+    @Before
+    public void setup() throws Exception {
+        eventLoopGroupFactory = new WriteCoalescing_NioEventLoopGroupFactory(MILLISECONDS.toNanos(WRITE_COALESCING_MILLIS));
+        super.setup();
+        startAllConnectionManagers();
+        ioServiceB.packetConsumer = new Consumer<Packet>() {
+            @Override
+            public void accept(Packet packet) {
+                packetsReceived.incrementAndGet();
+            }
+        };
+    }
+
+    @Test
+    public void whenWrittenConcurrently_thenFramesAreCoalesced() {
+        TcpIpConnection connection = connect(connManagerA, addressB);
+        NioOutboundPipeline pipeline = warmUp(connection);
+        long socketWritesBefore = pipeline.socketWrites.get();
+
+        int packetCount = holdFlush(connection);
+        packetCount += writeConcurrently(connection);
+        assertPacketsReceivedEventually(packetCount);
+
+        long coalescedFrames = pipeline.coalescedFrames.get();
+        long socketWrites = pipeline.socketWrites.get() - socketWritesBefore;
+        assertTrue("no frames were coalesced", coalescedFrames > 0);
+        assertTrue("expected less socket writes than frames, socketWrites = " + socketWrites, socketWrites < packetCount);
+    }
+
+    @Test
+    public void whenFlushHeldBack_thenPipelineIsNotProcessedTillDeadline() {
+        TcpIpConnection connection = connect(connManagerA, addressB);
+        NioOutboundPipeline pipeline = warmUp(connection);
+        long processCountBefore = pipeline.processCount.get();
+        long socketWritesBefore = pipeline.socketWrites.get();
+
+        int packetCount = holdFlush(connection);
+        packetCount += writeConcurrently(connection);
+        assertPacketsReceivedEventually(packetCount);
+
+        long processCount = pipeline.processCount.get() - processCountBefore;
+        long socketWrites = pipeline.socketWrites.get() - socketWritesBefore;
+        // a held flush takes a single extra round once its deadline has passed; a pipeline which is processed over
+        // and over till the deadline takes thousands of rounds for each held flush
+        assertTrue("pipeline was processed " + processCount + " times for " + socketWrites + " socket writes",
+                processCount <= 2 * socketWrites + 1);
+    }
+
+    @Test
+    public void whenSingleFrame_thenWrittenWithoutCoalescing() {
+        TcpIpConnection connection = connect(connManagerA, addressB);
+
+        connection.write(new Packet(serializationService.toBytes("foo")));
+
+        assertPacketsReceivedEventually(1);
+        NioOutboundPipeline pipeline = ((NioChannel) connection.getChannel()).outboundPipeline();
+        assertEquals(0, pipeline.coalescedFrames.get());
+    }
+
+    /**
+     * Writes a packet and waits till the outbound pipeline has processed it completely.
+     */
+    private NioOutboundPipeline warmUp(TcpIpConnection connection) {
+        NioOutboundPipeline pipeline = ((NioChannel) connection.getChannel()).outboundPipeline();
+        connection.write(new Packet(serializationService.toBytes("warmup")));
+        assertPacketsReceivedEventually(1);
+        // the pipeline is unscheduled once the NioThread gets to its tasks
+        awaitQueuedTasks(pipeline.owner());
+        packetsReceived.set(0);
+        return pipeline;
+    }
+
+    /**
+     * Makes the outbound pipeline hold back its flush. The NioThread is blocked till two packets are queued, so the
+     * pipeline finds more than a single frame pending. Returns once the flush is held back.
+     *
+     * @return the number of packets written
+     */
+    private int holdFlush(TcpIpConnection connection) {
+        NioOutboundPipeline pipeline = ((NioChannel) connection.getChannel()).outboundPipeline();
+        final CountDownLatch packetsQueued = new CountDownLatch(1);
+        pipeline.owner().addTaskAndWakeup(new Runnable() {
+            @Override
+            public void run() {
+                assertOpenEventually(packetsQueued);
+            }
+        });
+
+        connection.write(new Packet(serializationService.toBytes("foo")));
+        connection.write(new Packet(serializationService.toBytes("bar")));
+        // the writes have scheduled the pipeline on the NioThread, so the pipeline is processed before this task
+        packetsQueued.countDown();
+        awaitQueuedTasks(pipeline.owner());
+        return 2;
+    }
+
+    /**
+     * Waits till the NioThread has executed the tasks queued so far.
+     */
+    private static void awaitQueuedTasks(NioThread owner) {
+        final CountDownLatch done = new CountDownLatch(1);
+        owner.addTaskAndWakeup(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        });
+        assertOpenEventually(done);
+    }
+
+    private int writeConcurrently(final TcpIpConnection connection) {
+        Thread[] writers = new Thread[WRITER_COUNT];
+        for (int i = 0; i < writers.length; i++) {
+            writers[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int k = 0; k < PACKETS_PER_WRITER; k++) {
+                        connection.write(new Packet(serializationService.toBytes("foo" + k)));
+                    }
+                }
+            };
+            writers[i].start();
+        }
+        assertJoinable(writers);
+        return WRITER_COUNT * PACKETS_PER_WRITER;
+    }
+
+    private void assertPacketsReceivedEventually(final int packetCount) {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(packetCount, packetsReceived.get());
+            }
+        });
+    }
+}
@@ -30,7 +30,11 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelTest.class})
@@ -71,6 +75,24 @@ public class PartitionRuntimeStateTest extends HazelcastTestSupport {
         assertContains(state.toString(), "127.0.0.2");
     }
 
+    @Test
+    public void activeMigrations_whenDeserialized() throws UnknownHostException {
+        Address source = address("127.0.0.1", 5701);
+        Address destination = address("127.0.0.2", 5702);
+        PartitionRuntimeState state = createPartitionState(0, source, destination);
+        List<MigrationInfo> activeMigrations = new ArrayList<MigrationInfo>();
+        for (int partitionId = 0; partitionId < 3; partitionId++) {
+            MigrationInfo migration = new MigrationInfo(partitionId, source, "source", destination, "destination", 1, -1, -1, 1);
+            migration.setMaster(source);
+            activeMigrations.add(migration);
+        }
+        state.setActiveMigrations(activeMigrations);
+
+        state = serializeAndDeserialize(state);
+
+        assertEquals(activeMigrations, new ArrayList<MigrationInfo>(state.getActiveMigrations()));
+    }
+
     private PartitionRuntimeState serializeAndDeserialize(PartitionRuntimeState state) {
         InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
         try {
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.ListenerConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.internal.partition.MigrationInfo;
+import com.hazelcast.internal.partition.impl.InternalMigrationListener.MigrationParticipant;
+import com.hazelcast.nio.Address;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class ParallelMigrationTest extends HazelcastTestSupport {
+
+    private static final int PARTITION_COUNT = 31;
+    private static final int ENTRY_COUNT = 1000;
+
+    @Test
+    public void testMigrationsExecutedInParallel_withinPerMemberLimits() {
+        ConcurrentMigrationTracker tracker = new ConcurrentMigrationTracker();
+        Config config = newConfig(8, 2, 2);
+        config.addListenerConfig(new ListenerConfig(tracker));
+
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(3);
+        HazelcastInstance hz1 = factory.newHazelcastInstance(config);
+        warmUpPartitions(hz1);
+        IMap<Integer, Integer> map = hz1.getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+
+        HazelcastInstance hz2 = factory.newHazelcastInstance(newConfig(8, 2, 2));
+        HazelcastInstance hz3 = factory.newHazelcastInstance(newConfig(8, 2, 2));
+        waitAllForSafeState(hz1, hz2, hz3);
+
+        assertTrue("Migrations were not executed in parallel: " + tracker.maxParallel, tracker.maxParallel > 1);
+        assertTrue("Max parallel migrations exceeded: " + tracker.maxParallel, tracker.maxParallel <= 8);
+        assertTrue("Max incoming migrations exceeded: " + tracker.maxIncoming, tracker.maxIncoming <= 2);
+        assertTrue("Some migrations failed: " + tracker.failedMigrations, tracker.failedMigrations.isEmpty());
+        assertEquals(ENTRY_COUNT, map.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) map.get(i));
+        }
+    }
+
+    @Test
+    public void testMigrationsExecutedSerially_byDefault() {
+        ConcurrentMigrationTracker tracker = new ConcurrentMigrationTracker();
+        Config config = new Config();
+        config.setProperty(GroupProperty.PARTITION_COUNT.getName(), String.valueOf(PARTITION_COUNT));
+        config.addListenerConfig(new ListenerConfig(tracker));
+
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance hz1 = factory.newHazelcastInstance(config);
+        warmUpPartitions(hz1);
+
+        Config config2 = new Config();
+        config2.setProperty(GroupProperty.PARTITION_COUNT.getName(), String.valueOf(PARTITION_COUNT));
+        HazelcastInstance hz2 = factory.newHazelcastInstance(config2);
+        waitAllForSafeState(hz1, hz2);
+
+        assertEquals(1, tracker.maxParallel);
+    }
+
+    private static Config newConfig(int maxParallel, int maxOutgoing, int maxIncoming) {
+        Config config = new Config();
+        config.setProperty(GroupProperty.PARTITION_COUNT.getName(), String.valueOf(PARTITION_COUNT));
+        config.setProperty(GroupProperty.PARTITION_MAX_PARALLEL_MIGRATIONS.getName(), String.valueOf(maxParallel));
+        config.setProperty(GroupProperty.PARTITION_MAX_PARALLEL_OUTGOING_MIGRATIONS.getName(), String.valueOf(maxOutgoing));
+        config.setProperty(GroupProperty.PARTITION_MAX_PARALLEL_INCOMING_MIGRATIONS.getName(), String.valueOf(maxIncoming));
+        return config;
+    }
+
+    /**
+     * Tracks the migrations executed concurrently by the master, between the start and the completion of their data transfer.
+     */
+    private static class ConcurrentMigrationTracker extends InternalMigrationListener {
+
+        private final Set<MigrationInfo> runningMigrations = new HashSet<MigrationInfo>();
+        private final Set<MigrationInfo> failedMigrations = new HashSet<MigrationInfo>();
+        private final Map<Address, Integer> incoming = new HashMap<Address, Integer>();
+
+        private volatile int maxParallel;
+        private volatile int maxIncoming;
+
+        @Override
+        public synchronized void onMigrationStart(MigrationParticipant participant, MigrationInfo migrationInfo) {
+            if (participant != MigrationParticipant.MASTER) {
+                return;
+            }
+            runningMigrations.add(migrationInfo);
+            maxParallel = Math.max(maxParallel, runningMigrations.size());
+
+            Integer count = incoming.get(migrationInfo.getDestination());
+            count = count == null ? 1 : count + 1;
+            incoming.put(migrationInfo.getDestination(), count);
+            maxIncoming = Math.max(maxIncoming, count);
+        }
+
+        @Override
+        public synchronized void onMigrationComplete(MigrationParticipant participant, MigrationInfo migrationInfo,
+                                                     boolean success) {
+            if (participant != MigrationParticipant.MASTER) {
+                return;
+            }
+            runningMigrations.remove(migrationInfo);
+            incoming.put(migrationInfo.getDestination(), incoming.get(migrationInfo.getDestination()) - 1);
+            if (!success) {
+                failedMigrations.add(migrationInfo);
+            }
+        }
+    }
+}
@@ -18,10 +18,12 @@ package com.hazelcast.internal.serialization.impl;
 
 import com.hazelcast.core.HazelcastInstanceNotActiveException;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
 import com.hazelcast.nio.BufferObjectDataInput;
 import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.Packet;
 import com.hazelcast.nio.serialization.CustomSerializationTest;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.DataSerializable;
@@ -45,9 +47,13 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.Serializable;
+import java.util.Arrays;
 
+import static com.hazelcast.test.HazelcastTestSupport.ignore;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelTest.class})
@@ -85,6 +91,85 @@ public class AbstractSerializationServiceTest {
         }
     }
 
+    @Test
+    public void toPacket_hasSameContentAsToBytes() {
+        String payload = "somepayload";
+        ByteArrayPool pool = new ByteArrayPool(1, 1024);
+
+        Packet packet = abstractSerializationService.toPacket(payload, 5, pool);
+
+        byte[] expected = abstractSerializationService.toBytes(payload);
+        assertEquals(expected.length, packet.totalSize());
+        assertArrayEquals(expected, Arrays.copyOf(packet.toByteArray(), packet.totalSize()));
+        assertEquals(5, packet.getPartitionId());
+        assertEquals(abstractSerializationService.toData(payload), packet);
+    }
+
+    @Test
+    public void toPacket_withPadding() {
+        String payload = "somepayload";
+        int padding = 10;
+        ByteArrayPool pool = new ByteArrayPool(1, 1024);
+
+        Packet packet = abstractSerializationService.toPacket(payload, padding, false, pool);
+
+        byte[] expected = abstractSerializationService.toBytes(payload, padding, false);
+        assertEquals(expected.length, packet.totalSize());
+        for (int k = padding; k < expected.length; k++) {
+            assertEquals(expected[k], packet.toByteArray()[k]);
+        }
+    }
+
+    @Test
+    public void toPacket_whenPayloadGrows() {
+        byte[] payload = new byte[10000];
+        ByteArrayPool pool = new ByteArrayPool(1, 2048);
+
+        Packet packet = abstractSerializationService.toPacket(payload, -1, pool);
+
+        assertArrayEquals(payload, (byte[]) abstractSerializationService.toObject(packet));
+        packet.releasePayload();
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void toPacket_whenSerializationFails_thenPayloadReturned() {
+        ByteArrayPool pool = new ByteArrayPool(1, 1024);
+
+        try {
+            abstractSerializationService.toPacket(new FailingDataSerializable(), -1, pool);
+            fail();
+        } catch (HazelcastSerializationException expected) {
+            ignore(expected);
+        }
+
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void toPacket_doesNotLeakPayloadIntoOutputBuffer() {
+        ByteArrayPool pool = new ByteArrayPool(1, 1024);
+        Packet packet = abstractSerializationService.toPacket("foo", -1, pool);
+        byte[] payload = Arrays.copyOf(packet.toByteArray(), packet.totalSize());
+
+        // serializing something else on the same thread must not overwrite the packet payload
+        abstractSerializationService.toBytes("barbarbarbar");
+
+        assertArrayEquals(payload, Arrays.copyOf(packet.toByteArray(), packet.totalSize()));
+    }
+
+    static class FailingDataSerializable implements DataSerializable {
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            throw new IOException("expected");
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) {
+        }
+    }
+
     @Test
     public void testExternalizable() {
         ExternalizableValue original = new ExternalizableValue(100);
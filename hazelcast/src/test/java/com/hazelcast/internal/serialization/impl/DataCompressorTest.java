@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.serialization.impl.DataCompressor.compress;
+import static com.hazelcast.internal.serialization.impl.DataCompressor.decompress;
+import static com.hazelcast.internal.serialization.impl.DataCompressor.isCompressed;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class DataCompressorTest {
+
+    private InternalSerializationService serializationService;
+    private String value;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("{\"id\":").append(i).append(",\"name\":\"document\"}");
+        }
+        value = sb.toString();
+    }
+
+    @Test
+    public void testCompress() {
+        Data data = serializationService.toData(value);
+
+        Data compressed = compress(data, 0);
+
+        assertTrue(isCompressed(compressed));
+        assertTrue(compressed.totalSize() < data.totalSize());
+        assertEquals(data.getPartitionHash(), compressed.getPartitionHash());
+    }
+
+    @Test
+    public void testCompress_whenSmallerThanMinSize_thenNotCompressed() {
+        Data data = serializationService.toData(value);
+
+        assertSame(data, compress(data, data.totalSize() + 1));
+    }
+
+    @Test
+    public void testCompress_whenNotCompressible_thenNotCompressed() {
+        Data data = serializationService.toData(1);
+
+        assertSame(data, compress(data, 0));
+    }
+
+    @Test
+    public void testCompress_whenAlreadyCompressed_thenSameData() {
+        Data compressed = compress(serializationService.toData(value), 0);
+
+        assertSame(compressed, compress(compressed, 0));
+    }
+
+    @Test
+    public void testCompress_whenNull() {
+        assertNull(compress(null, 0));
+    }
+
+    @Test
+    public void testDecompress() {
+        Data data = serializationService.toData(value);
+
+        Data decompressed = decompress(compress(data, 0));
+
+        assertFalse(isCompressed(decompressed));
+        assertEquals(data, decompressed);
+    }
+
+    @Test
+    public void testDecompress_whenNotCompressed_thenSameData() {
+        Data data = serializationService.toData(value);
+
+        assertSame(data, decompress(data));
+    }
+
+    @Test
+    public void testToObject_whenCompressed() {
+        Data compressed = compress(serializationService.toData(value), 0);
+
+        assertEquals(value, serializationService.toObject(compressed));
+    }
+}
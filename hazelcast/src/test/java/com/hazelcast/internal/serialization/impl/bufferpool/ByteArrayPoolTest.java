@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.bufferpool;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool.MAX_SIZE_FACTOR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ByteArrayPoolTest {
+
+    private static final int BUFFER_SIZE = 64;
+
+    private ByteArrayPool pool;
+
+    @Before
+    public void setup() {
+        pool = new ByteArrayPool(2, BUFFER_SIZE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void construct_whenNegativeCapacity() {
+        new ByteArrayPool(-1, BUFFER_SIZE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void construct_whenZeroBufferSize() {
+        new ByteArrayPool(1, 0);
+    }
+
+    @Test
+    public void take_whenEmpty() {
+        byte[] bytes = pool.take(10);
+
+        assertEquals(BUFFER_SIZE, bytes.length);
+    }
+
+    @Test
+    public void take_whenLargerThanBufferSize() {
+        byte[] bytes = pool.take(BUFFER_SIZE * 3);
+
+        assertEquals(BUFFER_SIZE * 3, bytes.length);
+    }
+
+    @Test
+    public void take_whenPooled() {
+        byte[] bytes = pool.take(0);
+        pool.release(bytes);
+
+        assertSame(bytes, pool.take(0));
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void take_whenPooledArrayTooSmall() {
+        byte[] bytes = pool.take(0);
+        pool.release(bytes);
+
+        byte[] found = pool.take(BUFFER_SIZE + 1);
+
+        assertNotSame(bytes, found);
+        assertEquals(BUFFER_SIZE + 1, found.length);
+        // the too small array stays available
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void release_whenNull() {
+        pool.release(null);
+
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void release_whenFull() {
+        pool.release(new byte[BUFFER_SIZE]);
+        pool.release(new byte[BUFFER_SIZE]);
+        pool.release(new byte[BUFFER_SIZE]);
+
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    public void release_whenGrown() {
+        byte[] bytes = new byte[BUFFER_SIZE * MAX_SIZE_FACTOR];
+        pool.release(bytes);
+
+        assertEquals(1, pool.size());
+        assertSame(bytes, pool.take(BUFFER_SIZE * 2));
+    }
+
+    @Test
+    public void release_whenTooLarge() {
+        pool.release(new byte[BUFFER_SIZE * MAX_SIZE_FACTOR + 1]);
+
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void release_whenTooSmall() {
+        pool.release(new byte[BUFFER_SIZE - 1]);
+
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void whenZeroCapacity_thenNothingPooled() {
+        pool = new ByteArrayPool(0, BUFFER_SIZE);
+
+        byte[] bytes = pool.take(0);
+        pool.release(bytes);
+
+        assertEquals(0, pool.size());
+        assertNotSame(bytes, pool.take(0));
+    }
+}
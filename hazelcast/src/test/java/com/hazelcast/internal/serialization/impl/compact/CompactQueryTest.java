@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.projection.Projections;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CompactQueryTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 100;
+
+    private TestHazelcastInstanceFactory factory;
+
+    @Before
+    public void setUp() {
+        factory = createHazelcastInstanceFactory(2);
+    }
+
+    @Test
+    public void testQuery() {
+        HazelcastInstance[] instances = factory.newInstances(createConfig());
+        IMap<Integer, EmployeeDTO> map = populateMap(instances[0]);
+
+        Collection<EmployeeDTO> values = instances[1].<Integer, EmployeeDTO>getMap(map.getName())
+                .values(Predicates.greaterEqual("age", 90));
+
+        assertEquals(10, values.size());
+        for (EmployeeDTO employee : values) {
+            assertTrue(employee.getAge() >= 90);
+        }
+    }
+
+    @Test
+    public void testQuery_withIndex() {
+        HazelcastInstance[] instances = factory.newInstances(createConfig());
+        IMap<Integer, EmployeeDTO> map = instances[0].getMap(randomMapName());
+        map.addIndex("age", true);
+        populateMap(map);
+
+        Set<Integer> keys = map.keySet(Predicates.between("age", 10, 19));
+
+        assertEquals(10, keys.size());
+    }
+
+    @Test
+    public void testQuery_onNestedField() {
+        HazelcastInstance[] instances = factory.newInstances(createConfig());
+        IMap<Integer, EmployeeDTO> map = populateMap(instances[0]);
+
+        Set<Integer> keys = map.keySet(Predicates.equal("manager.name", "manager-3"));
+
+        assertEquals(1, keys.size());
+        assertTrue(keys.contains(3));
+    }
+
+    @Test
+    public void testProjection() {
+        HazelcastInstance[] instances = factory.newInstances(createConfig());
+        IMap<Integer, EmployeeDTO> map = populateMap(instances[0]);
+
+        Collection<String> names = map.project(Projections.<Map.Entry<Integer, EmployeeDTO>, String>singleAttribute("name"),
+                Predicates.equal("id", 42L));
+
+        assertEquals(1, names.size());
+        assertEquals("employee-42", names.iterator().next());
+    }
+
+    @Test
+    public void testQuery_onMemberWithoutSerializer() {
+        HazelcastInstance instance1 = factory.newHazelcastInstance(createConfig());
+        // the second member has no serializer, but can query the data by its schema
+        HazelcastInstance instance2 = factory.newHazelcastInstance(new Config());
+        assertClusterSizeEventually(2, instance1, instance2);
+        IMap<Integer, EmployeeDTO> map = populateMap(instance1);
+
+        Set<Integer> keys = map.keySet(Predicates.lessThan("age", 5));
+
+        assertEquals(5, keys.size());
+    }
+
+    @Test
+    public void testQuery_onJoiningMember() {
+        HazelcastInstance instance1 = factory.newHazelcastInstance(createConfig());
+        IMap<Integer, EmployeeDTO> map = populateMap(instance1);
+        // the second member receives the schema when it joins
+        HazelcastInstance instance2 = factory.newHazelcastInstance(new Config());
+        assertClusterSizeEventually(2, instance1, instance2);
+        waitAllForSafeState(instance1, instance2);
+
+        Set<Integer> keys = map.keySet(Predicates.lessThan("age", 5));
+
+        assertEquals(5, keys.size());
+    }
+
+    private static Config createConfig() {
+        Config config = new Config();
+        config.getSerializationConfig().addCompactSerializer(new EmployeeDTOSerializer());
+        return config;
+    }
+
+    private static IMap<Integer, EmployeeDTO> populateMap(HazelcastInstance instance) {
+        return populateMap(instance.<Integer, EmployeeDTO>getMap(randomMapName()));
+    }
+
+    private static IMap<Integer, EmployeeDTO> populateMap(IMap<Integer, EmployeeDTO> map) {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            EmployeeDTO manager = new EmployeeDTO("manager-" + i, 50, -i, 0, true, null, null);
+            EmployeeDTO employee = new EmployeeDTO("employee-" + i, i, i, i * 100, i % 2 == 0, new String[]{"tag"}, manager);
+            map.put(i, employee);
+        }
+        return map;
+    }
+}
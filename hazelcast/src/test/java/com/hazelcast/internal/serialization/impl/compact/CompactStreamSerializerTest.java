@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.SerializationServiceV1;
+import com.hazelcast.nio.serialization.CompactReader;
+import com.hazelcast.nio.serialization.CompactSerializer;
+import com.hazelcast.nio.serialization.CompactWriter;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.internal.serialization.impl.compact.CompactStreamSerializer.isCompact;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CompactStreamSerializerTest {
+
+    private InternalSerializationService serializationService;
+
+    @Before
+    public void setUp() {
+        serializationService = createSerializationService(new EmployeeDTOSerializer());
+    }
+
+    @Test
+    public void testSerialization() {
+        EmployeeDTO manager = new EmployeeDTO("manager", 42, 1, 2000.5, true, new String[]{"a", "b"}, null);
+        EmployeeDTO employee = new EmployeeDTO("employee", 23, 2, 1000.25, false, new String[0], manager);
+
+        Data data = serializationService.toData(employee);
+
+        assertTrue(isCompact(data));
+        assertEquals(employee, serializationService.toObject(data));
+    }
+
+    @Test
+    public void testSerialization_withNullFields() {
+        EmployeeDTO employee = new EmployeeDTO(null, 23, 2, 1000.25, true, null, null);
+
+        Data data = serializationService.toData(employee);
+
+        assertEquals(employee, serializationService.toObject(data));
+    }
+
+    @Test
+    public void testSerialization_asNestedObject() {
+        ArrayList<EmployeeDTO> employees = new ArrayList<EmployeeDTO>();
+        employees.add(new EmployeeDTO("employee1", 23, 1, 1000.25, true, null, null));
+        employees.add(new EmployeeDTO("employee2", 42, 2, 2000.5, false, new String[]{"tag"}, null));
+
+        Data data = serializationService.toData(employees);
+
+        assertEquals(employees, serializationService.toObject(data));
+    }
+
+    @Test
+    public void testIsCompact_withNonCompactData() {
+        assertFalse(isCompact(serializationService.toData(23)));
+    }
+
+    @Test
+    public void testCreateCompactReader() throws IOException {
+        EmployeeDTO employee = new EmployeeDTO("employee", 23, 2, 1000.25, true, null, null);
+        Data data = serializationService.toData(employee);
+
+        DefaultCompactReader reader = ((SerializationServiceV1) serializationService).createCompactReader(data);
+
+        assertEquals(23, reader.read("age"));
+        assertEquals(1000.25, reader.readDouble("salary"), 0.0);
+        assertEquals("employee", reader.readUTF("name"));
+        assertNull(reader.readUTFArray("tags"));
+        assertTrue(reader.readBoolean("active"));
+        assertFalse(reader.hasField("unknown"));
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testCreateCompactReader_readWithWrongKind() throws IOException {
+        Data data = serializationService.toData(new EmployeeDTO("employee", 23, 2, 1000.25, true, null, null));
+
+        DefaultCompactReader reader = ((SerializationServiceV1) serializationService).createCompactReader(data);
+
+        reader.readLong("age");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateCompactReader_withNonCompactData() throws IOException {
+        ((SerializationServiceV1) serializationService).createCompactReader(serializationService.toData(23));
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testDeserialization_withUnknownSchema() {
+        Data data = serializationService.toData(new EmployeeDTO("employee", 23, 2, 1000.25, true, null, null));
+
+        InternalSerializationService otherSerializationService = createSerializationService(new EmployeeDTOSerializer());
+        otherSerializationService.toObject(data);
+    }
+
+    @Test
+    public void testDeserialization_withSharedSchemaRegistry() {
+        SchemaRegistry schemaRegistry = new MapSchemaRegistry();
+        setSchemaRegistry(serializationService, schemaRegistry);
+        InternalSerializationService otherSerializationService = createSerializationService(new EmployeeDTOSerializer());
+        setSchemaRegistry(otherSerializationService, schemaRegistry);
+        EmployeeDTO employee = new EmployeeDTO("employee", 23, 2, 1000.25, true, null, null);
+
+        Data data = serializationService.toData(employee);
+
+        assertEquals(employee, otherSerializationService.toObject(data));
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testSerialization_withDifferentFieldsPerObject() {
+        InternalSerializationService serializationService = createSerializationService(new OptionalFieldSerializer());
+
+        serializationService.toData(new OptionalField(null));
+        serializationService.toData(new OptionalField("value"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateTypeName() {
+        createSerializationService(new EmployeeDTOSerializer(), new OptionalFieldSerializer() {
+            @Override
+            public String getTypeName() {
+                return "employee";
+            }
+        });
+    }
+
+    private static InternalSerializationService createSerializationService(CompactSerializer... serializers) {
+        SerializationConfig config = new SerializationConfig();
+        for (CompactSerializer serializer : serializers) {
+            config.addCompactSerializer(serializer);
+        }
+        return new DefaultSerializationServiceBuilder()
+                .setConfig(config)
+                .build();
+    }
+
+    private static void setSchemaRegistry(InternalSerializationService serializationService, SchemaRegistry schemaRegistry) {
+        ((SerializationServiceV1) serializationService).getCompactStreamSerializer().setSchemaRegistry(schemaRegistry);
+    }
+
+    private static class MapSchemaRegistry implements SchemaRegistry {
+
+        private final ConcurrentMap<Long, Schema> schemas = new ConcurrentHashMap<Long, Schema>();
+
+        @Override
+        public void register(Schema schema) {
+            schemas.put(schema.getSchemaId(), schema);
+        }
+
+        @Override
+        public Schema lookup(long schemaId) {
+            return schemas.get(schemaId);
+        }
+    }
+
+    private static class OptionalField {
+
+        private final String value;
+
+        OptionalField(String value) {
+            this.value = value;
+        }
+    }
+
+    private static class OptionalFieldSerializer implements CompactSerializer<OptionalField> {
+
+        @Override
+        public String getTypeName() {
+            return "optionalField";
+        }
+
+        @Override
+        public Class<OptionalField> getCompactClass() {
+            return OptionalField.class;
+        }
+
+        @Override
+        public void write(CompactWriter writer, OptionalField object) throws IOException {
+            // a serializer must not skip fields
+            if (object.value != null) {
+                writer.writeUTF("value", object.value);
+            }
+        }
+
+        @Override
+        public OptionalField read(CompactReader reader) throws IOException {
+            return new OptionalField(reader.hasField("value") ? reader.readUTF("value") : null);
+        }
+    }
+}
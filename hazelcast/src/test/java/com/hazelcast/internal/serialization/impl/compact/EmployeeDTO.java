@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import java.util.Arrays;
+
+public class EmployeeDTO {
+
+    private String name;
+    private int age;
+    private long id;
+    private double salary;
+    private boolean active;
+    private String[] tags;
+    private EmployeeDTO manager;
+
+    public EmployeeDTO() {
+    }
+
+    public EmployeeDTO(String name, int age, long id, double salary, boolean active, String[] tags, EmployeeDTO manager) {
+        this.name = name;
+        this.age = age;
+        this.id = id;
+        this.salary = salary;
+        this.active = active;
+        this.tags = tags;
+        this.manager = manager;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public double getSalary() {
+        return salary;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public String[] getTags() {
+        return tags;
+    }
+
+    public EmployeeDTO getManager() {
+        return manager;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        EmployeeDTO that = (EmployeeDTO) o;
+        if (age != that.age || id != that.id || Double.compare(that.salary, salary) != 0 || active != that.active) {
+            return false;
+        }
+        if (name != null ? !name.equals(that.name) : that.name != null) {
+            return false;
+        }
+        if (!Arrays.equals(tags, that.tags)) {
+            return false;
+        }
+        return manager != null ? manager.equals(that.manager) : that.manager == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = name != null ? name.hashCode() : 0;
+        result = 31 * result + age;
+        result = 31 * result + (int) (id ^ (id >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeDTO{"
+                + "name='" + name + '\''
+                + ", age=" + age
+                + ", id=" + id
+                + '}';
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.nio.serialization.CompactReader;
+import com.hazelcast.nio.serialization.CompactSerializer;
+import com.hazelcast.nio.serialization.CompactWriter;
+
+import java.io.IOException;
+
+public class EmployeeDTOSerializer implements CompactSerializer<EmployeeDTO> {
+
+    @Override
+    public String getTypeName() {
+        return "employee";
+    }
+
+    @Override
+    public Class<EmployeeDTO> getCompactClass() {
+        return EmployeeDTO.class;
+    }
+
+    @Override
+    public void write(CompactWriter writer, EmployeeDTO object) throws IOException {
+        // the write order doesn't have to match the layout
+        writer.writeUTF("name", object.getName());
+        writer.writeInt("age", object.getAge());
+        writer.writeUTFArray("tags", object.getTags());
+        writer.writeLong("id", object.getId());
+        writer.writeObject("manager", object.getManager());
+        writer.writeDouble("salary", object.getSalary());
+        writer.writeBoolean("active", object.isActive());
+    }
+
+    @Override
+    public EmployeeDTO read(CompactReader reader) throws IOException {
+        EmployeeDTO manager = reader.readObject("manager");
+        return new EmployeeDTO(reader.readUTF("name"), reader.readInt("age"), reader.readLong("id"),
+                reader.readDouble("salary"), reader.readBoolean("active"), reader.readUTFArray("tags"), manager);
+    }
+}
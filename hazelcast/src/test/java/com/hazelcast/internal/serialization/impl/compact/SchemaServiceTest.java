@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class SchemaServiceTest extends HazelcastTestSupport {
+
+    private static final Schema SCHEMA = new Schema("type", asList(new FieldDescriptor("a", FieldKind.INT)));
+
+    private HazelcastInstance instance1;
+    private HazelcastInstance instance2;
+    private SchemaService schemaService1;
+    private SchemaService schemaService2;
+
+    @Before
+    public void setUp() {
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances();
+        instance1 = instances[0];
+        instance2 = instances[1];
+        schemaService1 = getNodeEngineImpl(instance1).getService(SchemaService.SERVICE_NAME);
+        schemaService2 = getNodeEngineImpl(instance2).getService(SchemaService.SERVICE_NAME);
+    }
+
+    @Test
+    public void testRegister_onPartitionThread_replicatesSchema() {
+        invokeOnLocalPartition(instance1, new RegisterOperation());
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(SCHEMA, schemaService2.getSchemaOrNull(SCHEMA.getSchemaId()));
+            }
+        });
+    }
+
+    @Test
+    public void testLookup_onUserThread_fetchesSchema() {
+        // the schema is only known by the first member
+        schemaService1.putSchemas(singletonList(SCHEMA));
+
+        assertEquals(SCHEMA, schemaService2.lookup(SCHEMA.getSchemaId()));
+    }
+
+    @Test
+    public void testLookup_onPartitionThread_failsFastAndFetchesSchemaInBackground() {
+        schemaService1.putSchemas(singletonList(SCHEMA));
+
+        Object response = invokeOnLocalPartition(instance2, new LookupOperation(true));
+
+        assertEquals(SchemaNotReplicatedException.class.getName(), response);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertNotNull(schemaService2.getSchemaOrNull(SCHEMA.getSchemaId()));
+            }
+        });
+    }
+
+    @Test
+    public void testLookup_onPartitionThread_isRetriedUntilSchemaIsFetched() {
+        schemaService1.putSchemas(singletonList(SCHEMA));
+
+        Object response = invokeOnLocalPartition(instance2, new LookupOperation(false));
+
+        assertEquals(SCHEMA, response);
+    }
+
+    private static Object invokeOnLocalPartition(HazelcastInstance instance, Operation operation) {
+        return getOperationService(instance)
+                .invokeOnPartition(SchemaService.SERVICE_NAME, operation, getPartitionId(instance))
+                .join();
+    }
+
+    private static class RegisterOperation extends Operation {
+
+        @Override
+        public void run() {
+            SchemaService schemaService = getService();
+            schemaService.register(SCHEMA);
+        }
+    }
+
+    private static class LookupOperation extends Operation {
+
+        private boolean catchFailure;
+        private Object response;
+
+        LookupOperation() {
+        }
+
+        LookupOperation(boolean catchFailure) {
+            this.catchFailure = catchFailure;
+        }
+
+        @Override
+        public void run() {
+            SchemaService schemaService = getService();
+            try {
+                response = schemaService.lookup(SCHEMA.getSchemaId());
+            } catch (SchemaNotReplicatedException e) {
+                if (!catchFailure) {
+                    throw e;
+                }
+                response = e.getClass().getName();
+            }
+        }
+
+        @Override
+        public Object getResponse() {
+            return response;
+        }
+    }
+}
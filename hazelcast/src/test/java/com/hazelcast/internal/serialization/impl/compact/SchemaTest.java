@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class SchemaTest {
+
+    @Test
+    public void testSchemaId_isIndependentOfFieldOrder() {
+        Schema schema1 = new Schema("type", asList(
+                new FieldDescriptor("a", FieldKind.INT),
+                new FieldDescriptor("b", FieldKind.UTF)));
+        Schema schema2 = new Schema("type", asList(
+                new FieldDescriptor("b", FieldKind.UTF),
+                new FieldDescriptor("a", FieldKind.INT)));
+
+        assertEquals(schema1.getSchemaId(), schema2.getSchemaId());
+        assertEquals(schema1, schema2);
+    }
+
+    @Test
+    public void testSchemaId_dependsOnFieldKind() {
+        Schema schema1 = new Schema("type", asList(new FieldDescriptor("a", FieldKind.INT)));
+        Schema schema2 = new Schema("type", asList(new FieldDescriptor("a", FieldKind.LONG)));
+
+        assertNotEquals(schema1.getSchemaId(), schema2.getSchemaId());
+    }
+
+    @Test
+    public void testSchemaId_dependsOnTypeName() {
+        Schema schema1 = new Schema("type1", asList(new FieldDescriptor("a", FieldKind.INT)));
+        Schema schema2 = new Schema("type2", asList(new FieldDescriptor("a", FieldKind.INT)));
+
+        assertNotEquals(schema1.getSchemaId(), schema2.getSchemaId());
+    }
+
+    @Test
+    public void testLayout() {
+        Schema schema = new Schema("type", asList(
+                new FieldDescriptor("flag", FieldKind.BOOLEAN),
+                new FieldDescriptor("name", FieldKind.UTF),
+                new FieldDescriptor("count", FieldKind.INT),
+                new FieldDescriptor("id", FieldKind.LONG),
+                new FieldDescriptor("data", FieldKind.BYTE_ARRAY)));
+
+        // the fixed-size fields are ordered by size, then the offset table follows ordered by name
+        assertEquals(0, schema.getField("id").getOffset());
+        assertEquals(8, schema.getField("count").getOffset());
+        assertEquals(12, schema.getField("flag").getOffset());
+        assertEquals(13, schema.getField("data").getOffset());
+        assertEquals(17, schema.getField("name").getOffset());
+        assertEquals(21, schema.getFixedSize());
+    }
+
+    @Test
+    public void testSerialization() {
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        Schema schema = new Schema("type", asList(
+                new FieldDescriptor("a", FieldKind.INT),
+                new FieldDescriptor("b", FieldKind.UTF_ARRAY)));
+
+        Schema deserialized = serializationService.toObject(serializationService.toData(schema));
+
+        assertEquals(schema.getSchemaId(), deserialized.getSchemaId());
+        assertEquals("type", deserialized.getTypeName());
+        assertEquals(FieldKind.UTF_ARRAY, deserialized.getField("b").getKind());
+        assertEquals(schema.getFixedSize(), deserialized.getFixedSize());
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.pojo;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.serialization.impl.SerializationConstants;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PojoStreamSerializerTest {
+
+    private InternalSerializationService serializationService;
+
+    @Before
+    public void setup() {
+        serializationService = newSerializationService(Person.class, Address.class, Employee.class);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Person person = newPerson();
+
+        Data data = serializationService.toData(person);
+        Person found = serializationService.toObject(data);
+
+        assertEquals(SerializationConstants.POJO_TYPE, data.getType());
+        assertPersonEquals(person, found);
+    }
+
+    @Test
+    public void testRoundTrip_withNullFields() {
+        Person person = new Person();
+
+        Person found = serializationService.toObject(serializationService.toData(person));
+
+        assertNull(found.name);
+        assertNull(found.address);
+        assertNull(found.scores);
+        assertNull(found.tags);
+    }
+
+    @Test
+    public void testRoundTrip_withSuperclassFields() {
+        Employee employee = new Employee();
+        employee.name = "jane";
+        employee.age = 42;
+        employee.employeeId = 123L;
+
+        Employee found = serializationService.toObject(serializationService.toData(employee));
+
+        assertEquals("jane", found.name);
+        assertEquals(42, found.age);
+        assertEquals(123L, found.employeeId);
+    }
+
+    @Test
+    public void testTransientAndStaticFieldsAreSkipped() {
+        Person person = newPerson();
+        person.cached = "cached";
+
+        Person found = serializationService.toObject(serializationService.toData(person));
+
+        assertNull(found.cached);
+    }
+
+    @Test
+    public void testSmallerThanJavaSerialization() {
+        Person person = newPerson();
+        InternalSerializationService javaSerializationService = new DefaultSerializationServiceBuilder().build();
+
+        Data pojoData = serializationService.toData(person);
+        Data javaData = javaSerializationService.toData(person);
+
+        assertTrue("pojo: " + pojoData.totalSize() + ", java: " + javaData.totalSize(),
+                pojoData.totalSize() < javaData.totalSize());
+    }
+
+    @Test
+    public void testFieldOrderIsIndependentOfDeclarationOrder() {
+        PojoClassDescriptor descriptor = new PojoClassDescriptor(Address.class);
+
+        FieldAccessor[] accessors = descriptor.getAccessors();
+        assertEquals("city", accessors[0].field.getName());
+        assertEquals("number", accessors[1].field.getName());
+        assertEquals("street", accessors[2].field.getName());
+    }
+
+    @Test
+    public void testFingerprintChangesWithLayout() {
+        PojoClassDescriptor address = new PojoClassDescriptor(Address.class);
+        PojoClassDescriptor otherAddress = new PojoClassDescriptor(OtherAddress.class);
+
+        assertEquals(address.getFingerprint(), new PojoClassDescriptor(Address.class).getFingerprint());
+        assertTrue(address.getFingerprint() != otherAddress.getFingerprint());
+    }
+
+    @Test
+    public void testHeader_startsWithFormatVersion() {
+        Data data = serializationService.toData(newPerson());
+
+        assertEquals(PojoStreamSerializer.FORMAT_VERSION, data.toByteArray()[HeapData.DATA_OFFSET]);
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testRead_whenNewerFormatVersion() {
+        byte[] bytes = serializationService.toData(newPerson()).toByteArray();
+        bytes[HeapData.DATA_OFFSET] = PojoStreamSerializer.FORMAT_VERSION + 1;
+
+        serializationService.toObject(new HeapData(bytes));
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testRead_whenClassNotRegistered() {
+        Data data = serializationService.toData(newPerson());
+
+        InternalSerializationService other = newSerializationService(Address.class);
+        other.toObject(data);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegister_whenNoDefaultConstructor() {
+        new PojoStreamSerializer(Collections.<Class>singletonList(NoDefaultConstructor.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegister_whenAbstractClass() {
+        new PojoStreamSerializer(Collections.<Class>singletonList(AbstractPojo.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegister_whenDuplicateClass() {
+        new PojoStreamSerializer(Arrays.<Class>asList(Address.class, Address.class));
+    }
+
+    @Test
+    public void testSerializationConfig() {
+        SerializationConfig config = new SerializationConfig()
+                .addPojoSerializerClass(Address.class);
+
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder().setConfig(config).build();
+        Address address = new Address("street", 1, "city");
+        Data data = ss.toData(address);
+
+        assertEquals(SerializationConstants.POJO_TYPE, data.getType());
+        Address found = ss.toObject(data);
+        assertEquals("street", found.street);
+        assertEquals(1, found.number);
+        assertEquals("city", found.city);
+    }
+
+    private static InternalSerializationService newSerializationService(Class... classes) {
+        SerializationConfig config = new SerializationConfig();
+        Collection<Class> pojoClasses = new ArrayList<Class>(asList(classes));
+        config.setPojoSerializerClasses(pojoClasses);
+        return new DefaultSerializationServiceBuilder().setConfig(config).build();
+    }
+
+    private static Person newPerson() {
+        Person person = new Person();
+        person.name = "john";
+        person.age = 30;
+        person.active = true;
+        person.initial = 'j';
+        person.height = 1.8d;
+        person.weight = 80.5f;
+        person.flags = 3;
+        person.level = (byte) 7;
+        person.id = 42L;
+        person.scores = new int[]{1, 2, 3};
+        person.timestamps = new long[]{4L, 5L};
+        person.ratios = new double[]{0.5d};
+        person.photo = new byte[]{1, 2};
+        person.address = new Address("main street", 12, "springfield");
+        person.tags = new ArrayList<String>(asList("a", "b"));
+        person.boxed = 17;
+        return person;
+    }
+
+    private static void assertPersonEquals(Person expected, Person actual) {
+        assertEquals(expected.name, actual.name);
+        assertEquals(expected.age, actual.age);
+        assertEquals(expected.active, actual.active);
+        assertEquals(expected.initial, actual.initial);
+        assertEquals(expected.height, actual.height, 0d);
+        assertEquals(expected.weight, actual.weight, 0f);
+        assertEquals(expected.flags, actual.flags);
+        assertEquals(expected.level, actual.level);
+        assertEquals(expected.id, actual.id);
+        assertArrayEquals(expected.scores, actual.scores);
+        assertArrayEquals(expected.timestamps, actual.timestamps);
+        assertArrayEquals(expected.ratios, actual.ratios, 0d);
+        assertArrayEquals(expected.photo, actual.photo);
+        assertEquals(expected.address.street, actual.address.street);
+        assertEquals(expected.address.number, actual.address.number);
+        assertEquals(expected.address.city, actual.address.city);
+        assertEquals(expected.tags, actual.tags);
+        assertEquals(expected.boxed, actual.boxed);
+    }
+
+    static class Person implements Serializable {
+        static String ignoredStatic = "static";
+
+        String name;
+        int age;
+        boolean active;
+        char initial;
+        double height;
+        float weight;
+        short flags;
+        byte level;
+        long id;
+        int[] scores;
+        long[] timestamps;
+        double[] ratios;
+        byte[] photo;
+        Address address;
+        List<String> tags;
+        Integer boxed;
+        transient String cached;
+    }
+
+    static class Address implements Serializable {
+        String street;
+        final int number;
+        String city;
+
+        private Address() {
+            this.number = 0;
+        }
+
+        Address(String street, int number, String city) {
+            this.street = street;
+            this.number = number;
+            this.city = city;
+        }
+    }
+
+    static class OtherAddress {
+        String street;
+        long number;
+        String city;
+    }
+
+    static class Employee extends Person {
+        long employeeId;
+    }
+
+    static class NoDefaultConstructor {
+        int value;
+
+        NoDefaultConstructor(int value) {
+            this.value = value;
+        }
+    }
+
+    abstract static class AbstractPojo {
+        int value;
+    }
+}
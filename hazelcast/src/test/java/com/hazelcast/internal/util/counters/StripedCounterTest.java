@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.util.counters;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.util.counters.StripedCounter.newStripedCounter;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class StripedCounterTest extends HazelcastTestSupport {
+
+    private StripedCounter counter;
+
+    @Before
+    public void setup() {
+        counter = newStripedCounter();
+    }
+
+    @Test
+    public void inc() {
+        counter.inc();
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void inc_withAmount() {
+        counter.inc(10);
+        assertEquals(10, counter.get());
+
+        counter.inc(-3);
+        assertEquals(7, counter.get());
+    }
+
+    @Test
+    public void set() {
+        counter.inc(10);
+
+        counter.set(5);
+
+        assertEquals(5, counter.get());
+    }
+
+    @Test
+    public void inc_fromMultipleThreads() throws Exception {
+        final int threadCount = 8;
+        final int incrementsPerThread = 10000;
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int k = 0; k < incrementsPerThread; k++) {
+                        counter.inc();
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        assertJoinable(threads);
+
+        assertEquals(threadCount * incrementsPerThread, counter.get());
+    }
+
+    @Test
+    public void test_toString() {
+        counter.inc(3);
+
+        assertEquals("StripedCounter{value=3}", counter.toString());
+    }
+}
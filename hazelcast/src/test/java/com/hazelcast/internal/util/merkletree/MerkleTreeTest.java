@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.merkletree;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MerkleTreeTest {
+
+    private static final int DEPTH = 4;
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_whenDepthTooSmall() {
+        new MerkleTree(MerkleTree.MIN_DEPTH - 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_whenDepthTooLarge() {
+        new MerkleTree(MerkleTree.MAX_DEPTH + 1);
+    }
+
+    @Test
+    public void testNodeCount() {
+        MerkleTree tree = new MerkleTree(DEPTH);
+
+        assertEquals(8, tree.getLeafCount());
+        assertEquals(15, tree.getNodeHashes().length);
+        assertEquals(DEPTH, MerkleTree.getDepth(tree.getNodeHashes()));
+    }
+
+    @Test
+    public void testGetDepth_whenInvalidNodeCount() {
+        assertEquals(-1, MerkleTree.getDepth(new int[4]));
+    }
+
+    @Test
+    public void testTreesEqual_whenEntriesAddedInDifferentOrder() {
+        MerkleTree tree1 = new MerkleTree(DEPTH);
+        MerkleTree tree2 = new MerkleTree(DEPTH);
+
+        for (int i = 0; i < 100; i++) {
+            tree1.updateAdd(i, i * 7);
+        }
+        for (int i = 99; i >= 0; i--) {
+            tree2.updateAdd(i, i * 7);
+        }
+
+        assertArrayEquals(tree1.getNodeHashes(), tree2.getNodeHashes());
+        assertEquals(0, tree1.findDifferentLeaves(tree2.getNodeHashes()).length);
+    }
+
+    @Test
+    public void testTreeEmpty_whenAllEntriesRemoved() {
+        MerkleTree tree = new MerkleTree(DEPTH);
+        for (int i = 0; i < 100; i++) {
+            tree.updateAdd(i, i);
+        }
+        for (int i = 0; i < 100; i++) {
+            tree.updateRemove(i, i);
+        }
+
+        assertArrayEquals(new MerkleTree(DEPTH).getNodeHashes(), tree.getNodeHashes());
+    }
+
+    @Test
+    public void testUpdateReplace() {
+        MerkleTree tree1 = new MerkleTree(DEPTH);
+        MerkleTree tree2 = new MerkleTree(DEPTH);
+
+        tree1.updateAdd(1, 1);
+        tree1.updateReplace(1, 1, 2);
+        tree2.updateAdd(1, 2);
+
+        assertArrayEquals(tree1.getNodeHashes(), tree2.getNodeHashes());
+    }
+
+    @Test
+    public void testClear() {
+        MerkleTree tree = new MerkleTree(DEPTH);
+        tree.updateAdd(1, 1);
+
+        tree.clear();
+
+        assertArrayEquals(new MerkleTree(DEPTH).getNodeHashes(), tree.getNodeHashes());
+    }
+
+    @Test
+    public void testFindDifferentLeaves() {
+        MerkleTree tree1 = new MerkleTree(DEPTH);
+        MerkleTree tree2 = new MerkleTree(DEPTH);
+        for (int i = 0; i < 100; i++) {
+            tree1.updateAdd(i, i);
+            tree2.updateAdd(i, i);
+        }
+
+        int keyHash = 42;
+        tree2.updateReplace(keyHash, keyHash, -1);
+
+        int[] differentLeaves = tree1.findDifferentLeaves(tree2.getNodeHashes());
+        assertArrayEquals(new int[]{tree1.getLeafOrder(keyHash)}, differentLeaves);
+        assertNotEquals(tree1.getNodeHashes()[0], tree2.getNodeHashes()[0]);
+    }
+
+    @Test
+    public void testFindDifferentLeaves_whenMultipleLeavesDiffer() {
+        MerkleTree tree1 = new MerkleTree(DEPTH);
+        MerkleTree tree2 = new MerkleTree(DEPTH);
+        for (int i = 0; i < 1000; i++) {
+            tree1.updateAdd(i, i);
+        }
+
+        int[] differentLeaves = tree1.findDifferentLeaves(tree2.getNodeHashes());
+
+        assertEquals(tree1.getLeafCount(), differentLeaves.length);
+        for (int i = 0; i < differentLeaves.length; i++) {
+            assertEquals(i, differentLeaves[i]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindDifferentLeaves_whenDepthsDiffer() {
+        new MerkleTree(DEPTH).findDifferentLeaves(new MerkleTree(DEPTH + 1).getNodeHashes());
+    }
+}
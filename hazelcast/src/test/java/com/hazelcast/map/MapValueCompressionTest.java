@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+import static com.hazelcast.internal.serialization.impl.DataCompressor.isCompressed;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MapValueCompressionTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 100;
+
+    private String mapName;
+    private TestHazelcastInstanceFactory factory;
+    private Config config;
+
+    @Before
+    public void setup() {
+        mapName = randomMapName();
+        factory = createHazelcastInstanceFactory(2);
+        config = getConfig()
+                .setProperty(GroupProperty.PARTITION_COUNT.getName(), "11")
+                .setProperty(GroupProperty.MAP_VALUE_COMPRESSION_MIN_SIZE.getName(), "64");
+        config.getMapConfig(mapName)
+                .setInMemoryFormat(InMemoryFormat.BINARY)
+                .setBackupCount(1)
+                .setValueCompressionEnabled(true);
+    }
+
+    @Test
+    public void testValuesCompressed_onOwnerAndBackup() {
+        HazelcastInstance instance1 = factory.newHazelcastInstance(config);
+        HazelcastInstance instance2 = factory.newHazelcastInstance(config);
+        String key = generateKeyOwnedBy(instance1);
+        IMap<String, Person> map = instance1.getMap(mapName);
+
+        map.put(key, new Person("name", 42));
+
+        assertTrue(isCompressed(getStoredValue(instance1, key)));
+        assertTrue(isCompressed(getStoredValue(instance2, key)));
+        assertEquals(new Person("name", 42), map.get(key));
+    }
+
+    @Test
+    public void testValuesReadable_afterBackupPromotion() {
+        HazelcastInstance instance1 = factory.newHazelcastInstance(config);
+        HazelcastInstance instance2 = factory.newHazelcastInstance(config);
+        IMap<Integer, Person> map = instance1.getMap(mapName);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, new Person("name-" + i, i));
+        }
+
+        instance1.shutdown();
+
+        IMap<Integer, Person> promotedMap = instance2.getMap(mapName);
+        assertEquals(ENTRY_COUNT, promotedMap.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(new Person("name-" + i, i), promotedMap.get(i));
+            assertTrue(isCompressed(getStoredValue(instance2, i)));
+        }
+    }
+
+    @Test
+    public void testPredicateQuery_onCompressedValues() {
+        HazelcastInstance instance1 = factory.newHazelcastInstance(config);
+        factory.newHazelcastInstance(config);
+        IMap<Integer, Person> map = instance1.getMap(mapName);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, new Person("name-" + i, i));
+        }
+        assertTrue(isCompressed(getStoredValue(instance1, 0)));
+
+        Collection<Person> values = map.values(Predicates.lessThan("age", 10));
+
+        assertEquals(10, values.size());
+        for (Person person : values) {
+            assertTrue(person.age < 10);
+        }
+        assertEquals(1, map.keySet(Predicates.equal("name", "name-42")).size());
+    }
+
+    private Data getStoredValue(HazelcastInstance instance, Object key) {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        Data dataKey = mapServiceContext.toData(key);
+        int partitionId = getPartitionService(instance).getPartitionId(dataKey);
+        Record record = mapServiceContext.getRecordStore(partitionId, mapName).getRecordOrNull(dataKey);
+        return (Data) record.getValue();
+    }
+
+    public static class Person implements Serializable {
+
+        // repetitive, so the serialized form is well compressible
+        private final String description = "a person with a name and an age, a person with a name and an age";
+        private final String name;
+        private final int age;
+
+        public Person(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Person person = (Person) o;
+            return age == person.age && name.equals(person.name) && description.equals(person.description);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + age;
+        }
+    }
+}
@@ -23,12 +23,18 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static com.hazelcast.map.impl.MapKeyLoader.Role;
 import static com.hazelcast.map.impl.MapKeyLoader.Role.NONE;
 import static com.hazelcast.map.impl.MapKeyLoader.Role.RECEIVER;
 import static com.hazelcast.map.impl.MapKeyLoader.Role.SENDER;
 import static com.hazelcast.map.impl.MapKeyLoader.Role.SENDER_BACKUP;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelTest.class})
@@ -122,4 +128,31 @@ public class MapKeyLoaderUtilTest {
 
         assertEquals(NONE, role);
     }
+
+    @Test
+    public void limitShared_limitsAllIteratorsTogether() {
+        AtomicInteger remaining = new AtomicInteger(3);
+        Iterator<Integer> first = MapKeyLoaderUtil.limitShared(Arrays.asList(1, 2).iterator(), remaining);
+        Iterator<Integer> second = MapKeyLoaderUtil.limitShared(Arrays.asList(3, 4).iterator(), remaining);
+
+        assertEquals(1, (int) first.next());
+        assertEquals(3, (int) second.next());
+        assertTrue(first.hasNext());
+        assertTrue(first.hasNext());
+        assertFalse(second.hasNext());
+        assertEquals(2, (int) first.next());
+        assertFalse(first.hasNext());
+        assertEquals(0, remaining.get());
+    }
+
+    @Test
+    public void limitShared_doesNotConsumeCounter_whenExhausted() {
+        AtomicInteger remaining = new AtomicInteger(3);
+        Iterator<Integer> iterator = MapKeyLoaderUtil.limitShared(Arrays.asList(1).iterator(), remaining);
+
+        iterator.next();
+
+        assertFalse(iterator.hasNext());
+        assertEquals(2, remaining.get());
+    }
 }
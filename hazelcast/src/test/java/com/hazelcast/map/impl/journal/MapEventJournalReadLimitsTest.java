@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.journal;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EventJournalConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.map.journal.DataAwareEventJournalMapEvent;
+import com.hazelcast.map.journal.EventJournalMapEvent;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.DataSerializable;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.ringbuffer.ReadResultSet;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.spi.properties.HazelcastProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.util.function.Predicate;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MapEventJournalReadLimitsTest extends HazelcastTestSupport {
+
+    private static final int VALUE_SIZE = 1000;
+
+    @Test
+    public void whenMaxBytesReached_thenBatchLimited() throws Exception {
+        MapProxyImpl<Integer, byte[]> map = createMap(GroupProperty.EVENT_JOURNAL_READ_MAX_BYTES, 10 * VALUE_SIZE);
+        for (int i = 0; i < 100; i++) {
+            map.set(i, new byte[VALUE_SIZE]);
+        }
+
+        ReadResultSet<Object> result = map.readFromEventJournal(0, 1, 100, 0, null, null).get();
+
+        // each event holds a value of VALUE_SIZE bytes, so the tenth event reaches the limit
+        assertEquals(10, result.size());
+        assertEquals(10, result.readCount());
+        assertEquals(10, result.getNextSequenceToReadFrom());
+    }
+
+    @Test
+    public void whenMaxBytesReachedByFirstEvent_thenBatchContainsOneEvent() throws Exception {
+        MapProxyImpl<Integer, byte[]> map = createMap(GroupProperty.EVENT_JOURNAL_READ_MAX_BYTES, 10);
+        for (int i = 0; i < 10; i++) {
+            map.set(i, new byte[VALUE_SIZE]);
+        }
+
+        ReadResultSet<Object> result = map.readFromEventJournal(0, 5, 100, 0, null, null).get();
+
+        assertEquals(1, result.size());
+        assertEquals(1, result.getNextSequenceToReadFrom());
+    }
+
+    @Test
+    public void whenMinBytesReached_thenReturnsBeforeMinSize() throws Exception {
+        MapProxyImpl<Integer, byte[]> map = createMap(GroupProperty.EVENT_JOURNAL_READ_MIN_BYTES, 5 * VALUE_SIZE);
+        for (int i = 0; i < 20; i++) {
+            map.set(i, new byte[VALUE_SIZE]);
+        }
+
+        ReadResultSet<Object> result = map.readFromEventJournal(0, 1000, 1000, 0, null, null).get();
+
+        assertEquals(20, result.size());
+    }
+
+    @Test
+    public void whenMinBytesReachedWhileWaiting_thenReturns() throws Exception {
+        MapProxyImpl<Integer, byte[]> map = createMap(GroupProperty.EVENT_JOURNAL_READ_MIN_BYTES, 5 * VALUE_SIZE);
+        map.set(0, new byte[VALUE_SIZE]);
+        ICompletableFuture<ReadResultSet<Object>> future
+                = map.readFromEventJournal(0, 1000, 1000, 0, null, null);
+        sleepMillis(100);
+        assertFalse(future.isDone());
+
+        for (int i = 1; i < 5; i++) {
+            map.set(i, new byte[VALUE_SIZE]);
+        }
+
+        assertEquals(5, future.get().size());
+    }
+
+    @Test
+    public void whenMaxWaitExpires_thenReturnsCollectedEvents() throws Exception {
+        MapProxyImpl<Integer, byte[]> map = createMap(GroupProperty.EVENT_JOURNAL_READ_MAX_WAIT_MILLIS, 500);
+        map.set(0, new byte[VALUE_SIZE]);
+        map.set(1, new byte[VALUE_SIZE]);
+
+        ReadResultSet<Object> result = map.readFromEventJournal(0, 10, 100, 0, null, null).get();
+
+        assertEquals(2, result.size());
+        assertEquals(2, result.getNextSequenceToReadFrom());
+    }
+
+    @Test
+    public void whenMaxWaitExpiresWithoutEvents_thenReturnsEmptyBatch() throws Exception {
+        MapProxyImpl<Integer, byte[]> map = createMap(GroupProperty.EVENT_JOURNAL_READ_MAX_WAIT_MILLIS, 200);
+
+        ReadResultSet<Object> result = map.readFromEventJournal(0, 1, 100, 0, null, null).get();
+
+        assertEquals(0, result.size());
+        assertEquals(0, result.getNextSequenceToReadFrom());
+    }
+
+    @Test
+    public void whenDataAwarePredicateAndProjection_thenEventsNotDeserialized() throws Exception {
+        MapProxyImpl<Integer, CountingValue> map = createMap(GroupProperty.EVENT_JOURNAL_READ_MAX_BYTES, 0);
+        for (int i = 0; i < 10; i++) {
+            map.set(i, new CountingValue(i % 2 == 0 ? 10 : VALUE_SIZE));
+        }
+        int deserializations = CountingValue.DESERIALIZATIONS.get();
+
+        ReadResultSet<Data> result = map.readFromEventJournal(0, 1, 100, 0,
+                new LargeNewValuePredicate(), new DataNewValueProjection()).get();
+
+        assertEquals(deserializations, CountingValue.DESERIALIZATIONS.get());
+        assertEquals(5, result.size());
+        for (int i = 0; i < result.size(); i++) {
+            assertEquals(2 * i + 1, result.getSequence(i));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> MapProxyImpl<Integer, V> createMap(HazelcastProperty property, int value) {
+        Config config = getConfig()
+                .setProperty(GroupProperty.PARTITION_COUNT.getName(), "1")
+                .setProperty(property.getName(), String.valueOf(value))
+                .addEventJournalConfig(new EventJournalConfig().setEnabled(true).setMapName("default"));
+        HazelcastInstance hz = createHazelcastInstance(config);
+        IMap<Integer, V> map = hz.getMap(randomMapName());
+        return (MapProxyImpl<Integer, V>) map;
+    }
+
+    private static class LargeNewValuePredicate
+            implements Predicate<EventJournalMapEvent<Integer, CountingValue>>, Serializable {
+
+        @Override
+        public boolean test(EventJournalMapEvent<Integer, CountingValue> event) {
+            Data newValue = ((DataAwareEventJournalMapEvent<Integer, CountingValue>) event).getDataNewValue();
+            return newValue.totalSize() > VALUE_SIZE;
+        }
+    }
+
+    private static class DataNewValueProjection extends Projection<EventJournalMapEvent<Integer, CountingValue>, Data> {
+
+        @Override
+        public Data transform(EventJournalMapEvent<Integer, CountingValue> event) {
+            return ((DataAwareEventJournalMapEvent<Integer, CountingValue>) event).getDataNewValue();
+        }
+    }
+
+    public static class CountingValue implements DataSerializable {
+
+        static final AtomicInteger DESERIALIZATIONS = new AtomicInteger();
+
+        private byte[] payload;
+
+        public CountingValue() {
+        }
+
+        CountingValue(int size) {
+            this.payload = new byte[size];
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeByteArray(payload);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            payload = in.readByteArray();
+            DESERIALIZATIONS.incrementAndGet();
+        }
+    }
+}
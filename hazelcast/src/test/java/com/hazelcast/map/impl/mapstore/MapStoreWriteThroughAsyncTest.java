@@ -0,0 +1,431 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.MapStoreAdapter;
+import com.hazelcast.core.Partition;
+import com.hazelcast.core.PartitionService;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MapStoreWriteThroughAsyncTest extends HazelcastTestSupport {
+
+    @Test
+    public void testSet_doesNotBlockPartition_whileStoring() throws Exception {
+        BlockingMapStore mapStore = new BlockingMapStore();
+        IMap<Integer, Integer> map = newMap(mapStore, 1);
+        map.set(2, 2);
+        mapStore.block();
+
+        Future<Void> future = map.setAsync(1, 1);
+        assertOpenEventually(mapStore.storeStarted);
+
+        assertEquals(Integer.valueOf(2), map.get(2));
+        assertNull(map.get(1));
+        assertFalse(future.isDone());
+
+        mapStore.unblock();
+        future.get();
+        assertEquals(Integer.valueOf(1), map.get(1));
+        assertEquals(Integer.valueOf(1), mapStore.store.get(1));
+    }
+
+    @Test
+    public void testSet_coalescesConcurrentStores() throws Exception {
+        BlockingMapStore mapStore = new BlockingMapStore();
+        IMap<Integer, Integer> map = newMap(mapStore, 100);
+        mapStore.block();
+
+        List<ICompletableFuture<Void>> futures = new ArrayList<ICompletableFuture<Void>>();
+        futures.add(map.setAsync(0, 0));
+        assertOpenEventually(mapStore.storeStarted);
+        for (int i = 1; i < 50; i++) {
+            futures.add(map.setAsync(i, i));
+        }
+        mapStore.unblock();
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+
+        assertEquals(50, map.size());
+        assertEquals(50, mapStore.store.size());
+        assertTrue("storeAll calls: " + mapStore.storeAllCount.get(), mapStore.storeAllCount.get() > 0);
+    }
+
+    @Test
+    public void testSet_keepsOrderOfStoresOnSameKey() throws Exception {
+        BlockingMapStore mapStore = new BlockingMapStore();
+        final IMap<Integer, Integer> map = newMap(mapStore, 100);
+
+        List<ICompletableFuture<Void>> futures = new ArrayList<ICompletableFuture<Void>>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(map.setAsync(1, i));
+        }
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+
+        assertEquals(Integer.valueOf(99), map.get(1));
+        assertEquals(Integer.valueOf(99), mapStore.store.get(1));
+    }
+
+    @Test
+    public void testSet_queuesSyncPutAndLockBehindStore() throws Exception {
+        BlockingMapStore mapStore = new BlockingMapStore();
+        IMap<Integer, Integer> map = newMap(mapStore, 1);
+        mapStore.block();
+
+        Future<Void> setFuture = map.setAsync(1, 1);
+        assertOpenEventually(mapStore.storeStarted);
+        Future<Integer> putFuture = map.putAsync(1, 2);
+
+        assertFalse(map.tryLock(1));
+        assertFalse(putFuture.isDone());
+
+        mapStore.unblock();
+        setFuture.get();
+        putFuture.get();
+
+        assertEquals(Integer.valueOf(2), map.get(1));
+        assertEquals(Integer.valueOf(2), mapStore.store.get(1));
+        assertTrue(map.tryLock(1));
+    }
+
+    @Test
+    public void testSet_waitsForLockHolder() throws Exception {
+        BlockingMapStore mapStore = new BlockingMapStore();
+        final IMap<Integer, Integer> map = newMap(mapStore, 1);
+        map.lock(1);
+
+        final Future<Object> setFuture = spawn(new Callable<Object>() {
+            @Override
+            public Object call() {
+                map.set(1, 1);
+                return null;
+            }
+        });
+        assertTrueAllTheTime(new AssertTask() {
+            @Override
+            public void run() {
+                assertFalse(setFuture.isDone());
+            }
+        }, 2);
+
+        map.set(1, 2);
+        assertEquals(Integer.valueOf(2), mapStore.store.get(1));
+        map.unlock(1);
+        setFuture.get();
+
+        assertEquals(Integer.valueOf(1), map.get(1));
+        assertEquals(Integer.valueOf(1), mapStore.store.get(1));
+    }
+
+    @Test
+    public void testSet_interleavedWithPutAndLock_keepsMapAndStoreInSync() throws Exception {
+        final BlockingMapStore mapStore = new BlockingMapStore();
+        final IMap<Integer, Integer> map = newMap(mapStore, 10);
+
+        List<Future<Object>> futures = new ArrayList<Future<Object>>();
+        for (int i = 0; i < 4; i++) {
+            final int thread = i;
+            futures.add(spawn(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    for (int j = 0; j < 200; j++) {
+                        int value = thread * 1000 + j;
+                        switch (j % 3) {
+                            case 0:
+                                map.setAsync(1, value);
+                                break;
+                            case 1:
+                                map.put(1, value);
+                                break;
+                            default:
+                                map.lock(1);
+                                try {
+                                    map.set(1, value);
+                                } finally {
+                                    map.unlock(1);
+                                }
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future<Object> future : futures) {
+            future.get();
+        }
+
+        // the last async sets of the threads may still be in flight
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(map.get(1), mapStore.store.get(1));
+                assertFalse(map.isLocked(1));
+            }
+        });
+    }
+
+    @Test
+    public void testSet_failsAndLeavesMapUnchanged_whenStoreFails() throws Exception {
+        BlockingMapStore mapStore = new BlockingMapStore();
+        mapStore.fail = true;
+        IMap<Integer, Integer> map = newMap(mapStore, 1);
+
+        try {
+            map.set(1, 1);
+            fail("Expected the store failure");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+
+        assertNull(map.get(1));
+    }
+
+    @Test
+    public void testSet_storesEachEntryOnce_whenBatchFails() throws Exception {
+        BlockingMapStore mapStore = new BlockingMapStore();
+        mapStore.failStoreAll = true;
+        mapStore.failingKey = 7;
+        IMap<Integer, Integer> map = newMap(mapStore, 100);
+        mapStore.block();
+
+        List<ICompletableFuture<Void>> futures = new ArrayList<ICompletableFuture<Void>>();
+        futures.add(map.setAsync(0, 0));
+        assertOpenEventually(mapStore.storeStarted);
+        for (int i = 1; i < 10; i++) {
+            futures.add(map.setAsync(i, i));
+        }
+        mapStore.unblock();
+
+        for (int i = 0; i < 10; i++) {
+            if (i == 7) {
+                try {
+                    futures.get(i).get();
+                    fail("Expected the store failure of key " + i);
+                } catch (ExecutionException expected) {
+                    assertTrue(expected.getCause() instanceof IllegalStateException);
+                }
+                assertNull(map.get(i));
+            } else {
+                futures.get(i).get();
+                assertEquals(Integer.valueOf(i), map.get(i));
+                assertEquals(Integer.valueOf(i), mapStore.store.get(i));
+            }
+        }
+        assertEquals(9, mapStore.store.size());
+        assertEquals(0, mapStore.storeAllCount.get());
+        // the first entry was stored alone, the following ones in failed batches and then one by one
+        assertEquals(10, mapStore.storeCount.get());
+    }
+
+    @Test
+    public void testSet_putsStoredEntry_whenLockLost() throws Exception {
+        BlockingMapStore mapStore = new BlockingMapStore();
+        IMap<Integer, Integer> map = newMap(mapStore, 1);
+        mapStore.block();
+
+        Future<Void> future = map.setAsync(1, 1);
+        assertOpenEventually(mapStore.storeStarted);
+        assertTrue(map.isLocked(1));
+        map.forceUnlock(1);
+        mapStore.unblock();
+        future.get();
+
+        assertEquals(Integer.valueOf(1), map.get(1));
+        assertEquals(Integer.valueOf(1), mapStore.store.get(1));
+        assertEquals(1, mapStore.storeCount.get());
+        assertFalse(map.isLocked(1));
+    }
+
+    @Test
+    public void testSet_putsStoredEntries_whenPartitionsMigrateDuringStore() throws Exception {
+        BlockingMapStore mapStore = new BlockingMapStore();
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(3);
+        String mapName = randomMapName();
+        Config config = newConfig(mapName, mapStore, 1);
+        HazelcastInstance instance1 = factory.newHazelcastInstance(config);
+        HazelcastInstance instance2 = factory.newHazelcastInstance(config);
+        warmUpPartitions(instance1, instance2);
+        IMap<Integer, Integer> map = instance2.getMap(mapName);
+
+        // one key in each partition of the first member, all of them stored one by one behind the blocked store
+        List<Integer> keys = new ArrayList<Integer>();
+        Set<Integer> partitionIds = new HashSet<Integer>();
+        PartitionService partitionService = instance1.getPartitionService();
+        for (int key = 0; partitionIds.size() < partitionService.getPartitions().size() / 2 && key < 10000; key++) {
+            Partition partition = partitionService.getPartition(key);
+            if (partition.getOwner().localMember() && partitionIds.add(partition.getPartitionId())) {
+                keys.add(key);
+            }
+        }
+        mapStore.block();
+        List<ICompletableFuture<Void>> futures = new ArrayList<ICompletableFuture<Void>>();
+        for (Integer key : keys) {
+            futures.add(map.setAsync(key, key));
+        }
+        assertOpenEventually(mapStore.storeStarted);
+
+        HazelcastInstance instance3 = factory.newHazelcastInstance(config);
+        waitAllForSafeState(instance1, instance2, instance3);
+        int migratedKeys = 0;
+        for (Integer key : keys) {
+            if (!partitionService.getPartition(key).getOwner().localMember()) {
+                migratedKeys++;
+            }
+        }
+        assertTrue("No partition of the stored keys was migrated", migratedKeys > 0);
+        mapStore.unblock();
+
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+        for (Integer key : keys) {
+            assertEquals(key, map.get(key));
+            assertEquals(key, mapStore.store.get(key));
+            assertFalse(map.isLocked(key));
+        }
+        assertEquals(keys.size(), mapStore.storeCount.get());
+    }
+
+    @Test
+    public void testSet_publishesEvents() {
+        BlockingMapStore mapStore = new BlockingMapStore();
+        IMap<Integer, Integer> map = newMap(mapStore, 1);
+        final AtomicInteger addedEvents = new AtomicInteger();
+        map.addEntryListener(new EntryAddedListener<Integer, Integer>() {
+            @Override
+            public void entryAdded(EntryEvent<Integer, Integer> event) {
+                addedEvents.incrementAndGet();
+            }
+        }, false);
+
+        map.set(1, 1);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(1, addedEvents.get());
+            }
+        });
+    }
+
+    private IMap<Integer, Integer> newMap(BlockingMapStore mapStore, int writeBatchSize) {
+        String mapName = randomMapName();
+        Config config = newConfig(mapName, mapStore, writeBatchSize)
+                .setProperty(GroupProperty.PARTITION_COUNT.getName(), "1");
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Integer> map = instance.getMap(mapName);
+        // operations are retried while the map is loaded initially, so they could overtake each other
+        map.size();
+        return map;
+    }
+
+    private Config newConfig(String mapName, BlockingMapStore mapStore, int writeBatchSize) {
+        Config config = getConfig()
+                .setProperty(GroupProperty.MAP_WRITE_THROUGH_ASYNC.getName(), "true");
+        MapStoreConfig mapStoreConfig = new MapStoreConfig()
+                .setEnabled(true)
+                .setImplementation(mapStore)
+                .setWriteBatchSize(writeBatchSize);
+        config.getMapConfig(mapName).setMapStoreConfig(mapStoreConfig);
+        return config;
+    }
+
+    private static class BlockingMapStore extends MapStoreAdapter<Integer, Integer> {
+
+        final Map<Integer, Integer> store = new ConcurrentHashMap<Integer, Integer>();
+        final AtomicInteger storeCount = new AtomicInteger();
+        final AtomicInteger storeAllCount = new AtomicInteger();
+        final CountDownLatch storeStarted = new CountDownLatch(1);
+
+        volatile boolean fail;
+        volatile boolean failStoreAll;
+        volatile Integer failingKey;
+
+        private volatile CountDownLatch unblocked = new CountDownLatch(0);
+
+        void block() {
+            unblocked = new CountDownLatch(1);
+        }
+
+        void unblock() {
+            unblocked.countDown();
+        }
+
+        @Override
+        public void store(Integer key, Integer value) {
+            awaitUnblocked();
+            storeCount.incrementAndGet();
+            if (fail || key.equals(failingKey)) {
+                throw new IllegalStateException("Expected failure");
+            }
+            store.put(key, value);
+        }
+
+        @Override
+        public void storeAll(Map<Integer, Integer> map) {
+            awaitUnblocked();
+            if (fail || failStoreAll) {
+                throw new IllegalStateException("Expected failure");
+            }
+            storeAllCount.incrementAndGet();
+            store.putAll(map);
+        }
+
+        private void awaitUnblocked() {
+            storeStarted.countDown();
+            assertOpenEventually(unblocked);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.config.MaxSizeConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.SegmentedMapLoader;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class SegmentedMapLoaderTest extends HazelcastTestSupport {
+
+    private static final int SEGMENT_COUNT = 4;
+    private static final int SEGMENT_SIZE = 250;
+
+    @Test
+    public void testLoadsAllSegments() {
+        SegmentedLoader loader = new SegmentedLoader();
+        IMap<Integer, Integer> map = newMap(loader, null);
+
+        assertEquals(SEGMENT_COUNT * SEGMENT_SIZE, map.size());
+        assertEquals(Integer.valueOf(7), map.get(7));
+        assertEquals(0, loader.loadAllKeysInvocations.get());
+        for (int segment = 0; segment < SEGMENT_COUNT; segment++) {
+            assertEquals(1, loader.segmentInvocations.get(segment));
+        }
+    }
+
+    @Test
+    public void testReloadsAllSegments_onLoadAll() {
+        SegmentedLoader loader = new SegmentedLoader();
+        IMap<Integer, Integer> map = newMap(loader, null);
+        map.size();
+        map.clear();
+
+        map.loadAll(true);
+
+        assertEquals(SEGMENT_COUNT * SEGMENT_SIZE, map.size());
+        for (int segment = 0; segment < SEGMENT_COUNT; segment++) {
+            assertEquals(2, loader.segmentInvocations.get(segment));
+        }
+    }
+
+    @Test
+    public void testMaxSizeSharedBySegments() {
+        SegmentedLoader loader = new SegmentedLoader();
+        MaxSizeConfig maxSizeConfig = new MaxSizeConfig(300, MaxSizeConfig.MaxSizePolicy.PER_NODE);
+        IMap<Integer, Integer> map = newMap(loader, maxSizeConfig);
+
+        int size = map.size();
+
+        assertTrue("Size: " + size, size > 0);
+        assertTrue("Size: " + size, size <= 600);
+    }
+
+    private IMap<Integer, Integer> newMap(SegmentedLoader loader, MaxSizeConfig maxSizeConfig) {
+        String mapName = randomMapName();
+        Config config = getConfig();
+        MapStoreConfig mapStoreConfig = new MapStoreConfig()
+                .setEnabled(true)
+                .setImplementation(loader);
+        config.getMapConfig(mapName).setMapStoreConfig(mapStoreConfig);
+        if (maxSizeConfig != null) {
+            config.getMapConfig(mapName).setMaxSizeConfig(maxSizeConfig);
+        }
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        return instances[0].getMap(mapName);
+    }
+
+    private static class SegmentedLoader implements SegmentedMapLoader<Integer, Integer> {
+
+        private final AtomicInteger loadAllKeysInvocations = new AtomicInteger();
+        private final AtomicIntegerArray segmentInvocations = new AtomicIntegerArray(SEGMENT_COUNT);
+
+        @Override
+        public int getKeySegmentCount() {
+            return SEGMENT_COUNT;
+        }
+
+        @Override
+        public Iterable<Integer> loadAllKeys(int segment) {
+            segmentInvocations.incrementAndGet(segment);
+            List<Integer> keys = new ArrayList<Integer>(SEGMENT_SIZE);
+            for (int i = 0; i < SEGMENT_SIZE; i++) {
+                keys.add(segment * SEGMENT_SIZE + i);
+            }
+            return keys;
+        }
+
+        @Override
+        public Iterable<Integer> loadAllKeys() {
+            loadAllKeysInvocations.incrementAndGet();
+            List<Integer> keys = new ArrayList<Integer>();
+            for (int segment = 0; segment < SEGMENT_COUNT; segment++) {
+                for (int i = 0; i < SEGMENT_SIZE; i++) {
+                    keys.add(segment * SEGMENT_SIZE + i);
+                }
+            }
+            return keys;
+        }
+
+        @Override
+        public Integer load(Integer key) {
+            return key;
+        }
+
+        @Override
+        public Map<Integer, Integer> loadAll(Collection<Integer> keys) {
+            Map<Integer, Integer> result = new HashMap<Integer, Integer>();
+            for (Integer key : keys) {
+                result.put(key, key);
+            }
+            return result;
+        }
+    }
+}
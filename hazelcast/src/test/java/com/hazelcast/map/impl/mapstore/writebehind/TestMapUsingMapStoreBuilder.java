@@ -53,6 +53,8 @@ public class TestMapUsingMapStoreBuilder<K, V> {
 
     private long writeBehindQueueCapacity;
 
+    private int writeBehindConcurrency;
+
     private TestHazelcastInstanceFactory instanceFactory;
 
     private TestMapUsingMapStoreBuilder() {
@@ -139,6 +141,11 @@ public class TestMapUsingMapStoreBuilder<K, V> {
         return this;
     }
 
+    public TestMapUsingMapStoreBuilder<K, V> withWriteBehindConcurrency(int writeBehindConcurrency) {
+        this.writeBehindConcurrency = writeBehindConcurrency;
+        return this;
+    }
+
     public TestMapUsingMapStoreBuilder<K, V> withWriteBatchSize(int writeBatchSize) {
         this.writeBatchSize = writeBatchSize;
         return this;
@@ -165,6 +172,10 @@ public class TestMapUsingMapStoreBuilder<K, V> {
             config.setProperty(GroupProperty.MAP_WRITE_BEHIND_QUEUE_CAPACITY.getName(), String.valueOf(writeBehindQueueCapacity));
         }
 
+        if (writeBehindConcurrency > 0) {
+            config.setProperty(GroupProperty.MAP_WRITE_BEHIND_CONCURRENCY.getName(), String.valueOf(writeBehindConcurrency));
+        }
+
         config.setProperty(GroupProperty.PARTITION_COUNT.getName(), String.valueOf(partitionCount));
         if (backupDelaySeconds > 0) {
             config.setProperty(GroupProperty.MAP_REPLICA_SCHEDULED_TASK_DELAY_SECONDS.getName(), String.valueOf(backupDelaySeconds));
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests write-behind with {@link com.hazelcast.spi.properties.GroupProperty#MAP_WRITE_BEHIND_CONCURRENCY}.
+ */
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class WriteBehindConcurrencyTest extends HazelcastTestSupport {
+
+    private static final int KEY_COUNT = 100;
+    private static final int UPDATE_COUNT = 5;
+
+    @Test
+    public void testStoresInParallel_withoutExceedingConcurrency() {
+        final SlowMapStore mapStore = new SlowMapStore();
+        IMap<Integer, Integer> map = newMap(mapStore, 4);
+
+        updateKeys(map);
+
+        assertAllUpdatesStoredInOrder(mapStore);
+        assertTrue("Max concurrent stores: " + mapStore.maxConcurrentStores.get(), mapStore.maxConcurrentStores.get() > 1);
+        assertTrue("Max concurrent stores: " + mapStore.maxConcurrentStores.get(), mapStore.maxConcurrentStores.get() <= 4);
+    }
+
+    @Test
+    public void testStoresSequentially_byDefault() {
+        final SlowMapStore mapStore = new SlowMapStore();
+        IMap<Integer, Integer> map = newMap(mapStore, 0);
+
+        updateKeys(map);
+
+        assertAllUpdatesStoredInOrder(mapStore);
+        assertEquals(1, mapStore.maxConcurrentStores.get());
+    }
+
+    @Test
+    public void testSlowStripe_doesNotHoldBackOtherStripes() {
+        final BlockingMapStore mapStore = new BlockingMapStore();
+        TestMapUsingMapStoreBuilder<Integer, Integer> builder = newMapBuilder(mapStore, 2);
+        IMap<Integer, Integer> map = builder.build();
+        HazelcastInstance node = builder.getNodes()[0];
+        final int blockedKey = findKeyInStripe(node, 0, 2);
+        final int otherKey = findKeyInStripe(node, 1, 2);
+        mapStore.blockedKey = blockedKey;
+
+        map.put(blockedKey, 1);
+        assertOpenEventually(mapStore.blocked);
+
+        // the other stripe keeps being stored in the following runs of the store worker
+        for (int update = 1; update <= UPDATE_COUNT; update++) {
+            final int value = update;
+            map.put(otherKey, value);
+            assertTrueEventually(new AssertTask() {
+                @Override
+                public void run() {
+                    assertEquals(Integer.valueOf(value), mapStore.store.get(otherKey));
+                }
+            });
+        }
+        // the blocked stripe is not selected again before its store has finished
+        map.put(blockedKey, 2);
+        sleepSeconds(2);
+        assertEquals(1, mapStore.blockedKeyStores.get());
+
+        mapStore.unblock.countDown();
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(Integer.valueOf(2), mapStore.store.get(blockedKey));
+            }
+        });
+        assertEquals(2, mapStore.blockedKeyStores.get());
+        assertFalse("Updates of a key were stored out of order", mapStore.outOfOrder);
+    }
+
+    private IMap<Integer, Integer> newMap(SlowMapStore mapStore, int concurrency) {
+        return newMapBuilder(mapStore, concurrency).build();
+    }
+
+    private TestMapUsingMapStoreBuilder<Integer, Integer> newMapBuilder(MapStoreWithCounter<Integer, Integer> mapStore,
+                                                                         int concurrency) {
+        return TestMapUsingMapStoreBuilder.<Integer, Integer>create()
+                .withMapStore(mapStore)
+                .withNodeCount(1)
+                .withNodeFactory(createHazelcastInstanceFactory(1))
+                .withPartitionCount(16)
+                .withWriteCoalescing(false)
+                .withWriteDelaySeconds(1)
+                .withWriteBehindConcurrency(concurrency);
+    }
+
+    private static int findKeyInStripe(HazelcastInstance node, int stripe, int concurrency) {
+        for (int key = 0; ; key++) {
+            if (node.getPartitionService().getPartition(key).getPartitionId() % concurrency == stripe) {
+                return key;
+            }
+        }
+    }
+
+    private static void updateKeys(IMap<Integer, Integer> map) {
+        for (int update = 1; update <= UPDATE_COUNT; update++) {
+            for (int key = 0; key < KEY_COUNT; key++) {
+                map.put(key, update);
+            }
+        }
+    }
+
+    private void assertAllUpdatesStoredInOrder(final SlowMapStore mapStore) {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(KEY_COUNT * UPDATE_COUNT, mapStore.countStore.get());
+                for (int key = 0; key < KEY_COUNT; key++) {
+                    assertEquals(Integer.valueOf(UPDATE_COUNT), mapStore.store.get(key));
+                }
+            }
+        });
+        assertFalse("Updates of a key were stored out of order", mapStore.outOfOrder);
+    }
+
+    /**
+     * Blocks the first store of a key until it is released and tracks the order of the updates.
+     */
+    private static class BlockingMapStore extends MapStoreWithCounter<Integer, Integer> {
+
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch unblock = new CountDownLatch(1);
+        final AtomicInteger blockedKeyStores = new AtomicInteger();
+
+        volatile int blockedKey = -1;
+        volatile boolean outOfOrder;
+
+        private final ConcurrentMap<Integer, Integer> lastValues = new ConcurrentHashMap<Integer, Integer>();
+
+        @Override
+        public void store(Integer key, Integer value) {
+            Integer lastValue = lastValues.put(key, value);
+            if (lastValue != null && lastValue >= value) {
+                outOfOrder = true;
+            }
+            if (key == blockedKey && blockedKeyStores.incrementAndGet() == 1) {
+                blocked.countDown();
+                assertOpenEventually(unblock);
+            }
+            super.store(key, value);
+        }
+
+        @Override
+        public void storeAll(Map<Integer, Integer> map) {
+            for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+                store(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Takes a while to store an entry and tracks the number of concurrent store calls.
+     */
+    private static class SlowMapStore extends MapStoreWithCounter<Integer, Integer> {
+
+        final AtomicInteger maxConcurrentStores = new AtomicInteger();
+
+        volatile boolean outOfOrder;
+
+        private final AtomicInteger concurrentStores = new AtomicInteger();
+        private final ConcurrentMap<Integer, Integer> lastValues = new ConcurrentHashMap<Integer, Integer>();
+
+        @Override
+        public void store(Integer key, Integer value) {
+            int current = concurrentStores.incrementAndGet();
+            try {
+                updateMax(current);
+                Integer lastValue = lastValues.put(key, value);
+                if (lastValue != null && lastValue >= value) {
+                    outOfOrder = true;
+                }
+                sleepMillis(1);
+                super.store(key, value);
+            } finally {
+                concurrentStores.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void storeAll(Map<Integer, Integer> map) {
+            for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+                store(entry.getKey(), entry.getValue());
+            }
+        }
+
+        private void updateMax(int current) {
+            int max;
+            do {
+                max = maxConcurrentStores.get();
+            } while (current > max && !maxConcurrentStores.compareAndSet(max, current));
+        }
+    }
+}
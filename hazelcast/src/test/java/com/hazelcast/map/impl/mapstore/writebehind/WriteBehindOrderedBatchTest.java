@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.OrderedBatchMapStore;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests write-behind with an {@link OrderedBatchMapStore}.
+ */
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class WriteBehindOrderedBatchTest extends HazelcastTestSupport {
+
+    @Test
+    public void testAllUpdatesStoredInBatches_whenWriteCoalescingDisabled() {
+        final RecordingMapStore mapStore = new RecordingMapStore();
+        IMap<Integer, String> map = newMap(mapStore, false);
+
+        updateKey(map);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(Arrays.asList("a", "b", null, "c"), mapStore.operations());
+                assertEquals("c", mapStore.store.get(1));
+            }
+        });
+        assertEquals(0, mapStore.countStore.get());
+        assertEquals(0, mapStore.countDelete.get());
+    }
+
+    @Test
+    public void testStoresAndDeletesInSameBatch_whenWriteCoalescingEnabled() {
+        final RecordingMapStore mapStore = new RecordingMapStore();
+        IMap<Integer, String> map = newMap(mapStore, true);
+
+        map.put(1, "a");
+        map.put(2, "b");
+        map.remove(1);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(1, mapStore.store.size());
+                assertEquals("b", mapStore.store.get(2));
+            }
+        });
+        assertEquals(0, mapStore.countStore.get());
+        assertEquals(0, mapStore.countDelete.get());
+    }
+
+    @Test
+    public void testFallsBackToSingleStores_whenBatchFails() {
+        final RecordingMapStore mapStore = new RecordingMapStore();
+        mapStore.failingBatches.set(Integer.MAX_VALUE);
+        IMap<Integer, String> map = newMap(mapStore, false);
+
+        updateKey(map);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(3, mapStore.countStore.get());
+                assertEquals(1, mapStore.countDelete.get());
+                assertEquals("c", mapStore.store.get(1));
+            }
+        });
+    }
+
+    @Test
+    public void testRetriesOnlyEntriesLeftInBatch_whenBatchPartiallyFails() {
+        final RecordingMapStore mapStore = new RecordingMapStore();
+        mapStore.failingBatches.set(1);
+        mapStore.partialFailures = true;
+        IMap<Integer, String> map = newMap(mapStore, false);
+
+        updateKey(map);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(Arrays.asList("a", "b", null, "c"), mapStore.operations());
+                assertEquals("c", mapStore.store.get(1));
+            }
+        });
+        assertEquals(0, mapStore.countStore.get());
+        assertEquals(0, mapStore.countDelete.get());
+    }
+
+    private IMap<Integer, String> newMap(RecordingMapStore mapStore, boolean writeCoalescing) {
+        return TestMapUsingMapStoreBuilder.<Integer, String>create()
+                .withMapStore(mapStore)
+                .withNodeCount(1)
+                .withNodeFactory(createHazelcastInstanceFactory(1))
+                .withWriteCoalescing(writeCoalescing)
+                .withWriteDelaySeconds(1)
+                .build();
+    }
+
+    private static void updateKey(IMap<Integer, String> map) {
+        map.put(1, "a");
+        map.put(1, "b");
+        map.remove(1);
+        map.put(1, "c");
+    }
+
+    /**
+     * Records the values of all batched operations, {@code null} stands for a delete.
+     * The first {@link #failingBatches} batches fail, after persisting their first entry
+     * if {@link #partialFailures} is set.
+     */
+    private static class RecordingMapStore extends MapStoreWithCounter<Integer, String>
+            implements OrderedBatchMapStore<Integer, String> {
+
+        final AtomicInteger failingBatches = new AtomicInteger();
+
+        volatile boolean partialFailures;
+
+        private final List<String> operations = Collections.synchronizedList(new ArrayList<String>());
+
+        @Override
+        public void storeBatch(List<Map.Entry<Integer, String>> entries) {
+            if (failingBatches.getAndDecrement() > 0) {
+                if (partialFailures) {
+                    apply(entries.remove(0));
+                }
+                throw new IllegalStateException("Expected failure");
+            }
+            for (Map.Entry<Integer, String> entry : entries) {
+                apply(entry);
+            }
+        }
+
+        private void apply(Map.Entry<Integer, String> entry) {
+            operations.add(entry.getValue());
+            if (entry.getValue() == null) {
+                store.remove(entry.getKey());
+            } else {
+                store.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        List<String> operations() {
+            synchronized (operations) {
+                return new ArrayList<String>(operations);
+            }
+        }
+    }
+}
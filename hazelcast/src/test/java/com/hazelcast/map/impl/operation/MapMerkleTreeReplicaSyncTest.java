@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.ServiceNamespace;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MapMerkleTreeReplicaSyncTest extends HazelcastTestSupport {
+
+    private static final String MAP_NAME = "map";
+    private static final int DEPTH = 6;
+    private static final int ENTRY_COUNT = 100;
+
+    @Test
+    public void testStaleBackupReplica_isSynchronized_whenSyncTriggeredOutsideOfPartitionThread() {
+        Config config = getConfig()
+                .setProperty(GroupProperty.MAP_MERKLE_TREE_DEPTH.getName(), String.valueOf(DEPTH));
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance owner = factory.newHazelcastInstance(config);
+        HazelcastInstance backup = factory.newHazelcastInstance(config);
+        warmUpPartitions(owner, backup);
+
+        final int partitionId = getPartitionId(owner, generateKeyOwnedBy(owner));
+        IMap<String, Integer> map = owner.getMap(MAP_NAME);
+        List<Data> keys = new ArrayList<Data>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            String key = generateKeyForPartition(owner, partitionId);
+            map.put(key, i);
+            keys.add(getSerializationService(owner).toData(key));
+        }
+        waitAllForSafeState(owner, backup);
+
+        final RecordStore ownerRecordStore = getRecordStore(owner, partitionId);
+        final RecordStore backupRecordStore = getRecordStore(backup, partitionId);
+        removeBackups(backup, backupRecordStore, partitionId, keys.subList(0, ENTRY_COUNT / 2));
+        assertEquals(ENTRY_COUNT / 2, backupRecordStore.size());
+
+        ServiceNamespace namespace = MapService.getObjectNamespace(MAP_NAME);
+        InternalPartitionServiceImpl partitionService = (InternalPartitionServiceImpl) getNodeEngineImpl(backup).getPartitionService();
+        partitionService.getReplicaManager().triggerPartitionReplicaSync(partitionId, singleton(namespace), 1);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(ENTRY_COUNT, backupRecordStore.size());
+                assertArrayEquals(ownerRecordStore.getMerkleTree().getNodeHashes(),
+                        backupRecordStore.getMerkleTree().getNodeHashes());
+            }
+        });
+    }
+
+    private static void removeBackups(HazelcastInstance instance, final RecordStore recordStore, final int partitionId,
+                                      final List<Data> keys) {
+        final CountDownLatch latch = new CountDownLatch(1);
+        getNodeEngineImpl(instance).getOperationService().execute(new PartitionSpecificRunnable() {
+            @Override
+            public int getPartitionId() {
+                return partitionId;
+            }
+
+            @Override
+            public void run() {
+                for (Data key : keys) {
+                    recordStore.removeBackup(key);
+                }
+                latch.countDown();
+            }
+        });
+        assertOpenEventually(latch);
+    }
+
+    private static RecordStore getRecordStore(HazelcastInstance instance, int partitionId) {
+        NodeEngineImpl nodeEngine = getNodeEngineImpl(instance);
+        MapService mapService = nodeEngine.getService(SERVICE_NAME);
+        return mapService.getMapServiceContext().getPartitionContainer(partitionId).getExistingRecordStore(MAP_NAME);
+    }
+}
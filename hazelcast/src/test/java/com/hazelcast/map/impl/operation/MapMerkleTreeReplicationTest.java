@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.internal.util.merkletree.MerkleTree;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.spi.PartitionReplicationEvent;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Iterator;
+
+import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class MapMerkleTreeReplicationTest extends HazelcastTestSupport {
+
+    private static final String MAP_NAME = "map";
+    private static final int DEPTH = 6;
+    private static final int PARTITION_ID = 0;
+
+    private HazelcastInstance instance;
+    private MapService mapService;
+
+    @Before
+    public void setUp() {
+        Config config = getConfig()
+                .setProperty(GroupProperty.MAP_MERKLE_TREE_DEPTH.getName(), String.valueOf(DEPTH));
+        instance = createHazelcastInstance(config);
+        mapService = getNodeEngineImpl(instance).getService(SERVICE_NAME);
+    }
+
+    @Test
+    public void testMerkleTree_followsRecordStoreMutations() {
+        IMap<String, Integer> map = instance.getMap(MAP_NAME);
+        for (int i = 0; i < 100; i++) {
+            map.put(generateKeyForPartition(instance, PARTITION_ID), i);
+        }
+        for (String key : map.keySet()) {
+            int value = map.get(key);
+            if (value % 3 == 0) {
+                map.remove(key);
+            } else if (value % 3 == 1) {
+                map.put(key, -value);
+            }
+        }
+
+        RecordStore recordStore = getRecordStore();
+        assertArrayEquals(buildMerkleTree(recordStore).getNodeHashes(), recordStore.getMerkleTree().getNodeHashes());
+
+        map.clear();
+        assertArrayEquals(new MerkleTree(DEPTH).getNodeHashes(), recordStore.getMerkleTree().getNodeHashes());
+    }
+
+    @Test
+    public void testDifferentialReplication_whenReplicaIsEmpty() {
+        IMap<String, Integer> map = instance.getMap(MAP_NAME);
+        for (int i = 0; i < 100; i++) {
+            map.put(generateKeyForPartition(instance, PARTITION_ID), i);
+        }
+
+        MapReplicationOperation operation = prepareDifferentialReplicationOperation(new MerkleTree(DEPTH).getNodeHashes());
+
+        assertEquals(100, operation.mapReplicationStateHolder.chunk.size());
+    }
+
+    @Test
+    public void testDifferentialReplication_whenReplicaIsSame() {
+        IMap<String, Integer> map = instance.getMap(MAP_NAME);
+        for (int i = 0; i < 100; i++) {
+            map.put(generateKeyForPartition(instance, PARTITION_ID), i);
+        }
+
+        int[] replicaDigest = getRecordStore().getMerkleTree().getNodeHashes();
+        MapReplicationOperation operation = prepareDifferentialReplicationOperation(replicaDigest);
+
+        assertEquals(0, operation.mapReplicationStateHolder.chunk.size());
+        assertEquals(0, operation.mapReplicationStateHolder.merkleTreeLeaves.length);
+    }
+
+    @Test
+    public void testDifferentialReplication_whenReplicaDiffersInSingleEntry() {
+        IMap<String, Integer> map = instance.getMap(MAP_NAME);
+        String key = null;
+        for (int i = 0; i < 100; i++) {
+            key = generateKeyForPartition(instance, PARTITION_ID);
+            map.put(key, i);
+        }
+        int[] replicaDigest = getRecordStore().getMerkleTree().getNodeHashes();
+        map.put(key, -1);
+
+        MapReplicationOperation operation = prepareDifferentialReplicationOperation(replicaDigest);
+
+        int[] merkleTreeLeaves = operation.mapReplicationStateHolder.merkleTreeLeaves;
+        assertEquals(1, merkleTreeLeaves.length);
+        assertEquals(MerkleTree.getLeafOrder(getNode(instance).getSerializationService().toData(key).hashCode(), DEPTH),
+                merkleTreeLeaves[0]);
+    }
+
+    @Test
+    public void testDifferentialReplication_whenReplicaDigestHasDifferentDepth() {
+        instance.getMap(MAP_NAME).put(generateKeyForPartition(instance, PARTITION_ID), 1);
+
+        PartitionReplicationEvent event = new PartitionReplicationEvent(PARTITION_ID, 1);
+        assertNull(mapService.prepareDifferentialReplicationOperation(event, MapService.getObjectNamespace(MAP_NAME),
+                new MerkleTree(DEPTH + 1).getNodeHashes()));
+    }
+
+    private MapReplicationOperation prepareDifferentialReplicationOperation(int[] replicaDigest) {
+        PartitionReplicationEvent event = new PartitionReplicationEvent(PARTITION_ID, 1);
+        MapReplicationOperation operation = (MapReplicationOperation) mapService
+                .prepareDifferentialReplicationOperation(event, MapService.getObjectNamespace(MAP_NAME), replicaDigest);
+        assertNotNull(operation);
+        return operation;
+    }
+
+    private RecordStore getRecordStore() {
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        PartitionContainer container = mapServiceContext.getPartitionContainer(PARTITION_ID);
+        return container.getExistingRecordStore(MAP_NAME);
+    }
+
+    private static MerkleTree buildMerkleTree(RecordStore recordStore) {
+        MerkleTree merkleTree = new MerkleTree(DEPTH);
+        Iterator<Record> iterator = recordStore.iterator();
+        while (iterator.hasNext()) {
+            Record record = iterator.next();
+            merkleTree.updateAdd(record.getKey().hashCode(), record.getValue().hashCode());
+        }
+        return merkleTree;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.spi.ObjectNamespace;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class MapReplicationChunkIteratorTest extends HazelcastTestSupport {
+
+    private static final String MAP_NAME = "map";
+    private static final int VALUE_SIZE = 100 * 1024;
+
+    @Test
+    public void testChunks_whenRecordsExceedMaxChunkSize() {
+        HazelcastInstance instance = createHazelcastInstance();
+        IMap<String, byte[]> map = instance.getMap(MAP_NAME);
+        int partitionId = 0;
+        for (int i = 0; i < 10; i++) {
+            map.put(generateKeyForPartition(instance, partitionId), new byte[VALUE_SIZE]);
+        }
+
+        MapServiceContext mapServiceContext = getMapServiceContext(instance);
+        PartitionContainer container = mapServiceContext.getPartitionContainer(partitionId);
+        MapReplicationChunkIterator iterator = new MapReplicationChunkIterator(mapServiceContext, container,
+                MapService.getObjectNamespace(MAP_NAME), 0, 3 * VALUE_SIZE);
+
+        int chunkCount = 0;
+        int recordCount = 0;
+        while (iterator.hasNext()) {
+            MapReplicationOperation operation = (MapReplicationOperation) iterator.next();
+            assertEquals(chunkCount > 0, operation.mapReplicationStateHolder.appendRecords);
+            recordCount += operation.mapReplicationStateHolder.chunk.size();
+            chunkCount++;
+        }
+
+        assertEquals(map.size(), recordCount);
+        assertEquals(4, chunkCount);
+    }
+
+    @Test
+    public void testFirstChunkIsCreated_whenNoRecords() {
+        HazelcastInstance instance = createHazelcastInstance();
+        instance.getMap(MAP_NAME).put("key", "value");
+        int partitionId = instance.getPartitionService().getPartition("key").getPartitionId() + 1;
+
+        MapServiceContext mapServiceContext = getMapServiceContext(instance);
+        PartitionContainer container = mapServiceContext.getPartitionContainer(partitionId);
+        ObjectNamespace namespace = MapService.getObjectNamespace(MAP_NAME);
+        container.getRecordStore(MAP_NAME);
+        MapReplicationChunkIterator iterator = new MapReplicationChunkIterator(mapServiceContext, container,
+                namespace, 0, VALUE_SIZE);
+
+        assertTrue(iterator.hasNext());
+        Operation operation = iterator.next();
+        assertTrue(((MapReplicationOperation) operation).mapReplicationStateHolder.chunk.isEmpty());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testMigration_whenRecordsAreMigratedInChunks() {
+        Config config = new Config()
+                .setProperty(GroupProperty.PARTITION_COUNT.getName(), "2")
+                .setProperty(GroupProperty.PARTITION_MIGRATION_CHUNK_MAX_SIZE.getName(), "1");
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance1 = factory.newHazelcastInstance(config);
+        IMap<Integer, byte[]> map = instance1.getMap(MAP_NAME);
+        int entryCount = 50;
+        for (int i = 0; i < entryCount; i++) {
+            byte[] value = new byte[VALUE_SIZE];
+            value[0] = (byte) i;
+            map.put(i, value);
+        }
+
+        HazelcastInstance instance2 = factory.newHazelcastInstance(config);
+        waitAllForSafeState(instance1, instance2);
+        instance1.shutdown();
+
+        IMap<Integer, byte[]> migratedMap = instance2.getMap(MAP_NAME);
+        assertEquals(entryCount, migratedMap.size());
+        for (int i = 0; i < entryCount; i++) {
+            byte[] expected = new byte[VALUE_SIZE];
+            expected[0] = (byte) i;
+            assertArrayEquals(expected, migratedMap.get(i));
+        }
+    }
+
+    private static MapServiceContext getMapServiceContext(HazelcastInstance instance) {
+        MapService mapService = getNodeEngineImpl(instance).getService(SERVICE_NAME);
+        return mapService.getMapServiceContext();
+    }
+}
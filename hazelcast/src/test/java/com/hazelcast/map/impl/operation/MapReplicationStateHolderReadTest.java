@@ -92,10 +92,14 @@ public class MapReplicationStateHolderReadTest {
         holder.readData(input);
         InOrder inOrder = inOrder(input);
         inOrder.verify(input, times(2)).readInt();
-        inOrder.verify(input).getVersion();
+        // RU_COMPAT_3_10: the version is checked again before the appendRecords flag, read only from 3.11+ streams
         if (shouldReadIndexInfo) {
+            inOrder.verify(input).getVersion();
             inOrder.verify(input).readInt();
             inOrder.verify(input).readObject();
+            inOrder.verify(input).getVersion();
+        } else {
+            inOrder.verify(input, times(2)).getVersion();
         }
         inOrder.verifyNoMoreInteractions();
     }
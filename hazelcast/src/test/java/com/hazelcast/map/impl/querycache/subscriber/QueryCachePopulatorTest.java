@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.querycache.subscriber;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapIndexConfig;
+import com.hazelcast.config.QueryCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.map.QueryCache;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class QueryCachePopulatorTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 2 * QueryCachePopulator.CHUNK_SIZE + 123;
+    private static final int FILTERED_COUNT = 100;
+
+    @Test
+    public void testPopulation_withValues_andMoreEntriesThanChunkSize() {
+        QueryCache<Integer, Integer> queryCache = createPopulatedQueryCache(true);
+
+        assertEquals(ENTRY_COUNT - FILTERED_COUNT, queryCache.size());
+        assertEquals(Integer.valueOf(FILTERED_COUNT), queryCache.get(FILTERED_COUNT));
+        assertEquals(FILTERED_COUNT, queryCache.keySet(Predicates.lessThan("this", 2 * FILTERED_COUNT)).size());
+    }
+
+    @Test
+    public void testPopulation_withoutValues_andMoreEntriesThanChunkSize() {
+        QueryCache<Integer, Integer> queryCache = createPopulatedQueryCache(false);
+
+        assertEquals(ENTRY_COUNT - FILTERED_COUNT, queryCache.size());
+        assertEquals(FILTERED_COUNT, queryCache.keySet(Predicates.lessThan("__key", 2 * FILTERED_COUNT)).size());
+    }
+
+    @Test
+    public void testAddEntries_whenExecutorRejects_thenAddedByCallingThread() {
+        String mapName = randomMapName();
+        String cacheName = randomName();
+        HazelcastInstance instance = createHazelcastInstance(getQueryCacheConfig(mapName, cacheName, "this"));
+        IMap<Integer, Integer> map = instance.getMap(mapName);
+        Predicate<Integer, Integer> predicate = Predicates.alwaysTrue();
+        InternalQueryCache queryCache = (InternalQueryCache) map.getQueryCache(cacheName, predicate, true);
+        Executor rejectingExecutor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        };
+        InternalSerializationService serializationService = getSerializationService(instance);
+        Map<Data, Data> entries = new HashMap<Data, Data>();
+        for (int i = 0; i < QueryCachePopulator.CHUNK_SIZE + 1; i++) {
+            entries.put(serializationService.toData(i), serializationService.toData(i));
+        }
+
+        QueryCachePopulator populator = new QueryCachePopulator(queryCache, true, rejectingExecutor);
+        populator.addEntries(entries.entrySet());
+        populator.await(1, TimeUnit.MINUTES);
+
+        assertEquals(entries.size(), queryCache.size());
+        assertEquals(0, queryCache.get(0));
+    }
+
+    private QueryCache<Integer, Integer> createPopulatedQueryCache(boolean includeValue) {
+        String mapName = randomMapName();
+        String cacheName = randomName();
+        String indexAttribute = includeValue ? "this" : "__key";
+        Config config = getQueryCacheConfig(mapName, cacheName, indexAttribute);
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+
+        IMap<Integer, Integer> map = instances[0].getMap(mapName);
+        Map<Integer, Integer> entries = new HashMap<Integer, Integer>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            entries.put(i, i);
+        }
+        map.putAll(entries);
+
+        return map.getQueryCache(cacheName, Predicates.greaterEqual("this", FILTERED_COUNT), includeValue);
+    }
+
+    private Config getQueryCacheConfig(String mapName, String cacheName, String indexAttribute) {
+        // the default eviction of a query cache would keep only 10,000 entries
+        QueryCacheConfig queryCacheConfig = new QueryCacheConfig(cacheName)
+                .addIndexConfig(new MapIndexConfig(indexAttribute, true));
+        queryCacheConfig.getEvictionConfig().setSize(ENTRY_COUNT);
+        Config config = getConfig();
+        config.getMapConfig(mapName).addQueryCacheConfig(queryCacheConfig);
+        return config;
+    }
+}
@@ -16,12 +16,19 @@
 
 package com.hazelcast.map.impl.record;
 
+import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelTest;
 import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import static com.hazelcast.internal.serialization.impl.DataCompressor.compress;
+import static com.hazelcast.internal.serialization.impl.DataCompressor.isCompressed;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelTest.class})
 public class DataRecordComparatorTest extends AbstractRecordComparatorTest {
@@ -30,4 +37,26 @@ public class DataRecordComparatorTest extends AbstractRecordComparatorTest {
     void newRecordComparator() {
         comparator = new DataRecordComparator(serializationService);
     }
+
+    @Test
+    public void testIsEqual_withCompressedData() {
+        newRecordComparator();
+        String value = repeat("compressible", 100);
+        Data data = serializationService.toData(value);
+        Data compressedData = compress(data, 0);
+        assertTrue(isCompressed(compressedData));
+
+        assertTrue(comparator.isEqual(compressedData, data));
+        assertTrue(comparator.isEqual(data, compressedData));
+        assertTrue(comparator.isEqual(compressedData, value));
+        assertFalse(comparator.isEqual(compressedData, data1));
+    }
+
+    private static String repeat(String s, int times) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            sb.append(s);
+        }
+        return sb.toString();
+    }
 }
@@ -18,6 +18,7 @@ package com.hazelcast.nio.tcp;
 
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.nio.PacketIOHelper;
 import com.hazelcast.test.HazelcastParallelClassRunner;
@@ -32,6 +33,8 @@ import org.junit.runner.RunWith;
 import java.nio.ByteBuffer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -60,4 +63,42 @@ public class PacketEncoderTest extends HazelcastTestSupport {
         Packet resultPacket = new PacketIOHelper().readFrom(bb);
         assertEquals(packet, resultPacket);
     }
+
+    @Test
+    public void whenPooledPayload_thenOnlyPayloadSizeWrittenAndPayloadReleased() {
+        ByteArrayPool pool = new ByteArrayPool(1, 1024);
+        Packet packet = serializationService.toPacket("foobar", 1, pool);
+        byte[] payload = packet.toByteArray();
+        int payloadSize = packet.totalSize();
+        ByteBuffer bb = ByteBuffer.allocate(1000);
+
+        boolean result = writeHandler.onWrite(packet, bb);
+
+        assertTrue(result);
+        assertEquals(0, packet.totalSize());
+        assertEquals(1, pool.size());
+        assertSame(payload, pool.take(0));
+
+        bb.flip();
+        Packet resultPacket = new PacketIOHelper().readFrom(bb);
+        assertEquals(payloadSize, resultPacket.totalSize());
+        assertEquals(1, resultPacket.getPartitionId());
+        assertEquals("foobar", serializationService.toObject(resultPacket));
+    }
+
+    @Test
+    public void whenPooledPayloadPartiallyWritten_thenPayloadNotReleased() {
+        ByteArrayPool pool = new ByteArrayPool(1, 1024);
+        Packet packet = serializationService.toPacket("foobar", 1, pool);
+        ByteBuffer bb = ByteBuffer.allocate(packet.getFrameLength() - 1);
+
+        boolean result = writeHandler.onWrite(packet, bb);
+
+        assertFalse(result);
+        assertEquals(0, pool.size());
+
+        ByteBuffer remaining = ByteBuffer.allocate(1000);
+        assertTrue(writeHandler.onWrite(packet, remaining));
+        assertEquals(1, pool.size());
+    }
 }
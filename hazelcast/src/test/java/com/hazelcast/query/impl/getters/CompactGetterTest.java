@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertFalse;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CompactGetterTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getValue() throws Exception {
+        new CompactGetter(null).getValue("input");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getReturnType() {
+        new CompactGetter(null).getReturnType();
+    }
+
+    @Test
+    public void isCacheable() {
+        CompactGetter getter = new CompactGetter(null);
+        assertFalse("Compact getter shouldn't be cacheable!", getter.isCacheable());
+    }
+}
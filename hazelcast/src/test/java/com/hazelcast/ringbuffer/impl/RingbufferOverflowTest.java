@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.ringbuffer.impl;
+
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class RingbufferOverflowTest extends HazelcastTestSupport {
+
+    private static final int SEGMENT_SIZE = 1024;
+    private static final int MAX_SEGMENT_COUNT = 3;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File directory;
+    private RingbufferOverflow overflow;
+
+    @Before
+    public void setup() {
+        directory = new File(tempFolder.getRoot(), "overflow");
+        overflow = new RingbufferOverflow(directory, SEGMENT_SIZE, MAX_SEGMENT_COUNT,
+                Logger.getLogger(RingbufferOverflowTest.class));
+    }
+
+    @Test
+    public void whenEmpty() {
+        assertTrue(overflow.isEmpty());
+        assertEquals(-1, overflow.headSequence());
+        assertEquals(-1, overflow.tailSequence());
+        assertFalse(overflow.contains(0));
+        assertFalse(directory.exists());
+    }
+
+    @Test
+    public void appendAndRead() {
+        for (int seq = 10; seq < 20; seq++) {
+            overflow.append(seq, data(seq, 10));
+        }
+
+        assertEquals(10, overflow.headSequence());
+        assertEquals(19, overflow.tailSequence());
+        assertFalse(overflow.contains(9));
+        assertTrue(overflow.contains(15));
+        assertFalse(overflow.contains(20));
+        for (int seq = 10; seq < 20; seq++) {
+            assertArrayEquals(data(seq, 10).toByteArray(), overflow.read(seq).toByteArray());
+        }
+    }
+
+    @Test
+    public void appendNullItem() {
+        overflow.append(0, null);
+        overflow.append(1, data(1, 10));
+
+        assertNull(overflow.read(0));
+        assertArrayEquals(data(1, 10).toByteArray(), overflow.read(1).toByteArray());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void read_whenNotContained() {
+        overflow.append(0, data(0, 10));
+
+        overflow.read(1);
+    }
+
+    @Test
+    public void append_whenNotContiguous_thenPreviousItemsDiscarded() {
+        overflow.append(0, data(0, 10));
+        overflow.append(1, data(1, 10));
+
+        overflow.append(5, data(5, 10));
+
+        assertEquals(5, overflow.headSequence());
+        assertEquals(5, overflow.tailSequence());
+        assertEquals(1, overflow.getSegmentCount());
+    }
+
+    @Test
+    public void append_whenSegmentFull_thenNewSegmentCreated() {
+        // each record takes 4 bytes of length and 250 bytes of payload, so 4 records fit in a segment
+        for (int seq = 0; seq < 5; seq++) {
+            overflow.append(seq, data(seq, 250));
+        }
+
+        assertEquals(2, overflow.getSegmentCount());
+        assertEquals(0, overflow.headSequence());
+        assertEquals(4, overflow.tailSequence());
+        assertArrayEquals(data(3, 250).toByteArray(), overflow.read(3).toByteArray());
+        assertArrayEquals(data(4, 250).toByteArray(), overflow.read(4).toByteArray());
+    }
+
+    @Test
+    public void append_whenMaxSegmentCountExceeded_thenOldestSegmentDeleted() {
+        for (int seq = 0; seq < 13; seq++) {
+            overflow.append(seq, data(seq, 250));
+        }
+
+        assertEquals(MAX_SEGMENT_COUNT, overflow.getSegmentCount());
+        assertEquals(4, overflow.headSequence());
+        assertEquals(12, overflow.tailSequence());
+        assertFalse(new File(directory, "0.segment").exists());
+        assertTrue(new File(directory, "4.segment").exists());
+    }
+
+    @Test
+    public void append_whenRotatingManySegments_thenDeletedSegmentsReleased() {
+        // 4 records fit in a segment, so this rotates through 1000 segments
+        for (int seq = 0; seq < 4000; seq++) {
+            overflow.append(seq, data(seq, 250));
+        }
+
+        assertEquals(MAX_SEGMENT_COUNT, overflow.getSegmentCount());
+        assertEquals(MAX_SEGMENT_COUNT, overflow.getOpenFileCount());
+        String[] files = directory.list();
+        assertEquals(MAX_SEGMENT_COUNT, files.length);
+        assertArrayEquals(data(3999, 250).toByteArray(), overflow.read(3999).toByteArray());
+        assertArrayEquals(data(3988, 250).toByteArray(), overflow.read(3988).toByteArray());
+
+        overflow.clear();
+
+        assertEquals(0, overflow.getOpenFileCount());
+        assertFalse(directory.exists());
+    }
+
+    @Test
+    public void append_whenItemLargerThanSegment() {
+        overflow.append(0, data(0, 10));
+        overflow.append(1, data(1, 4 * SEGMENT_SIZE));
+        overflow.append(2, data(2, 10));
+
+        assertArrayEquals(data(1, 4 * SEGMENT_SIZE).toByteArray(), overflow.read(1).toByteArray());
+        assertArrayEquals(data(2, 10).toByteArray(), overflow.read(2).toByteArray());
+    }
+
+    @Test
+    public void clear() {
+        for (int seq = 0; seq < 10; seq++) {
+            overflow.append(seq, data(seq, 250));
+        }
+
+        overflow.clear();
+
+        assertTrue(overflow.isEmpty());
+        assertEquals(0, overflow.getOpenFileCount());
+        assertFalse(overflow.contains(0));
+        assertFalse(directory.exists());
+    }
+
+    private static Data data(int seq, int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (seq + i);
+        }
+        return new HeapData(bytes);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.ringbuffer.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.RingbufferConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.ringbuffer.ReadResultSet;
+import com.hazelcast.ringbuffer.Ringbuffer;
+import com.hazelcast.ringbuffer.StaleSequenceException;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+
+import static com.hazelcast.ringbuffer.impl.RingbufferService.getRingbufferNamespace;
+import static com.hazelcast.spi.properties.GroupProperty.RINGBUFFER_OVERFLOW_DIRECTORY;
+import static com.hazelcast.spi.properties.GroupProperty.RINGBUFFER_OVERFLOW_SEGMENT_COUNT;
+import static com.hazelcast.spi.properties.GroupProperty.RINGBUFFER_OVERFLOW_SEGMENT_SIZE_BYTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class RingbufferWithOverflowTest extends HazelcastTestSupport {
+
+    private static final int CAPACITY = 10;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private HazelcastInstance hz;
+
+    @Before
+    public void setup() {
+        Config config = new Config()
+                .setProperty(RINGBUFFER_OVERFLOW_DIRECTORY.getName(), tempFolder.getRoot().getAbsolutePath())
+                .setProperty(RINGBUFFER_OVERFLOW_SEGMENT_SIZE_BYTES.getName(), "4096")
+                .setProperty(RINGBUFFER_OVERFLOW_SEGMENT_COUNT.getName(), "2")
+                .addRingBufferConfig(new RingbufferConfig("overflow*").setCapacity(CAPACITY))
+                .addRingBufferConfig(new RingbufferConfig("ttl*").setCapacity(CAPACITY).setTimeToLiveSeconds(100));
+        hz = createHazelcastInstance(config);
+    }
+
+    @Test
+    public void readOne_whenOverwritten_thenReadFromOverflow() throws Exception {
+        Ringbuffer<String> ringbuffer = hz.getRingbuffer("overflow" + randomString());
+        for (int i = 0; i < 3 * CAPACITY; i++) {
+            ringbuffer.add("item" + i);
+        }
+
+        assertEquals(2 * CAPACITY, ringbuffer.headSequence());
+        for (int i = 0; i < 3 * CAPACITY; i++) {
+            assertEquals("item" + i, ringbuffer.readOne(i));
+        }
+    }
+
+    @Test
+    public void readMany_whenOverwritten_thenReadAcrossOverflowAndRingbuffer() throws Exception {
+        Ringbuffer<String> ringbuffer = hz.getRingbuffer("overflow" + randomString());
+        for (int i = 0; i < 3 * CAPACITY; i++) {
+            ringbuffer.add("item" + i);
+        }
+
+        // the head of the ringbuffer is 2 * CAPACITY, so the first 5 items are read from the overflow
+        long startSequence = 2 * CAPACITY - 5;
+        ReadResultSet<String> result = ringbuffer.readManyAsync(startSequence, 1, CAPACITY, null).get();
+
+        assertEquals(CAPACITY, result.size());
+        for (int i = 0; i < result.size(); i++) {
+            assertEquals("item" + (startSequence + i), result.get(i));
+            assertEquals(startSequence + i, result.getSequence(i));
+        }
+    }
+
+    @Test
+    public void readOne_whenOverflowExceeded_thenStaleSequenceWithOverflowHead() throws Exception {
+        String name = "overflow" + randomString();
+        Ringbuffer<byte[]> ringbuffer = hz.getRingbuffer(name);
+        // items of 1 KB, so only a few of them fit in a 4 KB segment
+        for (int i = 0; i < 100; i++) {
+            ringbuffer.add(new byte[1024]);
+        }
+        RingbufferOverflow overflow = getContainer(name).getOverflow();
+        assertEquals(2, overflow.getSegmentCount());
+        assertEquals(ringbuffer.headSequence() - 1, overflow.tailSequence());
+
+        try {
+            ringbuffer.readOne(0);
+            fail();
+        } catch (StaleSequenceException e) {
+            assertEquals(overflow.headSequence(), e.getHeadSeq());
+        }
+    }
+
+    @Test
+    public void whenTtlConfigured_thenNoOverflow() throws Exception {
+        String name = "ttl" + randomString();
+        Ringbuffer<String> ringbuffer = hz.getRingbuffer(name);
+        for (int i = 0; i < 2 * CAPACITY; i++) {
+            ringbuffer.add("item" + i);
+        }
+
+        assertNull(getContainer(name).getOverflow());
+        try {
+            ringbuffer.readOne(0);
+            fail();
+        } catch (StaleSequenceException e) {
+            assertEquals(CAPACITY, e.getHeadSeq());
+        }
+    }
+
+    @Test
+    public void whenDestroyed_thenOverflowDeleted() {
+        String name = "overflow" + randomString();
+        Ringbuffer<String> ringbuffer = hz.getRingbuffer(name);
+        for (int i = 0; i < 2 * CAPACITY; i++) {
+            ringbuffer.add("item" + i);
+        }
+        RingbufferOverflow overflow = getContainer(name).getOverflow();
+        assertFalse(overflow.isEmpty());
+
+        ringbuffer.destroy();
+
+        assertEquals(0, overflow.getSegmentCount());
+        assertEquals(0, countFiles(tempFolder.getRoot()));
+    }
+
+    private static int countFiles(File dir) {
+        int count = 0;
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                count += file.isDirectory() ? countFiles(file) : 1;
+            }
+        }
+        return count;
+    }
+
+    private RingbufferContainer<Object, Object> getContainer(String name) {
+        RingbufferService service = getNodeEngineImpl(hz).getService(RingbufferService.SERVICE_NAME);
+        return service.getContainerOrNull(service.getRingbufferPartitionId(name), getRingbufferNamespace(name));
+    }
+}
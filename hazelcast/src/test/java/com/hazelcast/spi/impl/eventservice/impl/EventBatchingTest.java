@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.OverridePropertyRule;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static com.hazelcast.spi.impl.eventservice.impl.EventServiceImpl.EVENT_SYNC_FREQUENCY_PROP;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// the sync event frequency is a system property, so the tests run serially
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class EventBatchingTest extends HazelcastTestSupport {
+
+    private static final int KEY_COUNT = 20;
+    private static final int UPDATES_PER_KEY = 200;
+    private static final int EVENT_COUNT = KEY_COUNT * UPDATES_PER_KEY;
+    private static final int EVENT_SYNC_FREQUENCY = 10;
+    private static final int ASYNC_EVENT_COUNT = EVENT_COUNT - EVENT_COUNT / EVENT_SYNC_FREQUENCY;
+
+    @Rule
+    public final OverridePropertyRule syncFrequencyRule
+            = OverridePropertyRule.set(EVENT_SYNC_FREQUENCY_PROP, String.valueOf(EVENT_SYNC_FREQUENCY));
+
+    @Test
+    public void testEventsDelivered_inOrderPerKey() {
+        long packets = testEventsDelivered("10", "50");
+
+        assertTrue("Event packets: " + packets, packets < ASYNC_EVENT_COUNT);
+    }
+
+    @Test
+    public void testEventsDelivered_whenBatchSizeOne() {
+        long packets = testEventsDelivered("10", "1");
+
+        assertEquals(ASYNC_EVENT_COUNT, packets);
+    }
+
+    @Test
+    public void testEventsDelivered_whenDelayLongerThanPublishing() {
+        // the events are sent either when the batches are full or when the delay expires
+        long packets = testEventsDelivered("1000", "1000");
+
+        assertTrue("Event packets: " + packets, packets < ASYNC_EVENT_COUNT);
+    }
+
+    @Test
+    public void testEventEnvelopeBatch_serialization() {
+        HazelcastInstance hz = createHazelcastInstance();
+        InternalSerializationService serializationService = getSerializationService(hz);
+        Data eventData = serializationService.toData("event");
+        EventEnvelopeBatch batch = new EventEnvelopeBatch(asList(
+                new EventEnvelope("id1", "service1", eventData),
+                new EventEnvelope("id2", "service2", "object-event")));
+
+        EventEnvelopeBatch deserialized = serializationService.toObject(serializationService.toData(batch));
+
+        List<EventEnvelope> envelopes = deserialized.getEnvelopes();
+        assertEquals(2, envelopes.size());
+        assertEquals("id1", envelopes.get(0).getEventId());
+        assertEquals("service1", envelopes.get(0).getServiceName());
+        assertEquals(eventData, envelopes.get(0).getEvent());
+        assertEquals("id2", envelopes.get(1).getEventId());
+        assertEquals("service2", envelopes.get(1).getServiceName());
+        assertEquals("object-event", envelopes.get(1).getEvent());
+    }
+
+    @Test
+    public void testEventsDropped_whenTargetNotMember() throws Exception {
+        HazelcastInstance hz = createHazelcastInstance();
+        NodeEngineImpl nodeEngine = getNodeEngineImpl(hz);
+        EventServiceImpl eventService = (EventServiceImpl) nodeEngine.getEventService();
+        RemoteEventBatcher batcher = new RemoteEventBatcher(eventService, nodeEngine, 4, 10, MINUTES.toMillis(1));
+        long packetsBefore = eventService.getSentEventPacketCount();
+        try {
+            Address departed = new Address("127.0.0.1", 6701);
+            for (int i = 0; i < 100; i++) {
+                batcher.add(departed, new EventEnvelope("id", "service", "event"), i);
+            }
+            batcher.flushAll();
+        } finally {
+            batcher.shutdown();
+        }
+
+        assertEquals(packetsBefore, eventService.getSentEventPacketCount());
+    }
+
+    @Test
+    public void testPendingEventsDropped_whenTargetLeft() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance hz = factory.newHazelcastInstance();
+        HazelcastInstance departing = factory.newHazelcastInstance();
+        Address departed = getAddress(departing);
+        NodeEngineImpl nodeEngine = getNodeEngineImpl(hz);
+        EventServiceImpl eventService = (EventServiceImpl) nodeEngine.getEventService();
+        RemoteEventBatcher batcher = new RemoteEventBatcher(eventService, nodeEngine, 4, 10, MINUTES.toMillis(1));
+        try {
+            // these stripes are not discarded by onMemberLeft, like the ones recreated by an add racing with it
+            batcher.add(departed, new EventEnvelope("id", "service", "event"), 0);
+            departing.getLifecycleService().terminate();
+            assertClusterSizeEventually(1, hz);
+            long packetsBefore = eventService.getSentEventPacketCount();
+
+            batcher.flushAll();
+            batcher.flush(departed, 0);
+
+            assertEquals(packetsBefore, eventService.getSentEventPacketCount());
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    /**
+     * Publishes the events of keys owned by the first member to a listener on the second member, so every
+     * {@link #EVENT_SYNC_FREQUENCY}th event is sent synchronously and the others are batched.
+     *
+     * @return the number of asynchronous event packets sent by the first member
+     */
+    private long testEventsDelivered(String delayMillis, String batchSize) {
+        Config config = getConfig()
+                .setProperty(GroupProperty.EVENT_BATCH_DELAY_MILLIS.getName(), delayMillis)
+                .setProperty(GroupProperty.EVENT_BATCH_SIZE.getName(), batchSize);
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        String mapName = randomMapName();
+        OrderCheckingListener<String> listener = new OrderCheckingListener<String>();
+        instances[1].getMap(mapName).addEntryListener(listener, true);
+
+        String[] keys = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = generateKeyOwnedBy(instances[0]);
+        }
+        IMap<String, Integer> map = instances[0].getMap(mapName);
+        EventServiceImpl eventService = (EventServiceImpl) getNodeEngineImpl(instances[0]).getEventService();
+        long packetsBefore = eventService.getSentEventPacketCount();
+        for (int i = 0; i < UPDATES_PER_KEY; i++) {
+            for (String key : keys) {
+                map.set(key, i);
+            }
+        }
+
+        listener.assertEventsReceivedInOrder(EVENT_COUNT);
+        return eventService.getSentEventPacketCount() - packetsBefore;
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.PartitionService;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class LosslessEventDeliveryTest extends HazelcastTestSupport {
+
+    private static final int REGISTRATION_QUEUE_CAPACITY = 10;
+    private static final int KEY_COUNT = 10;
+    private static final int UPDATES_PER_KEY = 30;
+
+    @Test
+    public void testLocalEvents_notDropped_whenListenerSlow() {
+        HazelcastInstance hz = createHazelcastInstance(getLosslessConfig());
+        EventServiceImpl eventService = (EventServiceImpl) getNodeEngineImpl(hz).getEventService();
+        String mapName = randomMapName();
+        OrderCheckingListener<Integer> listener = new SlowOrderCheckingListener();
+        hz.getMap(mapName).addEntryListener(listener, true);
+
+        IMap<Integer, Integer> map = hz.getMap(mapName);
+        Set<Integer> partitionIds = new HashSet<Integer>();
+        for (int key = 0; key < KEY_COUNT; key++) {
+            partitionIds.add(hz.getPartitionService().getPartition(key).getPartitionId());
+        }
+        int maxQueueSize = 0;
+        for (int i = 0; i < UPDATES_PER_KEY; i++) {
+            for (int key = 0; key < KEY_COUNT; key++) {
+                map.set(key, i);
+                maxQueueSize = Math.max(maxQueueSize, eventService.getEventQueueSize());
+            }
+        }
+
+        listener.assertEventsReceivedInOrder(KEY_COUNT * UPDATES_PER_KEY);
+        // the operation exceeding the capacity still delivers its event, the next ones of its partition are parked
+        assertTrue("Event queue grew to " + maxQueueSize,
+                maxQueueSize <= REGISTRATION_QUEUE_CAPACITY + partitionIds.size());
+    }
+
+    @Test
+    public void testPartitionThreadNotBlocked_whenListenerBlocked() throws Exception {
+        // a single partition thread runs the operations of all partitions
+        Config config = getLosslessConfig().setProperty(GroupProperty.PARTITION_OPERATION_THREAD_COUNT.getName(), "1");
+        HazelcastInstance hz = createHazelcastInstance(config);
+        CountDownLatch listenerReleased = new CountDownLatch(1);
+        IMap<Integer, Integer> map = hz.getMap(randomMapName());
+        OrderCheckingListener<Integer> listener = new BlockedOrderCheckingListener(listenerReleased);
+        map.addEntryListener(listener, true);
+
+        int updateCount = 3 * REGISTRATION_QUEUE_CAPACITY;
+        List<Future<Void>> updates = setAsync(map, 0, updateCount);
+
+        // the updates beyond the capacity are parked, so the partition thread still runs the other partitions
+        assertNull(map.getAsync(keyInOtherPartition(hz, 0)).get(5, SECONDS));
+        assertFalse("Updates beyond the capacity were not parked", updates.get(updateCount - 1).isDone());
+        listenerReleased.countDown();
+
+        listener.assertEventsReceivedInOrder(updateCount);
+        assertEquals(updateCount - 1, (int) map.get(0));
+    }
+
+    @Test
+    public void testReadNotOvertakingParkedUpdates_whenListenerBlocked() throws Exception {
+        HazelcastInstance hz = createHazelcastInstance(getLosslessConfig());
+        CountDownLatch listenerReleased = new CountDownLatch(1);
+        IMap<Integer, Integer> map = hz.getMap(randomMapName());
+        OrderCheckingListener<Integer> listener = new BlockedOrderCheckingListener(listenerReleased);
+        map.addEntryListener(listener, true);
+
+        int updateCount = 3 * REGISTRATION_QUEUE_CAPACITY;
+        setAsync(map, 0, updateCount);
+        Future<Integer> read = map.getAsync(0);
+
+        sleepSeconds(1);
+        assertFalse("Read overtook the parked updates", read.isDone());
+        listenerReleased.countDown();
+
+        assertEquals(updateCount - 1, (int) read.get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS));
+        listener.assertEventsReceivedInOrder(updateCount);
+    }
+
+    @Test
+    public void testParkedOperationsNotTimedOut_whenListenerBlockedLongerThanCallTimeout() throws Exception {
+        int callTimeoutMillis = 2000;
+        Config config = getLosslessConfig()
+                .setProperty(GroupProperty.OPERATION_CALL_TIMEOUT_MILLIS.getName(), String.valueOf(callTimeoutMillis))
+                .setProperty(GroupProperty.EVENT_BACKPRESSURE_MAX_WAIT_MILLIS.getName(), "60000");
+        HazelcastInstance hz = createHazelcastInstance(config);
+        CountDownLatch listenerReleased = new CountDownLatch(1);
+        IMap<Integer, Integer> map = hz.getMap(randomMapName());
+        OrderCheckingListener<Integer> listener = new BlockedOrderCheckingListener(listenerReleased);
+        map.addEntryListener(listener, true);
+
+        int updateCount = 3 * REGISTRATION_QUEUE_CAPACITY;
+        List<Future<Void>> updates = setAsync(map, 0, updateCount);
+
+        // without heartbeats the parked invocations time out after the call timeout plus the heartbeat timeout
+        sleepMillis(3 * callTimeoutMillis);
+        assertFalse("Parked update completed before the listener was released", updates.get(updateCount - 1).isDone());
+        listenerReleased.countDown();
+
+        for (Future<Void> update : updates) {
+            update.get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS);
+        }
+        listener.assertEventsReceivedInOrder(updateCount);
+    }
+
+    @Test
+    public void testRemoteEvents_notDropped_whenListenerSlow() {
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(getLosslessConfig());
+        String mapName = randomMapName();
+        OrderCheckingListener<Integer> listener = new SlowOrderCheckingListener();
+        instances[1].getMap(mapName).addEntryListener(listener, true);
+
+        IMap<Integer, Integer> map = instances[0].getMap(mapName);
+        for (int i = 0; i < UPDATES_PER_KEY; i++) {
+            for (int key = 0; key < KEY_COUNT; key++) {
+                map.set(key, i);
+            }
+        }
+
+        listener.assertEventsReceivedInOrder(KEY_COUNT * UPDATES_PER_KEY);
+    }
+
+    @Test
+    public void testExecuteAfterQueuedEvents_runsAfterEventsOfAllThreads() throws Exception {
+        Config config = getConfig().setProperty(GroupProperty.EVENT_THREAD_COUNT.getName(), "4");
+        HazelcastInstance hz = createHazelcastInstance(config);
+        EventServiceImpl eventService = (EventServiceImpl) getNodeEngineImpl(hz).getEventService();
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger processed = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            eventService.executeEventCallback(new Runnable() {
+                @Override
+                public void run() {
+                    assertOpenEventually(release);
+                    processed.incrementAndGet();
+                }
+            });
+        }
+        final AtomicInteger processedBeforeTask = new AtomicInteger(-1);
+        final CountDownLatch taskDone = new CountDownLatch(1);
+
+        eventService.executeAfterQueuedEvents(new Runnable() {
+            @Override
+            public void run() {
+                processedBeforeTask.set(processed.get());
+                taskDone.countDown();
+            }
+        });
+        release.countDown();
+
+        assertOpenEventually(taskDone);
+        assertEquals(4, processedBeforeTask.get());
+    }
+
+    private static List<Future<Void>> setAsync(IMap<Integer, Integer> map, int key, int updateCount) {
+        List<Future<Void>> updates = new ArrayList<Future<Void>>(updateCount);
+        for (int i = 0; i < updateCount; i++) {
+            updates.add(map.setAsync(key, i));
+        }
+        return updates;
+    }
+
+    private static int keyInOtherPartition(HazelcastInstance hz, int key) {
+        PartitionService partitionService = hz.getPartitionService();
+        int partitionId = partitionService.getPartition(key).getPartitionId();
+        int otherKey = key + 1;
+        while (partitionService.getPartition(otherKey).getPartitionId() == partitionId) {
+            otherKey++;
+        }
+        return otherKey;
+    }
+
+    private Config getLosslessConfig() {
+        return getConfig()
+                .setProperty(GroupProperty.EVENT_THREAD_COUNT.getName(), "1")
+                .setProperty(GroupProperty.EVENT_QUEUE_CAPACITY.getName(), "1")
+                .setProperty(GroupProperty.EVENT_REGISTRATION_QUEUE_CAPACITY.getName(),
+                        String.valueOf(REGISTRATION_QUEUE_CAPACITY));
+    }
+
+    private static class BlockedOrderCheckingListener extends OrderCheckingListener<Integer> {
+
+        private final CountDownLatch released;
+
+        BlockedOrderCheckingListener(CountDownLatch released) {
+            this.released = released;
+        }
+
+        @Override
+        protected void beforeEvent() {
+            assertOpenEventually(released);
+        }
+    }
+
+    private static class SlowOrderCheckingListener extends OrderCheckingListener<Integer> {
+
+        @Override
+        protected void beforeEvent() {
+            sleepMillis(1);
+        }
+    }
+}
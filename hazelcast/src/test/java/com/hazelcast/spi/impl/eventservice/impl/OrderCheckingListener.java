@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.test.AssertTask;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.test.HazelcastTestSupport.assertTrueEventually;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Counts the added and updated entry events and checks that the values of each key are received in the
+ * order they were set, i.e. every value is the previous value of its key plus one.
+ *
+ * @param <K> the type of the keys
+ */
+public class OrderCheckingListener<K> implements EntryAddedListener<K, Integer>, EntryUpdatedListener<K, Integer> {
+
+    private final AtomicInteger eventCount = new AtomicInteger();
+    private final ConcurrentMap<K, Integer> lastValues = new ConcurrentHashMap<K, Integer>();
+    private final List<String> outOfOrder = new CopyOnWriteArrayList<String>();
+
+    @Override
+    public void entryAdded(EntryEvent<K, Integer> event) {
+        onEvent(event);
+    }
+
+    @Override
+    public void entryUpdated(EntryEvent<K, Integer> event) {
+        onEvent(event);
+    }
+
+    /**
+     * Called before an event is checked, e.g. to slow the listener down.
+     */
+    protected void beforeEvent() {
+    }
+
+    public void assertEventsReceivedInOrder(final int expectedEventCount) {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(expectedEventCount, eventCount.get());
+            }
+        });
+        assertTrue("Events of a key were received out of order: " + outOfOrder, outOfOrder.isEmpty());
+    }
+
+    private void onEvent(EntryEvent<K, Integer> event) {
+        beforeEvent();
+        Integer previous = lastValues.put(event.getKey(), event.getValue());
+        if (previous != null && previous + 1 != event.getValue()) {
+            outOfOrder.add(event.getKey() + ": " + previous + " -> " + event.getValue());
+        }
+        eventCount.incrementAndGet();
+    }
+}
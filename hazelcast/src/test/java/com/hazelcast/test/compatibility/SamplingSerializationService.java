@@ -20,10 +20,12 @@ import com.hazelcast.core.ManagedContext;
 import com.hazelcast.core.PartitioningStrategy;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.PortableContext;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
 import com.hazelcast.nio.BufferObjectDataInput;
 import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.Packet;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.DataType;
 import com.hazelcast.nio.serialization.PortableReader;
@@ -31,6 +33,7 @@ import com.hazelcast.test.TestEnvironment;
 
 import java.io.IOException;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -118,6 +121,20 @@ public class SamplingSerializationService implements InternalSerializationServic
         return bytes;
     }
 
+    @Override
+    public Packet toPacket(Object obj, int partitionId, ByteArrayPool payloadPool) {
+        Packet packet = delegate.toPacket(obj, partitionId, payloadPool);
+        sampleObject(obj, Arrays.copyOf(packet.toByteArray(), packet.totalSize()));
+        return packet;
+    }
+
+    @Override
+    public Packet toPacket(Object obj, int leftPadding, boolean insertPartitionHash, ByteArrayPool payloadPool) {
+        Packet packet = delegate.toPacket(obj, leftPadding, insertPartitionHash, payloadPool);
+        sampleObject(obj, Arrays.copyOf(packet.toByteArray(), packet.totalSize()));
+        return packet;
+    }
+
     @Override
     public <B extends Data> B toData(Object obj, DataType type) {
         return toData(obj);
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.topic.impl.reliable;
+
+import com.hazelcast.core.Message;
+import com.hazelcast.topic.KeyedReliableMessageListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.test.HazelcastTestSupport.sleepMillis;
+
+/**
+ * Keys the messages by {@code value % KEY_COUNT} and records whether
+ * the messages of a key were received in publishing order.
+ */
+public class KeyedReliableMessageListenerMock implements KeyedReliableMessageListener<Integer> {
+
+    public static final int KEY_COUNT = 10;
+
+    public final AtomicInteger received = new AtomicInteger();
+    public final ConcurrentMap<Integer, Integer> lastByKey = new ConcurrentHashMap<Integer, Integer>();
+    public final Map<Thread, Boolean> threads = new ConcurrentHashMap<Thread, Boolean>();
+    public volatile boolean outOfOrder;
+    public volatile int failingKeyValue = -1;
+    public volatile boolean isTerminal;
+
+    @Override
+    public int getParallelism() {
+        return 4;
+    }
+
+    @Override
+    public Object getMessageKey(Message<Integer> message) {
+        int value = message.getMessageObject();
+        if (value == failingKeyValue) {
+            throw new IllegalStateException("Expected failure");
+        }
+        return value % KEY_COUNT;
+    }
+
+    @Override
+    public void onMessage(Message<Integer> message) {
+        Integer value = message.getMessageObject();
+        Integer previous = lastByKey.put(value % KEY_COUNT, value);
+        if (previous != null && previous >= value) {
+            outOfOrder = true;
+        }
+        threads.put(Thread.currentThread(), true);
+        sleepMillis(1);
+        received.incrementAndGet();
+    }
+
+    @Override
+    public long retrieveInitialSequence() {
+        return -1;
+    }
+
+    @Override
+    public void storeSequence(long sequence) {
+    }
+
+    @Override
+    public boolean isLossTolerant() {
+        return false;
+    }
+
+    @Override
+    public boolean isTerminal(Throwable failure) {
+        return isTerminal;
+    }
+}
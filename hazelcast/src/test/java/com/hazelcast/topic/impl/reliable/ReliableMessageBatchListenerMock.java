@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.topic.impl.reliable;
+
+import com.hazelcast.core.Message;
+import com.hazelcast.topic.ReliableMessageBatchListener;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReliableMessageBatchListenerMock implements ReliableMessageBatchListener<Integer> {
+
+    public final List<Integer> messages = new CopyOnWriteArrayList<Integer>();
+    public final List<Long> sequences = new CopyOnWriteArrayList<Long>();
+    public final AtomicInteger batchCount = new AtomicInteger();
+    public final AtomicInteger onMessageCalls = new AtomicInteger();
+    public volatile boolean failFirstBatch;
+
+    @Override
+    public void onMessage(Message<Integer> message) {
+        onMessageCalls.incrementAndGet();
+    }
+
+    @Override
+    public void onMessages(List<Message<Integer>> batch) {
+        if (batchCount.incrementAndGet() == 1 && failFirstBatch) {
+            throw new IllegalStateException("Expected failure");
+        }
+        for (Message<Integer> message : batch) {
+            messages.add(message.getMessageObject());
+        }
+    }
+
+    @Override
+    public long retrieveInitialSequence() {
+        return -1;
+    }
+
+    @Override
+    public void storeSequence(long sequence) {
+        sequences.add(sequence);
+    }
+
+    @Override
+    public boolean isLossTolerant() {
+        return false;
+    }
+
+    @Override
+    public boolean isTerminal(Throwable failure) {
+        return false;
+    }
+}